@@ -2,13 +2,36 @@ plugins {
     java
     id("com.github.johnrengelman.shadow") version "6.1.0"
     `maven-publish`
+    id("me.champeau.jmh") version "0.6.6"
 }
 
 val mavenVersion = "3.2"
 
+repositories {
+    mavenCentral()
+}
+
+dependencies {
+    testImplementation("org.junit.jupiter:junit-jupiter:5.9.2")
+}
+
+jmh {
+    jmhVersion.set("1.35")
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
+    profilers.add("gc")
+    resultFormat.set("JSON")
+    resultsFile.set(project.file("${project.buildDir}/reports/jmh/results.json"))
+}
+
 tasks {
     build.get().dependsOn(shadowJar)
 
+    test {
+        useJUnitPlatform()
+    }
+
     shadowJar {
         finalizedBy(publish)
         archiveFileName.set("memory-store.jar")
@@ -0,0 +1,58 @@
+package com.oop.memorystore.benchmark;
+
+import com.oop.memorystore.implementation.memory.MemoryStore;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Adding items to an indexed store, against filling a hash map per index
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class AddAllBenchmark {
+    @Param({"1000", "100000"})
+    private int size;
+
+    private List<Item> items;
+
+    @Setup
+    public void setUp() {
+        this.items = Item.create(this.size);
+    }
+
+    @Benchmark
+    public MemoryStore<Item> memoryStore() {
+        final MemoryStore<Item> store = new MemoryStore<>();
+        Item.index(store);
+        store.addAll(this.items);
+        return store;
+    }
+
+    @Benchmark
+    public List<Map<Object, List<Item>>> hashMap() {
+        final List<Map<Object, List<Item>>> indexes = new ArrayList<>();
+
+        for (final String field : Item.INDEXES) {
+            final Map<Object, List<Item>> index = new HashMap<>();
+            for (final Item item : this.items) {
+                index.computeIfAbsent(item.get(field), $ -> new ArrayList<>()).add(item);
+            }
+
+            indexes.add(index);
+        }
+
+        return indexes;
+    }
+}
@@ -0,0 +1,163 @@
+package com.oop.memorystore.benchmark;
+
+import com.oop.memorystore.api.Store;
+import com.oop.memorystore.implementation.memory.MemoryStore;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.infra.ThreadParams;
+
+/**
+ * Reading and writing a synchronized store from several threads, against a synchronized hash map index. The thread count
+ * of the read benchmarks is set per method, pass {@code -t} to try other counts. The mixed groups run one writer
+ * against seven readers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ContentionBenchmark {
+    private static final int SIZE = 100_000;
+    private static final int BUCKETS = 100;
+
+    private List<Item> items;
+    private Store<Item> store;
+    private Map<Object, List<Item>> ids;
+    private Map<Object, List<Item>> buckets;
+
+    @Setup
+    public void setUp() {
+        this.items = Item.create(SIZE);
+
+        final MemoryStore<Item> memoryStore = new MemoryStore<>();
+        Item.index(memoryStore);
+        memoryStore.addAll(this.items);
+        this.store = memoryStore.synchronizedStore();
+
+        this.ids = Collections.synchronizedMap(new HashMap<>(Item.group(this.items, Item.ID)));
+        this.buckets = Collections.synchronizedMap(new HashMap<>(Item.group(this.items, Item.BUCKET)));
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int position;
+
+        @Setup
+        public void setUp(final ThreadParams threadParams) {
+            this.position = threadParams.getThreadIndex() * 7919;
+        }
+
+        int next(final int bound) {
+            this.position = (this.position + 1) % bound;
+            return this.position;
+        }
+    }
+
+    private List<Item> readStore(final Cursor cursor) {
+        return this.store.get(Item.ID, cursor.next(SIZE));
+    }
+
+    private List<Item> readHashMap(final Cursor cursor) {
+        synchronized (this.ids) {
+            return new ArrayList<>(this.ids.get(cursor.next(SIZE)));
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public List<Item> synchronizedStore1(final Cursor cursor) {
+        return this.readStore(cursor);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public List<Item> synchronizedStore4(final Cursor cursor) {
+        return this.readStore(cursor);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public List<Item> synchronizedStore16(final Cursor cursor) {
+        return this.readStore(cursor);
+    }
+
+    @Benchmark
+    @Threads(32)
+    public List<Item> synchronizedStore32(final Cursor cursor) {
+        return this.readStore(cursor);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public List<Item> hashMap1(final Cursor cursor) {
+        return this.readHashMap(cursor);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public List<Item> hashMap4(final Cursor cursor) {
+        return this.readHashMap(cursor);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public List<Item> hashMap16(final Cursor cursor) {
+        return this.readHashMap(cursor);
+    }
+
+    @Benchmark
+    @Threads(32)
+    public List<Item> hashMap32(final Cursor cursor) {
+        return this.readHashMap(cursor);
+    }
+
+    @Benchmark
+    @Group("synchronizedStoreMixed")
+    @GroupThreads(7)
+    public List<Item> synchronizedStoreRead(final Cursor cursor) {
+        return this.store.get(Item.BUCKET, cursor.next(BUCKETS));
+    }
+
+    @Benchmark
+    @Group("synchronizedStoreMixed")
+    @GroupThreads(1)
+    public boolean synchronizedStoreWrite(final Cursor cursor) {
+        final Item item = this.items.get(cursor.next(SIZE));
+        this.store.remove(item);
+        return this.store.add(item);
+    }
+
+    @Benchmark
+    @Group("hashMapMixed")
+    @GroupThreads(7)
+    public List<Item> hashMapRead(final Cursor cursor) {
+        synchronized (this.buckets) {
+            return new ArrayList<>(this.buckets.get(cursor.next(BUCKETS)));
+        }
+    }
+
+    @Benchmark
+    @Group("hashMapMixed")
+    @GroupThreads(1)
+    public boolean hashMapWrite(final Cursor cursor) {
+        final Item item = this.items.get(cursor.next(SIZE));
+
+        synchronized (this.buckets) {
+            final List<Item> bucket = this.buckets.get(item.getBucket());
+            bucket.remove(item);
+            return bucket.add(item);
+        }
+    }
+}
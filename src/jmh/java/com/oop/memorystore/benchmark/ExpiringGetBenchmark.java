@@ -0,0 +1,116 @@
+package com.oop.memorystore.benchmark;
+
+import com.oop.memorystore.implementation.expiring.ExpiringMemoryStore;
+import com.oop.memorystore.implementation.expiring.ManualTicker;
+import com.oop.memorystore.implementation.expiring.policy.TimedExpiringPolicy;
+import com.oop.memorystore.implementation.expiring.policy.TimedExpiringPolicy.TimedExpirationData;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Looking up the buckets of an expiring store in which a percentage of the items expired, so the lookups invalidate
+ * them. Every invocation looks up each bucket once and results are reported per lookup, the expired items are added
+ * again before every invocation. Looking up all buckets keeps an invocation long enough for the per invocation setup
+ * not to skew the timing. Time is driven by a {@link ManualTicker} so every run expires the same items. The baseline
+ * skips expired items of a hash map index by comparing their expiration time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ExpiringGetBenchmark {
+    private static final int SIZE = 100_000;
+    private static final long SHORT_TTL = 1_000;
+    private static final long LONG_TTL = 3_600_000;
+    private static final int BUCKETS = 100;
+
+    @Param({"0", "10", "50"})
+    private int expiredPercentage;
+
+    private final ManualTicker ticker = new ManualTicker(0);
+    private ExpiringMemoryStore<Item> store;
+    private List<Item> expiring;
+
+    private Map<Object, List<Item>> buckets;
+    private long[] expirationTimes;
+
+    @Setup
+    public void setUp() {
+        final List<Item> items = Item.create(SIZE);
+
+        this.store =
+            new ExpiringMemoryStore<>(
+                this.ticker,
+                TimedExpiringPolicy.create(
+                    item -> new TimedExpirationData(TimeUnit.MILLISECONDS, this.getTtl(item), false)));
+        Item.index(this.store);
+        this.store.addAll(items);
+
+        this.expiring = new ArrayList<>();
+        this.expirationTimes = new long[SIZE];
+        for (final Item item : items) {
+            this.expirationTimes[item.getId()] = this.getTtl(item);
+            if (this.getTtl(item) == SHORT_TTL) {
+                this.expiring.add(item);
+            }
+        }
+
+        this.buckets = new HashMap<>(Item.group(items, Item.BUCKET));
+    }
+
+    private long getTtl(final Item item) {
+        return item.getId() / 100 % 100 < this.expiredPercentage ? SHORT_TTL : LONG_TTL;
+    }
+
+    @Setup(Level.Invocation)
+    public void expire() {
+        this.ticker.set(0);
+        this.store.addAll(this.expiring);
+        this.ticker.set(SHORT_TTL);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BUCKETS)
+    public int expiringMemoryStore() {
+        int found = 0;
+
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            found += this.store.get(Item.BUCKET, bucket).size();
+        }
+
+        return found;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BUCKETS)
+    public int hashMap() {
+        final long now = this.ticker.read();
+        int found = 0;
+
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            final List<Item> results = new ArrayList<>();
+
+            for (final Item item : this.buckets.get(bucket)) {
+                if (this.expirationTimes[item.getId()] > now) {
+                    results.add(item);
+                }
+            }
+
+            found += results.size();
+        }
+
+        return found;
+    }
+}
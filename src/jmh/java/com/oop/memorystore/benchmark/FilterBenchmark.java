@@ -0,0 +1,73 @@
+package com.oop.memorystore.benchmark;
+
+import com.oop.memorystore.implementation.memory.MemoryStore;
+import com.oop.memorystore.implementation.query.QueryOperator;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Chaining filters of a store query, against filtering the list of a hash map index
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FilterBenchmark {
+    private static final int SIZE = 100_000;
+
+    private MemoryStore<Item> store;
+    private Map<Object, List<Item>> regions;
+
+    @Setup
+    public void setUp() {
+        final List<Item> items = Item.create(SIZE);
+
+        this.store = new MemoryStore<>();
+        Item.index(this.store);
+        this.store.addAll(items);
+
+        this.regions = Item.group(items, Item.REGION);
+    }
+
+    @Benchmark
+    public List<Item> memoryStore() {
+        return this.store.createQuery()
+            .filter(Item.REGION, 1)
+            .filter(Item.CATEGORY, QueryOperator.ALL, 1, 5, 9)
+            .filter(Item.BUCKET, QueryOperator.ALL, 21, 41, 61, 81)
+            .collect(new ArrayList<>());
+    }
+
+    @Benchmark
+    public List<Item> memoryStoreFirst() {
+        return this.store.createQuery()
+            .filter(Item.REGION, 1)
+            .filter(Item.CATEGORY, QueryOperator.FIRST, 3, 5, 9)
+            .filter(Item.BUCKET, 53)
+            .collect(new ArrayList<>());
+    }
+
+    @Benchmark
+    public List<Item> hashMap() {
+        final List<Item> matches = new ArrayList<>();
+
+        for (final Item item : this.regions.getOrDefault(1, new ArrayList<>())) {
+            final int category = item.getCategory();
+            final int bucket = item.getBucket();
+            if ((category == 1 || category == 5 || category == 9)
+                && (bucket == 21 || bucket == 41 || bucket == 61 || bucket == 81)) {
+                matches.add(item);
+            }
+        }
+
+        return matches;
+    }
+}
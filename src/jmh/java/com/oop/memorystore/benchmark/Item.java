@@ -0,0 +1,122 @@
+package com.oop.memorystore.benchmark;
+
+import com.oop.memorystore.api.Store;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Value stored by the benchmarks. Every field but the id is shared by a fraction of the items, so lookups on them return
+ * more than one item.
+ */
+public class Item {
+    public static final String ID = "id";
+    public static final String GROUP = "group";
+    public static final String BUCKET = "bucket";
+    public static final String CATEGORY = "category";
+    public static final String REGION = "region";
+
+    /** Indexes in the order query clauses are added */
+    public static final String[] INDEXES = {ID, GROUP, BUCKET, CATEGORY, REGION};
+
+    private final int id;
+    private final int group;
+    private final int bucket;
+    private final int category;
+    private final int region;
+    private int score;
+
+    public Item(final int id, final int score) {
+        this.id = id;
+        this.group = id % 1000;
+        this.bucket = id % 100;
+        this.category = id % 10;
+        this.region = id % 4;
+        this.score = score;
+    }
+
+    /**
+     * Create items with ids from 0 to size, scores are drawn from a fixed seed so every run sees the same items
+     */
+    public static List<Item> create(final int size) {
+        final Random random = new Random(42);
+        final List<Item> items = new ArrayList<>(size);
+
+        for (int id = 0; id < size; id++) {
+            items.add(new Item(id, random.nextInt(1_000_000)));
+        }
+
+        return items;
+    }
+
+    /**
+     * Add an index per field to the store
+     */
+    public static void index(final Store<Item> store) {
+        store.index(ID, Item::getId);
+        store.index(GROUP, Item::getGroup);
+        store.index(BUCKET, Item::getBucket);
+        store.index(CATEGORY, Item::getCategory);
+        store.index(REGION, Item::getRegion);
+    }
+
+    /**
+     * Group the items by a field, the hash map equivalent of an index
+     */
+    public static Map<Object, List<Item>> group(final List<Item> items, final String field) {
+        final Map<Object, List<Item>> groups = new HashMap<>();
+
+        for (final Item item : items) {
+            groups.computeIfAbsent(item.get(field), $ -> new ArrayList<>()).add(item);
+        }
+
+        return groups;
+    }
+
+    public Object get(final String field) {
+        switch (field) {
+            case ID:
+                return this.id;
+            case GROUP:
+                return this.group;
+            case BUCKET:
+                return this.bucket;
+            case CATEGORY:
+                return this.category;
+            case REGION:
+                return this.region;
+            default:
+                throw new IllegalArgumentException("Unknown field " + field);
+        }
+    }
+
+    public int getId() {
+        return this.id;
+    }
+
+    public int getGroup() {
+        return this.group;
+    }
+
+    public int getBucket() {
+        return this.bucket;
+    }
+
+    public int getCategory() {
+        return this.category;
+    }
+
+    public int getRegion() {
+        return this.region;
+    }
+
+    public int getScore() {
+        return this.score;
+    }
+
+    public void setScore(final int score) {
+        this.score = score;
+    }
+}
@@ -0,0 +1,118 @@
+package com.oop.memorystore.benchmark;
+
+import com.oop.memorystore.implementation.memory.MemoryStore;
+import com.oop.memorystore.implementation.query.AndQuery;
+import com.oop.memorystore.implementation.query.OrQuery;
+import com.oop.memorystore.implementation.query.Query;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Looking items up with queries of one to five clauses joined by AND or OR. The clauses match the fields of a single
+ * item, from the most selective index to the least, so AND queries always find that item. The baseline intersects or
+ * unites the lists of a hash map per index.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class QueryBenchmark {
+    private static final int SIZE = 100_000;
+
+    @Param({"1", "2", "3", "4", "5"})
+    private int clauses;
+
+    @Param({"AND", "OR"})
+    private String operator;
+
+    private MemoryStore<Item> store;
+    private final Map<String, Map<Object, List<Item>>> indexes = new HashMap<>();
+    private Query query;
+    private Item target;
+
+    @Setup
+    public void setUp() {
+        final List<Item> items = Item.create(SIZE);
+
+        this.store = new MemoryStore<>();
+        Item.index(this.store);
+        this.store.addAll(items);
+
+        for (final String field : Item.INDEXES) {
+            this.indexes.put(field, Item.group(items, field));
+        }
+
+        this.target = items.get(SIZE / 2 + 7);
+        this.query = this.createQuery();
+    }
+
+    private Query createQuery() {
+        if (this.operator.equals("AND")) {
+            AndQuery query = Query.where(Item.INDEXES[0], this.target.get(Item.INDEXES[0]));
+            for (int clause = 1; clause < this.clauses; clause++) {
+                query = query.and(Item.INDEXES[clause], this.target.get(Item.INDEXES[clause]));
+            }
+
+            return query;
+        }
+
+        OrQuery query = Query.where(Item.INDEXES[0], this.target.get(Item.INDEXES[0]));
+        for (int clause = 1; clause < this.clauses; clause++) {
+            query = query.or(Item.INDEXES[clause], this.target.get(Item.INDEXES[clause]));
+        }
+
+        return query;
+    }
+
+    @Benchmark
+    public List<Item> memoryStore() {
+        return this.store.get(this.query);
+    }
+
+    @Benchmark
+    public Collection<Item> hashMap() {
+        if (this.operator.equals("AND")) {
+            List<Item> matches = this.lookup(0);
+            for (int clause = 1; clause < this.clauses && !matches.isEmpty(); clause++) {
+                final String field = Item.INDEXES[clause];
+                final Object key = this.target.get(field);
+                final List<Item> retained = new ArrayList<>();
+
+                for (final Item item : matches) {
+                    if (item.get(field).equals(key)) {
+                        retained.add(item);
+                    }
+                }
+
+                matches = retained;
+            }
+
+            return matches;
+        }
+
+        final Set<Item> matches = new LinkedHashSet<>();
+        for (int clause = 0; clause < this.clauses; clause++) {
+            matches.addAll(this.lookup(clause));
+        }
+
+        return matches;
+    }
+
+    private List<Item> lookup(final int clause) {
+        final String field = Item.INDEXES[clause];
+        return this.indexes.get(field).getOrDefault(this.target.get(field), new ArrayList<>());
+    }
+}
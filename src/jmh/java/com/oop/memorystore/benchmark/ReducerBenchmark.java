@@ -0,0 +1,67 @@
+package com.oop.memorystore.benchmark;
+
+import com.oop.memorystore.implementation.index.reducer.LimitReducer;
+import com.oop.memorystore.implementation.index.reducer.MaxReducer;
+import com.oop.memorystore.implementation.memory.MemoryStore;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Filling a store whose indexes reduce their keys to the highest score of a group and the ten newest items of a
+ * category, against keeping the same results in hash maps
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ReducerBenchmark {
+    private static final int LIMIT = 10;
+
+    @Param({"1000", "100000"})
+    private int size;
+
+    private List<Item> items;
+
+    @Setup
+    public void setUp() {
+        this.items = Item.create(this.size);
+    }
+
+    @Benchmark
+    public MemoryStore<Item> memoryStore() {
+        final MemoryStore<Item> store = new MemoryStore<>();
+        store.index(Item.GROUP, Item::getGroup, new MaxReducer<>(Item::getScore, false));
+        store.index(Item.CATEGORY, Item::getCategory, new LimitReducer<>(LIMIT, LimitReducer.Retain.NEWEST));
+        store.addAll(this.items);
+        return store;
+    }
+
+    @Benchmark
+    public Object[] hashMap() {
+        final Map<Integer, Item> best = new HashMap<>();
+        final Map<Integer, Deque<Item>> newest = new HashMap<>();
+
+        for (final Item item : this.items) {
+            best.merge(item.getGroup(), item, (current, added) -> added.getScore() > current.getScore() ? added : current);
+
+            final Deque<Item> category = newest.computeIfAbsent(item.getCategory(), $ -> new ArrayDeque<>());
+            category.addLast(item);
+            if (category.size() > LIMIT) {
+                category.removeFirst();
+            }
+        }
+
+        return new Object[] {best, newest};
+    }
+}
@@ -0,0 +1,82 @@
+package com.oop.memorystore.benchmark;
+
+import com.oop.memorystore.implementation.memory.MemoryStore;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Reindexing every item of a store after a fraction of them changed, against rebuilding a hash map per index
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ReindexBenchmark {
+    private static final String SCORE = "score";
+
+    @Param({"1000", "100000"})
+    private int size;
+
+    /** Percentage of the items whose score changes before every reindex */
+    @Param({"1", "100"})
+    private int changed;
+
+    private List<Item> items;
+    private MemoryStore<Item> store;
+    private int round;
+
+    @Setup
+    public void setUp() {
+        this.items = Item.create(this.size);
+
+        this.store = new MemoryStore<>();
+        Item.index(this.store);
+        this.store.index(SCORE, Item::getScore);
+        this.store.addAll(this.items);
+    }
+
+    @Setup(Level.Invocation)
+    public void change() {
+        this.round++;
+
+        final int step = 100 / this.changed;
+        for (int position = 0; position < this.items.size(); position += step) {
+            final Item item = this.items.get(position);
+            item.setScore(item.getScore() + this.round);
+        }
+    }
+
+    @Benchmark
+    public MemoryStore<Item> memoryStore() {
+        this.store.reindex();
+        return this.store;
+    }
+
+    @Benchmark
+    public Map<String, Map<Object, List<Item>>> hashMap() {
+        final Map<String, Map<Object, List<Item>>> indexes = new HashMap<>();
+
+        for (final String field : Item.INDEXES) {
+            indexes.put(field, Item.group(this.items, field));
+        }
+
+        final Map<Object, List<Item>> scores = new HashMap<>();
+        for (final Item item : this.items) {
+            scores.computeIfAbsent(item.getScore(), $ -> new ArrayList<>()).add(item);
+        }
+
+        indexes.put(SCORE, scores);
+        return indexes;
+    }
+}
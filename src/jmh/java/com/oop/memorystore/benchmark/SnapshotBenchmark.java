@@ -0,0 +1,98 @@
+package com.oop.memorystore.benchmark;
+
+import com.oop.memorystore.implementation.memory.MemoryStore;
+import com.oop.memorystore.implementation.snapshot.SnapshotCodec;
+import com.oop.memorystore.implementation.snapshot.StoreSnapshot;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Restoring a store of items with eight indexes from a snapshot, restoring the index layouts against running the key
+ * mappers, and against adding the items to a new store
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SnapshotBenchmark {
+    private static final SnapshotCodec<Item> CODEC = new SnapshotCodec<Item>() {
+        @Override
+        public void write(final Item value, final DataOutput out) throws IOException {
+            out.writeInt(value.getId());
+            out.writeInt(value.getScore());
+        }
+
+        @Override
+        public Item read(final DataInput in) throws IOException {
+            return new Item(in.readInt(), in.readInt());
+        }
+    };
+
+    @Param({"10000", "200000"})
+    private int size;
+
+    private List<Item> items;
+    private Path snapshot;
+
+    @Setup
+    public void setUp() throws IOException {
+        this.items = Item.create(this.size);
+
+        final MemoryStore<Item> store = create();
+        store.addAll(this.items);
+
+        this.snapshot = Files.createTempFile("store", ".snapshot");
+        StoreSnapshot.write(store, this.snapshot, CODEC);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(this.snapshot);
+    }
+
+    @Benchmark
+    public MemoryStore<Item> loadLayouts() throws IOException {
+        final MemoryStore<Item> store = create();
+        StoreSnapshot.load(store, this.snapshot, CODEC, true);
+        return store;
+    }
+
+    @Benchmark
+    public MemoryStore<Item> loadRunningKeyMappers() throws IOException {
+        final MemoryStore<Item> store = create();
+        StoreSnapshot.load(store, this.snapshot, CODEC, false);
+        return store;
+    }
+
+    @Benchmark
+    public MemoryStore<Item> addAll() {
+        final MemoryStore<Item> store = create();
+        store.addAll(this.items);
+        return store;
+    }
+
+    /**
+     * Store with an index per field of the items and three on their score
+     */
+    private static MemoryStore<Item> create() {
+        final MemoryStore<Item> store = new MemoryStore<>();
+        Item.index(store);
+        store.index("score", Item::getScore);
+        store.index("scoreBucket", (Item item) -> item.getScore() % 1000);
+        store.index("scoreRange", (Item item) -> item.getScore() / 10_000);
+        return store;
+    }
+}
@@ -0,0 +1,17 @@
+package com.oop.memorystore.api;
+
+import com.oop.memorystore.implementation.index.IndexException;
+
+/**
+ * Bulk load session of a store, see {@link Store#bulkLoad(int)}. Values added while the session is open are not
+ * indexed until it is closed.
+ */
+public interface BulkLoad extends AutoCloseable {
+    /**
+     * Index the values added since the session was opened and end the session
+     *
+     * @throws IndexException if one or more values could not be indexed
+     */
+    @Override
+    void close() throws IndexException;
+}
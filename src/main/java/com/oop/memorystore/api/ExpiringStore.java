@@ -1,6 +1,8 @@
 package com.oop.memorystore.api;
 
-import com.oop.memorystore.implementation.expiring.policy.ExpiringPolicy;
+import com.oop.memorystore.implementation.expiring.ExpirationSweeper;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Expiring store contains values that can expire after x time
@@ -17,4 +19,19 @@ public interface ExpiringStore<V> extends Store<V> {
      */
     void invalidate();
 
+    /**
+     * Invalidate expired references in a bounded batch. References left over are invalidated by the following calls.
+     *
+     * @param maxEntries maximum number of references to visit
+     * @param maxTime maximum time to spend
+     * @param unit unit of the maximum time
+     * @return number of references invalidated
+     */
+    int invalidate(int maxEntries, long maxTime, TimeUnit unit);
+
+    /**
+     * Get the background sweeper invalidating this store, if one was configured
+     */
+    Optional<ExpirationSweeper<V>> getSweeper();
+
 }
@@ -1,5 +1,6 @@
 package com.oop.memorystore.api;
 
+import com.oop.memorystore.implementation.ConcurrentReadStore;
 import com.oop.memorystore.implementation.SynchronizedStore;
 import com.oop.memorystore.implementation.UnmodifiableStore;
 import com.oop.memorystore.implementation.index.Index;
@@ -9,6 +10,8 @@ import com.oop.memorystore.implementation.index.IndexManager;
 import com.oop.memorystore.implementation.index.KeyMapper;
 import com.oop.memorystore.implementation.index.reducer.Reducer;
 import com.oop.memorystore.implementation.query.Query;
+import com.oop.memorystore.implementation.stats.StoreMetrics;
+import com.oop.memorystore.implementation.stats.StoreStats;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -146,6 +149,15 @@ public interface Store<V> extends Collection<V> {
      */
     List<V> get(final Query query, int limit);
 
+    /**
+     * Describe how a query would be executed: which index clauses are probed, in what order and how many references each of
+     * them matches. The query is planned but not executed.
+     *
+     * @param query query to explain
+     * @return plan description
+     */
+    String explain(Query query);
+
     /**
      * Query an index by name and lookup the given key. This method is the equivalent of calling {@link #getIndex(String)} and then {@link Index#get(Object)}
      *
@@ -352,6 +364,19 @@ public interface Store<V> extends Collection<V> {
         return new SynchronizedStore<>(this);
     }
 
+    /**
+     * Returns a thread-safe Store backed by this store for read heavy workloads. Lookups run concurrently, first
+     * optimistically and then under a shared read lock if a write raced with them, while writes are exclusive. As with
+     * {@link #synchronizedStore()} <strong>all</strong> access to the backing store must go through the returned store.
+     *
+     * <p>Iterating the returned store iterates a snapshot, no manual locking is required.
+     *
+     * @return concurrent store
+     */
+    default Store<V> concurrentStore() {
+        return new ConcurrentReadStore<>(this);
+    }
+
     /**
      * Lock reindexing for to save performance when adding many entries in different methods
      *
@@ -359,6 +384,33 @@ public interface Store<V> extends Collection<V> {
      */
     void lockIndexing(boolean lockIndexing);
 
+    /**
+     * Start a bulk load, see {@link #bulkLoad(int)}
+     *
+     * @return bulk load session, close it to index the added values
+     */
+    default BulkLoad bulkLoad() {
+        return this.bulkLoad(0);
+    }
+
+    /**
+     * Start a bulk load. Values added until the returned session is closed are not indexed, closing it indexes all of
+     * them at once: every index groups them by key first and every reducer runs once per key instead of once per value.
+     * Values added during the session are not found by lookups until it is closed. Stores which must keep every value
+     * indexed, like concurrent stores, only use the expected size and index values as they are added.
+     *
+     * <pre>{@code
+     * try (BulkLoad bulkLoad = store.bulkLoad(people.size())) {
+     *     store.addAll(people);
+     * }
+     * }</pre>
+     *
+     * @param expectedSize number of values expected to be added, used to size the store up front
+     * @return bulk load session, close it to index the added values
+     * @throws IllegalStateException if a bulk load is already in progress
+     */
+    BulkLoad bulkLoad(int expectedSize);
+
     /**
      * Create a query. Replacement for using {@link Store#get(String, Object, int)}
      */
@@ -371,6 +423,28 @@ public interface Store<V> extends Collection<V> {
      */
     void printDetails(V value);
 
+    /**
+     * Measure the size of this store and its indexes. Walks every index, so this is meant for monitoring and capacity
+     * planning rather than frequent calls.
+     *
+     * @return stats of this store
+     */
+    StoreStats getStats();
+
+    /**
+     * Get the listener instrumenting this store
+     *
+     * @return metrics listener, {@link StoreMetrics#NONE} by default
+     */
+    StoreMetrics getMetrics();
+
+    /**
+     * Instrument this store, replacing the previous listener
+     *
+     * @param metrics metrics listener, {@link StoreMetrics#NONE} to stop instrumenting
+     */
+    void setMetrics(StoreMetrics metrics);
+
     /**
      * Get index manager
      */
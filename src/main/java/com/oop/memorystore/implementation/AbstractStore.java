@@ -1,41 +1,47 @@
 package com.oop.memorystore.implementation;
 
+import com.oop.memorystore.api.BulkLoad;
 import com.oop.memorystore.api.Store;
 import com.oop.memorystore.implementation.index.Index;
 import com.oop.memorystore.implementation.index.IndexDefinition;
 import com.oop.memorystore.implementation.index.IndexException;
 import com.oop.memorystore.implementation.index.IndexManager;
-import com.oop.memorystore.implementation.index.ReferenceIndex;
-import com.oop.memorystore.implementation.query.IndexMatch;
-import com.oop.memorystore.implementation.query.Operator;
 import com.oop.memorystore.implementation.query.Query;
-import com.oop.memorystore.implementation.query.QueryDefinition;
+import com.oop.memorystore.implementation.query.plan.QueryPlanner;
 import com.oop.memorystore.implementation.reference.Reference;
 import com.oop.memorystore.implementation.reference.ReferenceManager;
+import com.oop.memorystore.implementation.stats.StoreMetrics;
+import com.oop.memorystore.implementation.stats.StoreMetrics.Operation;
+import com.oop.memorystore.implementation.stats.StoreStats;
 import java.util.AbstractCollection;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashSet;
 import java.util.Iterator;
-import java.util.LinkedHashSet;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.NoSuchElementException;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.Set;
 import java.util.stream.Collectors;
 
 public abstract class AbstractStore<V> extends AbstractCollection<V> implements Store<V> {
     protected final ReferenceManager<V> referenceManager;
     protected final IndexManager<V> indexManager;
+    protected final QueryPlanner<V> queryPlanner;
 
     protected boolean lockIndexing = false;
 
+    protected StoreMetrics metrics = StoreMetrics.NONE;
+
+    /** References added by the running bulk load, null when no bulk load is running */
+    private List<Reference<V>> bulkLoaded;
+
     protected AbstractStore(final ReferenceManager<V> referenceManager, final IndexManager<V> indexManager) {
         this.referenceManager = referenceManager;
         this.indexManager = indexManager;
+        this.queryPlanner = new QueryPlanner<>(indexManager, referenceManager::getReference);
     }
 
     @Override
@@ -46,32 +52,21 @@ public abstract class AbstractStore<V> extends AbstractCollection<V> implements
 
     @Override
     public List<V> get(final Query query, final int limit) {
-        final QueryDefinition definition = query.build();
-        final List<IndexMatch> indexMatches = definition.getIndexMatches();
-        final Operator operator = definition.getOperator();
-        final Set<Reference<V>> results = new LinkedHashSet<>();
-
-        boolean firstMatch = true;
-
-        for (final IndexMatch indexMatch : indexMatches) {
-            final Set<Reference<V>> references =
-                Optional.ofNullable(this.indexManager.getIndex(indexMatch.getIndexName()))
-                    .map(index -> index.getReferences(indexMatch.getKey()))
-                    .orElse(Collections.emptySet());
-
-            if (firstMatch || operator == Operator.OR) {
-                results.addAll(references);
-                firstMatch = false;
-            } else {
-                results.retainAll(references);
-            }
-        }
-
-        return results
+        final long start = this.startTimer();
+        final List<V> results = this.queryPlanner.plan(query)
+            .execute(limit)
             .stream()
             .map(Reference::get)
-            .limit(limit == -1 ? Long.MAX_VALUE : limit)
+            .filter(Objects::nonNull)
             .collect(Collectors.toList());
+
+        this.record(Operation.GET, start, results.size());
+        return results;
+    }
+
+    @Override
+    public String explain(final Query query) {
+        return this.queryPlanner.plan(query).explain();
     }
 
     @Override
@@ -84,37 +79,29 @@ public abstract class AbstractStore<V> extends AbstractCollection<V> implements
         return this.indexManager.getIndexes();
     }
 
-    public List<V> remove(final Query query, int limit) {
-        final QueryDefinition definition = query.build();
-        final List<IndexMatch> indexMatches = definition.getIndexMatches();
-
-        final List<V> result = new LinkedList<>();
-
-        for (final IndexMatch indexMatch : indexMatches) {
-            if (limit == 0) {
-                break;
+    @Override
+    public List<V> remove(final Query query, final int limit) {
+        final long start = this.startTimer();
+        this.removeReclaimed();
+
+        // Matches are collected before removing so index buckets are not modified while being iterated
+        final List<Reference<V>> references = this.queryPlanner.plan(query).execute(limit);
+        final List<V> result = new ArrayList<>(references.size());
+
+        for (final Reference<V> reference : references) {
+            final V value = reference.get();
+            if (value == null) {
+                // reclaimed meanwhile, removed by the next mutation
+                continue;
             }
 
-            final Set<Reference<V>> references =
-                Optional.ofNullable(this.indexManager.getIndex(indexMatch.getIndexName()))
-                    .map(index -> index.getReferences(indexMatch.getKey()))
-                    .orElse(new HashSet<>());
-
-            final List<V> removed =
-                references
-                    .stream()
-                    .limit(limit == -1 ? Long.MAX_VALUE : limit)
-                    .peek(this.indexManager::removeReference)
-                    .map(Reference::get)
-                    .peek(this.referenceManager::remove)
-                    .collect(Collectors.toList());
-
-            result.addAll(removed);
-            if (limit != -1) {
-                limit -= removed.size();
-            }
+            this.indexManager.removeReference(reference);
+            this.referenceManager.remove(value);
+            this.onRemove(reference);
+            result.add(value);
         }
 
+        this.record(Operation.REMOVE, start, result.size());
         return result;
     }
 
@@ -130,11 +117,16 @@ public abstract class AbstractStore<V> extends AbstractCollection<V> implements
 
     @Override
     public void reindex() {
+        final long start = this.startTimer();
+        this.removeReclaimed();
         this.indexManager.reindex(this.referenceManager.getReferences());
+        this.record(Operation.REINDEX, start, this.referenceManager.size());
     }
 
     @Override
     public void reindex(final Collection<V> items) {
+        final long start = this.startTimer();
+        this.removeReclaimed();
         final List<Reference<V>> references =
             items
                 .stream()
@@ -144,6 +136,7 @@ public abstract class AbstractStore<V> extends AbstractCollection<V> implements
                 .collect(Collectors.toList());
 
         this.indexManager.reindex(references);
+        this.record(Operation.REINDEX, start, references.size());
     }
 
     @Override
@@ -160,8 +153,47 @@ public abstract class AbstractStore<V> extends AbstractCollection<V> implements
         this.lockIndexing = lockIndexing;
     }
 
+    @Override
+    public BulkLoad bulkLoad(final int expectedSize) {
+        if (this.bulkLoaded != null) {
+            throw new IllegalStateException("A bulk load is already in progress");
+        }
+
+        final int size = this.referenceManager.size() + expectedSize;
+        this.referenceManager.ensureCapacity(size);
+        this.indexManager.ensureCapacity(size);
+
+        final List<Reference<V>> loaded = new ArrayList<>(expectedSize);
+        this.bulkLoaded = loaded;
+
+        return () -> {
+            if (this.bulkLoaded == loaded) {
+                this.bulkLoaded = null;
+                this.indexBulkLoaded(loaded);
+            }
+        };
+    }
+
+    private void indexBulkLoaded(final List<Reference<V>> loaded) {
+        // values may have been removed again during the bulk load
+        loaded.removeIf(reference -> !this.isStored(reference));
+
+        if (!this.lockIndexing) {
+            this.indexManager.indexAll(loaded);
+        }
+    }
+
+    private boolean isStored(final Reference<V> reference) {
+        if (reference.getId() >= 0 && this.referenceManager.getReference(reference.getId()) == reference) {
+            return true;
+        }
+
+        final V value = reference.get();
+        return value != null && this.referenceManager.findReference(value).orElse(null) == reference;
+    }
+
     public StoreQueryImpl<V> createQuery() {
-        return new StoreQueryImpl<>(this);
+        return new StoreQueryImpl<>(this, this.queryPlanner);
     }
 
     protected abstract Store<V> createCopy(
@@ -194,10 +226,25 @@ public abstract class AbstractStore<V> extends AbstractCollection<V> implements
 
     @Override
     public boolean remove(final Object obj) {
+        final long start = this.startTimer();
+        this.removeReclaimed();
+        final boolean removed = this.removeValue(obj);
+        this.record(Operation.REMOVE, start, removed ? 1 : 0);
+        return removed;
+    }
+
+    /**
+     * Remove a value from the store and its indexes without recording it in the metrics
+     *
+     * @param obj value to remove
+     * @return true if the value was stored
+     */
+    protected boolean removeValue(final Object obj) {
         final Reference<V> reference = this.referenceManager.remove(obj);
 
         if (reference != null) {
             this.indexManager.removeReference(reference);
+            this.onRemove(reference);
             return true;
         }
 
@@ -206,6 +253,8 @@ public abstract class AbstractStore<V> extends AbstractCollection<V> implements
 
     @Override
     public boolean addAll(final Collection<? extends V> collection) {
+        final long start = this.startTimer();
+        this.removeReclaimed();
         final List<Reference<V>> references = new ArrayList<>();
         boolean changed = false;
 
@@ -217,13 +266,22 @@ public abstract class AbstractStore<V> extends AbstractCollection<V> implements
                 continue;
             }
 
-            references.add(this.referenceManager.add(item));
+            final Reference<V> reference = this.referenceManager.add(item);
+            this.onAdd(reference);
             changed = true;
+
+            if (this.bulkLoaded != null) {
+                this.bulkLoaded.add(reference);
+            } else {
+                references.add(reference);
+            }
         }
 
         if (!this.lockIndexing) {
             this.indexManager.reindex(references);
         }
+
+        this.record(Operation.ADD, start, collection.size());
         return changed;
     }
 
@@ -233,13 +291,73 @@ public abstract class AbstractStore<V> extends AbstractCollection<V> implements
         this.indexManager.clear();
     }
 
-    protected ReferenceManager<V> getReferenceManager() {
+    /**
+     * Remove the values reclaimed by the garbage collector from the store and its indexes, see
+     * {@link com.oop.memorystore.implementation.reference.ReclaimableReferenceFactory}. Called before every mutation
+     * rather than on reads, which may run concurrently under a read lock. Lookups skip values reclaimed meanwhile.
+     */
+    protected void removeReclaimed() {
+        Reference<V> reference;
+
+        while ((reference = this.referenceManager.pollReclaimed()) != null) {
+            this.indexManager.removeReference(reference);
+            this.onRemove(reference);
+            this.metrics.onEvict();
+        }
+    }
+
+    /**
+     * Called once a new item was added, before it is indexed
+     *
+     * @param reference reference of the added item
+     */
+    protected void onAdd(final Reference<V> reference) {
+    }
+
+    /**
+     * Called once an item was removed from the store and its indexes
+     *
+     * @param reference reference of the removed item
+     */
+    protected void onRemove(final Reference<V> reference) {
+    }
+
+    /**
+     * Start timing an operation
+     *
+     * @return start time in nanoseconds, 0 if this store is not instrumented
+     */
+    protected long startTimer() {
+        return this.metrics == StoreMetrics.NONE ? 0 : System.nanoTime();
+    }
+
+    /**
+     * Report a completed operation to the metrics
+     *
+     * @param operation completed operation
+     * @param start start time returned by {@link #startTimer()}
+     * @param count number of values the operation handled
+     */
+    protected void record(final Operation operation, final long start, final int count) {
+        if (start != 0) {
+            this.metrics.onOperation(operation, System.nanoTime() - start, count);
+        }
+    }
+
+    public ReferenceManager<V> getReferenceManager() {
         return this.referenceManager;
     }
 
+    /**
+     * Iterator over the stored values, skipping references whose value was reclaimed. Finding the next value may advance
+     * past the value returned last, removing is then no longer possible.
+     */
     private class StoreIterator implements Iterator<V> {
         private final Iterator<Reference<V>> iterator;
         private Reference<V> previous;
+        private Reference<V> next;
+        // held so the value of the next reference can't be reclaimed before it is returned
+        private V nextValue;
 
         StoreIterator(final Iterator<Reference<V>> iterator) {
             this.iterator = iterator;
@@ -247,19 +365,41 @@ public abstract class AbstractStore<V> extends AbstractCollection<V> implements
 
         @Override
         public boolean hasNext() {
-            return this.iterator.hasNext();
+            while (this.nextValue == null && this.iterator.hasNext()) {
+                this.next = this.iterator.next();
+                this.nextValue = this.next.get();
+                this.previous = null;
+            }
+
+            return this.nextValue != null;
         }
 
         @Override
         public V next() {
-            this.previous = this.iterator.next();
-            return this.previous.get();
+            if (!this.hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            final V value = this.nextValue;
+            this.previous = this.next;
+            this.next = null;
+            this.nextValue = null;
+            return value;
         }
 
+        /**
+         * @throws IllegalStateException if next was not called or hasNext was called since
+         */
         @Override
         public void remove() {
+            if (this.previous == null) {
+                throw new IllegalStateException();
+            }
+
             this.iterator.remove();
             AbstractStore.this.indexManager.removeReference(this.previous);
+            AbstractStore.this.onRemove(this.previous);
+            this.previous = null;
         }
     }
 
@@ -280,6 +420,23 @@ public abstract class AbstractStore<V> extends AbstractCollection<V> implements
         }
     }
 
+    @Override
+    public StoreStats getStats() {
+        return new StoreStats(
+            this.referenceManager.size(), this.referenceManager.sizeInBytes(), this.indexManager.getIndexStats());
+    }
+
+    @Override
+    public StoreMetrics getMetrics() {
+        return this.metrics;
+    }
+
+    @Override
+    public void setMetrics(final StoreMetrics metrics) {
+        this.metrics = metrics == null ? StoreMetrics.NONE : metrics;
+        this.queryPlanner.setMetrics(this.metrics);
+    }
+
     @Override
     public IndexManager<V> getIndexManager() {
         return this.indexManager;
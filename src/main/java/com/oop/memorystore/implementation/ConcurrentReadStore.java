@@ -0,0 +1,469 @@
+package com.oop.memorystore.implementation;
+
+import com.oop.memorystore.api.BulkLoad;
+import com.oop.memorystore.api.Store;
+import com.oop.memorystore.api.StoreQuery;
+import com.oop.memorystore.implementation.index.*;
+import com.oop.memorystore.implementation.index.reducer.Reducer;
+import com.oop.memorystore.implementation.query.Query;
+import com.oop.memorystore.implementation.stats.StoreMetrics;
+import com.oop.memorystore.implementation.stats.StoreStats;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Thread-safe store backed by given store, optimised for read heavy workloads. Unlike {@link SynchronizedStore} reads do
+ * not exclude each other: lookups first run optimistically without taking any lock and only retry under a shared read
+ * lock when a write raced with them, while mutations take an exclusive write lock. No monitors are used so callers
+ * running on virtual threads are never pinned.
+ *
+ * <p>Iterators returned by this store iterate a snapshot taken under the read lock, removing through the iterator
+ * removes the item from the store.
+ *
+ * <p>Metrics of lookups which ran optimistically and had to be retried are only reported for the attempt that
+ * succeeded.
+ *
+ * @param <V> value type
+ */
+public class ConcurrentReadStore<V> implements Store<V> {
+  protected final Store<V> store;
+  protected final StoreLock lock;
+  private final boolean mutatingReads;
+  private volatile OptimisticReadMetrics metrics;
+
+  public ConcurrentReadStore(final Store<V> store) {
+    this(store, false);
+  }
+
+  /**
+   * @param store store to guard
+   * @param mutatingReads true if lookups of the backing store modify it, such lookups then take the write lock
+   */
+  protected ConcurrentReadStore(final Store<V> store, final boolean mutatingReads) {
+    this.store = store;
+    this.lock = new StoreLock();
+    this.mutatingReads = mutatingReads;
+
+    if (store.getMetrics() != StoreMetrics.NONE) {
+      this.metrics = new OptimisticReadMetrics(store.getMetrics());
+      store.setMetrics(this.metrics);
+    }
+  }
+
+  /**
+   * Run a lookup against the backing store
+   *
+   * @param action lookup
+   * @param <R> result type
+   * @return result
+   */
+  protected <R> R query(final Supplier<R> action) {
+    if (this.mutatingReads) {
+      return this.lock.write(action);
+    }
+
+    final OptimisticReadMetrics metrics = this.metrics;
+    return metrics == null ? this.lock.read(action) : metrics.read(this.lock, action);
+  }
+
+  /**
+   * Run a lookup against the backing store which must only run once
+   *
+   * @param action lookup
+   * @param <R> result type
+   * @return result
+   */
+  protected <R> R queryLocked(final Supplier<R> action) {
+    return this.mutatingReads ? this.lock.write(action) : this.lock.readLocked(action);
+  }
+
+  @Override
+  public Index<V> getIndex(final String indexName) {
+    final Index<V> index = this.lock.read(() -> this.store.getIndex(indexName));
+    return index == null ? null : ConcurrentReadIndex.of(index, this.lock);
+  }
+
+  @Override
+  public Collection<Index<V>> getIndexes() {
+    return this.lock.read(() -> new ArrayList<>(this.store.getIndexes())).stream()
+        .map(index -> ConcurrentReadIndex.of(index, this.lock))
+        .collect(Collectors.toList());
+  }
+
+  @Override
+  public List<V> remove(final Query query, final int limit) {
+    return this.lock.write(() -> this.store.remove(query, limit));
+  }
+
+  @Override
+  public void removeAllIndexes() {
+    this.lock.write(this.store::removeAllIndexes);
+  }
+
+  @Override
+  public Optional<Index<V>> findIndex(final String indexName) {
+    return Optional.ofNullable(this.getIndex(indexName));
+  }
+
+  @Override
+  public boolean removeIndex(final Index<V> index) {
+    final Index<V> unwrapped =
+        index instanceof ConcurrentReadIndex ? ((ConcurrentReadIndex<V>) index).getIndex() : index;
+
+    return this.lock.write(() -> this.store.removeIndex(unwrapped));
+  }
+
+  @Override
+  public boolean removeIndex(final String indexName) {
+    return this.lock.write(() -> this.store.removeIndex(indexName));
+  }
+
+  @Override
+  public <K> Index<V> index(final String indexName, final IndexDefinition<K, V> indexDefinition)
+      throws IndexException {
+    return ConcurrentReadIndex.of(
+        this.lock.write(() -> this.store.index(indexName, indexDefinition)), this.lock);
+  }
+
+  @Override
+  public <K> Index<V> index(final IndexDefinition<K, V> indexDefinition) throws IndexException {
+    return ConcurrentReadIndex.of(this.lock.write(() -> this.store.index(indexDefinition)), this.lock);
+  }
+
+  @Override
+  public <K> Index<V> index(final String indexName, final KeyMapper<K, V> keyMapper)
+      throws IndexException {
+    return ConcurrentReadIndex.of(
+        this.lock.write(() -> this.store.index(indexName, keyMapper)), this.lock);
+  }
+
+  @Override
+  public <K> Index<V> index(final KeyMapper<K, V> keyMapper) throws IndexException {
+    return ConcurrentReadIndex.of(this.lock.write(() -> this.store.index(keyMapper)), this.lock);
+  }
+
+  @Override
+  public <K> Index<V> index(
+      final String indexName, final KeyMapper<K, V> keyMapper, final Reducer<K, V> reducer)
+      throws IndexException {
+    return ConcurrentReadIndex.of(
+        this.lock.write(() -> this.store.index(indexName, keyMapper, reducer)), this.lock);
+  }
+
+  @Override
+  public <K> Index<V> index(final KeyMapper<K, V> keyMapper, final Reducer<K, V> reducer)
+      throws IndexException {
+    return ConcurrentReadIndex.of(
+        this.lock.write(() -> this.store.index(keyMapper, reducer)), this.lock);
+  }
+
+  @Override
+  public List<V> get(final String indexName, final Object key, final int limit) {
+    return this.query(() -> this.store.get(indexName, key, limit));
+  }
+
+  @Override
+  public List<V> get(final String indexName, final Object key) {
+    return this.query(() -> this.store.get(indexName, key));
+  }
+
+  @Override
+  public V getFirst(final String indexName, final Object key) {
+    return this.query(() -> this.store.getFirst(indexName, key));
+  }
+
+  @Override
+  public Optional<V> findFirst(final String indexName, final Object key) {
+    return this.query(() -> this.store.findFirst(indexName, key));
+  }
+
+  @Override
+  public List<V> get(final Query query, final int limit) {
+    return this.query(() -> this.store.get(query, limit));
+  }
+
+  @Override
+  public String explain(final Query query) {
+    return this.lock.read(() -> this.store.explain(query));
+  }
+
+  @Override
+  public List<V> get(final Query query) {
+    return this.query(() -> this.store.get(query));
+  }
+
+  @Override
+  public V getFirst(final Query query) {
+    return this.query(() -> this.store.getFirst(query));
+  }
+
+  @Override
+  public Optional<V> findFirst(final Query query) {
+    return this.query(() -> this.store.findFirst(query));
+  }
+
+  @Override
+  public void reindex() {
+    this.lock.write(() -> this.store.reindex());
+  }
+
+  @Override
+  public void reindex(final Collection<V> items) {
+    this.lock.write(() -> this.store.reindex(items));
+  }
+
+  @Override
+  public void reindex(final V item) {
+    this.lock.write(() -> this.store.reindex(item));
+  }
+
+  @Override
+  public Store<V> copy() {
+    return this.lock.readLocked(this.store::copy);
+  }
+
+  @Override
+  public int size() {
+    return this.lock.read(this.store::size);
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return this.lock.read(this.store::isEmpty);
+  }
+
+  @Override
+  public boolean contains(final Object obj) {
+    return this.lock.read(() -> this.store.contains(obj));
+  }
+
+  @Override
+  public Iterator<V> iterator() {
+    final Iterator<V> snapshot = this.lock.readLocked(() -> new ArrayList<>(this.store)).iterator();
+
+    return new Iterator<V>() {
+      private V current;
+
+      @Override
+      public boolean hasNext() {
+        return snapshot.hasNext();
+      }
+
+      @Override
+      public V next() {
+        this.current = snapshot.next();
+        return this.current;
+      }
+
+      @Override
+      public void remove() {
+        if (this.current == null) {
+          throw new IllegalStateException();
+        }
+
+        ConcurrentReadStore.this.remove(this.current);
+        this.current = null;
+      }
+    };
+  }
+
+  @Override
+  public Object[] toArray() {
+    return this.lock.readLocked(this.store::toArray);
+  }
+
+  @Override
+  public <T1> T1[] toArray(final T1[] array) {
+    return this.lock.readLocked(() -> this.store.toArray(array));
+  }
+
+  @Override
+  public boolean add(final V item) {
+    return this.lock.write(() -> this.store.add(item));
+  }
+
+  @Override
+  public boolean remove(final Object obj) {
+    return this.lock.write(() -> this.store.remove(obj));
+  }
+
+  @Override
+  public boolean containsAll(final Collection<?> collection) {
+    return this.lock.readLocked(() -> this.store.containsAll(collection));
+  }
+
+  @Override
+  public boolean addAll(final Collection<? extends V> collection) {
+    return this.lock.write(() -> this.store.addAll(collection));
+  }
+
+  @Override
+  public boolean addAll(final V[] items) throws IndexException {
+    return this.lock.write(() -> this.store.addAll(items));
+  }
+
+  @Override
+  public boolean removeAll(final Collection<?> collection) {
+    return this.lock.write(() -> this.store.removeAll(collection));
+  }
+
+  @Override
+  public boolean removeIf(final Predicate<? super V> filter) {
+    return this.lock.write(() -> this.store.removeIf(filter));
+  }
+
+  @Override
+  public boolean retainAll(final Collection<?> collection) {
+    return this.lock.write(() -> this.store.retainAll(collection));
+  }
+
+  @Override
+  public void clear() {
+    this.lock.write(this.store::clear);
+  }
+
+  public Store<V> getStore() {
+    return this.store;
+  }
+
+  @Override
+  public Store<V> concurrentStore() {
+    return this;
+  }
+
+  @Override
+  public void lockIndexing(final boolean lockIndexing) {
+    this.lock.write(() -> this.store.lockIndexing(lockIndexing));
+  }
+
+  @Override
+  public BulkLoad bulkLoad(final int expectedSize) {
+    final BulkLoad bulkLoad = this.lock.write(() -> this.store.bulkLoad(expectedSize));
+    return () -> this.lock.write(bulkLoad::close);
+  }
+
+  @Override
+  public StoreQuery<V> createQuery() {
+    return new ConcurrentReadStoreQuery<>(this, this.queryLocked(this.store::createQuery));
+  }
+
+  @Override
+  public void printDetails(final V value) {
+    this.lock.readLocked(
+        () -> {
+          this.store.printDetails(value);
+          return null;
+        });
+  }
+
+  @Override
+  public StoreStats getStats() {
+    return this.lock.readLocked(this.store::getStats);
+  }
+
+  @Override
+  public StoreMetrics getMetrics() {
+    final OptimisticReadMetrics metrics = this.metrics;
+    return metrics == null ? StoreMetrics.NONE : metrics.metrics;
+  }
+
+  @Override
+  public void setMetrics(final StoreMetrics metrics) {
+    this.lock.write(
+        () -> {
+          this.metrics =
+              metrics == null || metrics == StoreMetrics.NONE ? null : new OptimisticReadMetrics(metrics);
+          this.store.setMetrics(this.metrics == null ? StoreMetrics.NONE : this.metrics);
+        });
+  }
+
+  @Override
+  public IndexManager<V> getIndexManager() {
+    return this.store.getIndexManager();
+  }
+
+  @Override
+  public String toString() {
+    return this.lock.readLocked(this.store::toString);
+  }
+
+  /**
+   * Metrics of the backing store. Events raised by the thread running a lookup are held back until the lookup
+   * returned, events of an optimistic attempt that had to be retried are dropped.
+   */
+  private static final class OptimisticReadMetrics implements StoreMetrics {
+    private final StoreMetrics metrics;
+    private final ThreadLocal<List<Consumer<StoreMetrics>>> pending = new ThreadLocal<>();
+
+    private OptimisticReadMetrics(final StoreMetrics metrics) {
+      this.metrics = metrics;
+    }
+
+    private <R> R read(final StoreLock lock, final Supplier<R> action) {
+      if (this.pending.get() != null) {
+        // nested lookup, its events belong to the outer one
+        return lock.read(action);
+      }
+
+      final List<Consumer<StoreMetrics>> events = new ArrayList<>();
+      final R result;
+
+      this.pending.set(events);
+      try {
+        result =
+            lock.read(
+                () -> {
+                  events.clear();
+                  return action.get();
+                });
+      } finally {
+        this.pending.remove();
+      }
+
+      events.forEach(event -> event.accept(this.metrics));
+      return result;
+    }
+
+    private void record(final Consumer<StoreMetrics> event) {
+      final List<Consumer<StoreMetrics>> events = this.pending.get();
+      if (events == null) {
+        event.accept(this.metrics);
+      } else {
+        events.add(event);
+      }
+    }
+
+    @Override
+    public void onOperation(final Operation operation, final long nanos, final int count) {
+      this.record(metrics -> metrics.onOperation(operation, nanos, count));
+    }
+
+    @Override
+    public void onIndexLookup(final String indexName, final boolean hit) {
+      this.record(metrics -> metrics.onIndexLookup(indexName, hit));
+    }
+
+    @Override
+    public void onExpire(final String policyName) {
+      this.record(metrics -> metrics.onExpire(policyName));
+    }
+
+    @Override
+    public void onEvict() {
+      this.record(StoreMetrics::onEvict);
+    }
+
+    @Override
+    public void onLockWait(final long nanos) {
+      this.record(metrics -> metrics.onLockWait(nanos));
+    }
+  }
+}
@@ -0,0 +1,67 @@
+package com.oop.memorystore.implementation;
+
+import com.oop.memorystore.api.StoreQuery;
+import com.oop.memorystore.implementation.query.QueryOperator;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Query of a {@link ConcurrentReadStore}. Filters and terminal operations of the backing store query run under the lock
+ * of the store, results are collected before the lock is released so streams never observe concurrent writes.
+ *
+ * @param <V> value type
+ */
+public class ConcurrentReadStoreQuery<V> extends StoreQueryImpl<V> {
+    private final ConcurrentReadStore<V> concurrentStore;
+    private final StoreQuery<V> query;
+
+    public ConcurrentReadStoreQuery(final ConcurrentReadStore<V> store, final StoreQuery<V> query) {
+        super(store);
+        this.concurrentStore = store;
+        this.query = query;
+    }
+
+    @Override
+    public StoreQueryImpl<V> filter(final String indexName, final Object equals) {
+        this.concurrentStore.queryLocked(() -> this.query.filter(indexName, equals));
+        return this;
+    }
+
+    @Override
+    public StoreQueryImpl<V> filter(final String indexName, final QueryOperator operator, final Object... equals) {
+        this.concurrentStore.queryLocked(() -> this.query.filter(indexName, operator, equals));
+        return this;
+    }
+
+    @Override
+    public Stream<V> asStream() {
+        return this.results().stream();
+    }
+
+    @Override
+    public <T extends Collection<V>> T collect(final T collection) {
+        collection.addAll(this.results());
+        return collection;
+    }
+
+    @Override
+    public Optional<V> first() {
+        return this.concurrentStore.queryLocked(this.query::first);
+    }
+
+    @Override
+    public String explain() {
+        if (!(this.query instanceof StoreQueryImpl)) {
+            return super.explain();
+        }
+
+        return this.concurrentStore.queryLocked(((StoreQueryImpl<V>) this.query)::explain);
+    }
+
+    private List<V> results() {
+        return this.concurrentStore.queryLocked(() -> this.query.collect(new ArrayList<>()));
+    }
+}
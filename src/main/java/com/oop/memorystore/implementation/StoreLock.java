@@ -0,0 +1,95 @@
+package com.oop.memorystore.implementation;
+
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Supplier;
+
+/**
+ * Read/write lock guarding a store. Reads are first attempted optimistically without acquiring the lock and only retried
+ * under the shared read lock if a write happened while reading, writes are exclusive. No monitors are used, so threads
+ * blocked on the lock (including virtual threads) are never pinned.
+ */
+public final class StoreLock {
+    private final StampedLock lock = new StampedLock();
+
+    /**
+     * Run a read. The action may run twice, once optimistically and once under the read lock, so it must not have side
+     * effects and must copy anything it returns out of the store. Anything thrown by the optimistic attempt is only
+     * rethrown if no write happened meanwhile.
+     *
+     * @param action read to run
+     * @param <R>    result type
+     * @return result
+     */
+    public <R> R read(final Supplier<R> action) {
+        final long stamp = this.lock.tryOptimisticRead();
+
+        if (stamp != 0L) {
+            try {
+                final R result = action.get();
+                if (this.lock.validate(stamp)) {
+                    return result;
+                }
+            } catch (final Throwable e) {
+                // a write raced with the read and left the store inconsistent, which may surface as any throwable such as
+                // an ArrayIndexOutOfBoundsException or a StackOverflowError, retry under the read lock
+                if (this.lock.validate(stamp)) {
+                    throw e;
+                }
+            }
+        }
+
+        final long readStamp = this.lock.readLock();
+        try {
+            return action.get();
+        } finally {
+            this.lock.unlockRead(readStamp);
+        }
+    }
+
+    /**
+     * Run a read under the shared read lock, without an optimistic attempt. Used for reads which are too expensive to
+     * risk running twice.
+     *
+     * @param action read to run
+     * @param <R>    result type
+     * @return result
+     */
+    public <R> R readLocked(final Supplier<R> action) {
+        final long stamp = this.lock.readLock();
+        try {
+            return action.get();
+        } finally {
+            this.lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Run a write under the exclusive write lock
+     *
+     * @param action write to run
+     * @param <R>    result type
+     * @return result
+     */
+    public <R> R write(final Supplier<R> action) {
+        final long stamp = this.lock.writeLock();
+        try {
+            return action.get();
+        } finally {
+            this.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Run a write under the exclusive write lock
+     *
+     * @param action write to run
+     */
+    public void write(final Runnable action) {
+        final long stamp = this.lock.writeLock();
+        try {
+            action.run();
+        } finally {
+            this.lock.unlockWrite(stamp);
+        }
+    }
+}
@@ -3,21 +3,43 @@ package com.oop.memorystore.implementation;
 import com.oop.memorystore.api.Store;
 import com.oop.memorystore.api.StoreQuery;
 import com.oop.memorystore.implementation.index.ReferenceIndex;
+import com.oop.memorystore.implementation.query.Operator;
 import com.oop.memorystore.implementation.query.QueryOperator;
+import com.oop.memorystore.implementation.query.plan.IndexLookupStep;
+import com.oop.memorystore.implementation.query.plan.PlanStep;
+import com.oop.memorystore.implementation.query.plan.QueryPlan;
+import com.oop.memorystore.implementation.query.plan.QueryPlanner;
+import com.oop.memorystore.implementation.query.plan.UnionStep;
 import com.oop.memorystore.implementation.reference.Reference;
+import com.oop.memorystore.implementation.stats.StoreMetrics;
+import com.oop.memorystore.implementation.stats.StoreMetrics.Operation;
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.LinkedHashSet;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Optional;
-import java.util.Set;
-import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+/**
+ * Lazily evaluated query. Filters only resolve the index buckets they match, references are pulled from the buckets when a
+ * terminal operation ({@link #asStream()}, {@link #collect(Collection)} or {@link #first()}) consumes them. Matching values
+ * are copied before they are handed to the caller, so the store may be modified while a result stream is consumed.
+ *
+ * @param <V> value type
+ */
 public class StoreQueryImpl<V> implements StoreQuery<V> {
     protected final Store<V> store;
-    protected final Set<Reference<V>> collection = new LinkedHashSet<>();
+    protected final QueryPlanner<V> queryPlanner;
+    protected final List<PlanStep<V>> steps = new ArrayList<>();
 
     public StoreQueryImpl(final Store<V> store) {
+        this(store, new QueryPlanner<>(store.getIndexManager()));
+    }
+
+    public StoreQueryImpl(final Store<V> store, final QueryPlanner<V> queryPlanner) {
         this.store = store;
+        this.queryPlanner = queryPlanner;
     }
 
     @Override
@@ -32,49 +54,124 @@ public class StoreQueryImpl<V> implements StoreQuery<V> {
             throw new IllegalStateException(String.format("Invalid index by name: %s", indexName));
         }
 
-        final Set<Reference<V>> fetched = new LinkedHashSet<>();
+        final StoreMetrics metrics = this.store.getMetrics();
+        final long start = metrics == StoreMetrics.NONE ? 0 : System.nanoTime();
+
+        final List<PlanStep<V>> matched = new ArrayList<>();
         for (final Object equal : equals) {
-            final Set<Reference<V>> values = this.getValuesOfIndex(index, equal);
-            if (values.isEmpty()) {
+            final PlanStep<V> step = new IndexLookupStep<>(indexName, index, equal);
+            final boolean hit = this.hasMatches(step);
+            metrics.onIndexLookup(indexName, hit);
+            if (!hit) {
                 continue;
             }
 
-            fetched.addAll(values);
+            matched.add(step);
             if (operator == QueryOperator.FIRST) {
                 break;
             }
         }
 
-        if (!this.collection.isEmpty()) {
-            this.collection.retainAll(fetched);
-        } else {
-            this.collection.addAll(fetched);
+        this.steps.add(matched.size() == 1 ? matched.get(0) : new UnionStep<>(matched));
+
+        if (start != 0) {
+            metrics.onOperation(Operation.FILTER, System.nanoTime() - start, equals.length);
         }
+
         return this;
     }
 
     @Override
     public Stream<V> asStream() {
-        return this.collection
-            .stream()
-            .map(Reference::get);
+        return this.values().stream();
     }
 
     @Override
     public <T extends Collection<V>> T collect(final T collection) {
-        return this.asStream().collect(Collectors.toCollection(() -> collection));
+        collection.addAll(this.values());
+        return collection;
     }
 
     @Override
     public Optional<V> first() {
-        return this.collection
-            .stream()
-            .findFirst()
-            .map(Reference::get);
+        final Iterator<Reference<V>> references = this.references();
+        Optional<V> first = Optional.empty();
+
+        // skip references whose value was reclaimed
+        while (references.hasNext() && !first.isPresent()) {
+            first = Optional.ofNullable(references.next().get());
+        }
+
+        this.complete(references);
+        return first;
+    }
 
+    /**
+     * Describe how this query will be executed
+     *
+     * @return plan description
+     */
+    public String explain() {
+        return this.plan().explain();
     }
 
-    protected LinkedHashSet<Reference<V>> getValuesOfIndex(final ReferenceIndex<?, V> index, final Object key) {
-        return new LinkedHashSet<>(index.getReferences(key));
+    protected QueryPlan<V> plan() {
+        return this.queryPlanner.plan(Operator.AND, this.steps);
+    }
+
+    /**
+     * Iterator over the references matching every filter. Nothing is copied, references are resolved as they are consumed.
+     *
+     * @return references iterator
+     */
+    protected Iterator<Reference<V>> references() {
+        if (this.steps.isEmpty()) {
+            return Collections.emptyIterator();
+        }
+
+        return this.plan().iterator();
+    }
+
+    /**
+     * Values matching every filter. The buckets are only iterated here, never while caller code runs, since removing a value
+     * from the store shifts the bucket being iterated.
+     *
+     * @return matching values
+     */
+    protected List<V> values() {
+        final Iterator<Reference<V>> references = this.references();
+        final List<V> values = new ArrayList<>();
+
+        try {
+            while (references.hasNext()) {
+                final V value = references.next().get();
+
+                // skip references whose value was reclaimed
+                if (value != null) {
+                    values.add(value);
+                }
+            }
+        } finally {
+            this.complete(references);
+        }
+
+        return values;
+    }
+
+    /**
+     * Called once a terminal operation stopped consuming the iterator returned by {@link #references()}
+     *
+     * @param references consumed iterator
+     */
+    protected void complete(final Iterator<Reference<V>> references) {}
+
+    /**
+     * Check if a step matches anything, used to pick the first key for {@link QueryOperator#FIRST}
+     *
+     * @param step step to check
+     * @return true if step matches any reference
+     */
+    protected boolean hasMatches(final PlanStep<V> step) {
+        return step.estimatedSize(1) > 0;
     }
 }
@@ -1,10 +1,13 @@
 package com.oop.memorystore.implementation;
 
+import com.oop.memorystore.api.BulkLoad;
 import com.oop.memorystore.api.Store;
 import com.oop.memorystore.api.StoreQuery;
 import com.oop.memorystore.implementation.index.*;
 import com.oop.memorystore.implementation.index.reducer.Reducer;
 import com.oop.memorystore.implementation.query.Query;
+import com.oop.memorystore.implementation.stats.StoreMetrics;
+import com.oop.memorystore.implementation.stats.StoreStats;
 
 import java.util.Collection;
 import java.util.Iterator;
@@ -33,7 +36,7 @@ public class SynchronizedStore<V> implements Store<V> {
 
     synchronized (this.mutex) {
       final Index<V> found = this.store.getIndex(indexName);
-      index = found == null ? null : new SynchronizedIndex<>(found, this.mutex);
+      index = found == null ? null : SynchronizedIndex.of(found, this.mutex);
     }
 
     return index;
@@ -46,7 +49,7 @@ public class SynchronizedStore<V> implements Store<V> {
     synchronized (this.mutex) {
       indexes =
           this.store.getIndexes().stream()
-              .map(index -> new SynchronizedIndex<>(index, this.mutex))
+              .map(index -> SynchronizedIndex.of(index, this.mutex))
               .collect(Collectors.toList());
     }
 
@@ -55,7 +58,9 @@ public class SynchronizedStore<V> implements Store<V> {
 
   @Override
   public List<V> remove(final Query query, final int limit) {
+    final long requested = this.lockRequested();
     synchronized (this.mutex) {
+      this.lockAcquired(requested);
       return this.store.remove(query, limit);
     }
   }
@@ -73,7 +78,7 @@ public class SynchronizedStore<V> implements Store<V> {
 
     synchronized (this.mutex) {
       optionalIndex =
-          this.store.findIndex(indexName).map(index -> new SynchronizedIndex<>(index, this.mutex));
+          this.store.findIndex(indexName).map(index -> SynchronizedIndex.of(index, this.mutex));
     }
 
     return optionalIndex;
@@ -179,8 +184,10 @@ public class SynchronizedStore<V> implements Store<V> {
   @Override
   public List<V> get(final String indexName, final Object key, final int limit) {
     final List<V> results;
+    final long requested = this.lockRequested();
 
     synchronized (this.mutex) {
+      this.lockAcquired(requested);
       results = this.store.get(indexName, key, limit);
     }
 
@@ -190,8 +197,10 @@ public class SynchronizedStore<V> implements Store<V> {
   @Override
   public List<V> get(final String indexName, final Object key) {
     final List<V> results;
+    final long requested = this.lockRequested();
 
     synchronized (this.mutex) {
+      this.lockAcquired(requested);
       results = this.store.get(indexName, key);
     }
 
@@ -201,8 +210,10 @@ public class SynchronizedStore<V> implements Store<V> {
   @Override
   public V getFirst(final String indexName, final Object key) {
     final V result;
+    final long requested = this.lockRequested();
 
     synchronized (this.mutex) {
+      this.lockAcquired(requested);
       result = this.store.getFirst(indexName, key);
     }
 
@@ -212,8 +223,10 @@ public class SynchronizedStore<V> implements Store<V> {
   @Override
   public Optional<V> findFirst(final String indexName, final Object key) {
     final Optional<V> result;
+    final long requested = this.lockRequested();
 
     synchronized (this.mutex) {
+      this.lockAcquired(requested);
       result = this.store.findFirst(indexName, key);
     }
 
@@ -223,19 +236,34 @@ public class SynchronizedStore<V> implements Store<V> {
   @Override
   public List<V> get(final Query query, final int limit) {
     final List<V> results;
+    final long requested = this.lockRequested();
 
     synchronized (this.mutex) {
+      this.lockAcquired(requested);
       results = this.store.get(query, limit);
     }
 
     return results;
   }
 
+  @Override
+  public String explain(final Query query) {
+    final String plan;
+
+    synchronized (this.mutex) {
+      plan = this.store.explain(query);
+    }
+
+    return plan;
+  }
+
   @Override
   public List<V> get(final Query query) {
     final List<V> results;
+    final long requested = this.lockRequested();
 
     synchronized (this.mutex) {
+      this.lockAcquired(requested);
       results = this.store.get(query);
     }
 
@@ -245,8 +273,10 @@ public class SynchronizedStore<V> implements Store<V> {
   @Override
   public V getFirst(final Query query) {
     final V result;
+    final long requested = this.lockRequested();
 
     synchronized (this.mutex) {
+      this.lockAcquired(requested);
       result = this.store.getFirst(query);
     }
 
@@ -256,8 +286,10 @@ public class SynchronizedStore<V> implements Store<V> {
   @Override
   public Optional<V> findFirst(final Query query) {
     final Optional<V> result;
+    final long requested = this.lockRequested();
 
     synchronized (this.mutex) {
+      this.lockAcquired(requested);
       result = this.store.findFirst(query);
     }
 
@@ -266,21 +298,27 @@ public class SynchronizedStore<V> implements Store<V> {
 
   @Override
   public void reindex() {
+    final long requested = this.lockRequested();
     synchronized (this.mutex) {
+        this.lockAcquired(requested);
         this.store.reindex();
     }
   }
 
   @Override
   public void reindex(final Collection<V> items) {
+    final long requested = this.lockRequested();
     synchronized (this.mutex) {
+        this.lockAcquired(requested);
         this.store.reindex(items);
     }
   }
 
   @Override
   public void reindex(final V item) {
+    final long requested = this.lockRequested();
     synchronized (this.mutex) {
+        this.lockAcquired(requested);
         this.store.reindex(item);
     }
   }
@@ -359,8 +397,10 @@ public class SynchronizedStore<V> implements Store<V> {
   @Override
   public boolean add(final V item) {
     final boolean result;
+    final long requested = this.lockRequested();
 
     synchronized (this.mutex) {
+      this.lockAcquired(requested);
       result = this.store.add(item);
     }
 
@@ -370,8 +410,10 @@ public class SynchronizedStore<V> implements Store<V> {
   @Override
   public boolean remove(final Object obj) {
     final boolean result;
+    final long requested = this.lockRequested();
 
     synchronized (this.mutex) {
+      this.lockAcquired(requested);
       result = this.store.remove(obj);
     }
 
@@ -392,8 +434,10 @@ public class SynchronizedStore<V> implements Store<V> {
   @Override
   public boolean addAll(final Collection<? extends V> collection) {
     final boolean result;
+    final long requested = this.lockRequested();
 
     synchronized (this.mutex) {
+      this.lockAcquired(requested);
       result = this.store.addAll(collection);
     }
 
@@ -403,8 +447,10 @@ public class SynchronizedStore<V> implements Store<V> {
   @Override
   public boolean addAll(final V[] items) throws IndexException {
     final boolean result;
+    final long requested = this.lockRequested();
 
     synchronized (this.mutex) {
+      this.lockAcquired(requested);
       result = this.store.addAll(items);
     }
 
@@ -414,8 +460,10 @@ public class SynchronizedStore<V> implements Store<V> {
   @Override
   public boolean removeAll(final Collection<?> collection) {
     final boolean result;
+    final long requested = this.lockRequested();
 
     synchronized (this.mutex) {
+      this.lockAcquired(requested);
       result = this.store.removeAll(collection);
     }
 
@@ -425,8 +473,10 @@ public class SynchronizedStore<V> implements Store<V> {
   @Override
   public boolean removeIf(final Predicate<? super V> filter) {
     final boolean result;
+    final long requested = this.lockRequested();
 
     synchronized (this.mutex) {
+      this.lockAcquired(requested);
       result = this.store.removeIf(filter);
     }
 
@@ -436,8 +486,10 @@ public class SynchronizedStore<V> implements Store<V> {
   @Override
   public boolean retainAll(final Collection<?> collection) {
     final boolean result;
+    final long requested = this.lockRequested();
 
     synchronized (this.mutex) {
+      this.lockAcquired(requested);
       result = this.store.retainAll(collection);
     }
 
@@ -467,9 +519,29 @@ public class SynchronizedStore<V> implements Store<V> {
     }
   }
 
+  @Override
+  public BulkLoad bulkLoad(final int expectedSize) {
+    final BulkLoad bulkLoad;
+    synchronized (this.mutex) {
+      bulkLoad = this.store.bulkLoad(expectedSize);
+    }
+
+    return () -> {
+      synchronized (this.mutex) {
+        bulkLoad.close();
+      }
+    };
+  }
+
   @Override
   public StoreQuery<V> createQuery() {
-    return new StoreQueryImpl<>(this);
+    final StoreQuery<V> query;
+
+    synchronized (this.mutex) {
+      query = this.store.createQuery();
+    }
+
+    return new SynchronizedStoreQuery<>(this, this.mutex, query);
   }
 
   @Override
@@ -479,6 +551,45 @@ public class SynchronizedStore<V> implements Store<V> {
     }
   }
 
+  @Override
+  public StoreStats getStats() {
+    synchronized (this.mutex) {
+      return this.store.getStats();
+    }
+  }
+
+  @Override
+  public StoreMetrics getMetrics() {
+    return this.store.getMetrics();
+  }
+
+  @Override
+  public void setMetrics(final StoreMetrics metrics) {
+    synchronized (this.mutex) {
+      this.store.setMetrics(metrics);
+    }
+  }
+
+  /**
+   * Read the time before waiting for the mutex
+   *
+   * @return time in nanoseconds, 0 if the store is not instrumented
+   */
+  protected long lockRequested() {
+    return this.store.getMetrics() == StoreMetrics.NONE ? 0 : System.nanoTime();
+  }
+
+  /**
+   * Report the time waited for the mutex, called first thing once it is acquired
+   *
+   * @param requested time returned by {@link #lockRequested()}
+   */
+  protected void lockAcquired(final long requested) {
+    if (requested != 0) {
+      this.store.getMetrics().onLockWait(System.nanoTime() - requested);
+    }
+  }
+
   @Override
   public IndexManager<V> getIndexManager() {
     return this.store.getIndexManager();
@@ -0,0 +1,79 @@
+package com.oop.memorystore.implementation;
+
+import com.oop.memorystore.api.StoreQuery;
+import com.oop.memorystore.implementation.query.QueryOperator;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Query of a {@link SynchronizedStore}. Filters and terminal operations of the backing store query run while holding the
+ * mutex of the store, results are collected before the mutex is released.
+ *
+ * @param <V> value type
+ */
+public class SynchronizedStoreQuery<V> extends StoreQueryImpl<V> {
+    private final Object mutex;
+    private final StoreQuery<V> query;
+
+    public SynchronizedStoreQuery(final SynchronizedStore<V> store, final Object mutex, final StoreQuery<V> query) {
+        super(store);
+        this.mutex = mutex;
+        this.query = query;
+    }
+
+    @Override
+    public StoreQueryImpl<V> filter(final String indexName, final Object equals) {
+        synchronized (this.mutex) {
+            this.query.filter(indexName, equals);
+        }
+
+        return this;
+    }
+
+    @Override
+    public StoreQueryImpl<V> filter(final String indexName, final QueryOperator operator, final Object... equals) {
+        synchronized (this.mutex) {
+            this.query.filter(indexName, operator, equals);
+        }
+
+        return this;
+    }
+
+    @Override
+    public Stream<V> asStream() {
+        return this.results().stream();
+    }
+
+    @Override
+    public <T extends Collection<V>> T collect(final T collection) {
+        collection.addAll(this.results());
+        return collection;
+    }
+
+    @Override
+    public Optional<V> first() {
+        synchronized (this.mutex) {
+            return this.query.first();
+        }
+    }
+
+    @Override
+    public String explain() {
+        if (!(this.query instanceof StoreQueryImpl)) {
+            return super.explain();
+        }
+
+        synchronized (this.mutex) {
+            return ((StoreQueryImpl<V>) this.query).explain();
+        }
+    }
+
+    private List<V> results() {
+        synchronized (this.mutex) {
+            return this.query.collect(new ArrayList<>());
+        }
+    }
+}
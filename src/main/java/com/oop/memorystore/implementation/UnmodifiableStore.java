@@ -1,5 +1,6 @@
 package com.oop.memorystore.implementation;
 
+import com.oop.memorystore.api.BulkLoad;
 import com.oop.memorystore.api.Store;
 import com.oop.memorystore.api.StoreQuery;
 import com.oop.memorystore.implementation.expiring.ExpiringStoreQuery;
@@ -10,6 +11,8 @@ import com.oop.memorystore.implementation.index.IndexManager;
 import com.oop.memorystore.implementation.index.KeyMapper;
 import com.oop.memorystore.implementation.index.reducer.Reducer;
 import com.oop.memorystore.implementation.query.Query;
+import com.oop.memorystore.implementation.stats.StoreMetrics;
+import com.oop.memorystore.implementation.stats.StoreStats;
 
 import java.util.*;
 import java.util.function.Predicate;
@@ -86,6 +89,11 @@ public class UnmodifiableStore<V> implements Store<V> {
     return this.store.get(query, limit);
   }
 
+  @Override
+  public String explain(final Query query) {
+    return this.store.explain(query);
+  }
+
   @Override
   public List<V> get(final Query query) {
     return this.store.get(query);
@@ -126,6 +134,11 @@ public class UnmodifiableStore<V> implements Store<V> {
     throw new UnsupportedOperationException();
   }
 
+  @Override
+  public BulkLoad bulkLoad(final int expectedSize) {
+    throw new UnsupportedOperationException();
+  }
+
   @Override
   public StoreQuery<V> createQuery() {
     return this.store.createQuery();
@@ -136,6 +149,21 @@ public class UnmodifiableStore<V> implements Store<V> {
     this.store.printDetails(value);
   }
 
+  @Override
+  public StoreStats getStats() {
+    return this.store.getStats();
+  }
+
+  @Override
+  public StoreMetrics getMetrics() {
+    return this.store.getMetrics();
+  }
+
+  @Override
+  public void setMetrics(final StoreMetrics metrics) {
+    throw new UnsupportedOperationException();
+  }
+
   @Override
   public IndexManager<V> getIndexManager() {
     return this.store.getIndexManager();
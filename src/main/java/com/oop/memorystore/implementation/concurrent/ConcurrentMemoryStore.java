@@ -0,0 +1,301 @@
+package com.oop.memorystore.implementation.concurrent;
+
+import com.oop.memorystore.api.BulkLoad;
+import com.oop.memorystore.api.Store;
+import com.oop.memorystore.implementation.AbstractStore;
+import com.oop.memorystore.implementation.identity.DefaultIdentityProvider;
+import com.oop.memorystore.implementation.index.ConcurrentReferenceIndexManager;
+import com.oop.memorystore.implementation.index.Index;
+import com.oop.memorystore.implementation.index.IndexDefinition;
+import com.oop.memorystore.implementation.index.IndexException;
+import com.oop.memorystore.implementation.index.IndexManager;
+import com.oop.memorystore.implementation.memory.MemoryReferenceFactory;
+import com.oop.memorystore.implementation.query.Query;
+import com.oop.memorystore.implementation.reference.ConcurrentReferenceManager;
+import com.oop.memorystore.implementation.reference.Reference;
+import com.oop.memorystore.implementation.reference.ReferenceManager;
+import com.oop.memorystore.implementation.stats.StoreMetrics.Operation;
+import com.oop.memorystore.implementation.stats.StoreStats;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * In memory store which can be used by multiple threads at once without any external locking.
+ * <ul>
+ *     <li>Reads (lookups, queries, iteration) never block, they see every write completed before they started and may see writes
+ *     running concurrently.</li>
+ *     <li>Writes of an item (add, remove, reindex) are serialised per item, buckets are modified under locks striped by key, so
+ *     writers of different items and keys run in parallel.</li>
+ *     <li>Creating or removing indexes, clearing and copying the store wait for running writes and block new ones.</li>
+ * </ul>
+ * Buckets of a concurrent store are not kept in insertion order and sorted and primitive indexes are not supported.
+ *
+ * @param <V> type of item referenced
+ */
+public class ConcurrentMemoryStore<V> extends AbstractStore<V> {
+    private final ConcurrentReferenceManager<V> concurrentReferenceManager;
+    private final ReentrantReadWriteLock structureLock = new ReentrantReadWriteLock();
+    private final StripedLocks itemLocks = new StripedLocks();
+
+    public ConcurrentMemoryStore() {
+        this(
+            new ConcurrentReferenceManager<>(new DefaultIdentityProvider(), new MemoryReferenceFactory<>()),
+            new ConcurrentReferenceIndexManager<>());
+    }
+
+    public ConcurrentMemoryStore(final Collection<V> items) {
+        this();
+        this.addAll(items);
+    }
+
+    @SafeVarargs
+    public ConcurrentMemoryStore(final V... items) {
+        this();
+
+        // copied item by item, so the varargs array never escapes and the constructor is safe
+        final List<V> values = new ArrayList<>(items.length);
+        for (final V item : items) {
+            values.add(item);
+        }
+
+        this.addAll(values);
+    }
+
+    private ConcurrentMemoryStore(
+        final ConcurrentReferenceManager<V> referenceManager, final IndexManager<V> indexManager) {
+        super(referenceManager, indexManager);
+        this.concurrentReferenceManager = referenceManager;
+    }
+
+    @Override
+    public <K> Index<V> index(final String indexName, final IndexDefinition<K, V> indexDefinition)
+        throws IndexException {
+        return this.exclusively(() -> super.index(indexName, indexDefinition));
+    }
+
+    @Override
+    public boolean removeIndex(final String indexName) {
+        return this.exclusively(() -> super.removeIndex(indexName));
+    }
+
+    @Override
+    public boolean removeIndex(final Index<V> index) {
+        return this.exclusively(() -> super.removeIndex(index));
+    }
+
+    @Override
+    public boolean addAll(final Collection<? extends V> collection) {
+        final long start = this.startTimer();
+        final List<Throwable> exceptions = new ArrayList<>();
+        boolean changed = false;
+
+        for (final V item : collection) {
+            changed |= this.withItem(item, () -> {
+                final boolean added = !this.referenceManager.findReference(item).isPresent();
+                final Reference<V> reference = this.referenceManager.add(item);
+
+                if (reference != null && !this.lockIndexing) {
+                    this.index(reference, exceptions);
+                }
+
+                return added && reference != null;
+            });
+        }
+
+        throwIfFailed(exceptions);
+        this.record(Operation.ADD, start, collection.size());
+        return changed;
+    }
+
+    @Override
+    protected boolean removeValue(final Object obj) {
+        return this.withItem(obj, () -> super.removeValue(obj));
+    }
+
+    @Override
+    public List<V> remove(final Query query, final int limit) {
+        final long start = this.startTimer();
+        final List<V> removed = new ArrayList<>();
+
+        for (final Reference<V> reference : this.queryPlanner.plan(query).execute(limit)) {
+            final V value = reference.get();
+            if (this.removeValue(value)) {
+                removed.add(value);
+            }
+        }
+
+        this.record(Operation.REMOVE, start, removed.size());
+        return removed;
+    }
+
+    @Override
+    public void reindex() {
+        this.reindex(this.referenceManager.getReferences().stream().map(Reference::get).collect(Collectors.toList()));
+    }
+
+    @Override
+    public void reindex(final Collection<V> items) {
+        final long start = this.startTimer();
+        final List<Throwable> exceptions = new ArrayList<>();
+
+        for (final V item : items) {
+            this.withItem(item, () -> {
+                final Optional<Reference<V>> reference = this.referenceManager.findReference(item);
+                reference.ifPresent(found -> this.index(found, exceptions));
+                return null;
+            });
+        }
+
+        throwIfFailed(exceptions);
+        this.record(Operation.REINDEX, start, items.size());
+    }
+
+    @Override
+    public void clear() {
+        this.exclusively(() -> {
+            super.clear();
+            return null;
+        });
+    }
+
+    @Override
+    public Store<V> copy() {
+        return this.exclusively(super::copy);
+    }
+
+    /**
+     * Grow the store for the expected values. Values added to a concurrent store are still indexed right away, so lookups
+     * never see them unindexed, closing the returned bulk load does nothing.
+     */
+    @Override
+    public BulkLoad bulkLoad(final int expectedSize) {
+        return this.exclusively(() -> {
+            final int size = this.referenceManager.size() + expectedSize;
+            this.referenceManager.ensureCapacity(size);
+            this.indexManager.ensureCapacity(size);
+
+            return () -> {
+            };
+        });
+    }
+
+    @Override
+    public StoreStats getStats() {
+        return this.exclusively(super::getStats);
+    }
+
+    @Override
+    public void lockIndexing(final boolean lockIndexing) {
+        this.exclusively(() -> {
+            super.lockIndexing(lockIndexing);
+            return null;
+        });
+    }
+
+    @Override
+    public Iterator<V> iterator() {
+        final Iterator<Reference<V>> references = this.referenceManager.getReferences().iterator();
+
+        return new Iterator<V>() {
+            private V current;
+
+            @Override
+            public boolean hasNext() {
+                return references.hasNext();
+            }
+
+            @Override
+            public V next() {
+                this.current = references.next().get();
+                return this.current;
+            }
+
+            @Override
+            public void remove() {
+                if (this.current == null) {
+                    throw new IllegalStateException();
+                }
+
+                ConcurrentMemoryStore.this.removeValue(this.current);
+                this.current = null;
+            }
+        };
+    }
+
+    @Override
+    public Store<V> synchronizedStore() {
+        return this;
+    }
+
+    @Override
+    public Store<V> concurrentStore() {
+        return this;
+    }
+
+    @Override
+    protected Store<V> createCopy(
+        final ReferenceManager<V> referenceManager, final IndexManager<V> indexManager) {
+        return new ConcurrentMemoryStore<>(
+            (ConcurrentReferenceManager<V>) referenceManager.copy(), indexManager.copy());
+    }
+
+    @Override
+    public String toString() {
+        return this.referenceManager.getReferences().toString();
+    }
+
+    private void index(final Reference<V> reference, final List<Throwable> exceptions) {
+        try {
+            this.indexManager.reindex(Collections.singletonList(reference));
+        } catch (final IndexException e) {
+            exceptions.addAll(Arrays.asList(e.getSuppressed()));
+        }
+    }
+
+    // writes of the same item are serialised, writes of different items only share the structure lock
+    private <R> R withItem(final Object item, final Supplier<R> action) {
+        final Lock shared = this.structureLock.readLock();
+        shared.lock();
+        try {
+            final Object identity = this.concurrentReferenceManager.getIdentity(item);
+            final ReentrantLock lock = this.itemLocks.get(identity == null ? this : identity);
+            lock.lock();
+            try {
+                return action.get();
+            } finally {
+                lock.unlock();
+            }
+        } finally {
+            shared.unlock();
+        }
+    }
+
+    private <R> R exclusively(final Supplier<R> action) {
+        final Lock exclusive = this.structureLock.writeLock();
+        exclusive.lock();
+        try {
+            return action.get();
+        } finally {
+            exclusive.unlock();
+        }
+    }
+
+    private static void throwIfFailed(final List<Throwable> exceptions) {
+        if (!exceptions.isEmpty()) {
+            final String message =
+                (exceptions.size() == 1 ? "1 exception" : exceptions.size() + " exceptions")
+                    + " occurred during indexing";
+            throw new IndexException(message, exceptions);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.oop.memorystore.implementation.concurrent;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fixed set of locks shared by hash. Objects hashing to different stripes can be locked independently, objects hashing
+ * to the same stripe are serialised. Locks are {@link ReentrantLock}s so virtual threads waiting on them are not pinned.
+ */
+public final class StripedLocks {
+    private final ReentrantLock[] locks;
+    private final int mask;
+
+    public StripedLocks() {
+        this(Runtime.getRuntime().availableProcessors() * 16);
+    }
+
+    /**
+     * @param stripes minimum number of stripes, rounded up to a power of two
+     */
+    public StripedLocks(final int stripes) {
+        int size = 1;
+        while (size < stripes) {
+            size <<= 1;
+        }
+
+        this.locks = new ReentrantLock[size];
+        this.mask = size - 1;
+
+        for (int i = 0; i < size; i++) {
+            this.locks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Lock guarding the given object
+     *
+     * @param object object to lock
+     * @return lock of the stripe the object hashes to
+     */
+    public ReentrantLock get(final Object object) {
+        final int hash = object.hashCode();
+        return this.locks[(hash ^ (hash >>> 16)) & this.mask];
+    }
+}
@@ -0,0 +1,34 @@
+package com.oop.memorystore.implementation.expiring;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ticker caching the system clock, refreshed at a fixed rate by a daemon thread. A single ticker can be shared by any
+ * number of stores.
+ */
+public class CoarseTicker implements Ticker, AutoCloseable {
+    private final ScheduledExecutorService executor;
+    private volatile long now;
+
+    public CoarseTicker(final long period, final TimeUnit unit) {
+        this.now = System.currentTimeMillis();
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "coarse-ticker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor.scheduleAtFixedRate(() -> this.now = System.currentTimeMillis(), period, period, unit);
+    }
+
+    @Override
+    public long read() {
+        return this.now;
+    }
+
+    @Override
+    public void close() {
+        this.executor.shutdown();
+    }
+}
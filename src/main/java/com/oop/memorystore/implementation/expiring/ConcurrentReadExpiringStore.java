@@ -0,0 +1,40 @@
+package com.oop.memorystore.implementation.expiring;
+
+import com.oop.memorystore.api.ExpirationManager;
+import com.oop.memorystore.api.ExpiringStore;
+import com.oop.memorystore.implementation.ConcurrentReadStore;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Concurrent store backed by an expiring store. Lookups of an expiring store record accesses and invalidate expired
+ * values, so unlike plain stores they take the write lock. Index lookups and other reads still run concurrently.
+ *
+ * @param <V> value type
+ */
+public class ConcurrentReadExpiringStore<V> extends ConcurrentReadStore<V> implements ExpiringStore<V> {
+
+    public ConcurrentReadExpiringStore(final ExpiringMemoryStore<V> store) {
+        super(store, true);
+    }
+
+    @Override
+    public ExpirationManager<V> getExpirationManager() {
+        return ((ExpiringMemoryStore<V>) this.store).getExpirationManager();
+    }
+
+    @Override
+    public void invalidate() {
+        this.lock.write(() -> ((ExpiringMemoryStore<V>) this.store).invalidate());
+    }
+
+    @Override
+    public int invalidate(final int maxEntries, final long maxTime, final TimeUnit unit) {
+        return this.lock.write(() -> ((ExpiringMemoryStore<V>) this.store).invalidate(maxEntries, maxTime, unit));
+    }
+
+    @Override
+    public Optional<ExpirationSweeper<V>> getSweeper() {
+        return ((ExpiringMemoryStore<V>) this.store).getSweeper();
+    }
+}
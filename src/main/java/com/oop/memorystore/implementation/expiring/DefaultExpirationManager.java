@@ -3,78 +3,260 @@ package com.oop.memorystore.implementation.expiring;
 import com.oop.memorystore.api.ExpirationManager;
 import com.oop.memorystore.implementation.expiring.policy.ExpiringPolicy;
 import com.oop.memorystore.implementation.expiring.policy.ExpiringPolicy.ExpirationData;
-import java.util.HashMap;
+import com.oop.memorystore.implementation.reference.Reference;
+import com.oop.memorystore.implementation.reference.ReferenceManager;
+import com.oop.memorystore.implementation.stats.MemoryEstimates;
+import com.oop.memorystore.implementation.stats.StoreMetrics;
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
-import java.util.Map.Entry;
 import java.util.function.Consumer;
 
 /**
- * Class to handle expirations
+ * Class to handle expirations. The expiration data of a value is kept on its {@link ExpiringReference}, one slot per
+ * policy. Values are scheduled on a timing wheel when every policy can tell when they expire, so expired values are found
+ * without visiting the others. The time is read from a {@link Ticker}, callers handling many references read it once
+ * through {@link #now()} and pass it along.
  *
  * @param <V>
  */
 public class DefaultExpirationManager<V> implements ExpirationManager<V> {
-    private final Map<ExpiringPolicy<V, ?>, Map<V, ExpiringPolicy.ExpirationData>> policyData =
-        new HashMap<>();
+    private final ReferenceManager<V> referenceManager;
+    private final Ticker ticker;
+    private final ExpiringPolicy<?, ?>[] policies;
 
     private final List<Consumer<V>> globalExpireListeners = new LinkedList<>();
 
+    private final TimingWheel<V> timingWheel;
+
+    /** Set once a value was added that some policy can't schedule, expired values must then be looked for */
+    private boolean unscheduled = false;
+
+    /**
+     * @param referenceManager reference manager of the store, used to look up the references of values
+     * @param policies expiring policies
+     */
+    @SafeVarargs
+    public DefaultExpirationManager(final ReferenceManager<V> referenceManager, final ExpiringPolicy<V, ?>... policies) {
+        this(referenceManager, Ticker.system(), policies);
+    }
+
+    /**
+     * @param referenceManager reference manager of the store, used to look up the references of values
+     * @param ticker source of the current time
+     * @param policies expiring policies
+     */
     @SafeVarargs
-    public DefaultExpirationManager(final ExpiringPolicy<V, ?>... policies) {
-        for (final ExpiringPolicy<V, ?> policy : policies) {
-            this.policyData.put(policy, new HashMap<>());
+    public DefaultExpirationManager(
+        final ReferenceManager<V> referenceManager, final Ticker ticker, final ExpiringPolicy<V, ?>... policies) {
+        this.referenceManager = referenceManager;
+        this.ticker = ticker;
+        this.policies = new ExpiringPolicy<?, ?>[policies.length];
+        this.timingWheel = new TimingWheel<>(1, ticker.read());
+
+        for (int slot = 0; slot < policies.length; slot++) {
+            this.policies[slot] = policies[slot];
         }
     }
 
+    /**
+     * @param referenceManager reference manager of the store, used to look up the references of values
+     * @param ticker source of the current time
+     * @param policies expiring policies
+     */
+    DefaultExpirationManager(
+        final ReferenceManager<V> referenceManager, final Ticker ticker, final List<ExpiringPolicy<V, ?>> policies) {
+        this.referenceManager = referenceManager;
+        this.ticker = ticker;
+        this.policies = policies.toArray(new ExpiringPolicy<?, ?>[0]);
+        this.timingWheel = new TimingWheel<>(1, ticker.read());
+    }
+
+    private DefaultExpirationManager(final ReferenceManager<V> referenceManager, final DefaultExpirationManager<V> manager) {
+        this.referenceManager = referenceManager;
+        this.ticker = manager.ticker;
+        this.policies = manager.policies;
+        this.timingWheel = new TimingWheel<>(1, this.ticker.read());
+    }
+
+    /**
+     * Read the current time from the ticker
+     *
+     * @return time in milliseconds
+     */
+    public long now() {
+        return this.ticker.read();
+    }
+
+    @Override
     public void onAdd(final V value) {
-        for (final Map.Entry<ExpiringPolicy<V, ?>, Map<V, ExpiringPolicy.ExpirationData>> policyEntry :
-            this.policyData.entrySet()) {
-            final ExpiringPolicy.ExpirationData expirationData =
-                policyEntry.getKey().createExpirationData(value);
-            if (expirationData == null) {
-                continue;
+        final ExpiringReference<V> reference = this.findReference(value);
+
+        if (reference != null) {
+            this.onAdd(reference);
+        }
+    }
+
+    public void onAdd(final Reference<V> reference) {
+        this.onAdd(reference, this.now());
+    }
+
+    public void onAdd(final Reference<V> reference, final long now) {
+        final ExpiringReference<V> expiringReference = (ExpiringReference<V>) reference;
+        final ExpirationData[] expirationData = new ExpirationData[this.policies.length];
+
+        for (int slot = 0; slot < this.policies.length; slot++) {
+            expirationData[slot] = this.policy(slot).createExpirationData(reference.get(), now);
+        }
+
+        expiringReference.expirationData = expirationData;
+        this.schedule(expiringReference);
+    }
+
+    /**
+     * Schedule a reference again, after it was polled but turned out not to be expired
+     */
+    public void reschedule(final Reference<V> reference) {
+        this.schedule((ExpiringReference<V>) reference);
+    }
+
+    private void schedule(final ExpiringReference<V> reference) {
+        final long expirationTime = this.getExpirationTime(reference);
+
+        if (expirationTime < 0) {
+            this.unscheduled |= this.policies.length > 0;
+            this.timingWheel.remove(reference);
+            return;
+        }
+
+        this.timingWheel.schedule(reference, expirationTime);
+    }
+
+    /**
+     * Time in milliseconds at which the value expires, which is when the last of the policies expires it, or -1 when a
+     * policy can't tell
+     */
+    private long getExpirationTime(final ExpiringReference<V> reference) {
+        long expirationTime = -1;
+
+        for (int slot = 0; slot < this.policies.length; slot++) {
+            final long policyExpirationTime =
+                this.policy(slot).getExpirationTime(reference.get(), reference.getExpirationData(slot));
+
+            if (policyExpirationTime < 0) {
+                return -1;
             }
 
-            policyEntry.getValue().put(value, expirationData);
+            expirationTime = Math.max(expirationTime, policyExpirationTime);
         }
+
+        return expirationTime;
     }
 
+    @Override
     public void onRemove(final V value) {
-        for (final Entry<ExpiringPolicy<V, ?>, Map<V, ExpirationData>> policyData : this.policyData.entrySet()) {
-            policyData.getValue().remove(value);
+        final ExpiringReference<V> reference = this.findReference(value);
+
+        if (reference != null) {
+            this.onRemove(reference);
         }
     }
 
+    public void onRemove(final Reference<V> reference) {
+        this.timingWheel.remove((ExpiringReference<V>) reference);
+    }
+
+    public void clear() {
+        this.timingWheel.clear();
+    }
+
+    /**
+     * @return number of references scheduled on the timing wheel
+     */
+    public int getScheduledCount() {
+        return this.timingWheel.size();
+    }
+
+    /**
+     * Estimate the bytes used for expirations: the timing wheel, the expiration fields of every reference and the arrays
+     * holding their expiration data. The expiration data created by the policies is not counted.
+     *
+     * @return estimated bytes
+     */
+    public long sizeInBytes() {
+        final long referenceBytes = ExpiringReference.SIZE_IN_BYTES - MemoryEstimates.object(8)
+            + (this.policies.length == 0 ? 0 : MemoryEstimates.referenceArray(this.policies.length));
+
+        return this.timingWheel.sizeInBytes() + referenceBytes * this.referenceManager.size();
+    }
+
+    /**
+     * Whether expired values can only be found by checking every value, because a policy can't schedule them
+     */
+    public boolean requiresScan() {
+        return this.unscheduled;
+    }
+
+    /**
+     * Find the scheduled references that expired by now. References accessed since they were scheduled are rescheduled
+     * instead. The returned references are no longer scheduled.
+     *
+     * @param now current time in milliseconds
+     * @return expired references
+     */
+    public List<Reference<V>> pollExpired(final long now) {
+        final List<Reference<V>> expired = new ArrayList<>();
+
+        this.timingWheel.advance(now, reference -> {
+            if (this.checkExpiration(reference, now)) {
+                expired.add(reference);
+                return -1;
+            }
+
+            return this.getExpirationTime(reference);
+        });
+
+        return expired;
+    }
+
+    @Override
     public boolean checkExpiration(final V value) {
-        if (this.policyData.isEmpty()) {
+        final ExpiringReference<V> reference = this.findReference(value);
+        return reference != null && this.checkExpiration(reference);
+    }
+
+    public boolean checkExpiration(final Reference<V> reference) {
+        return this.checkExpiration(reference, this.now());
+    }
+
+    public boolean checkExpiration(final Reference<V> reference, final long now) {
+        if (this.policies.length == 0) {
             return false;
         }
 
-        int expire = 0;
-        for (final Map.Entry<
-            ExpiringPolicy<V, ? extends ExpiringPolicy.ExpirationData>,
-            Map<V, ExpiringPolicy.ExpirationData>>
-            policyEntry : this.policyData.entrySet()) {
-            final ExpiringPolicy policy = policyEntry.getKey();
-
-            final boolean shouldExpire = policy.checkExpiration(value, policyEntry.getValue().get(value));
-            if (shouldExpire) {
-                expire++;
+        final ExpiringReference<V> expiringReference = (ExpiringReference<V>) reference;
+        for (int slot = 0; slot < this.policies.length; slot++) {
+            if (!this.policy(slot).checkExpiration(reference.get(), expiringReference.getExpirationData(slot), now)) {
+                return false;
             }
         }
 
-        return expire == this.policyData.size();
+        return true;
     }
 
+    @Override
     public <T extends ExpirationData, E extends ExpiringPolicy> T getExpirationData(final V value, final Class<E> policyClass) {
-        for (final Entry<ExpiringPolicy<V, ?>, Map<V, ExpirationData>> policyEntry : this.policyData.entrySet()) {
-            if (!policyClass.isAssignableFrom(policyEntry.getKey().getClass())) {
+        final ExpiringReference<V> reference = this.findReference(value);
+        if (reference == null) {
+            return null;
+        }
+
+        for (int slot = 0; slot < this.policies.length; slot++) {
+            if (!policyClass.isAssignableFrom(this.policies[slot].getClass())) {
                 continue;
             }
 
-            return (T) policyEntry.getValue().get(value);
+            return (T) reference.getExpirationData(slot);
         }
 
         return null;
@@ -86,18 +268,56 @@ public class DefaultExpirationManager<V> implements ExpirationManager<V> {
     }
 
     public void onAccess(final V value) {
-        for (final Map.Entry<
-            ExpiringPolicy<V, ? extends ExpiringPolicy.ExpirationData>,
-            Map<V, ExpiringPolicy.ExpirationData>>
-            policyEntry : this.policyData.entrySet()) {
-            final ExpiringPolicy policy = policyEntry.getKey();
+        final ExpiringReference<V> reference = this.findReference(value);
 
-            policy.onAccess(value, policyEntry.getValue().get(value));
+        if (reference != null) {
+            this.onAccess(reference);
         }
     }
 
-    public DefaultExpirationManager<V> copy() {
-        return new DefaultExpirationManager<>(this.policyData.keySet().toArray(new ExpiringPolicy[0]));
+    public void onAccess(final Reference<V> reference) {
+        this.onAccess(reference, this.now());
+    }
+
+    public void onAccess(final Reference<V> reference, final long now) {
+        final ExpiringReference<V> expiringReference = (ExpiringReference<V>) reference;
+        for (int slot = 0; slot < this.policies.length; slot++) {
+            this.policy(slot).onAccess(reference.get(), expiringReference.getExpirationData(slot), now);
+        }
+    }
+
+    /**
+     * Copy this manager for a copy of the store. The copy starts with an empty timing wheel, the references of the copied
+     * store are handed to {@link #onCopy(Reference, Reference)}.
+     *
+     * @param referenceManager reference manager of the copy
+     * @return copy
+     */
+    public DefaultExpirationManager<V> copy(final ReferenceManager<V> referenceManager) {
+        final DefaultExpirationManager<V> copy = new DefaultExpirationManager<>(referenceManager, this);
+        copy.unscheduled = this.unscheduled;
+        return copy;
+    }
+
+    /**
+     * Give the reference of a copied value a copy of the expiration data of the original reference and schedule it, so
+     * the copy expires the value on its own
+     *
+     * @param original reference of the store this manager was copied from
+     * @param copy reference of the copied store
+     */
+    public void onCopy(final Reference<V> original, final Reference<V> copy) {
+        final ExpiringReference<V> from = (ExpiringReference<V>) original;
+        final ExpiringReference<V> to = (ExpiringReference<V>) copy;
+
+        if (from.expirationData != null) {
+            to.expirationData = new ExpirationData[from.expirationData.length];
+            for (int slot = 0; slot < from.expirationData.length; slot++) {
+                to.expirationData[slot] = this.policy(slot).copyExpirationData(from.get(), from.expirationData[slot]);
+            }
+        }
+
+        this.schedule(to);
     }
 
     public void onExpire(final V value) {
@@ -105,8 +325,35 @@ public class DefaultExpirationManager<V> implements ExpirationManager<V> {
             globalExpireListener.accept(value);
         }
 
-        for (final ExpiringPolicy<V, ?> policy : this.policyData.keySet()) {
-            policy.onExpire(value);
+        for (int slot = 0; slot < this.policies.length; slot++) {
+            this.policy(slot).onExpire(value);
+        }
+    }
+
+    /**
+     * Report the expiration of a value to the metrics, once per policy
+     *
+     * @param metrics metrics of the store
+     */
+    void recordExpiration(final StoreMetrics metrics) {
+        if (metrics == StoreMetrics.NONE) {
+            return;
+        }
+
+        for (final ExpiringPolicy<?, ?> policy : this.policies) {
+            metrics.onExpire(policy.named());
         }
     }
+
+    /**
+     * Policy of a slot. Every policy was given for values of this manager and the data of its slot was created by it.
+     */
+    @SuppressWarnings("unchecked")
+    private ExpiringPolicy<V, ExpirationData> policy(final int slot) {
+        return (ExpiringPolicy<V, ExpirationData>) this.policies[slot];
+    }
+
+    private ExpiringReference<V> findReference(final V value) {
+        return (ExpiringReference<V>) this.referenceManager.findReference(value).orElse(null);
+    }
 }
@@ -0,0 +1,23 @@
+package com.oop.memorystore.implementation.expiring;
+
+/**
+ * Policy choosing which value to evict once a bounded store grew past its maximum
+ */
+public enum EvictionPolicy {
+    /**
+     * Evict the least recently accessed value
+     */
+    LRU,
+
+    /**
+     * Evict the least frequently accessed value, the least recently added one among values accessed as often
+     */
+    LFU,
+
+    /**
+     * Admit new values into a small LRU window and let them into the main space only if they were accessed more often
+     * than the value they would replace, estimated with a count-min sketch that also remembers evicted values. Resists
+     * scans and one-off accesses better than LRU while adapting faster than LFU.
+     */
+    WINDOW_TINY_LFU
+}
@@ -0,0 +1,136 @@
+package com.oop.memorystore.implementation.expiring;
+
+/**
+ * Tracks the weight of the references of a bounded store and chooses which reference to evict once the store grew past
+ * its maximum weight. References are linked into the evictor's queues directly, so a reference is only ever tracked by a
+ * single evictor.
+ *
+ * @param <V> value type
+ */
+abstract class Evictor<V> {
+    private final long maximum;
+    private final Weigher<V> weigher;
+    private long weight;
+
+    protected Evictor(final long maximum, final Weigher<V> weigher) {
+        if (maximum < 0) {
+            throw new IllegalArgumentException("Maximum weight must not be negative");
+        }
+
+        this.maximum = maximum;
+        this.weigher = weigher;
+    }
+
+    static <V> Evictor<V> create(final EvictionPolicy policy, final long maximum, final Weigher<V> weigher) {
+        switch (policy) {
+            case LRU:
+                return new LruEvictor<>(maximum, weigher);
+            case LFU:
+                return new LfuEvictor<>(maximum, weigher);
+            case WINDOW_TINY_LFU:
+                return new WindowTinyLfuEvictor<>(maximum, weigher);
+            default:
+                throw new IllegalArgumentException("Unknown eviction policy " + policy);
+        }
+    }
+
+    final void add(final ExpiringReference<V> reference) {
+        final int weight = this.weigher.weigh(reference.get());
+        if (weight < 0) {
+            throw new IllegalArgumentException("Weight of " + reference.get() + " must not be negative");
+        }
+
+        reference.weight = weight;
+        reference.evictor = this;
+        this.weight += weight;
+        this.onAdd(reference);
+    }
+
+    final void access(final ExpiringReference<V> reference) {
+        if (reference.evictor == this) {
+            this.onAccess(reference);
+        }
+    }
+
+    final void remove(final ExpiringReference<V> reference) {
+        if (reference.evictor != this) {
+            return;
+        }
+
+        this.onRemove(reference);
+        reference.evictor = null;
+        reference.queue = null;
+        this.weight -= reference.weight;
+    }
+
+    void clear() {
+        this.weight = 0;
+    }
+
+    boolean isOverCapacity() {
+        return this.weight > this.maximum;
+    }
+
+    long getWeight() {
+        return this.weight;
+    }
+
+    long getMaximum() {
+        return this.maximum;
+    }
+
+    protected abstract void onAdd(ExpiringReference<V> reference);
+
+    protected abstract void onAccess(ExpiringReference<V> reference);
+
+    protected abstract void onRemove(ExpiringReference<V> reference);
+
+    /**
+     * Choose the reference to evict next. The reference stays tracked until the store removed it.
+     *
+     * @return reference to evict or null if there is none
+     */
+    abstract ExpiringReference<V> victim();
+
+    /**
+     * Queue the reference was linked into by the evictor tracking it, of the type that evictor records
+     */
+    @SuppressWarnings("unchecked")
+    static <Q> Q queueOf(final ExpiringReference<?> reference) {
+        return (Q) reference.queue;
+    }
+
+    static <V> ExpiringReference<V> queue() {
+        final ExpiringReference<V> sentinel = new ExpiringReference<>(null);
+        sentinel.previousEvictable = sentinel;
+        sentinel.nextEvictable = sentinel;
+        return sentinel;
+    }
+
+    static <V> boolean isEmpty(final ExpiringReference<V> queue) {
+        return queue.nextEvictable == queue;
+    }
+
+    static <V> ExpiringReference<V> first(final ExpiringReference<V> queue) {
+        return isEmpty(queue) ? null : queue.nextEvictable;
+    }
+
+    static <V> void link(final ExpiringReference<V> queue, final ExpiringReference<V> reference) {
+        reference.previousEvictable = queue.previousEvictable;
+        reference.nextEvictable = queue;
+        queue.previousEvictable.nextEvictable = reference;
+        queue.previousEvictable = reference;
+    }
+
+    static <V> void unlink(final ExpiringReference<V> reference) {
+        reference.previousEvictable.nextEvictable = reference.nextEvictable;
+        reference.nextEvictable.previousEvictable = reference.previousEvictable;
+        reference.previousEvictable = null;
+        reference.nextEvictable = null;
+    }
+
+    static <V> void clear(final ExpiringReference<V> queue) {
+        queue.previousEvictable = queue;
+        queue.nextEvictable = queue;
+    }
+}
@@ -0,0 +1,107 @@
+package com.oop.memorystore.implementation.expiring;
+
+import com.oop.memorystore.api.ExpiringStore;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+
+/**
+ * Invalidates expired values of a store in the background. Every tick invalidates at most a bounded number of values
+ * within a bounded time, the remaining expired values are left to the following ticks, so a burst of expirations never
+ * holds the store's lock for long.
+ *
+ * @param <V> value type
+ */
+public class ExpirationSweeper<V> implements AutoCloseable {
+    private final ExpiringStore<V> store;
+    private final ScheduledExecutorService executor;
+    private final boolean ownsExecutor;
+    private final long period;
+    private final TimeUnit unit;
+    private final int maxEntries;
+    private final long maxTimeNanos;
+    private final List<IntConsumer> listeners = new CopyOnWriteArrayList<>();
+    private ScheduledFuture<?> future;
+
+    /**
+     * @param store thread-safe store to sweep
+     * @param executor executor running the ticks
+     * @param ownsExecutor true if the executor is shut down when the sweeper is closed
+     * @param period delay between the end of a tick and the start of the next
+     * @param unit unit of the period
+     * @param maxEntries maximum number of expired values visited per tick
+     * @param maxTimeNanos maximum time spent per tick in nanoseconds
+     */
+    public ExpirationSweeper(
+        final ExpiringStore<V> store,
+        final ScheduledExecutorService executor,
+        final boolean ownsExecutor,
+        final long period,
+        final TimeUnit unit,
+        final int maxEntries,
+        final long maxTimeNanos) {
+        this.store = store;
+        this.executor = executor;
+        this.ownsExecutor = ownsExecutor;
+        this.period = period;
+        this.unit = unit;
+        this.maxEntries = maxEntries;
+        this.maxTimeNanos = maxTimeNanos;
+    }
+
+    /**
+     * Listen to the number of values every tick invalidated
+     *
+     * @param listener listener called after every tick
+     */
+    public void addListener(final IntConsumer listener) {
+        this.listeners.add(listener);
+    }
+
+    public synchronized void start() {
+        if (this.future != null) {
+            throw new IllegalStateException("Sweeper is already started");
+        }
+
+        this.future = this.executor.scheduleWithFixedDelay(this::tick, this.period, this.period, this.unit);
+    }
+
+    /**
+     * Invalidate the next batch of expired values
+     *
+     * @return number of values invalidated
+     */
+    public int sweep() {
+        final int removed = this.store.invalidate(this.maxEntries, this.maxTimeNanos, TimeUnit.NANOSECONDS);
+
+        for (final IntConsumer listener : this.listeners) {
+            listener.accept(removed);
+        }
+
+        return removed;
+    }
+
+    private void tick() {
+        // An exception escaping a periodic task silently cancels it
+        try {
+            this.sweep();
+        } catch (final RuntimeException e) {
+            final Thread thread = Thread.currentThread();
+            thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (this.future != null) {
+            this.future.cancel(false);
+        }
+
+        if (this.ownsExecutor) {
+            this.executor.shutdown();
+        }
+    }
+}
@@ -1,42 +1,90 @@
 package com.oop.memorystore.implementation.expiring;
 
-import com.oop.memorystore.api.ExpirationManager;
 import com.oop.memorystore.api.ExpiringStore;
 import com.oop.memorystore.api.Store;
 import com.oop.memorystore.implementation.AbstractStore;
 import com.oop.memorystore.implementation.StoreQueryImpl;
 import com.oop.memorystore.implementation.expiring.policy.ExpiringPolicy;
 import com.oop.memorystore.implementation.identity.DefaultIdentityProvider;
+import com.oop.memorystore.implementation.index.Index;
 import com.oop.memorystore.implementation.index.IndexManager;
 import com.oop.memorystore.implementation.index.ReferenceIndex;
 import com.oop.memorystore.implementation.index.ReferenceIndexManager;
-import com.oop.memorystore.implementation.memory.MemoryReference;
-import com.oop.memorystore.implementation.query.IndexMatch;
-import com.oop.memorystore.implementation.query.Operator;
 import com.oop.memorystore.implementation.query.Query;
-import com.oop.memorystore.implementation.query.QueryDefinition;
 import com.oop.memorystore.implementation.reference.DefaultReferenceManager;
 import com.oop.memorystore.implementation.reference.Reference;
 import com.oop.memorystore.implementation.reference.ReferenceManager;
-import java.util.Collections;
-import java.util.HashSet;
+import com.oop.memorystore.implementation.stats.StoreMetrics.Operation;
+import com.oop.memorystore.implementation.stats.StoreStats;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
-import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
+import java.util.concurrent.TimeUnit;
 
 public class ExpiringMemoryStore<V> extends AbstractStore<V> implements ExpiringStore<V> {
     private final DefaultExpirationManager<V> expirationManager;
 
+    /** References found expired by a bounded invalidation but not invalidated yet */
+    private final ArrayDeque<Reference<V>> expired = new ArrayDeque<>();
+
+    /** Position of a bounded invalidation scanning the store, when expirations can't be scheduled */
+    private Iterator<Reference<V>> scan;
+
+    private ExpirationSweeper<V> sweeper;
+
+    /** Bounds the weight of the store, null if the store is unbounded */
+    private Evictor<V> evictor;
+
+    /** Time read once per add, shared by all values added together */
+    private long addTime;
+
+    @SafeVarargs
     public ExpiringMemoryStore(final ExpiringPolicy<V, ?>... policies) {
         super(
             new DefaultReferenceManager<>(
                 new DefaultIdentityProvider(), new ExpiringReferenceFactory<>(), new ConcurrentHashMap<>()),
             new ReferenceIndexManager<>());
-        this.expirationManager = new DefaultExpirationManager<>(policies);
+
+        final List<ExpiringPolicy<V, ?>> policyList = new ArrayList<>(policies.length);
+        for (final ExpiringPolicy<V, ?> policy : policies) {
+            policyList.add(policy);
+        }
+
+        this.expirationManager = new DefaultExpirationManager<>(this.referenceManager, Ticker.system(), policyList);
+    }
+
+    /**
+     * @param ticker source of the current time, for example a {@link CoarseTicker} or a {@link ManualTicker}
+     * @param policies expiring policies
+     */
+    @SafeVarargs
+    public ExpiringMemoryStore(final Ticker ticker, final ExpiringPolicy<V, ?>... policies) {
+        super(
+            new DefaultReferenceManager<>(
+                new DefaultIdentityProvider(), new ExpiringReferenceFactory<>(), new ConcurrentHashMap<>()),
+            new ReferenceIndexManager<>());
+
+        final List<ExpiringPolicy<V, ?>> policyList = new ArrayList<>(policies.length);
+        for (final ExpiringPolicy<V, ?> policy : policies) {
+            policyList.add(policy);
+        }
+
+        this.expirationManager = new DefaultExpirationManager<>(this.referenceManager, ticker, policyList);
+    }
+
+    ExpiringMemoryStore(final Ticker ticker, final List<ExpiringPolicy<V, ?>> policies) {
+        super(
+            new DefaultReferenceManager<>(
+                new DefaultIdentityProvider(), new ExpiringReferenceFactory<>(), new ConcurrentHashMap<>()),
+            new ReferenceIndexManager<>());
+        this.expirationManager = new DefaultExpirationManager<>(this.referenceManager, ticker, policies);
     }
 
     protected ExpiringMemoryStore(
@@ -47,106 +95,323 @@ public class ExpiringMemoryStore<V> extends AbstractStore<V> implements Expiring
         this.expirationManager = defaultExpirationManager;
     }
 
+    /**
+     * New store builder
+     *
+     * @param policies expiring policies of the store
+     * @param <V> data type
+     * @return builder
+     */
+    @SafeVarargs
+    public static <V> ExpiringMemoryStoreBuilder<V> newStore(final ExpiringPolicy<V, ?>... policies) {
+        final List<ExpiringPolicy<V, ?>> policyList = new ArrayList<>(policies.length);
+        for (final ExpiringPolicy<V, ?> policy : policies) {
+            policyList.add(policy);
+        }
+
+        return new ExpiringMemoryStoreBuilder<>(new ExpiringMemoryStore<>(Ticker.system(), policyList));
+    }
+
+    /**
+     * New store builder reading the time from the given ticker
+     *
+     * @param ticker source of the current time
+     * @param policies expiring policies of the store
+     * @param <V> data type
+     * @return builder
+     */
+    @SafeVarargs
+    public static <V> ExpiringMemoryStoreBuilder<V> newStore(final Ticker ticker, final ExpiringPolicy<V, ?>... policies) {
+        final List<ExpiringPolicy<V, ?>> policyList = new ArrayList<>(policies.length);
+        for (final ExpiringPolicy<V, ?> policy : policies) {
+            policyList.add(policy);
+        }
+
+        return new ExpiringMemoryStoreBuilder<>(new ExpiringMemoryStore<>(ticker, policyList));
+    }
+
     @Override
-    public boolean add(final V item) {
-        final boolean added = super.add(item);
-        if (added) {
-            this.expirationManager.onAdd(item);
+    public boolean addAll(final Collection<? extends V> collection) {
+        this.addTime = this.expirationManager.now();
+        final boolean changed = super.addAll(collection);
+        this.evict();
+        return changed;
+    }
+
+    @Override
+    protected void onAdd(final Reference<V> reference) {
+        this.expirationManager.onAdd(reference, this.addTime);
+
+        if (this.evictor != null) {
+            this.evictor.add((ExpiringReference<V>) reference);
         }
+    }
+
+    @Override
+    protected void onRemove(final Reference<V> reference) {
+        this.expirationManager.onRemove(reference);
 
-        return added;
+        if (this.evictor != null) {
+            this.evictor.remove((ExpiringReference<V>) reference);
+        }
     }
 
+    /**
+     * Bound the weight of this store, evicting values once the store grew past the evictor's maximum
+     */
+    void bound(final Evictor<V> evictor) {
+        this.evictor = evictor;
+
+        for (final Reference<V> reference : this.referenceManager.getReferences()) {
+            evictor.add((ExpiringReference<V>) reference);
+        }
+
+        this.evict();
+    }
+
+    /**
+     * Evict values until the store is back within its maximum weight. Evicted values are reported to the expire
+     * listeners. Only called once adding completed, so indexes are never modified while values are being indexed.
+     */
+    private void evict() {
+        if (this.evictor == null) {
+            return;
+        }
+
+        while (this.evictor.isOverCapacity()) {
+            final ExpiringReference<V> victim = this.evictor.victim();
+            if (victim == null) {
+                return;
+            }
+
+            final V value = victim.get();
+            this.expirationManager.onExpire(value);
+            this.removeValue(value);
+            this.evictor.remove(victim);
+            this.metrics.onEvict();
+        }
+    }
+
+    /**
+     * Copy the store. References carry the expiration data of their value and their place on the timing wheel, so the
+     * copy gets references of its own holding a copy of the expiration data and its indexes are restored with them.
+     */
     @Override
     protected Store<V> createCopy(
         final ReferenceManager<V> referenceManager, final IndexManager<V> indexManager) {
-        return new ExpiringMemoryStore<>(referenceManager.copy(), indexManager.copy(), this.expirationManager.copy());
+        final ReferenceManager<V> copyOfReferenceManager =
+            new DefaultReferenceManager<>(
+                new DefaultIdentityProvider(), new ExpiringReferenceFactory<>(), new ConcurrentHashMap<>());
+        final DefaultExpirationManager<V> copyOfExpirationManager = this.expirationManager.copy(copyOfReferenceManager);
+        final List<Reference<V>> originals = new ArrayList<>(referenceManager.getReferences());
+        final List<Reference<V>> copies = new ArrayList<>(originals.size());
+
+        copyOfReferenceManager.ensureCapacity(originals.size());
+        for (final Reference<V> reference : originals) {
+            final Reference<V> copy = copyOfReferenceManager.add(reference.get());
+            copyOfExpirationManager.onCopy(reference, copy);
+            copies.add(copy);
+        }
+
+        final IndexManager<V> copyOfIndexManager = indexManager.copy();
+        copyOfIndexManager.clear();
+        copyOfIndexManager.ensureCapacity(copies.size());
+
+        for (final Index<V> index : indexManager.getIndexes()) {
+            restoreIndex(
+                indexManager.getIndex(index.getName()),
+                copyOfIndexManager.getIndex(index.getName()),
+                originals,
+                copies);
+        }
+
+        return new ExpiringMemoryStore<>(copyOfReferenceManager, copyOfIndexManager, copyOfExpirationManager);
+    }
+
+    /**
+     * Restore the buckets of an index copy with the copied references, without running its key mapper
+     */
+    private static <V> void restoreIndex(
+        final ReferenceIndex<?, V> index,
+        final ReferenceIndex<?, V> copyOfIndex,
+        final List<Reference<V>> originals,
+        final List<Reference<V>> copies) {
+        final Map<Object, List<Reference<V>>> buckets = new LinkedHashMap<>();
+
+        for (int i = 0; i < originals.size(); i++) {
+            final Set<?> keys = index.getKeys(originals.get(i));
+            if (keys == null) {
+                continue;
+            }
+
+            for (final Object key : keys) {
+                buckets.computeIfAbsent(key, $ -> new ArrayList<>()).add(copies.get(i));
+            }
+        }
+
+        buckets.forEach(copyOfIndex::restore);
     }
 
     @Override
     public StoreQueryImpl<V> createQuery() {
-        return new ExpiringStoreQuery<>(this);
+        return new ExpiringStoreQuery<>(this, this.queryPlanner);
     }
 
     @Override
     public List<V> get(final Query query, final int limit) {
-        final QueryDefinition definition = query.build();
-        final List<IndexMatch> indexMatches = definition.getIndexMatches();
-        final Operator operator = definition.getOperator();
-        final Set<Reference<V>> results = new LinkedHashSet<>();
-
-        boolean firstMatch = true;
+        final long start = this.startTimer();
+        final UnexpiredReferenceIterator<V> references =
+            new UnexpiredReferenceIterator<>(this, this.queryPlanner.plan(query).iterator());
+        final List<V> results = new ArrayList<>();
 
-        for (final IndexMatch indexMatch : indexMatches) {
-            final ReferenceIndex<?, V> referenceIndex = this.indexManager.getIndex(indexMatch.getIndexName());
-            if (referenceIndex == null) {
-                continue;
-            }
+        try {
+            while ((limit == -1 || results.size() < limit) && references.hasNext()) {
+                final Reference<V> reference = references.next();
+                this.expirationManager.onAccess(reference, references.getTime());
+                if (this.evictor != null) {
+                    this.evictor.access((ExpiringReference<V>) reference);
+                }
 
-            final Set<Reference<V>> references =
-                new HashSet<>(Optional.of(referenceIndex)
-                    .map(index -> index.getReferences(indexMatch.getKey()))
-                    .orElse(new HashSet<>()));
-
-            references.removeIf(
-                reference -> {
-                    final boolean shouldBeInvalidated = this.expirationManager.checkExpiration(reference.get());
-                    if (shouldBeInvalidated) {
-                        this.invalidate(reference.get());
-                    }
-
-                    return shouldBeInvalidated;
-                });
-
-            if (firstMatch || operator == Operator.OR) {
-                results.addAll(references);
-                firstMatch = false;
-            } else {
-                results.retainAll(references);
+                results.add(reference.get());
             }
+        } finally {
+            references.invalidateExpired();
         }
 
-        return results.stream()
-            .peek(reference -> this.expirationManager.onAccess(reference.get()))
-            .map(Reference::get)
-            .limit(limit == -1 ? Long.MAX_VALUE : limit)
-            .collect(Collectors.toList());
+        this.record(Operation.GET, start, results.size());
+        return results;
     }
 
     @Override
-    public ExpirationManager<V> getExpirationManager() {
+    public StoreStats getStats() {
+        final StoreStats stats = super.getStats();
+        return new StoreStats(
+            stats.getSize(),
+            stats.getReferencesBytes(),
+            stats.getIndexes(),
+            this.expirationManager.getScheduledCount(),
+            this.expirationManager.sizeInBytes());
+    }
+
+    @Override
+    public DefaultExpirationManager<V> getExpirationManager() {
         return this.expirationManager;
     }
 
     @Override
     public void invalidate() {
+        final long now = this.expirationManager.now();
+
+        if (!this.expirationManager.requiresScan()) {
+            this.expired.addAll(this.expirationManager.pollExpired(now));
+            while (!this.expired.isEmpty()) {
+                this.invalidateExpired(this.expired.poll(), now);
+            }
+
+            return;
+        }
+
         for (final Reference<V> reference : this.referenceManager.getReferences()) {
-            final MemoryReference<V> next = (MemoryReference<V>) reference;
-            if (!this.expirationManager.checkExpiration(next.get())) {
+            if (!this.expirationManager.checkExpiration(reference, now)) {
                 continue;
             }
 
-            this.invalidate(next.get());
+            this.invalidate(reference.get());
         }
     }
 
     @Override
-    public boolean remove(final Object obj) {
-        final boolean removed = super.remove(obj);
-        if (removed) {
-            this.expirationManager.onRemove((V) obj);
+    public int invalidate(final int maxEntries, final long maxTime, final TimeUnit unit) {
+        final long deadline = System.nanoTime() + unit.toNanos(maxTime);
+        final long now = this.expirationManager.now();
+        int visited = 0;
+        int removed = 0;
+
+        if (!this.expirationManager.requiresScan()) {
+            if (this.expired.isEmpty()) {
+                this.expired.addAll(this.expirationManager.pollExpired(now));
+            }
+
+            while (visited++ < maxEntries && !this.expired.isEmpty() && System.nanoTime() - deadline < 0) {
+                if (this.invalidateExpired(this.expired.poll(), now)) {
+                    removed++;
+                }
+            }
+
+            return removed;
+        }
+
+        if (this.scan == null || !this.scan.hasNext()) {
+            this.scan = this.referenceManager.getReferences().iterator();
+        }
+
+        final List<V> found = new ArrayList<>();
+        while (visited++ < maxEntries && this.scan.hasNext() && System.nanoTime() - deadline < 0) {
+            final Reference<V> reference = this.scan.next();
+            if (this.expirationManager.checkExpiration(reference, now)) {
+                found.add(reference.get());
+            }
+        }
+
+        for (final V value : found) {
+            this.invalidate(value);
+            removed++;
         }
 
         return removed;
     }
 
+    /**
+     * Invalidate a reference polled from the expiration manager unless it was removed or accessed since
+     */
+    private boolean invalidateExpired(final Reference<V> reference, final long now) {
+        if (this.referenceManager.findReference(reference.get()).orElse(null) != reference) {
+            return false;
+        }
+
+        if (!this.expirationManager.checkExpiration(reference, now)) {
+            this.expirationManager.reschedule(reference);
+            return false;
+        }
+
+        this.invalidate(reference.get());
+        return true;
+    }
+
+    @Override
+    public Optional<ExpirationSweeper<V>> getSweeper() {
+        return Optional.ofNullable(this.sweeper);
+    }
+
+    void setSweeper(final ExpirationSweeper<V> sweeper) {
+        this.sweeper = sweeper;
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        this.expirationManager.clear();
+        if (this.evictor != null) {
+            this.evictor.clear();
+        }
+
+        this.expired.clear();
+        this.scan = null;
+    }
+
     @Override
     public Store<V> synchronizedStore() {
         return new SynchronizedExpiringStore<>(this);
     }
 
+    @Override
+    public Store<V> concurrentStore() {
+        return new ConcurrentReadExpiringStore<>(this);
+    }
+
     public void invalidate(final V value) {
         this.expirationManager.onExpire(value);
-        this.remove(value);
+        this.expirationManager.recordExpiration(this.metrics);
+        this.removeValue(value);
     }
 }
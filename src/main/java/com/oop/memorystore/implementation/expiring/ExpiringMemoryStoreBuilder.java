@@ -0,0 +1,259 @@
+package com.oop.memorystore.implementation.expiring;
+
+import com.oop.memorystore.api.ExpiringStore;
+import com.oop.memorystore.implementation.index.IndexDefinition;
+import com.oop.memorystore.implementation.index.KeyMapper;
+import com.oop.memorystore.implementation.index.reducer.Reducer;
+import com.oop.memorystore.implementation.stats.StoreMetrics;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+
+/**
+ * Builder for an expiring memory store
+ *
+ * @param <V> value type
+ */
+public final class ExpiringMemoryStoreBuilder<V> {
+  private final ExpiringMemoryStore<V> store;
+  private final List<IntConsumer> sweepListeners = new ArrayList<>();
+  private ScheduledExecutorService sweepExecutor;
+  private boolean ownsSweepExecutor;
+  private long sweepPeriod;
+  private TimeUnit sweepUnit;
+  private int sweepMaxEntries = 10_000;
+  private long sweepMaxTimeNanos = TimeUnit.MILLISECONDS.toNanos(5);
+  private long maximumWeight = -1;
+  private Weigher<V> weigher;
+  private EvictionPolicy evictionPolicy = EvictionPolicy.LRU;
+
+  ExpiringMemoryStoreBuilder(final ExpiringMemoryStore<V> store) {
+    this.store = store;
+  }
+
+  public ExpiringMemoryStoreBuilder<V> withValue(final V value) {
+    this.store.add(value);
+    return this;
+  }
+
+  public ExpiringMemoryStoreBuilder<V> withValues(final Collection<V> values) {
+    this.store.addAll(values);
+    return this;
+  }
+
+  @SafeVarargs
+  public final ExpiringMemoryStoreBuilder<V> withValues(final V... values) {
+    final List<V> valueList = new ArrayList<>(values.length);
+    for (final V value : values) {
+      valueList.add(value);
+    }
+
+    this.store.addAll(valueList);
+    return this;
+  }
+
+  public <K> ExpiringMemoryStoreBuilder<V> withIndex(
+      final String indexName, final KeyMapper<K, V> keyMapper) {
+    this.store.index(indexName, keyMapper);
+    return this;
+  }
+
+  public <K> ExpiringMemoryStoreBuilder<V> withIndex(
+      final String indexName, final KeyMapper<K, V> keyMapper, final Reducer<K, V> reducer) {
+    this.store.index(indexName, keyMapper, reducer);
+    return this;
+  }
+
+  public <K> ExpiringMemoryStoreBuilder<V> withIndex(
+      final String indexName, final IndexDefinition<K, V> indexDefinition) {
+    this.store.index(indexName, indexDefinition);
+    return this;
+  }
+
+  /**
+   * Build the indexes of large batches in parallel on the common fork join pool, applies to the values and indexes
+   * added after this call
+   *
+   * @return builder
+   */
+  public ExpiringMemoryStoreBuilder<V> withParallelIndexing() {
+    return this.withParallelIndexing(ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Build the indexes of large batches in parallel on the given executor, applies to the values and indexes added after
+   * this call
+   *
+   * @param executor executor running one indexing task per index
+   * @return builder
+   */
+  public ExpiringMemoryStoreBuilder<V> withParallelIndexing(final Executor executor) {
+    this.store.getIndexManager().setIndexingExecutor(executor);
+    return this;
+  }
+
+  /**
+   * Instrument the store with the given metrics listener, expirations are reported per policy and evictions separately
+   *
+   * @param metrics metrics listener
+   * @return builder
+   */
+  public ExpiringMemoryStoreBuilder<V> withMetrics(final StoreMetrics metrics) {
+    this.store.setMetrics(metrics);
+    return this;
+  }
+
+  /**
+   * Bound the number of values of the store. Once the store grew past the maximum, values chosen by the eviction policy
+   * are removed and reported to the expire listeners.
+   *
+   * @param maximumSize maximum number of values
+   * @return builder
+   */
+  public ExpiringMemoryStoreBuilder<V> withMaximumSize(final long maximumSize) {
+    return this.withMaximumWeight(maximumSize, Weigher.singleton());
+  }
+
+  /**
+   * Bound the total weight of the values of the store. Once the store grew past the maximum, values chosen by the
+   * eviction policy are removed and reported to the expire listeners.
+   *
+   * @param maximumWeight maximum total weight
+   * @param weigher calculates the weight of a value when it is added
+   * @return builder
+   */
+  public ExpiringMemoryStoreBuilder<V> withMaximumWeight(final long maximumWeight, final Weigher<V> weigher) {
+    this.maximumWeight = maximumWeight;
+    this.weigher = weigher;
+    return this;
+  }
+
+  /**
+   * Choose the values evicted once the store grew past its maximum, defaults to {@link EvictionPolicy#LRU}
+   *
+   * @param evictionPolicy eviction policy
+   * @return builder
+   */
+  public ExpiringMemoryStoreBuilder<V> withEvictionPolicy(final EvictionPolicy evictionPolicy) {
+    this.evictionPolicy = evictionPolicy;
+    return this;
+  }
+
+  /**
+   * Invalidate expired values in the background on a daemon thread owned by the store
+   *
+   * @param period delay between two sweeps
+   * @param unit unit of the delay
+   * @return builder
+   */
+  public ExpiringMemoryStoreBuilder<V> withSweeper(final long period, final TimeUnit unit) {
+    return this.withSweeper(
+        runnable -> {
+          final Thread thread = new Thread(runnable, "expiration-sweeper");
+          thread.setDaemon(true);
+          return thread;
+        },
+        period,
+        unit);
+  }
+
+  /**
+   * Invalidate expired values in the background on a thread created by the given factory, for example a virtual thread
+   * factory. The thread is stopped when the sweeper is closed.
+   *
+   * @param threadFactory factory of the sweeping thread
+   * @param period delay between two sweeps
+   * @param unit unit of the delay
+   * @return builder
+   */
+  public ExpiringMemoryStoreBuilder<V> withSweeper(
+      final ThreadFactory threadFactory, final long period, final TimeUnit unit) {
+    this.withSweeper(Executors.newSingleThreadScheduledExecutor(threadFactory), period, unit);
+    this.ownsSweepExecutor = true;
+    return this;
+  }
+
+  /**
+   * Invalidate expired values in the background on the given executor. The executor is not shut down when the sweeper is
+   * closed.
+   *
+   * @param executor executor running the sweeps
+   * @param period delay between two sweeps
+   * @param unit unit of the delay
+   * @return builder
+   */
+  public ExpiringMemoryStoreBuilder<V> withSweeper(
+      final ScheduledExecutorService executor, final long period, final TimeUnit unit) {
+    this.sweepExecutor = executor;
+    this.ownsSweepExecutor = false;
+    this.sweepPeriod = period;
+    this.sweepUnit = unit;
+    return this;
+  }
+
+  /**
+   * Bound the work of a single sweep, expired values left over are invalidated by the following sweeps. Defaults to
+   * 10000 values and 5 milliseconds.
+   *
+   * @param maxEntries maximum number of values visited per sweep
+   * @param maxTime maximum time spent per sweep
+   * @param unit unit of the maximum time
+   * @return builder
+   */
+  public ExpiringMemoryStoreBuilder<V> withSweepBudget(final int maxEntries, final long maxTime, final TimeUnit unit) {
+    this.sweepMaxEntries = maxEntries;
+    this.sweepMaxTimeNanos = unit.toNanos(maxTime);
+    return this;
+  }
+
+  /**
+   * Listen to the number of values every sweep invalidated
+   *
+   * @param listener listener called after every sweep
+   * @return builder
+   */
+  public ExpiringMemoryStoreBuilder<V> withSweepListener(final IntConsumer listener) {
+    this.sweepListeners.add(listener);
+    return this;
+  }
+
+  /**
+   * Build the store. When a sweeper is configured the store is modified from the sweeping thread, so the concurrent view
+   * of the store is returned and the sweeper invalidates through it.
+   *
+   * @return store
+   */
+  public ExpiringStore<V> build() {
+    if (this.weigher != null) {
+      this.store.bound(Evictor.create(this.evictionPolicy, this.maximumWeight, this.weigher));
+    }
+
+    if (this.sweepExecutor == null) {
+      return this.store;
+    }
+
+    final ExpiringStore<V> concurrentStore = (ExpiringStore<V>) this.store.concurrentStore();
+    final ExpirationSweeper<V> sweeper =
+        new ExpirationSweeper<>(
+            concurrentStore,
+            this.sweepExecutor,
+            this.ownsSweepExecutor,
+            this.sweepPeriod,
+            this.sweepUnit,
+            this.sweepMaxEntries,
+            this.sweepMaxTimeNanos);
+
+    this.sweepListeners.forEach(sweeper::addListener);
+    this.store.setSweeper(sweeper);
+    sweeper.start();
+    return concurrentStore;
+  }
+}
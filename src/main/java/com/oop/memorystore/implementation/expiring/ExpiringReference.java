@@ -0,0 +1,50 @@
+package com.oop.memorystore.implementation.expiring;
+
+import com.oop.memorystore.implementation.expiring.policy.ExpiringPolicy.ExpirationData;
+import com.oop.memorystore.implementation.memory.MemoryReference;
+import com.oop.memorystore.implementation.stats.MemoryEstimates;
+
+/**
+ * Reference to a stored item carrying its expiration state: one expiration data slot per policy of the store, in the
+ * order the policies were given, its place on the store's timing wheel and, for bounded stores, its place in the
+ * eviction queues. Checking or touching an item therefore never hashes it.
+ *
+ * @param <V> reference type
+ */
+public class ExpiringReference<V> extends MemoryReference<V> {
+    /** Estimated bytes of a reference, not counting its item and expiration data */
+    static final long SIZE_IN_BYTES = MemoryEstimates.object(52);
+
+    ExpirationData[] expirationData;
+
+    /** Time in milliseconds at which the item is due on the timing wheel */
+    long deadline;
+    ExpiringReference<V> previous;
+    ExpiringReference<V> next;
+    TimingWheel<V> wheel;
+
+    /** Eviction state of bounded stores, maintained by the store's {@link Evictor} */
+    Evictor<V> evictor;
+    Object queue;
+    ExpiringReference<V> previousEvictable;
+    ExpiringReference<V> nextEvictable;
+    int weight;
+
+    public ExpiringReference(final V reference) {
+        super(reference);
+    }
+
+    public ExpiringReference(final V reference, final int id) {
+        super(reference, id);
+    }
+
+    /**
+     * Get the expiration data of the policy at the given position
+     *
+     * @param slot position of the policy
+     * @return expiration data or null if the policy keeps none
+     */
+    public ExpirationData getExpirationData(final int slot) {
+        return this.expirationData == null ? null : this.expirationData[slot];
+    }
+}
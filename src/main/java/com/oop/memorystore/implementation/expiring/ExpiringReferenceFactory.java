@@ -1,11 +1,10 @@
 package com.oop.memorystore.implementation.expiring;
 
-import com.oop.memorystore.implementation.memory.MemoryReference;
 import com.oop.memorystore.implementation.reference.Reference;
 import com.oop.memorystore.implementation.reference.ReferenceFactory;
 
 /**
- * Factory for creating expiring references
+ * Factory for creating expiring references, see {@link ExpiringReference}
  *
  * @param <V> value type
  */
@@ -13,6 +12,11 @@ public class ExpiringReferenceFactory<V> implements ReferenceFactory<V> {
 
     @Override
     public Reference<V> createReference(final V obj) {
-        return new MemoryReference<>(obj);
+        return new ExpiringReference<>(obj);
+    }
+
+    @Override
+    public Reference<V> createReference(final V obj, final int id) {
+        return new ExpiringReference<>(obj, id);
     }
 }
@@ -2,32 +2,52 @@ package com.oop.memorystore.implementation.expiring;
 
 import com.oop.memorystore.api.Store;
 import com.oop.memorystore.implementation.StoreQueryImpl;
-import com.oop.memorystore.implementation.index.ReferenceIndex;
+import com.oop.memorystore.implementation.query.plan.PlanStep;
+import com.oop.memorystore.implementation.query.plan.QueryPlanner;
 import com.oop.memorystore.implementation.reference.Reference;
-import java.util.LinkedHashSet;
+import java.util.Iterator;
 
+/**
+ * Query of an {@link ExpiringMemoryStore} skipping expired values. Expired references met by a terminal operation are
+ * invalidated as soon as it stops iterating, even when it stops before the end like {@link #first()}, so result streams
+ * don't need to be closed.
+ *
+ * @param <V> value type
+ */
 public class ExpiringStoreQuery<V> extends StoreQueryImpl<V> {
     public ExpiringStoreQuery(final Store<V> store) {
         super(store);
     }
 
+    public ExpiringStoreQuery(final Store<V> store, final QueryPlanner<V> queryPlanner) {
+        super(store, queryPlanner);
+    }
+
     protected ExpiringMemoryStore<V> asExpiringStore() {
         return (ExpiringMemoryStore<V>) this.store;
     }
 
     @Override
-    protected LinkedHashSet<Reference<V>> getValuesOfIndex(final ReferenceIndex<?, V> index, final Object key) {
-        final LinkedHashSet<Reference<V>> values = super.getValuesOfIndex(index, key);
+    protected Iterator<Reference<V>> references() {
+        return new UnexpiredReferenceIterator<>(this.asExpiringStore(), super.references());
+    }
 
-        values.removeIf(value -> {
-            final boolean shouldBeInvalidated = this.asExpiringStore().getExpirationManager().checkExpiration(value.get());
-            if (shouldBeInvalidated) {
-                index.removeIndex(value);
-            }
+    @Override
+    protected void complete(final Iterator<Reference<V>> references) {
+        ((UnexpiredReferenceIterator<V>) references).invalidateExpired();
+    }
 
-            return shouldBeInvalidated;
-        });
+    @Override
+    protected boolean hasMatches(final PlanStep<V> step) {
+        final DefaultExpirationManager<V> expirationManager = this.asExpiringStore().getExpirationManager();
+        final long now = expirationManager.now();
+        final Iterator<Reference<V>> iterator = step.iterator();
+        while (iterator.hasNext()) {
+            if (!expirationManager.checkExpiration(iterator.next(), now)) {
+                return true;
+            }
+        }
 
-        return values;
+        return false;
     }
 }
@@ -0,0 +1,88 @@
+package com.oop.memorystore.implementation.expiring;
+
+/**
+ * Count-min sketch estimating how often values were accessed, with 4-bit counters packed sixteen to a long. Each
+ * value increments one counter in four different longs and its frequency is the smallest of them. Once the number of
+ * increments reaches ten times the number of counted values all counters are halved, so old accesses fade out.
+ */
+class FrequencySketch {
+    private static final long[] SEEDS = {
+        0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L
+    };
+    private static final long RESET_MASK = 0x7777777777777777L;
+
+    private long[] table = new long[0];
+    private int sampleSize;
+    private int size;
+
+    /**
+     * Grow the sketch to count the given number of values, growing forgets the counted accesses
+     *
+     * @param maximum number of values to count
+     */
+    void ensureCapacity(final long maximum) {
+        final int length = (int) Math.min(Long.highestOneBit(Math.max(maximum, 8) - 1) << 1, 1 << 30);
+
+        if (length <= this.table.length) {
+            return;
+        }
+
+        this.table = new long[length];
+        this.sampleSize = length * 10;
+        this.size = 0;
+    }
+
+    int frequency(final Object value) {
+        final int hash = spread(value.hashCode());
+        int frequency = 15;
+
+        for (int depth = 0; depth < SEEDS.length; depth++) {
+            final long index = this.index(hash, depth);
+            frequency = Math.min(frequency, (int) ((this.table[(int) index] >>> ((index >>> 58) & 0x3c)) & 0xf));
+        }
+
+        return frequency;
+    }
+
+    void increment(final Object value) {
+        final int hash = spread(value.hashCode());
+        boolean incremented = false;
+
+        for (int depth = 0; depth < SEEDS.length; depth++) {
+            final long index = this.index(hash, depth);
+            final int slot = (int) index;
+            final int offset = (int) ((index >>> 58) & 0x3c);
+
+            if (((this.table[slot] >>> offset) & 0xf) != 0xf) {
+                this.table[slot] += 1L << offset;
+                incremented = true;
+            }
+        }
+
+        if (incremented && ++this.size >= this.sampleSize) {
+            this.reset();
+        }
+    }
+
+    private void reset() {
+        for (int slot = 0; slot < this.table.length; slot++) {
+            this.table[slot] = (this.table[slot] >>> 1) & RESET_MASK;
+        }
+
+        this.size /= 2;
+    }
+
+    /**
+     * The low bits of the result select the long, its top bits the counter within the long
+     */
+    private long index(final int hash, final int depth) {
+        long index = (hash + SEEDS[depth]) * SEEDS[depth];
+        index += index >>> 32;
+        return (index & (this.table.length - 1)) | (index & 0xfc00000000000000L);
+    }
+
+    private static int spread(final int hash) {
+        final int spread = hash * 0x9e3779b9;
+        return spread ^ (spread >>> 16);
+    }
+}
@@ -0,0 +1,93 @@
+package com.oop.memorystore.implementation.expiring;
+
+/**
+ * Evicts the least frequently accessed reference. References are kept in buckets of equal access count, buckets are
+ * ordered by count, so adding, accessing and evicting references are all constant time.
+ *
+ * @param <V> value type
+ */
+class LfuEvictor<V> extends Evictor<V> {
+    private final Bucket<V> buckets = new Bucket<>(0);
+
+    LfuEvictor(final long maximum, final Weigher<V> weigher) {
+        super(maximum, weigher);
+        this.buckets.previous = this.buckets;
+        this.buckets.next = this.buckets;
+    }
+
+    @Override
+    protected void onAdd(final ExpiringReference<V> reference) {
+        this.moveTo(this.buckets, 1, reference);
+    }
+
+    @Override
+    protected void onAccess(final ExpiringReference<V> reference) {
+        final Bucket<V> bucket = queueOf(reference);
+
+        if (bucket.frequency == Integer.MAX_VALUE) {
+            unlink(reference);
+            link(bucket.references, reference);
+            return;
+        }
+
+        unlink(reference);
+        this.moveTo(this.removeIfEmpty(bucket) ? bucket.previous : bucket, bucket.frequency + 1, reference);
+    }
+
+    @Override
+    protected void onRemove(final ExpiringReference<V> reference) {
+        unlink(reference);
+        this.removeIfEmpty(queueOf(reference));
+    }
+
+    private boolean removeIfEmpty(final Bucket<V> bucket) {
+        if (!isEmpty(bucket.references)) {
+            return false;
+        }
+
+        bucket.previous.next = bucket.next;
+        bucket.next.previous = bucket.previous;
+        return true;
+    }
+
+    /**
+     * Link the reference into the bucket of the given frequency following the given bucket, creating it if needed
+     */
+    private void moveTo(final Bucket<V> previous, final int frequency, final ExpiringReference<V> reference) {
+        Bucket<V> bucket = previous.next;
+
+        if (bucket == this.buckets || bucket.frequency != frequency) {
+            bucket = new Bucket<>(frequency);
+            bucket.previous = previous;
+            bucket.next = previous.next;
+            previous.next.previous = bucket;
+            previous.next = bucket;
+        }
+
+        link(bucket.references, reference);
+        reference.queue = bucket;
+    }
+
+    @Override
+    ExpiringReference<V> victim() {
+        return this.buckets.next == this.buckets ? null : first(this.buckets.next.references);
+    }
+
+    @Override
+    void clear() {
+        super.clear();
+        this.buckets.previous = this.buckets;
+        this.buckets.next = this.buckets;
+    }
+
+    private static class Bucket<V> {
+        private final int frequency;
+        private final ExpiringReference<V> references = queue();
+        private Bucket<V> previous;
+        private Bucket<V> next;
+
+        Bucket(final int frequency) {
+            this.frequency = frequency;
+        }
+    }
+}
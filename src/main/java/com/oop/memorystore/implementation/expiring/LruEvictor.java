@@ -0,0 +1,41 @@
+package com.oop.memorystore.implementation.expiring;
+
+/**
+ * Evicts the least recently accessed reference, references are kept in access order
+ *
+ * @param <V> value type
+ */
+class LruEvictor<V> extends Evictor<V> {
+    private final ExpiringReference<V> accessOrder = queue();
+
+    LruEvictor(final long maximum, final Weigher<V> weigher) {
+        super(maximum, weigher);
+    }
+
+    @Override
+    protected void onAdd(final ExpiringReference<V> reference) {
+        link(this.accessOrder, reference);
+    }
+
+    @Override
+    protected void onAccess(final ExpiringReference<V> reference) {
+        unlink(reference);
+        link(this.accessOrder, reference);
+    }
+
+    @Override
+    protected void onRemove(final ExpiringReference<V> reference) {
+        unlink(reference);
+    }
+
+    @Override
+    ExpiringReference<V> victim() {
+        return first(this.accessOrder);
+    }
+
+    @Override
+    void clear() {
+        super.clear();
+        clear(this.accessOrder);
+    }
+}
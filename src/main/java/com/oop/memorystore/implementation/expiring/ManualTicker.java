@@ -0,0 +1,31 @@
+package com.oop.memorystore.implementation.expiring;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ticker only moving when told to, so expirations can be triggered deterministically
+ */
+public class ManualTicker implements Ticker {
+    private volatile long now;
+
+    public ManualTicker() {
+        this(0);
+    }
+
+    public ManualTicker(final long now) {
+        this.now = now;
+    }
+
+    @Override
+    public long read() {
+        return this.now;
+    }
+
+    public void set(final long now) {
+        this.now = now;
+    }
+
+    public void advance(final long time, final TimeUnit unit) {
+        this.now += unit.toMillis(time);
+    }
+}
@@ -5,6 +5,8 @@ import com.oop.memorystore.api.ExpiringStore;
 import com.oop.memorystore.api.StoreQuery;
 import com.oop.memorystore.implementation.StoreQueryImpl;
 import com.oop.memorystore.implementation.SynchronizedStore;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 public class SynchronizedExpiringStore<V> extends SynchronizedStore<V> implements ExpiringStore<V> {
 
@@ -19,8 +21,24 @@ public class SynchronizedExpiringStore<V> extends SynchronizedStore<V> implement
 
     @Override
     public void invalidate() {
+        final long requested = this.lockRequested();
         synchronized (this.mutex) {
+            this.lockAcquired(requested);
             ((ExpiringMemoryStore<V>) this.store).invalidate();
         }
     }
+
+    @Override
+    public int invalidate(final int maxEntries, final long maxTime, final TimeUnit unit) {
+        final long requested = this.lockRequested();
+        synchronized (this.mutex) {
+            this.lockAcquired(requested);
+            return ((ExpiringMemoryStore<V>) this.store).invalidate(maxEntries, maxTime, unit);
+        }
+    }
+
+    @Override
+    public Optional<ExpirationSweeper<V>> getSweeper() {
+        return ((ExpiringMemoryStore<V>) this.store).getSweeper();
+    }
 }
@@ -0,0 +1,37 @@
+package com.oop.memorystore.implementation.expiring;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Source of the current time used to expire values. Expiring stores read the time once per lookup or batch and hand it
+ * to every policy, a ticker can be replaced by a coarser or a manual one.
+ */
+@FunctionalInterface
+public interface Ticker {
+
+    /**
+     * Read the current time
+     *
+     * @return time in milliseconds
+     */
+    long read();
+
+    /**
+     * Ticker reading the system clock on every call
+     */
+    static Ticker system() {
+        return System::currentTimeMillis;
+    }
+
+    /**
+     * Ticker caching the system clock, refreshed by a background thread. Reading it is a volatile read, at the cost of
+     * being up to the given period behind. Close the ticker to stop its thread.
+     *
+     * @param period delay between two refreshes
+     * @param unit unit of the period
+     * @return coarse ticker
+     */
+    static CoarseTicker coarse(final long period, final TimeUnit unit) {
+        return new CoarseTicker(period, unit);
+    }
+}
@@ -0,0 +1,195 @@
+package com.oop.memorystore.implementation.expiring;
+
+import com.oop.memorystore.implementation.stats.MemoryEstimates;
+import java.util.function.ToLongFunction;
+
+/**
+ * Hierarchical timing wheel holding the expiration deadline of every scheduled reference. Each level has 64 slots, a
+ * slot of the first level spans one tick and a slot of every following level spans a whole turn of the level below.
+ * References are placed in the level matching how far their deadline is and move down a level whenever their slot comes
+ * up, so every reference is touched a bounded number of times before it is due no matter how many are scheduled.
+ * <br>
+ * Deadlines are only ever checked once a slot comes up. Moving a deadline back therefore doesn't require moving the
+ * reference, it is rescheduled once its previous slot comes up.
+ * <br>
+ * References are linked into the slots directly, so scheduling a reference doesn't allocate and a reference is only
+ * ever scheduled on a single wheel.
+ *
+ * @param <V> value type
+ */
+class TimingWheel<V> {
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int LEVELS = 6;
+    private static final long SPAN = 1L << (SLOT_BITS * LEVELS);
+
+    private final long tickMillis;
+    private final ExpiringReference<V>[][] levels;
+    private long currentTick;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    TimingWheel(final long tickMillis, final long now) {
+        this.tickMillis = tickMillis;
+        this.levels = (ExpiringReference<V>[][]) new ExpiringReference<?>[LEVELS][SLOTS];
+        this.currentTick = now / tickMillis;
+
+        for (final ExpiringReference<V>[] slots : this.levels) {
+            for (int slot = 0; slot < SLOTS; slot++) {
+                final ExpiringReference<V> sentinel = new ExpiringReference<>(null);
+                sentinel.previous = sentinel;
+                sentinel.next = sentinel;
+                slots[slot] = sentinel;
+            }
+        }
+    }
+
+    /**
+     * Schedule a reference, replacing its previous deadline if it was already scheduled
+     *
+     * @param reference reference to schedule
+     * @param deadline time in milliseconds at which the reference is due
+     */
+    void schedule(final ExpiringReference<V> reference, final long deadline) {
+        if (reference.wheel == this) {
+            this.unlink(reference);
+        } else {
+            this.size++;
+        }
+
+        reference.deadline = deadline;
+        reference.wheel = this;
+        this.insert(reference);
+    }
+
+    void remove(final ExpiringReference<V> reference) {
+        if (reference.wheel != this) {
+            return;
+        }
+
+        this.unlink(reference);
+        reference.wheel = null;
+        this.size--;
+    }
+
+    int size() {
+        return this.size;
+    }
+
+    /**
+     * @return estimated bytes of the slots, not counting the scheduled references
+     */
+    long sizeInBytes() {
+        return MemoryEstimates.referenceArray(LEVELS)
+            + LEVELS * (MemoryEstimates.referenceArray(SLOTS) + SLOTS * ExpiringReference.SIZE_IN_BYTES);
+    }
+
+    void clear() {
+        for (final ExpiringReference<V>[] slots : this.levels) {
+            for (final ExpiringReference<V> sentinel : slots) {
+                ExpiringReference<V> reference = sentinel.next;
+                while (reference != sentinel) {
+                    final ExpiringReference<V> next = reference.next;
+                    reference.previous = null;
+                    reference.next = null;
+                    reference.wheel = null;
+                    reference = next;
+                }
+
+                sentinel.previous = sentinel;
+                sentinel.next = sentinel;
+            }
+        }
+
+        this.size = 0;
+    }
+
+    /**
+     * Advance the wheel to the given time. Every reference whose deadline passed is handed to the expirer, which returns
+     * -1 to drop the reference or the time at which it is due again.
+     *
+     * @param now current time in milliseconds
+     * @param expirer called for every reference that is due
+     */
+    void advance(final long now, final ToLongFunction<ExpiringReference<V>> expirer) {
+        final long previousTick = this.currentTick;
+        final long tick = now / this.tickMillis;
+
+        if (tick <= previousTick) {
+            return;
+        }
+
+        this.currentTick = tick;
+
+        for (int level = 0; level < LEVELS; level++) {
+            final int shift = level * SLOT_BITS;
+            final long previous = previousTick >>> shift;
+            final long current = tick >>> shift;
+
+            if (current == previous) {
+                break;
+            }
+
+            final long turned = Math.min(current - previous, SLOTS);
+            for (long index = 1; index <= turned; index++) {
+                this.expire(this.levels[level][(int) ((previous + index) & (SLOTS - 1))], now, expirer);
+            }
+        }
+    }
+
+    private void expire(
+        final ExpiringReference<V> sentinel, final long now, final ToLongFunction<ExpiringReference<V>> expirer) {
+        ExpiringReference<V> reference = sentinel.next;
+        sentinel.previous = sentinel;
+        sentinel.next = sentinel;
+
+        while (reference != sentinel) {
+            final ExpiringReference<V> next = reference.next;
+            reference.previous = null;
+            reference.next = null;
+
+            if (reference.deadline <= now) {
+                reference.deadline = expirer.applyAsLong(reference);
+            }
+
+            if (reference.deadline < 0) {
+                reference.wheel = null;
+                this.size--;
+            } else {
+                this.insert(reference);
+            }
+
+            reference = next;
+        }
+    }
+
+    private void insert(final ExpiringReference<V> reference) {
+        // Deadlines that already passed are due on the next tick, deadlines beyond the last level wait in the last level
+        // and are placed again once their slot comes up
+        long tick = Math.max((reference.deadline + this.tickMillis - 1) / this.tickMillis, this.currentTick + 1);
+        tick = Math.min(tick, this.currentTick + SPAN - 1);
+
+        final long delta = tick - this.currentTick;
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= 1L << (SLOT_BITS * (level + 1))) {
+            level++;
+        }
+
+        final ExpiringReference<V> sentinel = this.levels[level][(int) ((tick >>> (level * SLOT_BITS)) & (SLOTS - 1))];
+        reference.previous = sentinel.previous;
+        reference.next = sentinel;
+        sentinel.previous.next = reference;
+        sentinel.previous = reference;
+    }
+
+    private void unlink(final ExpiringReference<V> reference) {
+        if (reference.previous == null) {
+            return;
+        }
+
+        reference.previous.next = reference.next;
+        reference.next.previous = reference.previous;
+        reference.previous = null;
+        reference.next = null;
+    }
+}
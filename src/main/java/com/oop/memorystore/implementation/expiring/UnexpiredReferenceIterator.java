@@ -0,0 +1,83 @@
+package com.oop.memorystore.implementation.expiring;
+
+import com.oop.memorystore.implementation.reference.Reference;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Iterator skipping expired references. Expired references are invalidated once the iteration is exhausted, so index
+ * buckets are never modified while they are being iterated. Callers stopping before the end must call
+ * {@link #invalidateExpired()} themselves. The time is read once, when the iterator is created.
+ *
+ * @param <V> value type
+ */
+public class UnexpiredReferenceIterator<V> implements Iterator<Reference<V>> {
+    private final ExpiringMemoryStore<V> store;
+    private final Iterator<Reference<V>> iterator;
+    private final List<Reference<V>> expired = new ArrayList<>();
+    private final long now;
+    private Reference<V> next;
+
+    public UnexpiredReferenceIterator(final ExpiringMemoryStore<V> store, final Iterator<Reference<V>> iterator) {
+        this.store = store;
+        this.iterator = iterator;
+        this.now = store.getExpirationManager().now();
+    }
+
+    /**
+     * Time at which references are checked for expiration
+     *
+     * @return time in milliseconds
+     */
+    public long getTime() {
+        return this.now;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (this.next == null && this.iterator.hasNext()) {
+            final Reference<V> reference = this.iterator.next();
+            if (this.store.getExpirationManager().checkExpiration(reference, this.now)) {
+                this.expired.add(reference);
+                continue;
+            }
+
+            this.next = reference;
+        }
+
+        if (this.next == null) {
+            this.invalidateExpired();
+            return false;
+        }
+
+        return true;
+    }
+
+    @Override
+    public Reference<V> next() {
+        if (!this.hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        final Reference<V> result = this.next;
+        this.next = null;
+        return result;
+    }
+
+    /**
+     * Invalidate all expired references found so far. Must only be called once the source iterator is no longer used.
+     */
+    public void invalidateExpired() {
+        if (this.expired.isEmpty()) {
+            return;
+        }
+
+        for (final Reference<V> reference : this.expired) {
+            this.store.invalidate(reference.get());
+        }
+
+        this.expired.clear();
+    }
+}
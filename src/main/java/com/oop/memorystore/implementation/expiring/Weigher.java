@@ -0,0 +1,25 @@
+package com.oop.memorystore.implementation.expiring;
+
+/**
+ * Calculates the weight of a stored value, used to bound a store by the total weight of its values
+ *
+ * @param <V> value type
+ */
+@FunctionalInterface
+public interface Weigher<V> {
+
+    /**
+     * Weigh a value. The weight is calculated once, when the value is added.
+     *
+     * @param value value to weigh
+     * @return non negative weight
+     */
+    int weigh(V value);
+
+    /**
+     * Weigher weighing every value as 1, bounding a store by its number of values
+     */
+    static <V> Weigher<V> singleton() {
+        return value -> 1;
+    }
+}
@@ -0,0 +1,128 @@
+package com.oop.memorystore.implementation.expiring;
+
+/**
+ * Window TinyLFU eviction. New references enter an LRU window taking 1% of the maximum weight. References leaving the
+ * window are admitted into the main space only if the frequency sketch estimates they were accessed more often than the
+ * reference they would evict, otherwise they are evicted themselves. The main space is a segmented LRU: references
+ * start on probation and move to the protected segment, holding up to 80% of the main space, when accessed again.
+ *
+ * @param <V> value type
+ */
+class WindowTinyLfuEvictor<V> extends Evictor<V> {
+    private final ExpiringReference<V> window = queue();
+    private final ExpiringReference<V> probation = queue();
+    private final ExpiringReference<V> protectedQueue = queue();
+    private final FrequencySketch sketch = new FrequencySketch();
+    private final long maximumWindow;
+    private final long maximumProtected;
+    private long windowWeight;
+    private long protectedWeight;
+    private long count;
+
+    WindowTinyLfuEvictor(final long maximum, final Weigher<V> weigher) {
+        super(maximum, weigher);
+        this.maximumWindow = Math.max(1, maximum / 100);
+        this.maximumProtected = (maximum - this.maximumWindow) * 8 / 10;
+        this.sketch.ensureCapacity(Math.min(maximum, 1024));
+    }
+
+    @Override
+    protected void onAdd(final ExpiringReference<V> reference) {
+        if (++this.count > 1024) {
+            this.sketch.ensureCapacity(this.count);
+        }
+
+        this.sketch.increment(reference.get());
+        this.windowWeight += reference.weight;
+        link(this.window, reference);
+        reference.queue = this.window;
+    }
+
+    @Override
+    protected void onAccess(final ExpiringReference<V> reference) {
+        this.sketch.increment(reference.get());
+        unlink(reference);
+
+        if (reference.queue == this.probation) {
+            this.protect(reference);
+
+            while (this.protectedWeight > this.maximumProtected && first(this.protectedQueue) != reference) {
+                final ExpiringReference<V> demoted = first(this.protectedQueue);
+                unlink(demoted);
+                this.protectedWeight -= demoted.weight;
+                link(this.probation, demoted);
+                demoted.queue = this.probation;
+            }
+
+            return;
+        }
+
+        final ExpiringReference<V> queue = queueOf(reference);
+        link(queue, reference);
+    }
+
+    @Override
+    protected void onRemove(final ExpiringReference<V> reference) {
+        this.count--;
+        unlink(reference);
+
+        if (reference.queue == this.window) {
+            this.windowWeight -= reference.weight;
+        } else if (reference.queue == this.protectedQueue) {
+            this.protectedWeight -= reference.weight;
+        }
+    }
+
+    @Override
+    ExpiringReference<V> victim() {
+        while (this.windowWeight > this.maximumWindow) {
+            final ExpiringReference<V> candidate = first(this.window);
+            final long mainWeight = this.getWeight() - this.windowWeight;
+
+            if (mainWeight + candidate.weight <= this.getMaximum() - this.maximumWindow) {
+                this.admit(candidate);
+                continue;
+            }
+
+            final ExpiringReference<V> victim = this.mainVictim();
+            if (victim == null || this.sketch.frequency(candidate.get()) <= this.sketch.frequency(victim.get())) {
+                return candidate;
+            }
+
+            this.admit(candidate);
+            return victim;
+        }
+
+        final ExpiringReference<V> victim = this.mainVictim();
+        return victim == null ? first(this.window) : victim;
+    }
+
+    private ExpiringReference<V> mainVictim() {
+        final ExpiringReference<V> victim = first(this.probation);
+        return victim == null ? first(this.protectedQueue) : victim;
+    }
+
+    private void admit(final ExpiringReference<V> reference) {
+        unlink(reference);
+        this.windowWeight -= reference.weight;
+        link(this.probation, reference);
+        reference.queue = this.probation;
+    }
+
+    private void protect(final ExpiringReference<V> reference) {
+        this.protectedWeight += reference.weight;
+        link(this.protectedQueue, reference);
+        reference.queue = this.protectedQueue;
+    }
+
+    @Override
+    void clear() {
+        super.clear();
+        clear(this.window);
+        clear(this.probation);
+        clear(this.protectedQueue);
+        this.windowWeight = 0;
+        this.protectedWeight = 0;
+        this.count = 0;
+    }
+}
@@ -14,6 +14,46 @@ public interface ExpiringPolicy<V, T extends ExpiringPolicy.ExpirationData> {
 
     void onAccess(V value, T data);
 
+    /**
+     * Create the expiration data of a value added at the given time, stores call this variant with the time of their
+     * {@link com.oop.memorystore.implementation.expiring.Ticker}. Time based policies override it, others keep the
+     * default ignoring the time.
+     */
+    default T createExpirationData(final V value, final long now) {
+        return this.createExpirationData(value);
+    }
+
+    /**
+     * Check whether the value expired at the given time, see {@link #createExpirationData(Object, long)}
+     */
+    default boolean checkExpiration(final V value, final T data, final long now) {
+        return this.checkExpiration(value, data);
+    }
+
+    /**
+     * Record an access to the value at the given time, see {@link #createExpirationData(Object, long)}
+     */
+    default void onAccess(final V value, final T data, final long now) {
+        this.onAccess(value, data);
+    }
+
+    /**
+     * Time in milliseconds at which the value expires unless it is accessed before. Stores use it to schedule expirations
+     * instead of scanning for them, policies that can't tell in advance return -1.
+     */
+    default long getExpirationTime(final V value, final T data) {
+        return -1;
+    }
+
+    /**
+     * Copy the expiration data of a value for a copy of the store, so accesses to the copy don't change when the value
+     * expires in the original store. Policies whose data changes once created must override it, the default shares the
+     * data.
+     */
+    default T copyExpirationData(final V value, final T data) {
+        return data;
+    }
+
     default void onExpire(final V value) {
     }
 
@@ -30,29 +30,58 @@ public class TimedExpiringPolicy<V>
 
   @Override
   public TimedExpirationData createExpirationData(final V value) {
-    return this.expirationDataFunction.apply(value);
+    return this.createExpirationData(value, System.currentTimeMillis());
+  }
+
+  @Override
+  public TimedExpirationData createExpirationData(final V value, final long now) {
+    final TimedExpirationData data = this.expirationDataFunction.apply(value);
+    data.lastFetched = now;
+    return data;
   }
 
   @Override
   public boolean checkExpiration(final V value, final TimedExpirationData data) {
-    return (System.currentTimeMillis() - data.lastFetched) >= data.unit.toMillis(data.time);
+    return this.checkExpiration(value, data, System.currentTimeMillis());
+  }
+
+  @Override
+  public boolean checkExpiration(final V value, final TimedExpirationData data, final long now) {
+    return (now - data.lastFetched) >= data.unit.toMillis(data.time);
+  }
+
+  @Override
+  public long getExpirationTime(final V value, final TimedExpirationData data) {
+    return data.lastFetched + data.unit.toMillis(data.time);
   }
 
   @Override
   public void onAccess(final V value, final TimedExpirationData data) {
+    this.onAccess(value, data, System.currentTimeMillis());
+  }
+
+  @Override
+  public void onAccess(final V value, final TimedExpirationData data, final long now) {
       if (!data.shouldResetAfterAccess) {
           return;
       }
 
-      data.lastFetched = System.currentTimeMillis();
+      data.lastFetched = now;
+  }
+
+  @Override
+  public TimedExpirationData copyExpirationData(final V value, final TimedExpirationData data) {
+    final TimedExpirationData copy = new TimedExpirationData(data.unit, data.time, data.shouldResetAfterAccess);
+    copy.lastFetched = data.lastFetched;
+    return copy;
   }
 
   public static class TimedExpirationData implements ExpiringPolicy.ExpirationData {
     private final TimeUnit unit;
     private final long time;
     private final boolean shouldResetAfterAccess;
-    /** When was reference last fetched. By default it's set to it's creation time */
-    private long lastFetched = System.currentTimeMillis();
+    /** When was reference last fetched. Set to it's creation time by the policy */
+    private long lastFetched;
 
     public TimedExpirationData(final TimeUnit unit, final long time, final boolean shouldResetAfterAccess) {
       this.unit = unit;
@@ -0,0 +1,235 @@
+package com.oop.memorystore.implementation.index;
+
+import com.oop.memorystore.implementation.stats.MemoryEstimates;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Insertion ordered set sized for index buckets and key sets, most of which hold a single element. A single element is
+ * held inline, up to {@link #ARRAY_CAPACITY} elements are held in an array searched linearly and only larger sets are
+ * backed by a {@link LinkedHashSet}. Null elements are not supported and the set is not thread safe.
+ *
+ * @param <E> element type
+ */
+final class CompactSet<E> extends AbstractSet<E> {
+  static final int ARRAY_CAPACITY = 8;
+
+  /** The single element, an array of elements or a hash set, depending on the size */
+  private Object elements;
+  private int size;
+  private boolean hashed;
+
+  CompactSet() {
+  }
+
+  CompactSet(final Collection<? extends E> elements) {
+    elements.forEach(this::add);
+  }
+
+  @Override
+  public int size() {
+    return this.hashed ? this.hashSet().size() : this.size;
+  }
+
+  @Override
+  public boolean contains(final Object element) {
+    if (this.hashed) {
+      return this.hashSet().contains(element);
+    }
+
+    if (this.size == 1) {
+      return this.elements.equals(element);
+    }
+
+    return this.indexOf(element) != -1;
+  }
+
+  @Override
+  public boolean add(final E element) {
+    if (this.hashed) {
+      return this.hashSet().add(element);
+    }
+
+    if (this.size == 0) {
+      this.elements = element;
+      this.size = 1;
+      return true;
+    }
+
+    if (this.contains(element)) {
+      return false;
+    }
+
+    if (this.size == 1) {
+      final Object[] array = new Object[4];
+      array[0] = this.elements;
+      array[1] = element;
+      this.elements = array;
+      this.size = 2;
+      return true;
+    }
+
+    if (this.size == ARRAY_CAPACITY) {
+      final Set<E> hashSet = new LinkedHashSet<>(ARRAY_CAPACITY * 4);
+      this.forEach(hashSet::add);
+      hashSet.add(element);
+      this.elements = hashSet;
+      this.hashed = true;
+      return true;
+    }
+
+    Object[] array = (Object[]) this.elements;
+    if (this.size == array.length) {
+      array = Arrays.copyOf(array, ARRAY_CAPACITY);
+      this.elements = array;
+    }
+
+    array[this.size++] = element;
+    return true;
+  }
+
+  @Override
+  public boolean remove(final Object element) {
+    if (this.hashed) {
+      final Set<E> hashSet = this.hashSet();
+      if (!hashSet.remove(element)) {
+        return false;
+      }
+
+      // shrink back once well below the array capacity, so sets around the threshold don't convert on every change
+      if (hashSet.size() <= ARRAY_CAPACITY / 2) {
+        this.hashed = false;
+        this.elements = null;
+        this.size = 0;
+        hashSet.forEach(this::add);
+      }
+
+      return true;
+    }
+
+    if (this.size == 1) {
+      if (!this.elements.equals(element)) {
+        return false;
+      }
+
+      this.elements = null;
+      this.size = 0;
+      return true;
+    }
+
+    final int index = this.indexOf(element);
+    if (index == -1) {
+      return false;
+    }
+
+    this.removeAt(index);
+    return true;
+  }
+
+  @Override
+  public void clear() {
+    this.elements = null;
+    this.size = 0;
+    this.hashed = false;
+  }
+
+  @Override
+  public Iterator<E> iterator() {
+    if (this.hashed) {
+      return this.hashSet().iterator();
+    }
+
+    return new Iterator<E>() {
+      private int next;
+      private boolean removable;
+
+      @Override
+      public boolean hasNext() {
+        return this.next < CompactSet.this.size;
+      }
+
+      @Override
+      public E next() {
+        if (!this.hasNext()) {
+          throw new NoSuchElementException();
+        }
+
+        this.removable = true;
+        return CompactSet.this.get(this.next++);
+      }
+
+      @Override
+      public void remove() {
+        if (!this.removable) {
+          throw new IllegalStateException();
+        }
+
+        this.removable = false;
+        CompactSet.this.removeAt(--this.next);
+      }
+    };
+  }
+
+  /**
+   * Estimated bytes of a set, see {@link MemoryEstimates}
+   *
+   * @param set compact or JDK set
+   * @return estimated bytes
+   */
+  static long sizeInBytes(final Set<?> set) {
+    if (!(set instanceof CompactSet)) {
+      return MemoryEstimates.set(set);
+    }
+
+    final CompactSet<?> compactSet = (CompactSet<?>) set;
+    final long bytes = MemoryEstimates.object(12);
+
+    if (compactSet.hashed) {
+      return bytes + MemoryEstimates.set(compactSet.hashSet());
+    }
+
+    return compactSet.size > 1 ? bytes + MemoryEstimates.referenceArray(((Object[]) compactSet.elements).length) : bytes;
+  }
+
+  @SuppressWarnings("unchecked")
+  private E get(final int index) {
+    return this.size == 1 ? (E) this.elements : (E) ((Object[]) this.elements)[index];
+  }
+
+  private int indexOf(final Object element) {
+    final Object[] array = (Object[]) this.elements;
+    for (int index = 0; index < this.size; index++) {
+      if (array[index].equals(element)) {
+        return index;
+      }
+    }
+
+    return -1;
+  }
+
+  private void removeAt(final int index) {
+    if (this.size == 1) {
+      this.elements = null;
+      this.size = 0;
+      return;
+    }
+
+    final Object[] array = (Object[]) this.elements;
+    System.arraycopy(array, index + 1, array, index, this.size - index - 1);
+    array[--this.size] = null;
+
+    if (this.size == 1) {
+      this.elements = array[0];
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private Set<E> hashSet() {
+    return (Set<E>) this.elements;
+  }
+}
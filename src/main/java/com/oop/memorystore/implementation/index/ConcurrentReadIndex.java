@@ -0,0 +1,93 @@
+package com.oop.memorystore.implementation.index;
+
+import com.oop.memorystore.implementation.StoreLock;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Index guarded by the {@link StoreLock} of a {@link com.oop.memorystore.implementation.ConcurrentReadStore}
+ *
+ * @param <T> value type
+ */
+public class ConcurrentReadIndex<T> implements Index<T> {
+    private final Index<T> index;
+    protected final StoreLock lock;
+
+    public ConcurrentReadIndex(final Index<T> index, final StoreLock lock) {
+        this.index = index;
+        this.lock = lock;
+    }
+
+    @Override
+    public T getFirst(final Object key) {
+        return this.lock.read(() -> this.index.getFirst(key));
+    }
+
+    @Override
+    public Optional<T> findFirst(final Object key) {
+        return this.lock.read(() -> this.index.findFirst(key));
+    }
+
+    @Override
+    public List<T> get(final Object key) {
+        return this.lock.read(() -> this.index.get(key));
+    }
+
+    @Override
+    public String getName() {
+        return this.index.getName();
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        if (this == other) {
+            return true;
+        }
+
+        if (other == null || this.getClass() != other.getClass()) {
+            return false;
+        }
+
+        final ConcurrentReadIndex<?> that = (ConcurrentReadIndex<?>) other;
+        return Objects.equals(this.index, that.index);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.index);
+    }
+
+    @Override
+    public String toString() {
+        return String.valueOf(this.index);
+    }
+
+    public Index<T> getIndex() {
+        return this.index;
+    }
+
+    /**
+     * Wrap an index, keeping the sorted and primitive index interfaces of the wrapped index
+     *
+     * @param index index to wrap
+     * @param lock  lock guarding the store of the index
+     * @param <T>   value type
+     * @return guarded index
+     */
+    public static <T> ConcurrentReadIndex<T> of(final Index<T> index, final StoreLock lock) {
+        if (index instanceof IntIndex) {
+            return new ConcurrentReadIntIndex<>((IntIndex<T>) index, lock);
+        }
+
+        if (index instanceof LongIndex) {
+            return new ConcurrentReadLongIndex<>((LongIndex<T>) index, lock);
+        }
+
+        if (index instanceof SortedIndex) {
+            return new ConcurrentReadSortedIndex<>((SortedIndex<T>) index, lock);
+        }
+
+        return new ConcurrentReadIndex<>(index, lock);
+    }
+}
@@ -0,0 +1,24 @@
+package com.oop.memorystore.implementation.index;
+
+import com.oop.memorystore.implementation.StoreLock;
+import java.util.List;
+import java.util.Optional;
+
+public class ConcurrentReadIntIndex<T> extends ConcurrentReadIndex<T> implements IntIndex<T> {
+    private final IntIndex<T> intIndex;
+
+    public ConcurrentReadIntIndex(final IntIndex<T> index, final StoreLock lock) {
+        super(index, lock);
+        this.intIndex = index;
+    }
+
+    @Override
+    public Optional<T> findFirst(final int key) {
+        return this.lock.read(() -> this.intIndex.findFirst(key));
+    }
+
+    @Override
+    public List<T> get(final int key) {
+        return this.lock.read(() -> this.intIndex.get(key));
+    }
+}
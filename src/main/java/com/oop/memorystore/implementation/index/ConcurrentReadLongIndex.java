@@ -0,0 +1,24 @@
+package com.oop.memorystore.implementation.index;
+
+import com.oop.memorystore.implementation.StoreLock;
+import java.util.List;
+import java.util.Optional;
+
+public class ConcurrentReadLongIndex<T> extends ConcurrentReadIndex<T> implements LongIndex<T> {
+    private final LongIndex<T> longIndex;
+
+    public ConcurrentReadLongIndex(final LongIndex<T> index, final StoreLock lock) {
+        super(index, lock);
+        this.longIndex = index;
+    }
+
+    @Override
+    public Optional<T> findFirst(final long key) {
+        return this.lock.read(() -> this.longIndex.findFirst(key));
+    }
+
+    @Override
+    public List<T> get(final long key) {
+        return this.lock.read(() -> this.longIndex.get(key));
+    }
+}
@@ -0,0 +1,40 @@
+package com.oop.memorystore.implementation.index;
+
+import com.oop.memorystore.implementation.StoreLock;
+import com.oop.memorystore.implementation.query.Range;
+import java.util.List;
+import java.util.Optional;
+
+public class ConcurrentReadSortedIndex<T> extends ConcurrentReadIndex<T> implements SortedIndex<T> {
+    private final SortedIndex<T> sortedIndex;
+
+    public ConcurrentReadSortedIndex(final SortedIndex<T> index, final StoreLock lock) {
+        super(index, lock);
+        this.sortedIndex = index;
+    }
+
+    @Override
+    public List<T> range(final Range range) {
+        return this.lock.readLocked(() -> this.sortedIndex.range(range));
+    }
+
+    @Override
+    public Optional<T> floor(final Object key) {
+        return this.lock.read(() -> this.sortedIndex.floor(key));
+    }
+
+    @Override
+    public Optional<T> ceiling(final Object key) {
+        return this.lock.read(() -> this.sortedIndex.ceiling(key));
+    }
+
+    @Override
+    public List<T> ascending() {
+        return this.lock.readLocked(this.sortedIndex::ascending);
+    }
+
+    @Override
+    public List<T> descending() {
+        return this.lock.readLocked(this.sortedIndex::descending);
+    }
+}
@@ -0,0 +1,102 @@
+package com.oop.memorystore.implementation.index;
+
+import com.oop.memorystore.implementation.concurrent.StripedLocks;
+import com.oop.memorystore.implementation.index.comparison.ComparisonPolicy;
+import com.oop.memorystore.implementation.index.reducer.Reducer;
+import com.oop.memorystore.implementation.reference.Reference;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Reference index which can be read while it is being written. Lookups never block, buckets are
+ * modified under a lock striped by key so writers of different keys do not wait for each other.
+ * Writes of the same reference must be serialised by the caller.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+public class ConcurrentReferenceIndex<K, V> extends ReferenceIndex<K, V> {
+  private final StripedLocks keyLocks;
+
+  private ConcurrentReferenceIndex(
+      final String name,
+      final KeyMapper<Collection<K>, V> keyMapper,
+      final Reducer<K, V> reducer,
+      final ComparisonPolicy<K> comparisonPolicy,
+      final ConcurrentMap<K, References<K, V>> keyToReferencesMap,
+      final ConcurrentMap<Reference<V>, Set<K>> referenceToKeysMap) {
+    super(name, keyMapper, reducer, comparisonPolicy, keyToReferencesMap, referenceToKeysMap, false);
+    this.keyLocks = new StripedLocks();
+  }
+
+  public ConcurrentReferenceIndex(
+      final String indexName,
+      final KeyMapper<Collection<K>, V> keyMapper,
+      final Reducer<K, V> reducer,
+      final ComparisonPolicy<K> comparisonPolicy) {
+    this(
+        indexName,
+        keyMapper,
+        reducer,
+        comparisonPolicy,
+        new ConcurrentHashMap<>(),
+        new ConcurrentHashMap<>());
+  }
+
+  @Override
+  protected void addToBucket(final K key, final Reference<V> reference) {
+    final ReentrantLock lock = this.keyLocks.get(key);
+    lock.lock();
+    try {
+      super.addToBucket(key, reference);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  protected void addAllToBucket(final K key, final List<Reference<V>> references) {
+    final ReentrantLock lock = this.keyLocks.get(key);
+    lock.lock();
+    try {
+      super.addAllToBucket(key, references);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  protected void removeFromBucket(final K key, final Reference<V> reference) {
+    final ReentrantLock lock = this.keyLocks.get(key);
+    lock.lock();
+    try {
+      super.removeFromBucket(key, reference);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  protected References<K, V> createReferences(final K key) {
+    return References.concurrent(key, this.reducer);
+  }
+
+  @Override
+  public ConcurrentReferenceIndex<K, V> copy() {
+    final ConcurrentMap<K, References<K, V>> keyToReferencesMapCopy = new ConcurrentHashMap<>();
+    this.keyToReferencesMap.forEach((key, references) -> keyToReferencesMapCopy.put(key, references.copy()));
+
+    return new ConcurrentReferenceIndex<>(
+        this.name,
+        this.keyMapper,
+        this.reducer,
+        this.comparisonPolicy,
+        keyToReferencesMapCopy,
+        new ConcurrentHashMap<>(this.referenceToKeysMap));
+  }
+}
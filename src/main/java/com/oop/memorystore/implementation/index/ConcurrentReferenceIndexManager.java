@@ -0,0 +1,44 @@
+package com.oop.memorystore.implementation.index;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Index manager of a {@link com.oop.memorystore.implementation.concurrent.ConcurrentMemoryStore}. Indexes can be
+ * looked up without locking, every index is a {@link ConcurrentReferenceIndex}.
+ *
+ * @param <V> value type
+ */
+public class ConcurrentReferenceIndexManager<V> extends IndexManager<V> {
+  private ConcurrentReferenceIndexManager(final Collection<ReferenceIndex<?, V>> indexes) {
+    super(indexes, new ConcurrentHashMap<>());
+  }
+
+  public ConcurrentReferenceIndexManager() {
+    this(Collections.emptyList());
+  }
+
+  @Override
+  protected IndexManager<V> createCopy(final Set<ReferenceIndex<?, V>> indexes) {
+    return new ConcurrentReferenceIndexManager<>(indexes);
+  }
+
+  @Override
+  protected <K> ReferenceIndex<K, V> createIndex(
+      final String indexName, final IndexDefinition<K, V> indexDefinition) {
+    if (indexDefinition instanceof SortedIndexDefinition
+        || indexDefinition instanceof IntIndexDefinition
+        || indexDefinition instanceof LongIndexDefinition) {
+      throw new IllegalArgumentException(
+          "Sorted and primitive indexes are not supported by concurrent stores");
+    }
+
+    return new ConcurrentReferenceIndex<>(
+        indexName,
+        indexDefinition.getKeyMapper(),
+        indexDefinition.getReducer(),
+        indexDefinition.getComparisonPolicy());
+  }
+}
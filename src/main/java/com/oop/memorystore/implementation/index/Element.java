@@ -42,4 +42,23 @@ public final class Element<V> {
   Reference<V> getReference() {
     return this.reference;
   }
+
+  /** Elements are equal when they wrap the same reference */
+  @Override
+  public boolean equals(final Object other) {
+    if (this == other) {
+      return true;
+    }
+
+    if (other == null || this.getClass() != other.getClass()) {
+      return false;
+    }
+
+    return this.reference == ((Element<?>) other).reference;
+  }
+
+  @Override
+  public int hashCode() {
+    return System.identityHashCode(this.reference);
+  }
 }
@@ -13,15 +13,17 @@ import java.util.Collections;
  * @param <K> key type
  * @param <V> value type
  */
-public final class IndexDefinition<K, V> {
+public class IndexDefinition<K, V> {
   private final KeyMapper<Collection<K>, V> keyMapper;
   private ComparisonPolicy<K> comparisonPolicy;
   private Reducer<K, V> reducer;
+  private boolean bitmapBuckets;
 
-  private IndexDefinition(final KeyMapper<Collection<K>, V> keyMapper) {
+  protected IndexDefinition(final KeyMapper<Collection<K>, V> keyMapper) {
     this.keyMapper = keyMapper;
     this.comparisonPolicy = new DefaultComparisonPolicy<>();
     this.reducer = null;
+    this.bitmapBuckets = false;
   }
 
   /**
@@ -86,6 +88,18 @@ public final class IndexDefinition<K, V> {
     return this;
   }
 
+  /**
+   * Additionally hold every bucket as a compressed bitmap of reference ids. Queries combining
+   * several bitmap indexes are then intersected or united word by word instead of probing hash
+   * sets, which pays off for large buckets of low cardinality indexes (status, type, flags).
+   *
+   * @return index build
+   */
+  public IndexDefinition<K, V> withBitmapBuckets() {
+    this.bitmapBuckets = true;
+    return this;
+  }
+
   KeyMapper<Collection<K>, V> getKeyMapper() {
     return this.keyMapper;
   }
@@ -97,4 +111,8 @@ public final class IndexDefinition<K, V> {
   Reducer<K, V> getReducer() {
     return this.reducer;
   }
+
+  boolean isBitmapBuckets() {
+    return this.bitmapBuckets;
+  }
 }
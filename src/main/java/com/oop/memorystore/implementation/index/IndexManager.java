@@ -1,6 +1,7 @@
 package com.oop.memorystore.implementation.index;
 
 import com.oop.memorystore.implementation.reference.Reference;
+import com.oop.memorystore.implementation.stats.IndexStats;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -9,13 +10,24 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 
 public abstract class IndexManager<V> {
+    /** Minimum number of references indexed at once before indexes are built in parallel */
+    private static final int PARALLEL_THRESHOLD = 1_024;
+
     private final Map<String, ReferenceIndex<?, V>> indexMap;
+    private Executor indexingExecutor;
 
     public IndexManager(final Collection<ReferenceIndex<?, V>> indexes) {
-        this.indexMap = new HashMap<>();
+        this(indexes, new HashMap<>());
+    }
+
+    protected IndexManager(final Collection<ReferenceIndex<?, V>> indexes, final Map<String, ReferenceIndex<?, V>> indexMap) {
+        this.indexMap = indexMap;
         indexes.forEach(index -> this.indexMap.put(index.getName(), index));
     }
 
@@ -29,21 +41,48 @@ public abstract class IndexManager<V> {
 
         final ReferenceIndex<K, V> newIndex = this.createIndex(indexName, indexDefinition);
         this.indexMap.put(indexName, newIndex);
-        indexReferences(Collections.singleton(newIndex), references);
+        this.indexReferences(Collections.singleton(newIndex), references);
         return newIndex;
     }
 
-    private static <T> void indexReferences(final Collection<ReferenceIndex<?, T>> indexes, final Collection<Reference<T>> references) {
-        final List<IndexCreationException> exceptions = new ArrayList<>();
+    /**
+     * Build indexes in parallel, one task per index, when many references are indexed at once. Indexes are independent
+     * of each other, so every index is still only modified by a single thread at a time.
+     *
+     * @param executor executor running the indexing tasks or null to index on the calling thread
+     */
+    public void setIndexingExecutor(final Executor executor) {
+        this.indexingExecutor = executor;
+    }
+
+    public Executor getIndexingExecutor() {
+        return this.indexingExecutor;
+    }
+
+    private void indexReferences(final Collection<ReferenceIndex<?, V>> indexes, final Collection<Reference<V>> references) {
+        this.indexReferences(indexes, references, false);
+    }
 
-        for (final Reference<T> reference : references) {
-            for (final ReferenceIndex<?, T> index : indexes) {
-                try {
-                    index.index(reference);
-                } catch (final IndexCreationException e) {
-                    exceptions.add(e);
+    /**
+     * @param bulk true to index references which were not indexed yet at once, see {@link ReferenceIndex#indexAll}
+     */
+    private void indexReferences(
+        final Collection<ReferenceIndex<?, V>> indexes, final Collection<Reference<V>> references, final boolean bulk) {
+        final List<IndexCreationException> exceptions;
+
+        if (this.indexingExecutor == null || indexes.size() < 2 || references.size() < PARALLEL_THRESHOLD) {
+            exceptions = new ArrayList<>();
+            if (bulk) {
+                indexes.forEach(index -> index.indexAll(references, exceptions));
+            } else {
+                for (final Reference<V> reference : references) {
+                    for (final ReferenceIndex<?, V> index : indexes) {
+                        indexReference(index, reference, exceptions);
+                    }
                 }
             }
+        } else {
+            exceptions = this.indexReferencesInParallel(indexes, references, bulk);
         }
 
         if (!exceptions.isEmpty()) {
@@ -54,6 +93,62 @@ public abstract class IndexManager<V> {
         }
     }
 
+    private List<IndexCreationException> indexReferencesInParallel(
+        final Collection<ReferenceIndex<?, V>> indexes,
+        final Collection<Reference<V>> references,
+        final boolean bulk) {
+        final List<CompletableFuture<List<IndexCreationException>>> tasks = new ArrayList<>(indexes.size());
+
+        for (final ReferenceIndex<?, V> index : indexes) {
+            tasks.add(CompletableFuture.supplyAsync(() -> {
+                final List<IndexCreationException> exceptions = new ArrayList<>();
+                if (bulk) {
+                    index.indexAll(references, exceptions);
+                    return exceptions;
+                }
+
+                for (final Reference<V> reference : references) {
+                    indexReference(index, reference, exceptions);
+                }
+
+                return exceptions;
+            }, this.indexingExecutor));
+        }
+
+        // wait for every index before reporting, so no index is still being modified once this returns
+        final List<IndexCreationException> exceptions = new ArrayList<>();
+        RuntimeException failure = null;
+
+        for (final CompletableFuture<List<IndexCreationException>> task : tasks) {
+            try {
+                exceptions.addAll(task.join());
+            } catch (final CompletionException e) {
+                final RuntimeException cause =
+                    e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+                if (failure == null) {
+                    failure = cause;
+                } else {
+                    failure.addSuppressed(cause);
+                }
+            }
+        }
+
+        if (failure != null) {
+            throw failure;
+        }
+
+        return exceptions;
+    }
+
+    private static <T> void indexReference(
+        final ReferenceIndex<?, T> index, final Reference<T> reference, final List<IndexCreationException> exceptions) {
+        try {
+            index.index(reference);
+        } catch (final IndexCreationException e) {
+            exceptions.add(e);
+        }
+    }
+
     protected abstract <K> ReferenceIndex<K, V> createIndex(String indexName, IndexDefinition<K, V> indexDefinition);
 
     public ReferenceIndex<?, V> getIndex(final String indexName) {
@@ -61,7 +156,41 @@ public abstract class IndexManager<V> {
     }
 
     public void reindex(final Collection<Reference<V>> references) {
-        indexReferences(this.indexMap.values(), references);
+        this.indexReferences(this.indexMap.values(), references);
+    }
+
+    /**
+     * Index references which were added without being indexed. Every index groups them by key and adds each group to its
+     * bucket at once.
+     *
+     * @param references references to index
+     */
+    public void indexAll(final Collection<Reference<V>> references) {
+        this.indexReferences(this.indexMap.values(), references, true);
+    }
+
+    /**
+     * Index references which were added without being indexed with every index but the given ones, see
+     * {@link #indexAll(Collection)}. Used once the other indexes were restored, see {@link ReferenceIndex#restore}.
+     *
+     * @param references references to index
+     * @param excludedIndexes names of the indexes to leave alone
+     */
+    public void indexAll(final Collection<Reference<V>> references, final Set<String> excludedIndexes) {
+        final List<ReferenceIndex<?, V>> indexes = this.indexMap.values().stream()
+            .filter(index -> !excludedIndexes.contains(index.getName()))
+            .collect(Collectors.toList());
+
+        this.indexReferences(indexes, references, true);
+    }
+
+    /**
+     * Grow every index so it holds the given number of references without rehashing
+     *
+     * @param expectedSize number of references
+     */
+    public void ensureCapacity(final int expectedSize) {
+        this.indexMap.values().forEach(index -> index.ensureCapacity(expectedSize));
     }
 
     public boolean removeIndex(final String indexName) {
@@ -85,6 +214,15 @@ public abstract class IndexManager<V> {
         this.indexMap.values().forEach(ReferenceIndex::clear);
     }
 
+    /**
+     * Measure the size of every index
+     *
+     * @return stats of every index
+     */
+    public List<IndexStats> getIndexStats() {
+        return this.indexMap.values().stream().map(ReferenceIndex::getStats).collect(Collectors.toList());
+    }
+
     public Collection<Index<V>> getIndexes() {
         return Collections.unmodifiableCollection(this.indexMap.values());
     }
@@ -93,7 +231,9 @@ public abstract class IndexManager<V> {
         final Set<ReferenceIndex<?, V>> copyOfIndexes =
             this.indexMap.values()
                 .stream().map(ReferenceIndex::copy).collect(Collectors.toSet());
-        return this.createCopy(copyOfIndexes);
+        final IndexManager<V> copy = this.createCopy(copyOfIndexes);
+        copy.indexingExecutor = this.indexingExecutor;
+        return copy;
     }
 
     protected abstract IndexManager<V> createCopy(Set<ReferenceIndex<?, V>> copyOfIndexes);
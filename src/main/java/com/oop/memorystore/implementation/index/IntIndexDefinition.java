@@ -0,0 +1,60 @@
+package com.oop.memorystore.implementation.index;
+
+import com.oop.memorystore.implementation.index.comparison.ComparisonPolicy;
+import com.oop.memorystore.implementation.index.reducer.Reducer;
+
+import java.util.Collections;
+import java.util.function.ToIntFunction;
+
+/**
+ * Definition of an index keyed by a primitive int, see {@link IntIndex}. Every value is mapped to
+ * exactly one key.
+ *
+ * @param <V> value type
+ */
+public final class IntIndexDefinition<V> extends IndexDefinition<Integer, V> {
+  private final ToIntFunction<V> intKeyMapper;
+
+  private IntIndexDefinition(final ToIntFunction<V> intKeyMapper) {
+    super(value -> Collections.singletonList(intKeyMapper.applyAsInt(value)));
+    this.intKeyMapper = intKeyMapper;
+  }
+
+  /**
+   * Specify a function that maps a given value to a int key. Example:
+   * IntIndexDefinition.withIntKeyMapping(Person::getId)
+   *
+   * @param keyMapper a function that maps a given value to its key
+   * @param <V> value type
+   * @return index build
+   */
+  public static <V> IntIndexDefinition<V> withIntKeyMapping(final ToIntFunction<V> keyMapper) {
+    return new IntIndexDefinition<>(keyMapper);
+  }
+
+  @Override
+  public IntIndexDefinition<V> withReducer(final Reducer<Integer, V> reducer) {
+    super.withReducer(reducer);
+    return this;
+  }
+
+  @Override
+  public IntIndexDefinition<V> withBitmapBuckets() {
+    super.withBitmapBuckets();
+    return this;
+  }
+
+  /**
+   * Not supported, primitive keys are always compared by value
+   *
+   * @throws UnsupportedOperationException always
+   */
+  @Override
+  public IntIndexDefinition<V> withComparisonPolicy(final ComparisonPolicy<Integer> comparisonPolicy) {
+    throw new UnsupportedOperationException("Primitive keys are always compared by value");
+  }
+
+  ToIntFunction<V> getIntKeyMapper() {
+    return this.intKeyMapper;
+  }
+}
@@ -0,0 +1,100 @@
+package com.oop.memorystore.implementation.index;
+
+import com.oop.memorystore.implementation.index.reducer.Reducer;
+import com.oop.memorystore.implementation.reference.Reference;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.ToIntFunction;
+
+/**
+ * Reference index keyed by primitive ints
+ *
+ * @param <V> value type
+ */
+public class IntReferenceIndex<V> extends PrimitiveReferenceIndex<Integer, V> implements IntIndex<V> {
+  private final ToIntFunction<V> intKeyMapper;
+
+  private IntReferenceIndex(
+      final String name,
+      final KeyMapper<Collection<Integer>, V> keyMapper,
+      final ToIntFunction<V> intKeyMapper,
+      final Reducer<Integer, V> reducer,
+      final LongObjectHashMap<References<Integer, V>> keyToReferences,
+      final ObjectLongIdentityHashMap<Reference<V>> referenceToKey,
+      final boolean bitmapBuckets) {
+    super(name, keyMapper, reducer, keyToReferences, referenceToKey, bitmapBuckets);
+    this.intKeyMapper = intKeyMapper;
+  }
+
+  public IntReferenceIndex(
+      final String name,
+      final KeyMapper<Collection<Integer>, V> keyMapper,
+      final ToIntFunction<V> intKeyMapper,
+      final Reducer<Integer, V> reducer,
+      final boolean bitmapBuckets) {
+    this(
+        name,
+        keyMapper,
+        intKeyMapper,
+        reducer,
+        new LongObjectHashMap<>(),
+        new ObjectLongIdentityHashMap<>(),
+        bitmapBuckets);
+  }
+
+  @Override
+  public Optional<V> findFirst(final int key) {
+    return this.findFirstOf(key);
+  }
+
+  @Override
+  public List<V> get(final int key) {
+    return this.getOf(key);
+  }
+
+  @Override
+  long mapKey(final V item) {
+    return this.intKeyMapper.applyAsInt(item);
+  }
+
+  @Override
+  boolean supportsKey(final Object key) {
+    if (key instanceof Long) {
+      final long value = (Long) key;
+      return value == (int) value;
+    }
+
+    return key instanceof Integer || key instanceof Short || key instanceof Byte;
+  }
+
+  @Override
+  long toKey(final Object key) {
+    return ((Number) key).intValue();
+  }
+
+  @Override
+  Integer box(final long key) {
+    return (int) key;
+  }
+
+  @Override
+  IntReferenceIndex<V> createCopy(
+      final LongObjectHashMap<References<Integer, V>> keyToReferences,
+      final ObjectLongIdentityHashMap<Reference<V>> referenceToKey) {
+    return new IntReferenceIndex<>(
+        this.name,
+        this.keyMapper,
+        this.intKeyMapper,
+        this.reducer,
+        keyToReferences,
+        referenceToKey,
+        this.bitmapBuckets);
+  }
+
+  @Override
+  public String toString() {
+    return "IntIndex[name='" + this.name + "']";
+  }
+}
@@ -0,0 +1,39 @@
+package com.oop.memorystore.implementation.index;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Index keyed by primitive long values, created from a {@link LongIndexDefinition}. Lookups through
+ * these methods do not box the key.
+ *
+ * @param <V> value type
+ */
+public interface LongIndex<V> extends Index<V> {
+  /**
+   * Get first indexed item matching key. This is the same as {@link LongIndex#findFirst(long)}, but
+   * returns an null instead of an optional if no result found.
+   *
+   * @param key indexed key to lookup
+   * @return first item or null
+   */
+  default V getFirst(final long key) {
+    return this.findFirst(key).orElse(null);
+  }
+
+  /**
+   * Find first indexed item matching key
+   *
+   * @param key indexed key to lookup
+   * @return optional
+   */
+  Optional<V> findFirst(long key);
+
+  /**
+   * Find all indexed items matching key
+   *
+   * @param key indexed key to lookup
+   * @return matching items
+   */
+  List<V> get(long key);
+}
@@ -0,0 +1,60 @@
+package com.oop.memorystore.implementation.index;
+
+import com.oop.memorystore.implementation.index.comparison.ComparisonPolicy;
+import com.oop.memorystore.implementation.index.reducer.Reducer;
+
+import java.util.Collections;
+import java.util.function.ToLongFunction;
+
+/**
+ * Definition of an index keyed by a primitive long, see {@link LongIndex}. Every value is mapped to
+ * exactly one key.
+ *
+ * @param <V> value type
+ */
+public final class LongIndexDefinition<V> extends IndexDefinition<Long, V> {
+  private final ToLongFunction<V> longKeyMapper;
+
+  private LongIndexDefinition(final ToLongFunction<V> longKeyMapper) {
+    super(value -> Collections.singletonList(longKeyMapper.applyAsLong(value)));
+    this.longKeyMapper = longKeyMapper;
+  }
+
+  /**
+   * Specify a function that maps a given value to a long key. Example:
+   * LongIndexDefinition.withLongKeyMapping(Person::getId)
+   *
+   * @param keyMapper a function that maps a given value to its key
+   * @param <V> value type
+   * @return index build
+   */
+  public static <V> LongIndexDefinition<V> withLongKeyMapping(final ToLongFunction<V> keyMapper) {
+    return new LongIndexDefinition<>(keyMapper);
+  }
+
+  @Override
+  public LongIndexDefinition<V> withReducer(final Reducer<Long, V> reducer) {
+    super.withReducer(reducer);
+    return this;
+  }
+
+  @Override
+  public LongIndexDefinition<V> withBitmapBuckets() {
+    super.withBitmapBuckets();
+    return this;
+  }
+
+  /**
+   * Not supported, primitive keys are always compared by value
+   *
+   * @throws UnsupportedOperationException always
+   */
+  @Override
+  public LongIndexDefinition<V> withComparisonPolicy(final ComparisonPolicy<Long> comparisonPolicy) {
+    throw new UnsupportedOperationException("Primitive keys are always compared by value");
+  }
+
+  ToLongFunction<V> getLongKeyMapper() {
+    return this.longKeyMapper;
+  }
+}
@@ -0,0 +1,170 @@
+package com.oop.memorystore.implementation.index;
+
+import com.oop.memorystore.implementation.stats.MemoryEstimates;
+import java.util.Arrays;
+import java.util.function.BiConsumer;
+
+/**
+ * Open addressing hash map with primitive long keys, used by primitive indexes so looking up a key
+ * does not box it. Null values are not supported, a null value marks a free slot.
+ *
+ * @param <T> value type
+ */
+final class LongObjectHashMap<T> {
+  private static final int MIN_CAPACITY = 8;
+
+  private long[] keys;
+  private Object[] values;
+  private int size;
+
+  LongObjectHashMap() {
+    this(MIN_CAPACITY);
+  }
+
+  LongObjectHashMap(final int expectedSize) {
+    final int capacity = capacityFor(expectedSize);
+    this.keys = new long[capacity];
+    this.values = new Object[capacity];
+  }
+
+  @SuppressWarnings("unchecked")
+  T get(final long key) {
+    final int mask = this.keys.length - 1;
+    int slot = hash(key) & mask;
+
+    while (this.values[slot] != null) {
+      if (this.keys[slot] == key) {
+        return (T) this.values[slot];
+      }
+
+      slot = (slot + 1) & mask;
+    }
+
+    return null;
+  }
+
+  @SuppressWarnings("unchecked")
+  T put(final long key, final T value) {
+    final int mask = this.keys.length - 1;
+    int slot = hash(key) & mask;
+
+    while (this.values[slot] != null) {
+      if (this.keys[slot] == key) {
+        final T previous = (T) this.values[slot];
+        this.values[slot] = value;
+        return previous;
+      }
+
+      slot = (slot + 1) & mask;
+    }
+
+    this.keys[slot] = key;
+    this.values[slot] = value;
+
+    if (++this.size * 2 > this.keys.length) {
+      this.resize(this.keys.length * 2);
+    }
+
+    return null;
+  }
+
+  @SuppressWarnings("unchecked")
+  T remove(final long key) {
+    final int mask = this.keys.length - 1;
+    int slot = hash(key) & mask;
+
+    while (this.values[slot] != null) {
+      if (this.keys[slot] == key) {
+        final T previous = (T) this.values[slot];
+        this.values[slot] = null;
+        this.size--;
+        this.shiftBack(slot);
+        return previous;
+      }
+
+      slot = (slot + 1) & mask;
+    }
+
+    return null;
+  }
+
+  int size() {
+    return this.size;
+  }
+
+  /**
+   * @return estimated bytes of this map, not counting its keys and values
+   */
+  long sizeInBytes() {
+    return MemoryEstimates.object(12) + MemoryEstimates.array(this.keys.length, 8) + MemoryEstimates.referenceArray(this.values.length);
+  }
+
+  void clear() {
+    Arrays.fill(this.values, null);
+    this.size = 0;
+  }
+
+  @SuppressWarnings("unchecked")
+  void forEach(final LongEntryConsumer<T> consumer) {
+    for (int slot = 0; slot < this.values.length; slot++) {
+      if (this.values[slot] != null) {
+        consumer.accept(this.keys[slot], (T) this.values[slot]);
+      }
+    }
+  }
+
+  /** Close the gap left by a removed entry so probing sequences stay unbroken */
+  private void shiftBack(int free) {
+    final int mask = this.keys.length - 1;
+    int slot = (free + 1) & mask;
+
+    while (this.values[slot] != null) {
+      final int home = hash(this.keys[slot]) & mask;
+
+      // move the entry if its home slot is not within (free, slot]
+      if (((slot - home) & mask) >= ((slot - free) & mask)) {
+        this.keys[free] = this.keys[slot];
+        this.values[free] = this.values[slot];
+        this.values[slot] = null;
+        free = slot;
+      }
+
+      slot = (slot + 1) & mask;
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private void resize(final int capacity) {
+    final long[] oldKeys = this.keys;
+    final Object[] oldValues = this.values;
+
+    this.keys = new long[capacity];
+    this.values = new Object[capacity];
+    this.size = 0;
+
+    for (int slot = 0; slot < oldValues.length; slot++) {
+      if (oldValues[slot] != null) {
+        this.put(oldKeys[slot], (T) oldValues[slot]);
+      }
+    }
+  }
+
+  private static int capacityFor(final int expectedSize) {
+    int capacity = MIN_CAPACITY;
+    while (capacity < expectedSize * 2) {
+      capacity <<= 1;
+    }
+
+    return capacity;
+  }
+
+  private static int hash(final long key) {
+    final long mixed = key * 0x9E3779B97F4A7C15L;
+    return (int) (mixed ^ (mixed >>> 32));
+  }
+
+  @FunctionalInterface
+  interface LongEntryConsumer<T> {
+    void accept(long key, T value);
+  }
+}
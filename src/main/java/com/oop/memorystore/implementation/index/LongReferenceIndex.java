@@ -0,0 +1,95 @@
+package com.oop.memorystore.implementation.index;
+
+import com.oop.memorystore.implementation.index.reducer.Reducer;
+import com.oop.memorystore.implementation.reference.Reference;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.ToLongFunction;
+
+/**
+ * Reference index keyed by primitive longs
+ *
+ * @param <V> value type
+ */
+public class LongReferenceIndex<V> extends PrimitiveReferenceIndex<Long, V> implements LongIndex<V> {
+  private final ToLongFunction<V> longKeyMapper;
+
+  private LongReferenceIndex(
+      final String name,
+      final KeyMapper<Collection<Long>, V> keyMapper,
+      final ToLongFunction<V> longKeyMapper,
+      final Reducer<Long, V> reducer,
+      final LongObjectHashMap<References<Long, V>> keyToReferences,
+      final ObjectLongIdentityHashMap<Reference<V>> referenceToKey,
+      final boolean bitmapBuckets) {
+    super(name, keyMapper, reducer, keyToReferences, referenceToKey, bitmapBuckets);
+    this.longKeyMapper = longKeyMapper;
+  }
+
+  public LongReferenceIndex(
+      final String name,
+      final KeyMapper<Collection<Long>, V> keyMapper,
+      final ToLongFunction<V> longKeyMapper,
+      final Reducer<Long, V> reducer,
+      final boolean bitmapBuckets) {
+    this(
+        name,
+        keyMapper,
+        longKeyMapper,
+        reducer,
+        new LongObjectHashMap<>(),
+        new ObjectLongIdentityHashMap<>(),
+        bitmapBuckets);
+  }
+
+  @Override
+  public Optional<V> findFirst(final long key) {
+    return this.findFirstOf(key);
+  }
+
+  @Override
+  public List<V> get(final long key) {
+    return this.getOf(key);
+  }
+
+  @Override
+  long mapKey(final V item) {
+    return this.longKeyMapper.applyAsLong(item);
+  }
+
+  @Override
+  boolean supportsKey(final Object key) {
+    return key instanceof Long || key instanceof Integer || key instanceof Short || key instanceof Byte;
+  }
+
+  @Override
+  long toKey(final Object key) {
+    return ((Number) key).longValue();
+  }
+
+  @Override
+  Long box(final long key) {
+    return key;
+  }
+
+  @Override
+  LongReferenceIndex<V> createCopy(
+      final LongObjectHashMap<References<Long, V>> keyToReferences,
+      final ObjectLongIdentityHashMap<Reference<V>> referenceToKey) {
+    return new LongReferenceIndex<>(
+        this.name,
+        this.keyMapper,
+        this.longKeyMapper,
+        this.reducer,
+        keyToReferences,
+        referenceToKey,
+        this.bitmapBuckets);
+  }
+
+  @Override
+  public String toString() {
+    return "LongIndex[name='" + this.name + "']";
+  }
+}
@@ -0,0 +1,168 @@
+package com.oop.memorystore.implementation.index;
+
+import com.oop.memorystore.implementation.stats.MemoryEstimates;
+import java.util.Arrays;
+
+/**
+ * Open addressing hash map from objects, compared by identity, to primitive long values. Used by
+ * primitive indexes to remember the key each reference was indexed under without boxing it.
+ *
+ * @param <T> key type
+ */
+final class ObjectLongIdentityHashMap<T> {
+  private static final int MIN_CAPACITY = 8;
+
+  private Object[] keys;
+  private long[] values;
+  private int size;
+
+  ObjectLongIdentityHashMap() {
+    this.keys = new Object[MIN_CAPACITY];
+    this.values = new long[MIN_CAPACITY];
+  }
+
+  private ObjectLongIdentityHashMap(final Object[] keys, final long[] values, final int size) {
+    this.keys = keys;
+    this.values = values;
+    this.size = size;
+  }
+
+  boolean containsKey(final Object key) {
+    return this.indexOf(key) != -1;
+  }
+
+  /**
+   * Get value of key
+   *
+   * @param key key to lookup
+   * @param defaultValue value returned if the key is not present
+   * @return value
+   */
+  long get(final Object key, final long defaultValue) {
+    final int slot = this.indexOf(key);
+    return slot == -1 ? defaultValue : this.values[slot];
+  }
+
+  void put(final T key, final long value) {
+    final int mask = this.keys.length - 1;
+    int slot = hash(key) & mask;
+
+    while (this.keys[slot] != null) {
+      if (this.keys[slot] == key) {
+        this.values[slot] = value;
+        return;
+      }
+
+      slot = (slot + 1) & mask;
+    }
+
+    this.keys[slot] = key;
+    this.values[slot] = value;
+
+    if (++this.size * 2 > this.keys.length) {
+      this.resize(this.keys.length * 2);
+    }
+  }
+
+  /**
+   * Grow the map so it can hold the given number of entries without resizing again
+   *
+   * @param expectedSize number of entries
+   */
+  void ensureCapacity(final int expectedSize) {
+    int capacity = this.keys.length;
+    while (capacity < expectedSize * 2) {
+      capacity <<= 1;
+    }
+
+    if (capacity > this.keys.length) {
+      this.resize(capacity);
+    }
+  }
+
+  boolean remove(final Object key) {
+    final int slot = this.indexOf(key);
+    if (slot == -1) {
+      return false;
+    }
+
+    this.keys[slot] = null;
+    this.size--;
+    this.shiftBack(slot);
+    return true;
+  }
+
+  int size() {
+    return this.size;
+  }
+
+  /**
+   * @return estimated bytes of this map, not counting its keys and values
+   */
+  long sizeInBytes() {
+    return MemoryEstimates.object(12) + MemoryEstimates.array(this.values.length, 8) + MemoryEstimates.referenceArray(this.keys.length);
+  }
+
+  void clear() {
+    Arrays.fill(this.keys, null);
+    this.size = 0;
+  }
+
+  ObjectLongIdentityHashMap<T> copy() {
+    return new ObjectLongIdentityHashMap<>(this.keys.clone(), this.values.clone(), this.size);
+  }
+
+  private int indexOf(final Object key) {
+    final int mask = this.keys.length - 1;
+    int slot = hash(key) & mask;
+
+    while (this.keys[slot] != null) {
+      if (this.keys[slot] == key) {
+        return slot;
+      }
+
+      slot = (slot + 1) & mask;
+    }
+
+    return -1;
+  }
+
+  private void shiftBack(int free) {
+    final int mask = this.keys.length - 1;
+    int slot = (free + 1) & mask;
+
+    while (this.keys[slot] != null) {
+      final int home = hash(this.keys[slot]) & mask;
+
+      if (((slot - home) & mask) >= ((slot - free) & mask)) {
+        this.keys[free] = this.keys[slot];
+        this.values[free] = this.values[slot];
+        this.keys[slot] = null;
+        free = slot;
+      }
+
+      slot = (slot + 1) & mask;
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private void resize(final int capacity) {
+    final Object[] oldKeys = this.keys;
+    final long[] oldValues = this.values;
+
+    this.keys = new Object[capacity];
+    this.values = new long[capacity];
+    this.size = 0;
+
+    for (int slot = 0; slot < oldKeys.length; slot++) {
+      if (oldKeys[slot] != null) {
+        this.put((T) oldKeys[slot], oldValues[slot]);
+      }
+    }
+  }
+
+  private static int hash(final Object key) {
+    final int hash = System.identityHashCode(key);
+    return hash ^ (hash >>> 16);
+  }
+}
@@ -0,0 +1,279 @@
+package com.oop.memorystore.implementation.index;
+
+import com.oop.memorystore.implementation.index.bitmap.ReferenceBitmap;
+import com.oop.memorystore.implementation.index.comparison.DefaultComparisonPolicy;
+import com.oop.memorystore.implementation.index.reducer.Reducer;
+import com.oop.memorystore.implementation.reference.Reference;
+import com.oop.memorystore.implementation.stats.IndexStats;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Reference index keyed by primitive values. Each value maps to exactly one key, buckets are kept in
+ * an open addressing map keyed by a primitive long so neither indexing nor lookups box the key.
+ *
+ * @param <K> boxed key type, only used when a key has to be exposed as an object
+ * @param <V> value type
+ */
+public abstract class PrimitiveReferenceIndex<K, V> extends ReferenceIndex<K, V> {
+  private final LongObjectHashMap<References<K, V>> keyToReferences;
+  private final ObjectLongIdentityHashMap<Reference<V>> referenceToKey;
+
+  PrimitiveReferenceIndex(
+      final String name,
+      final KeyMapper<Collection<K>, V> keyMapper,
+      final Reducer<K, V> reducer,
+      final LongObjectHashMap<References<K, V>> keyToReferences,
+      final ObjectLongIdentityHashMap<Reference<V>> referenceToKey,
+      final boolean bitmapBuckets) {
+    super(
+        name,
+        keyMapper,
+        reducer,
+        new DefaultComparisonPolicy<>(),
+        Collections.emptyMap(),
+        Collections.emptyMap(),
+        bitmapBuckets);
+    this.keyToReferences = keyToReferences;
+    this.referenceToKey = referenceToKey;
+  }
+
+  /**
+   * Map an item to its primitive key
+   *
+   * @param item item to map
+   * @return key
+   */
+  abstract long mapKey(V item);
+
+  /**
+   * Check if an object can be used to look up this index
+   *
+   * @param key key object
+   * @return true if supported
+   */
+  abstract boolean supportsKey(Object key);
+
+  /**
+   * Convert a supported key object into its primitive key
+   *
+   * @param key key object
+   * @return primitive key
+   */
+  abstract long toKey(Object key);
+
+  /**
+   * Box a primitive key, only used for reducers and {@link #getKeys(Reference)}
+   *
+   * @param key primitive key
+   * @return boxed key
+   */
+  abstract K box(long key);
+
+  abstract PrimitiveReferenceIndex<K, V> createCopy(
+      LongObjectHashMap<References<K, V>> keyToReferences,
+      ObjectLongIdentityHashMap<Reference<V>> referenceToKey);
+
+  @Override
+  public ReferenceBitmap getBitmap(final Object key) {
+    this.checkLookupKey(key);
+    if (!this.bitmapBuckets) {
+      return null;
+    }
+
+    final References<K, V> references =
+        this.supportsKey(key) ? this.keyToReferences.get(this.toKey(key)) : null;
+    return references == null ? new ReferenceBitmap() : references.getBitmap();
+  }
+
+  @Override
+  public Optional<V> findFirst(final Object key) {
+    this.checkLookupKey(key);
+    return this.supportsKey(key) ? this.findFirstOf(this.toKey(key)) : Optional.empty();
+  }
+
+  @Override
+  public Set<Reference<V>> getReferences(final Object key) {
+    this.checkLookupKey(key);
+    return this.supportsKey(key) ? this.getReferencesOf(this.toKey(key)) : Collections.emptySet();
+  }
+
+  @Override
+  public List<V> get(final Object key) {
+    this.checkLookupKey(key);
+    return this.supportsKey(key) ? this.getOf(this.toKey(key)) : Collections.emptyList();
+  }
+
+  final Optional<V> findFirstOf(final long key) {
+    final References<K, V> references = this.keyToReferences.get(key);
+    return references == null ? Optional.empty() : references.findFirst();
+  }
+
+  final Set<Reference<V>> getReferencesOf(final long key) {
+    final References<K, V> references = this.keyToReferences.get(key);
+    return references == null ? Collections.emptySet() : references.getAllReferences();
+  }
+
+  final List<V> getOf(final long key) {
+    final References<K, V> references = this.keyToReferences.get(key);
+    return references == null ? Collections.emptyList() : references.getAll();
+  }
+
+  @Override
+  public void index(final Reference<V> reference) throws IndexCreationException {
+    final V item = this.getItem(reference);
+
+    // the item was reclaimed, it is no longer indexed under any key
+    if (item == null) {
+      this.removeIndex(reference);
+      return;
+    }
+
+    final long key = this.generateKey(item);
+
+    if (this.referenceToKey.containsKey(reference) && this.referenceToKey.get(reference, 0L) == key) {
+      // key unchanged, only a reducer needs to see the reference again
+      if (this.reducer != null) {
+        final References<K, V> references = this.keyToReferences.get(key);
+        references.remove(reference);
+        references.add(reference);
+      }
+
+      return;
+    }
+
+    this.removeIndex(reference);
+    this.referenceToKey.put(reference, key);
+
+    this.getOrCreateBucket(key).add(reference);
+  }
+
+  @Override
+  void indexAll(final Collection<Reference<V>> references, final Collection<IndexCreationException> exceptions) {
+    final LongObjectHashMap<List<Reference<V>>> added = new LongObjectHashMap<>();
+
+    for (final Reference<V> reference : references) {
+      try {
+        if (this.referenceToKey.containsKey(reference)) {
+          this.index(reference);
+          continue;
+        }
+
+        final V item = this.getItem(reference);
+        if (item == null) {
+          continue;
+        }
+
+        final long key = this.generateKey(item);
+        this.referenceToKey.put(reference, key);
+
+        List<Reference<V>> keyReferences = added.get(key);
+        if (keyReferences == null) {
+          keyReferences = new ArrayList<>();
+          added.put(key, keyReferences);
+        }
+
+        keyReferences.add(reference);
+      } catch (final IndexCreationException e) {
+        exceptions.add(e);
+      }
+    }
+
+    added.forEach((key, keyReferences) -> this.getOrCreateBucket(key).addAll(keyReferences));
+  }
+
+  @Override
+  public void restore(final Object key, final List<Reference<V>> references) {
+    final long restoredKey = this.toKey(key);
+    references.forEach(reference -> this.referenceToKey.put(reference, restoredKey));
+    this.getOrCreateBucket(restoredKey).addAll(references);
+  }
+
+  private References<K, V> getOrCreateBucket(final long key) {
+    References<K, V> references = this.keyToReferences.get(key);
+    if (references == null) {
+      references = new References<>(this.box(key), this.reducer, this.bitmapBuckets);
+      this.keyToReferences.put(key, references);
+    }
+
+    return references;
+  }
+
+  @Override
+  public IndexStats getStats() {
+    final List<References<K, V>> buckets = new ArrayList<>(this.keyToReferences.size());
+    this.keyToReferences.forEach((key, references) -> buckets.add(references));
+
+    return this.createStats(buckets, this.keyToReferences.sizeInBytes(), this.referenceToKey.sizeInBytes());
+  }
+
+  @Override
+  public void ensureCapacity(final int expectedSize) {
+    this.referenceToKey.ensureCapacity(expectedSize);
+  }
+
+  private V getItem(final Reference<V> reference) throws IndexCreationException {
+    try {
+      return reference.get();
+    } catch (final RuntimeException e) {
+      throw new IndexCreationException("Index: " + this.name + ". Unable to retrieve item to index", e);
+    }
+  }
+
+  private long generateKey(final V item) throws IndexCreationException {
+    try {
+      return this.mapKey(item);
+    } catch (final RuntimeException e) {
+      throw new IndexCreationException(
+          "Index: " + this.name + ". Error generating indexes for item: " + item, e);
+    }
+  }
+
+  @Override
+  public void removeIndex(final Reference<V> reference) {
+    if (!this.referenceToKey.containsKey(reference)) {
+      return;
+    }
+
+    final long key = this.referenceToKey.get(reference, 0L);
+    this.referenceToKey.remove(reference);
+
+    final References<K, V> references = this.keyToReferences.get(key);
+    if (references != null) {
+      references.remove(reference);
+
+      if (references.isEmpty()) {
+        this.keyToReferences.remove(key);
+      }
+    }
+  }
+
+  @Override
+  public void clear() {
+    this.keyToReferences.clear();
+    this.referenceToKey.clear();
+  }
+
+  @Override
+  public PrimitiveReferenceIndex<K, V> copy() {
+    final LongObjectHashMap<References<K, V>> keyToReferencesCopy =
+        new LongObjectHashMap<>(this.keyToReferences.size());
+    this.keyToReferences.forEach((key, references) -> keyToReferencesCopy.put(key, references.copy()));
+
+    return this.createCopy(keyToReferencesCopy, this.referenceToKey.copy());
+  }
+
+  @Override
+  public Set<K> getKeys(final Reference<V> reference) {
+    if (!this.referenceToKey.containsKey(reference)) {
+      return null;
+    }
+
+    return Collections.singleton(this.box(this.referenceToKey.get(reference, 0L)));
+  }
+}
@@ -1,8 +1,12 @@
 package com.oop.memorystore.implementation.index;
 
+import com.oop.memorystore.implementation.index.bitmap.ReferenceBitmap;
 import com.oop.memorystore.implementation.index.comparison.ComparisonPolicy;
 import com.oop.memorystore.implementation.index.reducer.Reducer;
+import com.oop.memorystore.implementation.query.Range;
 import com.oop.memorystore.implementation.reference.Reference;
+import com.oop.memorystore.implementation.stats.IndexStats;
+import com.oop.memorystore.implementation.stats.MemoryEstimates;
 
 import java.util.*;
 import java.util.Map.Entry;
@@ -14,26 +18,30 @@ import java.util.stream.Collectors;
  * @param <V> value type
  */
 public class ReferenceIndex<K, V> implements Index<V> {
-  private final String name;
-  private final KeyMapper<Collection<K>, V> keyMapper;
-  private final Reducer<K, V> reducer;
-  private final ComparisonPolicy<K> comparisonPolicy;
-  private final Map<K, References<K, V>> keyToReferencesMap;
-  private final Map<Reference<V>, Set<K>> referenceToKeysMap;
-
-  private ReferenceIndex(
+  protected final String name;
+  protected final KeyMapper<Collection<K>, V> keyMapper;
+  protected final Reducer<K, V> reducer;
+  protected final ComparisonPolicy<K> comparisonPolicy;
+  protected final Map<K, References<K, V>> keyToReferencesMap;
+  /** Keys each reference is indexed under, the key sets are never modified once stored and are shared by copies */
+  protected Map<Reference<V>, Set<K>> referenceToKeysMap;
+  protected final boolean bitmapBuckets;
+
+  protected ReferenceIndex(
       final String name,
       final KeyMapper<Collection<K>, V> keyMapper,
       final Reducer<K, V> reducer,
       final ComparisonPolicy<K> comparisonPolicy,
       final Map<K, References<K, V>> keyToReferencesMap,
-      final Map<Reference<V>, Set<K>> referenceToKeysMap) {
+      final Map<Reference<V>, Set<K>> referenceToKeysMap,
+      final boolean bitmapBuckets) {
     this.name = name;
     this.keyMapper = keyMapper;
     this.reducer = reducer;
     this.comparisonPolicy = comparisonPolicy;
     this.keyToReferencesMap = keyToReferencesMap;
     this.referenceToKeysMap = referenceToKeysMap;
+    this.bitmapBuckets = bitmapBuckets;
   }
 
   public ReferenceIndex(
@@ -41,7 +49,16 @@ public class ReferenceIndex<K, V> implements Index<V> {
       final KeyMapper<Collection<K>, V> keyMapper,
       final Reducer<K, V> reducer,
       final ComparisonPolicy<K> comparisonPolicy) {
-    this(indexName, keyMapper, reducer, comparisonPolicy, new HashMap<>(), new HashMap<>());
+    this(indexName, keyMapper, reducer, comparisonPolicy, false);
+  }
+
+  public ReferenceIndex(
+      final String indexName,
+      final KeyMapper<Collection<K>, V> keyMapper,
+      final Reducer<K, V> reducer,
+      final ComparisonPolicy<K> comparisonPolicy,
+      final boolean bitmapBuckets) {
+    this(indexName, keyMapper, reducer, comparisonPolicy, new HashMap<>(), new HashMap<>(), bitmapBuckets);
   }
 
   @Override
@@ -51,6 +68,7 @@ public class ReferenceIndex<K, V> implements Index<V> {
 
   @Override
   public Optional<V> findFirst(final Object key) {
+    this.checkLookupKey(key);
     final K comparableKey = this.getComparableKey(key);
     final References<K, V> references = this.keyToReferencesMap.get(comparableKey);
 
@@ -62,6 +80,7 @@ public class ReferenceIndex<K, V> implements Index<V> {
   }
 
   public Set<Reference<V>> getReferences(final Object key) {
+    this.checkLookupKey(key);
     final K comparableKey = this.getComparableKey(key);
     final References<K, V> references = this.keyToReferencesMap.get(comparableKey);
 
@@ -72,8 +91,37 @@ public class ReferenceIndex<K, V> implements Index<V> {
     return references.getAllReferences();
   }
 
+  /**
+   * Estimate the number of references of a key. Counting may stop once the given bound is reached, planners use it to
+   * find the smallest clause of a query without counting large ones in full.
+   *
+   * @param key key to count
+   * @param bound count at which counting may stop
+   * @return estimated number of references, at least the bound if there are as many references
+   */
+  public int estimateSize(final Object key, final int bound) {
+    return this.getReferences(key).size();
+  }
+
+  /**
+   * Bucket of the key as a bitmap of reference ids
+   *
+   * @param key key to lookup
+   * @return bitmap of the matching reference ids or null if this index does not hold bitmaps
+   */
+  public ReferenceBitmap getBitmap(final Object key) {
+    this.checkLookupKey(key);
+    if (!this.bitmapBuckets) {
+      return null;
+    }
+
+    final References<K, V> references = this.keyToReferencesMap.get(this.getComparableKey(key));
+    return references == null ? new ReferenceBitmap() : references.getBitmap();
+  }
+
   @Override
   public List<V> get(final Object key) {
+    this.checkLookupKey(key);
     final K comparableKey = this.getComparableKey(key);
     final References<K, V> references = this.keyToReferencesMap.get(comparableKey);
 
@@ -84,18 +132,111 @@ public class ReferenceIndex<K, V> implements Index<V> {
     return references.getAll();
   }
 
+  /**
+   * Index a reference, or reindex it if it was indexed before. Only buckets whose membership changed are modified, a
+   * reference keeping its keys is left in place. Indexes with a reducer re-reduce the buckets kept as well, since the
+   * reduced result may depend on more than the key.
+   *
+   * @param reference reference to index
+   * @throws IndexCreationException if the keys of the item could not be generated
+   */
   public void index(final Reference<V> reference) throws IndexCreationException {
     final Set<K> keys = this.generateKeys(reference);
+    final Set<K> previousKeys = this.referenceToKeysMap.get(reference);
+
+    if (previousKeys == null) {
+      if (!keys.isEmpty()) {
+        this.referenceToKeysMap.put(reference, keys);
+        keys.forEach(key -> this.addToBucket(key, reference));
+      }
+
+      return;
+    }
+
+    for (final K key : previousKeys) {
+      if (!keys.contains(key)) {
+        this.removeFromBucket(key, reference);
+      } else if (this.reducer != null) {
+        this.removeFromBucket(key, reference);
+        this.addToBucket(key, reference);
+      }
+    }
+
+    for (final K key : keys) {
+      if (!previousKeys.contains(key)) {
+        this.addToBucket(key, reference);
+      }
+    }
+
+    if (keys.isEmpty()) {
+      this.referenceToKeysMap.remove(reference);
+    } else if (!keys.equals(previousKeys)) {
+      this.referenceToKeysMap.put(reference, keys);
+    }
+  }
+
+  /**
+   * Index references which were not indexed before at once. Their keys are generated first, then every bucket receives
+   * all of its new references together.
+   *
+   * @param references references to index
+   * @param exceptions collects the references which could not be indexed
+   */
+  void indexAll(final Collection<Reference<V>> references, final Collection<IndexCreationException> exceptions) {
+    final Map<K, List<Reference<V>>> added = this.createKeyGroups();
+
+    for (final Reference<V> reference : references) {
+      try {
+        if (this.referenceToKeysMap.containsKey(reference)) {
+          this.index(reference);
+          continue;
+        }
+
+        final Set<K> keys = this.generateKeys(reference);
+        if (keys.isEmpty()) {
+          continue;
+        }
+
+        this.referenceToKeysMap.put(reference, keys);
+        for (final K key : keys) {
+          added.computeIfAbsent(key, $ -> new ArrayList<>()).add(reference);
+        }
+      } catch (final IndexCreationException e) {
+        exceptions.add(e);
+      }
+    }
+
+    added.forEach(this::addAllToBucket);
+  }
+
+  /**
+   * Restore the bucket of a key from references which were not indexed under it before, for example read back from a
+   * snapshot, without running the key mapper. The key must be a key this index stores, as returned by {@link #getKeys}.
+   *
+   * @param key key of the bucket
+   * @param references references of the bucket, in bucket order
+   */
+  public void restore(final Object key, final List<Reference<V>> references) {
+    @SuppressWarnings("unchecked")
+    final K restoredKey = (K) key;
+
+    for (final Reference<V> reference : references) {
+      this.referenceToKeysMap.merge(reference, Collections.singleton(restoredKey), ReferenceIndex::mergeKeys);
+    }
 
-      this.removeIndex(reference);
+    this.addAllToBucket(restoredKey, references);
+  }
 
-    if (!keys.isEmpty()) {
-        this.referenceToKeysMap.put(reference, Collections.unmodifiableSet(keys));
-      keys.forEach(
-          key ->
-              this.keyToReferencesMap
-                  .computeIfAbsent(key, ignore -> new References<>(key, reference, this.reducer))
-                  .add(reference));
+  /**
+   * Grow the index so it holds the given number of references without rehashing
+   *
+   * @param expectedSize number of references
+   */
+  public void ensureCapacity(final int expectedSize) {
+    if (this.referenceToKeysMap.getClass() == HashMap.class && expectedSize > this.referenceToKeysMap.size() * 2) {
+      final Map<Reference<V>, Set<K>> referenceToKeysMap = new HashMap<>(expectedSize * 4 / 3 + 1);
+      referenceToKeysMap.putAll(this.referenceToKeysMap);
+      this.referenceToKeysMap = referenceToKeysMap;
     }
   }
 
@@ -107,18 +248,61 @@ public class ReferenceIndex<K, V> implements Index<V> {
     }
 
     for (final K key : keys) {
-      final References<K, V> references = this.keyToReferencesMap.get(key);
+      this.removeFromBucket(key, reference);
+    }
 
-      if (reference != null) {
-        references.remove(reference);
+      this.referenceToKeysMap.remove(reference);
+  }
 
-        if (references.isEmpty()) {
-            this.keyToReferencesMap.remove(key);
-        }
+  /**
+   * Add reference to the bucket of a key, creating the bucket if needed
+   *
+   * @param key key
+   * @param reference reference to add
+   */
+  protected void addToBucket(final K key, final Reference<V> reference) {
+    this.keyToReferencesMap.computeIfAbsent(key, this::createReferences).add(reference);
+  }
+
+  /**
+   * Add references to the bucket of a key at once, creating the bucket if needed
+   *
+   * @param key key
+   * @param references references to add
+   */
+  protected void addAllToBucket(final K key, final List<Reference<V>> references) {
+    this.keyToReferencesMap.computeIfAbsent(key, this::createReferences).addAll(references);
+  }
+
+  /**
+   * Map grouping references by key while indexing them at once, keys must compare the same as in the buckets map
+   *
+   * @return empty map
+   */
+  protected Map<K, List<Reference<V>>> createKeyGroups() {
+    return new HashMap<>();
+  }
+
+  /**
+   * Remove reference from the bucket of a key, dropping the bucket once empty
+   *
+   * @param key key
+   * @param reference reference to remove
+   */
+  protected void removeFromBucket(final K key, final Reference<V> reference) {
+    final References<K, V> references = this.keyToReferencesMap.get(key);
+
+    if (references != null) {
+      references.remove(reference);
+
+      if (references.isEmpty()) {
+          this.keyToReferencesMap.remove(key);
       }
     }
+  }
 
-      this.referenceToKeysMap.remove(reference);
+  protected References<K, V> createReferences(final K key) {
+    return new References<>(key, this.reducer, this.bitmapBuckets);
   }
 
   public void clear() {
@@ -134,11 +318,72 @@ public class ReferenceIndex<K, V> implements Index<V> {
     final Map<Reference<V>, Set<K>> referenceToKeysMapCopy = new HashMap<>(this.referenceToKeysMap);
 
     return new ReferenceIndex<>(
-        this.name, this.keyMapper, this.reducer, this.comparisonPolicy, keyToReferencesMapCopy, referenceToKeysMapCopy);
+        this.name,
+        this.keyMapper,
+        this.reducer,
+        this.comparisonPolicy,
+        keyToReferencesMapCopy,
+        referenceToKeysMapCopy,
+        this.bitmapBuckets);
   }
 
   public Set<K> getKeys(Reference<V> reference) {
-    return this.referenceToKeysMap.get(reference);
+    final Set<K> keys = this.referenceToKeysMap.get(reference);
+    return keys == null ? null : Collections.unmodifiableSet(keys);
+  }
+
+  /**
+   * Measure the size of this index
+   *
+   * @return stats of this index
+   */
+  public IndexStats getStats() {
+    long referenceToKeysBytes = MemoryEstimates.map(this.referenceToKeysMap);
+    for (final Set<K> keys : this.referenceToKeysMap.values()) {
+      referenceToKeysBytes += CompactSet.sizeInBytes(keys);
+    }
+
+    return this.createStats(
+        this.keyToReferencesMap.values(), MemoryEstimates.map(this.keyToReferencesMap), referenceToKeysBytes);
+  }
+
+  /**
+   * Create the stats of this index from its buckets
+   *
+   * @param buckets all buckets of this index
+   * @param keyToReferencesBytes estimated bytes of the map holding the buckets, the buckets are added
+   * @param referenceToKeysBytes estimated bytes of the keys remembered per reference
+   * @return stats of this index
+   */
+  protected IndexStats createStats(
+      final Collection<References<K, V>> buckets, final long keyToReferencesBytes, final long referenceToKeysBytes) {
+    final long[] histogram = new long[Integer.SIZE];
+    long bucketBytes = 0;
+    long referenceCount = 0;
+    long reducedReferenceCount = 0;
+    int sizeClasses = 0;
+
+    for (final References<K, V> references : buckets) {
+      final int size = references.getReferenceCount();
+      if (size > 0) {
+        final int sizeClass = IndexStats.sizeClass(size);
+        histogram[sizeClass]++;
+        sizeClasses = Math.max(sizeClasses, sizeClass + 1);
+      }
+
+      referenceCount += size;
+      reducedReferenceCount += references.getReducedReferenceCount();
+      bucketBytes += references.sizeInBytes();
+    }
+
+    return new IndexStats(
+        this.name,
+        buckets.size(),
+        referenceCount,
+        reducedReferenceCount,
+        Arrays.copyOf(histogram, sizeClasses),
+        keyToReferencesBytes + bucketBytes,
+        referenceToKeysBytes);
   }
 
   private Set<K> generateKeys(final Reference<V> reference) throws IndexCreationException {
@@ -150,21 +395,56 @@ public class ReferenceIndex<K, V> implements Index<V> {
       throw new IndexCreationException("Index: " + this.name + ". Unable to retrieve item to index", e);
     }
 
+    // the item was reclaimed, it is no longer indexed under any key
+    if (item == null) {
+      return Collections.emptySet();
+    }
+
     try {
-      for (final K key : this.keyMapper.map(item)) {
+      final Collection<K> mappedKeys = this.keyMapper.map(item);
 
+      // most items map to a single key, which needs no set of its own
+      if (mappedKeys.size() == 1) {
+        final K key = this.getComparableKey(mappedKeys.iterator().next());
+        return key == null ? Collections.emptySet() : Collections.singleton(key);
       }
-      return this.keyMapper.map(item).stream()
-          .map(this::getComparableKey)
-          .filter(Objects::nonNull)
-          .collect(Collectors.toSet());
+
+      final Set<K> keys = new CompactSet<>();
+      for (final K mappedKey : mappedKeys) {
+        final K key = this.getComparableKey(mappedKey);
+        if (key != null) {
+          keys.add(key);
+        }
+      }
+
+      return keys;
     } catch (final RuntimeException e) {
       throw new IndexCreationException(
           "Index: " + this.name + ". Error generating indexes for item: " + item, e);
     }
   }
 
-  private K getComparableKey(final Object key) {
+  private static <K> Set<K> mergeKeys(final Set<K> keys, final Set<K> added) {
+    // stored key sets may be shared by copies of this index, so they are replaced rather than modified
+    final Set<K> merged = new CompactSet<>(keys);
+    merged.addAll(added);
+    return merged;
+  }
+
+  /**
+   * Reject lookups by {@link Range}, only sorted indexes keep their keys in order
+   *
+   * @param key key to lookup
+   * @throws IllegalArgumentException if the key is a range
+   */
+  protected void checkLookupKey(final Object key) {
+    if (key instanceof Range) {
+      throw new IllegalArgumentException(
+          "Index: " + this.name + " is not sorted, it can't be looked up by range: " + key);
+    }
+  }
+
+  protected K getComparableKey(final Object key) {
     if (key == null || !this.comparisonPolicy.supports(key.getClass())) {
       return null;
     }
@@ -19,12 +19,46 @@ public class ReferenceIndexManager<V> extends IndexManager<V> {
   }
 
   @Override
+  @SuppressWarnings("unchecked")
   protected <K> ReferenceIndex<K, V> createIndex(
       final String indexName, final IndexDefinition<K, V> indexDefinition) {
+    if (indexDefinition instanceof IntIndexDefinition) {
+      final IntIndexDefinition<V> definition = (IntIndexDefinition<V>) indexDefinition;
+      return (ReferenceIndex<K, V>)
+          new IntReferenceIndex<>(
+              indexName,
+              definition.getKeyMapper(),
+              definition.getIntKeyMapper(),
+              definition.getReducer(),
+              definition.isBitmapBuckets());
+    }
+
+    if (indexDefinition instanceof LongIndexDefinition) {
+      final LongIndexDefinition<V> definition = (LongIndexDefinition<V>) indexDefinition;
+      return (ReferenceIndex<K, V>)
+          new LongReferenceIndex<>(
+              indexName,
+              definition.getKeyMapper(),
+              definition.getLongKeyMapper(),
+              definition.getReducer(),
+              definition.isBitmapBuckets());
+    }
+
+    if (indexDefinition instanceof SortedIndexDefinition) {
+      return new SortedReferenceIndex<>(
+          indexName,
+          indexDefinition.getKeyMapper(),
+          indexDefinition.getReducer(),
+          indexDefinition.getComparisonPolicy(),
+          ((SortedIndexDefinition<K, V>) indexDefinition).getComparator(),
+          indexDefinition.isBitmapBuckets());
+    }
+
     return new ReferenceIndex<>(
         indexName,
         indexDefinition.getKeyMapper(),
         indexDefinition.getReducer(),
-        indexDefinition.getComparisonPolicy());
+        indexDefinition.getComparisonPolicy(),
+        indexDefinition.isBitmapBuckets());
   }
 }
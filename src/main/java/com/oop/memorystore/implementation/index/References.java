@@ -1,46 +1,152 @@
 package com.oop.memorystore.implementation.index;
 
+import com.oop.memorystore.implementation.index.bitmap.ReferenceBitmap;
+import com.oop.memorystore.implementation.index.reducer.IncrementalReducer;
 import com.oop.memorystore.implementation.index.reducer.Reducer;
+import com.oop.memorystore.implementation.index.reducer.ReducerState;
 import com.oop.memorystore.implementation.reference.Reference;
+import com.oop.memorystore.implementation.stats.MemoryEstimates;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 public class References<K, V> {
   private final K key;
   private final Reducer<K, V> reducer;
+  private final ReducerState<V> reducerState;
+  private final boolean concurrent;
   private final Set<Reference<V>> references;
-  private Set<Reference<V>> reducedReferences;
+  private volatile Set<Reference<V>> reducedReferences;
+  private ReferenceBitmap bitmap;
 
   private References(
       final K key,
       final Set<Reference<V>> references,
       final Collection<Reference<V>> reducedReferences,
-      final Reducer<K, V> reducer) {
+      final Reducer<K, V> reducer,
+      final boolean bitmap,
+      final boolean concurrent) {
     this.key = key;
-    this.references = new LinkedHashSet<>(references);
-    this.reducedReferences = new LinkedHashSet<>(reducedReferences);
+    this.concurrent = concurrent;
+    // reducers depend on insertion order, with a reducer only the reduced references are read concurrently
+    this.references =
+        concurrent && reducer == null ? this.newReducedSet(references) : new CompactSet<>(references);
     this.reducer = reducer;
+    this.bitmap = bitmap && !concurrent ? new ReferenceBitmap() : null;
+    this.reducerState =
+        reducer instanceof IncrementalReducer
+            ? ((IncrementalReducer<K, V>) reducer).createState(key)
+            : null;
+
+    if (reducer == null) {
+      this.reducedReferences = this.references;
+    } else if (this.reducerState != null) {
+      // states cannot be shared between copies, replay the references into the new state
+      this.reducedReferences = this.newReducedSet(Collections.emptySet());
+      this.references.forEach(this::addReduced);
+    } else {
+      this.reducedReferences = this.newReducedSet(reducedReferences);
+    }
+
+    this.rebuildBitmap();
+  }
+
+  public References(final K key, final Reducer<K, V> reducer) {
+    this(key, reducer, false);
+  }
+
+  /**
+   * @param key bucket key
+   * @param reducer reducer applied to the bucket, may be null
+   * @param bitmap true to additionally hold the reduced references as a bitmap of reference ids
+   */
+  public References(final K key, final Reducer<K, V> reducer, final boolean bitmap) {
+    this(key, Collections.emptySet(), Collections.emptySet(), reducer, bitmap, false);
+  }
+
+  /**
+   * Create references which can be read while being modified. Reads never block, modifications must be serialised
+   * by the caller. Reduced references are not kept in insertion order and are never held as a bitmap.
+   *
+   * @param key bucket key
+   * @param reducer reducer applied to the bucket, may be null
+   * @param <K> key type
+   * @param <V> value type
+   * @return concurrently readable references
+   */
+  public static <K, V> References<K, V> concurrent(final K key, final Reducer<K, V> reducer) {
+    return new References<>(key, Collections.emptySet(), Collections.emptySet(), reducer, false, true);
   }
 
   public References(final K key, final Reference<V> reference, final Reducer<K, V> reducer) {
-    this(key, Collections.singleton(reference), Collections.emptySet(), reducer);
-      this.reducedReferences.add(reference);
-      this.reducedReferences = this.reduce(this.reducedReferences);
+    this(key, reducer);
+    this.add(reference);
   }
 
   public void add(final Reference<V> reference) {
-      this.references.add(reference);
-      this.reducedReferences.add(reference);
-      this.reducedReferences = this.reduce(this.reducedReferences);
+    if (!this.references.add(reference)) {
+      return;
+    }
+
+    if (this.reducer == null) {
+      this.mark(reference);
+      return;
+    }
+
+    this.addReduced(reference);
+  }
+
+  /**
+   * Add references at once. Reducers that can't reduce incrementally run once for all of them instead of once per
+   * reference.
+   *
+   * @param references references to add
+   */
+  public void addAll(final Collection<Reference<V>> references) {
+    if (this.reducer == null || this.reducerState != null) {
+      references.forEach(this::add);
+      return;
+    }
+
+    final Set<Reference<V>> reduced = this.orderedReducedReferences();
+    boolean changed = false;
+
+    for (final Reference<V> reference : references) {
+      if (this.references.add(reference)) {
+        reduced.add(reference);
+        changed = true;
+      }
+    }
+
+    if (changed) {
+      this.reducedReferences = this.publish(this.reduce(reduced));
+      this.rebuildBitmap();
+    }
   }
 
   public void remove(final Reference<V> reference) {
-      this.references.remove(reference);
+    if (!this.references.remove(reference)) {
+      return;
+    }
+
+    if (this.reducer == null) {
+      this.unmark(reference);
+      return;
+    }
+
+    if (this.reducerState != null) {
+      this.release(reference);
+      this.reducerState
+          .onRemove(new Element<>(reference), new ElementView())
+          .forEach(element -> this.retain(element.getReference()));
+      return;
+    }
 
     if (this.reducedReferences.contains(reference)) {
         this.reducedReferences =
-          this.reduce(this.references); // on remove, re-reduce all references associated with this key
+          this.publish(this.reduce(this.references)); // on remove, re-reduce all references associated with this key
+        this.rebuildBitmap();
     }
   }
 
@@ -49,26 +155,139 @@ public class References<K, V> {
   }
 
   public List<V> getAll() {
-    return this.reducedReferences.stream().map(Reference::get).collect(Collectors.toList());
+    return this.reducedReferences.stream().map(Reference::get).filter(Objects::nonNull).collect(Collectors.toList());
+  }
+
+  /**
+   * Reduced references of this bucket as a bitmap of reference ids. Only available when the bucket was created with
+   * bitmap support and every reference carries an id.
+   *
+   * @return bitmap of reduced reference ids or null if not available
+   */
+  public ReferenceBitmap getBitmap() {
+    return this.bitmap;
   }
 
   public boolean isEmpty() {
     return this.references.isEmpty();
   }
 
+  public int getReferenceCount() {
+    return this.references.size();
+  }
+
+  public int getReducedReferenceCount() {
+    return this.reducedReferences.size();
+  }
+
+  /**
+   * @return estimated bytes of this bucket, not counting the references themselves
+   */
+  public long sizeInBytes() {
+    long bytes = MemoryEstimates.object(32) + CompactSet.sizeInBytes(this.references);
+
+    if (this.reducedReferences != this.references) {
+      bytes += CompactSet.sizeInBytes(this.reducedReferences);
+    }
+
+    if (this.bitmap != null) {
+      bytes += this.bitmap.sizeInBytes();
+    }
+
+    return bytes;
+  }
+
   public Optional<V> findFirst() {
-    return this.reducedReferences.stream().map(Reference::get).findFirst();
+    return this.reducedReferences.stream().map(Reference::get).filter(Objects::nonNull).findFirst();
   }
 
   public References<K, V> copy() {
-    return new References<>(this.key, this.references, this.reducedReferences, this.reducer);
+    return new References<>(
+        this.key, this.references, this.reducedReferences, this.reducer, this.bitmap != null, this.concurrent);
   }
 
-  private Set<Reference<V>> reduce(final Set<Reference<V>> references) {
-    if (this.reducer == null) {
-      return references;
+  private void addReduced(final Reference<V> reference) {
+    if (this.reducerState == null) {
+      final Set<Reference<V>> reduced = this.orderedReducedReferences();
+      reduced.add(reference);
+      this.reducedReferences = this.publish(this.reduce(reduced));
+      this.rebuildBitmap();
+      return;
+    }
+
+    this.retain(reference);
+    for (final Element<V> evicted : this.reducerState.onAdd(new Element<>(reference))) {
+      this.release(evicted.getReference());
+    }
+  }
+
+  private Set<Reference<V>> newReducedSet(final Collection<Reference<V>> references) {
+    if (!this.concurrent) {
+      return new CompactSet<>(references);
+    }
+
+    final Set<Reference<V>> set = ConcurrentHashMap.newKeySet(Math.max(references.size(), 1));
+    set.addAll(references);
+    return set;
+  }
+
+  private Set<Reference<V>> publish(final Set<Reference<V>> reduced) {
+    return this.concurrent ? this.newReducedSet(reduced) : reduced;
+  }
+
+  // concurrent reduced sets are unordered, recover insertion order from all references
+  private Set<Reference<V>> orderedReducedReferences() {
+    if (!this.concurrent) {
+      return this.reducedReferences;
+    }
+
+    final Set<Reference<V>> reduced = this.reducedReferences;
+    return this.references.stream()
+        .filter(reduced::contains)
+        .collect(Collectors.toCollection(CompactSet::new));
+  }
+
+  private void retain(final Reference<V> reference) {
+    this.reducedReferences.add(reference);
+    this.mark(reference);
+  }
+
+  private void release(final Reference<V> reference) {
+    this.reducedReferences.remove(reference);
+    this.unmark(reference);
+  }
+
+  private void mark(final Reference<V> reference) {
+    if (this.bitmap == null) {
+      return;
+    }
+
+    if (reference.getId() < 0) {
+      this.bitmap = null; // reference without an id, this bucket can no longer be represented as a bitmap
+      return;
+    }
+
+    this.bitmap.add(reference.getId());
+  }
+
+  private void unmark(final Reference<V> reference) {
+    if (this.bitmap != null && reference.getId() >= 0) {
+      this.bitmap.remove(reference.getId());
+    }
+  }
+
+  private void rebuildBitmap() {
+    if (this.bitmap == null) {
+      return;
     }
 
+    this.bitmap.clear();
+    for (final Reference<V> reference : this.reducedReferences) {
+      this.mark(reference);
+    }
+  }
+
+  private Set<Reference<V>> reduce(final Set<Reference<V>> references) {
     final List<Element<V>> elements =
         references.stream().map(Element::new).collect(Collectors.toList());
       this.reducer.reduce(this.key, elements);
@@ -76,6 +295,30 @@ public class References<K, V> {
     return elements.stream()
         .filter(element -> !element.isRemoved())
         .map(Element::getReference)
-        .collect(Collectors.toCollection(LinkedHashSet::new));
+        .collect(Collectors.toCollection(CompactSet::new));
+  }
+
+  /** Elements of all references of this key, created as they are iterated */
+  private final class ElementView extends AbstractCollection<Element<V>> {
+    @Override
+    public Iterator<Element<V>> iterator() {
+      final Iterator<Reference<V>> iterator = References.this.references.iterator();
+      return new Iterator<Element<V>>() {
+        @Override
+        public boolean hasNext() {
+          return iterator.hasNext();
+        }
+
+        @Override
+        public Element<V> next() {
+          return new Element<>(iterator.next());
+        }
+      };
+    }
+
+    @Override
+    public int size() {
+      return References.this.references.size();
+    }
   }
 }
@@ -0,0 +1,83 @@
+package com.oop.memorystore.implementation.index;
+
+import com.oop.memorystore.implementation.query.Range;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Index keeping its keys sorted, created from a {@link SortedIndexDefinition}. Besides exact key
+ * lookups it supports range lookups, {@link Index#get(Object)} also accepts a {@link Range}.
+ *
+ * @param <V> value type
+ */
+public interface SortedIndex<V> extends Index<V> {
+  /**
+   * Find all indexed items with a key within the range
+   *
+   * @param range range of keys
+   * @return matching items in key order
+   */
+  List<V> range(Range range);
+
+  /**
+   * Find all indexed items with a key between from and to, both inclusive
+   *
+   * @param from lower bound
+   * @param to upper bound
+   * @return matching items in key order
+   */
+  default List<V> range(final Object from, final Object to) {
+    return this.range(Range.between(from, to));
+  }
+
+  /**
+   * Find all indexed items with a key greater than the given key
+   *
+   * @param key exclusive lower bound
+   * @return matching items in key order
+   */
+  default List<V> greaterThan(final Object key) {
+    return this.range(Range.greaterThan(key));
+  }
+
+  /**
+   * Find all indexed items with a key less than the given key
+   *
+   * @param key exclusive upper bound
+   * @return matching items in key order
+   */
+  default List<V> lessThan(final Object key) {
+    return this.range(Range.lessThan(key));
+  }
+
+  /**
+   * Find first indexed item of the greatest key less than or equal to the given key
+   *
+   * @param key key to lookup
+   * @return optional
+   */
+  Optional<V> floor(Object key);
+
+  /**
+   * Find first indexed item of the least key greater than or equal to the given key
+   *
+   * @param key key to lookup
+   * @return optional
+   */
+  Optional<V> ceiling(Object key);
+
+  /**
+   * All indexed items in ascending key order
+   *
+   * @return items
+   */
+  List<V> ascending();
+
+  /**
+   * All indexed items in descending key order
+   *
+   * @return items
+   */
+  List<V> descending();
+}
@@ -0,0 +1,84 @@
+package com.oop.memorystore.implementation.index;
+
+import com.oop.memorystore.implementation.index.comparison.ComparisonPolicy;
+import com.oop.memorystore.implementation.index.reducer.Reducer;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+
+/**
+ * Definition of an index keeping its keys sorted. Sorted indexes can be queried by {@link
+ * com.oop.memorystore.implementation.query.Range} in addition to exact keys, see {@link SortedIndex}.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+public final class SortedIndexDefinition<K, V> extends IndexDefinition<K, V> {
+  private final Comparator<? super K> comparator;
+
+  private SortedIndexDefinition(
+      final KeyMapper<Collection<K>, V> keyMapper, final Comparator<? super K> comparator) {
+    super(keyMapper);
+    this.comparator = comparator;
+  }
+
+  /**
+   * Specify a function that maps a given value to a single sorted key. Example:
+   * SortedIndexDefinition.withKeyMapping(Person::getAge, Comparator.naturalOrder())
+   *
+   * @param keyMapper a function that maps a given value to a single indexed key. Note: If the
+   *     mapper returns a null, indexing will be skipped for the given value.
+   * @param comparator order of the keys, keys are compared after the comparison policy is applied
+   * @param <K> key type
+   * @param <V> value type
+   * @return index build
+   */
+  public static <K, V> SortedIndexDefinition<K, V> withKeyMapping(
+      final KeyMapper<K, V> keyMapper, final Comparator<? super K> comparator) {
+    return withKeyMappings(
+        value -> {
+          final K key = keyMapper.map(value);
+          return key == null ? Collections.emptyList() : Collections.singletonList(key);
+        },
+        comparator);
+  }
+
+  /**
+   * Specify a function that maps a given value to one or more sorted keys
+   *
+   * @param mapper a function that maps a given value to one or more indexed keys. Note: any null
+   *     values returned in the collection will be ignored
+   * @param comparator order of the keys, keys are compared after the comparison policy is applied
+   * @param <K> key type
+   * @param <V> value type
+   * @return index build
+   */
+  public static <K, V> SortedIndexDefinition<K, V> withKeyMappings(
+      final KeyMapper<Collection<K>, V> mapper, final Comparator<? super K> comparator) {
+    return new SortedIndexDefinition<>(mapper, comparator);
+  }
+
+  @Override
+  public SortedIndexDefinition<K, V> withReducer(final Reducer<K, V> reducer) {
+    super.withReducer(reducer);
+    return this;
+  }
+
+  @Override
+  public SortedIndexDefinition<K, V> withBitmapBuckets() {
+    super.withBitmapBuckets();
+    return this;
+  }
+
+  @Override
+  public SortedIndexDefinition<K, V> withComparisonPolicy(
+      final ComparisonPolicy<K> comparisonPolicy) {
+    super.withComparisonPolicy(comparisonPolicy);
+    return this;
+  }
+
+  Comparator<? super K> getComparator() {
+    return this.comparator;
+  }
+}
@@ -0,0 +1,419 @@
+package com.oop.memorystore.implementation.index;
+
+import com.oop.memorystore.implementation.index.bitmap.ReferenceBitmap;
+import com.oop.memorystore.implementation.index.comparison.ComparisonPolicy;
+import com.oop.memorystore.implementation.index.reducer.Reducer;
+import com.oop.memorystore.implementation.query.Range;
+import com.oop.memorystore.implementation.reference.Reference;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Reference index backed by a {@link TreeMap}, supporting range lookups in addition to exact keys
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+public class SortedReferenceIndex<K, V> extends ReferenceIndex<K, V> implements SortedIndex<V> {
+  private final Comparator<? super K> comparator;
+  private final NavigableMap<K, References<K, V>> sortedKeyToReferencesMap;
+
+  // true once a reference was mapped to more than one key, ranges then need to skip duplicates
+  private boolean multiKeyed;
+
+  private SortedReferenceIndex(
+      final String name,
+      final KeyMapper<Collection<K>, V> keyMapper,
+      final Reducer<K, V> reducer,
+      final ComparisonPolicy<K> comparisonPolicy,
+      final Comparator<? super K> comparator,
+      final NavigableMap<K, References<K, V>> keyToReferencesMap,
+      final Map<Reference<V>, Set<K>> referenceToKeysMap,
+      final boolean multiKeyed,
+      final boolean bitmapBuckets) {
+    super(name, keyMapper, reducer, comparisonPolicy, keyToReferencesMap, referenceToKeysMap, bitmapBuckets);
+    this.comparator = comparator;
+    this.sortedKeyToReferencesMap = keyToReferencesMap;
+    this.multiKeyed = multiKeyed;
+  }
+
+  public SortedReferenceIndex(
+      final String indexName,
+      final KeyMapper<Collection<K>, V> keyMapper,
+      final Reducer<K, V> reducer,
+      final ComparisonPolicy<K> comparisonPolicy,
+      final Comparator<? super K> comparator,
+      final boolean bitmapBuckets) {
+    this(
+        indexName,
+        keyMapper,
+        reducer,
+        comparisonPolicy,
+        comparator,
+        new TreeMap<>(comparator),
+        new HashMap<>(),
+        false,
+        bitmapBuckets);
+  }
+
+  @Override
+  public void index(final Reference<V> reference) throws IndexCreationException {
+    super.index(reference);
+
+    final Set<K> keys = this.referenceToKeysMap.get(reference);
+    if (keys != null && keys.size() > 1) {
+      this.multiKeyed = true;
+    }
+  }
+
+  @Override
+  void indexAll(final Collection<Reference<V>> references, final Collection<IndexCreationException> exceptions) {
+    super.indexAll(references, exceptions);
+
+    if (!this.multiKeyed) {
+      this.multiKeyed = references.stream()
+          .map(this.referenceToKeysMap::get)
+          .anyMatch(keys -> keys != null && keys.size() > 1);
+    }
+  }
+
+  @Override
+  public void restore(final Object key, final List<Reference<V>> references) {
+    super.restore(key, references);
+
+    if (!this.multiKeyed) {
+      this.multiKeyed = references.stream().anyMatch(reference -> this.referenceToKeysMap.get(reference).size() > 1);
+    }
+  }
+
+  @Override
+  protected Map<K, List<Reference<V>>> createKeyGroups() {
+    return new TreeMap<>(this.comparator);
+  }
+
+  @Override
+  public Set<Reference<V>> getReferences(final Object key) {
+    if (key instanceof Range) {
+      return this.rangeReferences((Range) key);
+    }
+
+    return super.getReferences(key);
+  }
+
+  /**
+   * Estimate the references of a range by adding up the sizes of its buckets, only walking as many keys as needed to
+   * reach the bound. References mapped to several keys of the range are counted once per key.
+   */
+  @Override
+  public int estimateSize(final Object key, final int bound) {
+    if (!(key instanceof Range)) {
+      return super.estimateSize(key, bound);
+    }
+
+    final RangeReferences range = this.rangeView((Range) key);
+    if (range == null) {
+      return 0;
+    }
+
+    int size = 0;
+    for (final References<K, V> references : range.keys.values()) {
+      size += references.getAllReferences().size();
+
+      if (size >= bound) {
+        break;
+      }
+    }
+
+    return size;
+  }
+
+  @Override
+  public ReferenceBitmap getBitmap(final Object key) {
+    if (!(key instanceof Range) || !this.bitmapBuckets) {
+      return super.getBitmap(key);
+    }
+
+    final RangeReferences range = this.rangeView((Range) key);
+    ReferenceBitmap bitmap = new ReferenceBitmap();
+
+    if (range == null) {
+      return bitmap;
+    }
+
+    for (final References<K, V> references : range.keys.values()) {
+      if (references.getBitmap() == null) {
+        return null;
+      }
+
+      bitmap = ReferenceBitmap.or(bitmap, references.getBitmap());
+    }
+
+    return bitmap;
+  }
+
+  @Override
+  public List<V> get(final Object key) {
+    if (key instanceof Range) {
+      return this.range((Range) key);
+    }
+
+    return super.get(key);
+  }
+
+  @Override
+  public Optional<V> findFirst(final Object key) {
+    if (key instanceof Range) {
+      return this.rangeReferences((Range) key).stream().findFirst().map(Reference::get);
+    }
+
+    return super.findFirst(key);
+  }
+
+  @Override
+  public List<V> range(final Range range) {
+    return this.rangeReferences(range).stream().map(Reference::get).filter(Objects::nonNull).collect(Collectors.toList());
+  }
+
+  @Override
+  public Optional<V> floor(final Object key) {
+    final K comparableKey = this.getComparableKey(key);
+    if (comparableKey == null) {
+      return Optional.empty();
+    }
+
+    return Optional.ofNullable(this.sortedKeyToReferencesMap.floorEntry(comparableKey))
+        .flatMap(entry -> entry.getValue().findFirst());
+  }
+
+  @Override
+  public Optional<V> ceiling(final Object key) {
+    final K comparableKey = this.getComparableKey(key);
+    if (comparableKey == null) {
+      return Optional.empty();
+    }
+
+    return Optional.ofNullable(this.sortedKeyToReferencesMap.ceilingEntry(comparableKey))
+        .flatMap(entry -> entry.getValue().findFirst());
+  }
+
+  @Override
+  public List<V> ascending() {
+    return this.range(Range.all());
+  }
+
+  @Override
+  public List<V> descending() {
+    final List<V> values = this.ascending();
+    Collections.reverse(values);
+    return values;
+  }
+
+  @Override
+  public SortedReferenceIndex<K, V> copy() {
+    final NavigableMap<K, References<K, V>> keyToReferencesMapCopy = new TreeMap<>(this.comparator);
+    this.sortedKeyToReferencesMap.forEach((key, references) -> keyToReferencesMapCopy.put(key, references.copy()));
+
+    return new SortedReferenceIndex<>(
+        this.name,
+        this.keyMapper,
+        this.reducer,
+        this.comparisonPolicy,
+        this.comparator,
+        keyToReferencesMapCopy,
+        new HashMap<>(this.referenceToKeysMap),
+        this.multiKeyed,
+        this.bitmapBuckets);
+  }
+
+  /**
+   * Live view of the references within a range. Nothing is copied, the keys within the range are
+   * walked as the view is iterated.
+   *
+   * @param range range of keys
+   * @return references view
+   */
+  public Set<Reference<V>> rangeReferences(final Range range) {
+    final RangeReferences references = this.rangeView(range);
+    return references == null ? Collections.emptySet() : references;
+  }
+
+  // null if a bound of the range is not comparable by this index, nothing is then in range
+  private RangeReferences rangeView(final Range range) {
+    final K lower = range.getLower() == null ? null : this.getComparableKey(range.getLower());
+    final K upper = range.getUpper() == null ? null : this.getComparableKey(range.getUpper());
+
+    if ((range.getLower() != null && lower == null) || (range.getUpper() != null && upper == null)) {
+      return null;
+    }
+
+    return new RangeReferences(
+        lower, range.isLowerInclusive(), upper, range.isUpperInclusive());
+  }
+
+  @Override
+  public String toString() {
+    return "SortedIndex[name='" + this.name + "']";
+  }
+
+  private final class RangeReferences extends AbstractSet<Reference<V>> {
+    private final K lower;
+    private final boolean lowerInclusive;
+    private final K upper;
+    private final boolean upperInclusive;
+    private final NavigableMap<K, References<K, V>> keys;
+
+    private RangeReferences(
+        final K lower, final boolean lowerInclusive, final K upper, final boolean upperInclusive) {
+      this.lower = lower;
+      this.lowerInclusive = lowerInclusive;
+      this.upper = upper;
+      this.upperInclusive = upperInclusive;
+      this.keys = this.subMap();
+    }
+
+    private NavigableMap<K, References<K, V>> subMap() {
+      final NavigableMap<K, References<K, V>> map = SortedReferenceIndex.this.sortedKeyToReferencesMap;
+
+      if (this.lower != null && this.upper != null) {
+        final int compared = SortedReferenceIndex.this.comparator.compare(this.lower, this.upper);
+        if (compared > 0 || (compared == 0 && !(this.lowerInclusive && this.upperInclusive))) {
+          return Collections.emptyNavigableMap();
+        }
+
+        return map.subMap(this.lower, this.lowerInclusive, this.upper, this.upperInclusive);
+      }
+
+      if (this.lower != null) {
+        return map.tailMap(this.lower, this.lowerInclusive);
+      }
+
+      if (this.upper != null) {
+        return map.headMap(this.upper, this.upperInclusive);
+      }
+
+      return map;
+    }
+
+    @Override
+    public Iterator<Reference<V>> iterator() {
+      final Iterator<Map.Entry<K, References<K, V>>> entries = this.keys.entrySet().iterator();
+
+      return new Iterator<Reference<V>>() {
+        private K key;
+        private Iterator<Reference<V>> bucket = Collections.emptyIterator();
+        private Reference<V> next;
+
+        @Override
+        public boolean hasNext() {
+          while (this.next == null) {
+            if (this.bucket.hasNext()) {
+              final Reference<V> reference = this.bucket.next();
+              if (!RangeReferences.this.matchedByLowerKey(reference, this.key)) {
+                this.next = reference;
+              }
+              continue;
+            }
+
+            if (!entries.hasNext()) {
+              return false;
+            }
+
+            final Map.Entry<K, References<K, V>> entry = entries.next();
+            this.key = entry.getKey();
+            this.bucket = entry.getValue().getAllReferences().iterator();
+          }
+
+          return true;
+        }
+
+        @Override
+        public Reference<V> next() {
+          if (!this.hasNext()) {
+            throw new NoSuchElementException();
+          }
+
+          final Reference<V> result = this.next;
+          this.next = null;
+          return result;
+        }
+      };
+    }
+
+    @Override
+    public boolean contains(final Object obj) {
+      final Set<K> referenceKeys = SortedReferenceIndex.this.referenceToKeysMap.get(obj);
+      if (referenceKeys == null) {
+        return false;
+      }
+
+      for (final K key : referenceKeys) {
+        if (this.inRange(key) && this.bucketContains(key, obj)) {
+          return true;
+        }
+      }
+
+      return false;
+    }
+
+    /**
+     * Count the references in range, walking every key of the range. Not cached, the view follows changes of the index.
+     * Planners estimate ranges through {@link SortedReferenceIndex#estimateSize} instead.
+     */
+    @Override
+    public int size() {
+      int size = 0;
+      if (SortedReferenceIndex.this.multiKeyed) {
+        for (final Iterator<Reference<V>> iterator = this.iterator(); iterator.hasNext(); iterator.next()) {
+          size++;
+        }
+      } else {
+        for (final References<K, V> references : this.keys.values()) {
+          size += references.getAllReferences().size();
+        }
+      }
+
+      return size;
+    }
+
+    // a reference mapped to several keys of the range is only returned for the lowest of them
+    private boolean matchedByLowerKey(final Reference<V> reference, final K key) {
+      if (!SortedReferenceIndex.this.multiKeyed) {
+        return false;
+      }
+
+      for (final K other : SortedReferenceIndex.this.referenceToKeysMap.get(reference)) {
+        if (SortedReferenceIndex.this.comparator.compare(other, key) < 0
+            && this.inRange(other)
+            && this.bucketContains(other, reference)) {
+          return true;
+        }
+      }
+
+      return false;
+    }
+
+    private boolean bucketContains(final K key, final Object reference) {
+      final References<K, V> references = SortedReferenceIndex.this.sortedKeyToReferencesMap.get(key);
+      return references != null && references.getAllReferences().contains(reference);
+    }
+
+    private boolean inRange(final K key) {
+      final Comparator<? super K> comparator = SortedReferenceIndex.this.comparator;
+
+      if (this.lower != null) {
+        final int compared = comparator.compare(key, this.lower);
+        if (compared < 0 || (compared == 0 && !this.lowerInclusive)) {
+          return false;
+        }
+      }
+
+      if (this.upper != null) {
+        final int compared = comparator.compare(key, this.upper);
+        return compared < 0 || (compared == 0 && this.upperInclusive);
+      }
+
+      return true;
+    }
+  }
+}
@@ -6,7 +6,7 @@ import java.util.Optional;
 
 public class SynchronizedIndex<T> implements Index<T> {
     private final Index<T> index;
-    private final Object mutex;
+    protected final Object mutex;
 
     public SynchronizedIndex(final Index<T> index, final Object mutex) {
         this.index = index;
@@ -78,4 +78,28 @@ public class SynchronizedIndex<T> implements Index<T> {
     public Index<T> getIndex() {
         return this.index;
     }
+
+    /**
+     * Wrap an index, keeping the sorted and primitive index interfaces of the wrapped index
+     *
+     * @param index index to wrap
+     * @param mutex mutex to synchronize on
+     * @param <T>   value type
+     * @return synchronized index
+     */
+    public static <T> SynchronizedIndex<T> of(final Index<T> index, final Object mutex) {
+        if (index instanceof IntIndex) {
+            return new SynchronizedIntIndex<>((IntIndex<T>) index, mutex);
+        }
+
+        if (index instanceof LongIndex) {
+            return new SynchronizedLongIndex<>((LongIndex<T>) index, mutex);
+        }
+
+        if (index instanceof SortedIndex) {
+            return new SynchronizedSortedIndex<>((SortedIndex<T>) index, mutex);
+        }
+
+        return new SynchronizedIndex<>(index, mutex);
+    }
 }
@@ -0,0 +1,27 @@
+package com.oop.memorystore.implementation.index;
+
+import java.util.List;
+import java.util.Optional;
+
+public class SynchronizedIntIndex<T> extends SynchronizedIndex<T> implements IntIndex<T> {
+    private final IntIndex<T> intIndex;
+
+    public SynchronizedIntIndex(final IntIndex<T> index, final Object mutex) {
+        super(index, mutex);
+        this.intIndex = index;
+    }
+
+    @Override
+    public Optional<T> findFirst(final int key) {
+        synchronized (this.mutex) {
+            return this.intIndex.findFirst(key);
+        }
+    }
+
+    @Override
+    public List<T> get(final int key) {
+        synchronized (this.mutex) {
+            return this.intIndex.get(key);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.oop.memorystore.implementation.index;
+
+import java.util.List;
+import java.util.Optional;
+
+public class SynchronizedLongIndex<T> extends SynchronizedIndex<T> implements LongIndex<T> {
+    private final LongIndex<T> longIndex;
+
+    public SynchronizedLongIndex(final LongIndex<T> index, final Object mutex) {
+        super(index, mutex);
+        this.longIndex = index;
+    }
+
+    @Override
+    public Optional<T> findFirst(final long key) {
+        synchronized (this.mutex) {
+            return this.longIndex.findFirst(key);
+        }
+    }
+
+    @Override
+    public List<T> get(final long key) {
+        synchronized (this.mutex) {
+            return this.longIndex.get(key);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.oop.memorystore.implementation.index;
+
+import com.oop.memorystore.implementation.query.Range;
+import java.util.List;
+import java.util.Optional;
+
+public class SynchronizedSortedIndex<T> extends SynchronizedIndex<T> implements SortedIndex<T> {
+    private final SortedIndex<T> sortedIndex;
+
+    public SynchronizedSortedIndex(final SortedIndex<T> index, final Object mutex) {
+        super(index, mutex);
+        this.sortedIndex = index;
+    }
+
+    @Override
+    public List<T> range(final Range range) {
+        synchronized (this.mutex) {
+            return this.sortedIndex.range(range);
+        }
+    }
+
+    @Override
+    public Optional<T> floor(final Object key) {
+        synchronized (this.mutex) {
+            return this.sortedIndex.floor(key);
+        }
+    }
+
+    @Override
+    public Optional<T> ceiling(final Object key) {
+        synchronized (this.mutex) {
+            return this.sortedIndex.ceiling(key);
+        }
+    }
+
+    @Override
+    public List<T> ascending() {
+        synchronized (this.mutex) {
+            return this.sortedIndex.ascending();
+        }
+    }
+
+    @Override
+    public List<T> descending() {
+        synchronized (this.mutex) {
+            return this.sortedIndex.descending();
+        }
+    }
+}
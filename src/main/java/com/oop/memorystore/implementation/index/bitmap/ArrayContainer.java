@@ -0,0 +1,201 @@
+package com.oop.memorystore.implementation.index.bitmap;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * Sparse container keeping its values in a sorted array
+ */
+final class ArrayContainer extends Container {
+    private char[] values;
+    private int cardinality;
+
+    ArrayContainer() {
+        this(new char[4], 0);
+    }
+
+    ArrayContainer(final char[] values, final int cardinality) {
+        this.values = values;
+        this.cardinality = cardinality;
+    }
+
+    @Override
+    Container add(final char value) {
+        final int index = Arrays.binarySearch(this.values, 0, this.cardinality, value);
+        if (index >= 0) {
+            return this;
+        }
+
+        if (this.cardinality >= MAX_ARRAY_SIZE) {
+            return this.toBitmap().add(value);
+        }
+
+        final int insertion = -index - 1;
+        if (this.cardinality == this.values.length) {
+            this.values = Arrays.copyOf(this.values, Math.min(this.values.length * 2, MAX_ARRAY_SIZE));
+        }
+
+        System.arraycopy(this.values, insertion, this.values, insertion + 1, this.cardinality - insertion);
+        this.values[insertion] = value;
+        this.cardinality++;
+        return this;
+    }
+
+    @Override
+    Container remove(final char value) {
+        final int index = Arrays.binarySearch(this.values, 0, this.cardinality, value);
+        if (index < 0) {
+            return this;
+        }
+
+        System.arraycopy(this.values, index + 1, this.values, index, this.cardinality - index - 1);
+        this.cardinality--;
+        return this;
+    }
+
+    @Override
+    boolean contains(final char value) {
+        return Arrays.binarySearch(this.values, 0, this.cardinality, value) >= 0;
+    }
+
+    @Override
+    int cardinality() {
+        return this.cardinality;
+    }
+
+    @Override
+    Container and(final Container other) {
+        if (other instanceof BitmapContainer) {
+            return this.filter((BitmapContainer) other, true);
+        }
+
+        final ArrayContainer that = (ArrayContainer) other;
+        final char[] result = new char[Math.min(this.cardinality, that.cardinality)];
+        int size = 0;
+        int i = 0;
+        int j = 0;
+
+        while (i < this.cardinality && j < that.cardinality) {
+            if (this.values[i] < that.values[j]) {
+                i++;
+            } else if (this.values[i] > that.values[j]) {
+                j++;
+            } else {
+                result[size++] = this.values[i];
+                i++;
+                j++;
+            }
+        }
+
+        return new ArrayContainer(result, size);
+    }
+
+    @Override
+    Container or(final Container other) {
+        if (other instanceof BitmapContainer) {
+            return other.or(this);
+        }
+
+        final ArrayContainer that = (ArrayContainer) other;
+        if (this.cardinality + that.cardinality > MAX_ARRAY_SIZE) {
+            return this.toBitmap().or(that);
+        }
+
+        final char[] result = new char[this.cardinality + that.cardinality];
+        int size = 0;
+        int i = 0;
+        int j = 0;
+
+        while (i < this.cardinality || j < that.cardinality) {
+            if (j == that.cardinality || (i < this.cardinality && this.values[i] < that.values[j])) {
+                result[size++] = this.values[i++];
+            } else if (i == this.cardinality || this.values[i] > that.values[j]) {
+                result[size++] = that.values[j++];
+            } else {
+                result[size++] = this.values[i];
+                i++;
+                j++;
+            }
+        }
+
+        return new ArrayContainer(result, size);
+    }
+
+    @Override
+    Container andNot(final Container other) {
+        if (other instanceof BitmapContainer) {
+            return this.filter((BitmapContainer) other, false);
+        }
+
+        final ArrayContainer that = (ArrayContainer) other;
+        final char[] result = new char[this.cardinality];
+        int size = 0;
+        int j = 0;
+
+        for (int i = 0; i < this.cardinality; i++) {
+            while (j < that.cardinality && that.values[j] < this.values[i]) {
+                j++;
+            }
+
+            if (j == that.cardinality || that.values[j] != this.values[i]) {
+                result[size++] = this.values[i];
+            }
+        }
+
+        return new ArrayContainer(result, size);
+    }
+
+    @Override
+    Container copy() {
+        return new ArrayContainer(Arrays.copyOf(this.values, this.cardinality), this.cardinality);
+    }
+
+    @Override
+    PrimitiveIterator.OfInt iterator() {
+        return new PrimitiveIterator.OfInt() {
+            private int index = 0;
+
+            @Override
+            public int nextInt() {
+                if (!this.hasNext()) {
+                    throw new NoSuchElementException();
+                }
+
+                return ArrayContainer.this.values[this.index++];
+            }
+
+            @Override
+            public boolean hasNext() {
+                return this.index < ArrayContainer.this.cardinality;
+            }
+        };
+    }
+
+    @Override
+    long sizeInBytes() {
+        return 16L + 2L * this.values.length;
+    }
+
+    BitmapContainer toBitmap() {
+        final BitmapContainer bitmap = new BitmapContainer();
+        for (int i = 0; i < this.cardinality; i++) {
+            bitmap.add(this.values[i]);
+        }
+
+        return bitmap;
+    }
+
+    private Container filter(final BitmapContainer bitmap, final boolean retainContained) {
+        final char[] result = new char[this.cardinality];
+        int size = 0;
+
+        for (int i = 0; i < this.cardinality; i++) {
+            if (bitmap.contains(this.values[i]) == retainContained) {
+                result[size++] = this.values[i];
+            }
+        }
+
+        return new ArrayContainer(result, size);
+    }
+}
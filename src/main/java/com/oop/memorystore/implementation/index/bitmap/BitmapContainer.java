@@ -0,0 +1,182 @@
+package com.oop.memorystore.implementation.index.bitmap;
+
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * Dense container keeping its values as a 65536 bit bitset
+ */
+final class BitmapContainer extends Container {
+    private static final int WORDS = 1024;
+
+    private final long[] words;
+    private int cardinality;
+
+    BitmapContainer() {
+        this(new long[WORDS], 0);
+    }
+
+    private BitmapContainer(final long[] words, final int cardinality) {
+        this.words = words;
+        this.cardinality = cardinality;
+    }
+
+    @Override
+    Container add(final char value) {
+        final int word = value >>> 6;
+        final long bit = 1L << value;
+
+        if ((this.words[word] & bit) == 0) {
+            this.words[word] |= bit;
+            this.cardinality++;
+        }
+
+        return this;
+    }
+
+    @Override
+    Container remove(final char value) {
+        final int word = value >>> 6;
+        final long bit = 1L << value;
+
+        if ((this.words[word] & bit) != 0) {
+            this.words[word] &= ~bit;
+            this.cardinality--;
+        }
+
+        return this.cardinality <= MAX_ARRAY_SIZE ? this.toArray() : this;
+    }
+
+    @Override
+    boolean contains(final char value) {
+        return (this.words[value >>> 6] & (1L << value)) != 0;
+    }
+
+    @Override
+    int cardinality() {
+        return this.cardinality;
+    }
+
+    @Override
+    Container and(final Container other) {
+        if (other instanceof ArrayContainer) {
+            return other.and(this);
+        }
+
+        final long[] that = ((BitmapContainer) other).words;
+        final long[] result = new long[WORDS];
+        int cardinality = 0;
+
+        for (int i = 0; i < WORDS; i++) {
+            result[i] = this.words[i] & that[i];
+            cardinality += Long.bitCount(result[i]);
+        }
+
+        return normalized(result, cardinality);
+    }
+
+    @Override
+    Container or(final Container other) {
+        final BitmapContainer result = (BitmapContainer) this.copy();
+
+        if (other instanceof ArrayContainer) {
+            for (final PrimitiveIterator.OfInt iterator = other.iterator(); iterator.hasNext(); ) {
+                result.add((char) iterator.nextInt());
+            }
+
+            return normalized(result.words, result.cardinality);
+        }
+
+        final long[] that = ((BitmapContainer) other).words;
+        int cardinality = 0;
+
+        for (int i = 0; i < WORDS; i++) {
+            result.words[i] |= that[i];
+            cardinality += Long.bitCount(result.words[i]);
+        }
+
+        return normalized(result.words, cardinality);
+    }
+
+    @Override
+    Container andNot(final Container other) {
+        if (other instanceof ArrayContainer) {
+            Container result = this.copy();
+            for (final PrimitiveIterator.OfInt iterator = other.iterator(); iterator.hasNext(); ) {
+                result = result.remove((char) iterator.nextInt());
+            }
+
+            return result;
+        }
+
+        final long[] that = ((BitmapContainer) other).words;
+        final long[] result = new long[WORDS];
+        int cardinality = 0;
+
+        for (int i = 0; i < WORDS; i++) {
+            result[i] = this.words[i] & ~that[i];
+            cardinality += Long.bitCount(result[i]);
+        }
+
+        return normalized(result, cardinality);
+    }
+
+    @Override
+    Container copy() {
+        return new BitmapContainer(this.words.clone(), this.cardinality);
+    }
+
+    @Override
+    PrimitiveIterator.OfInt iterator() {
+        return new PrimitiveIterator.OfInt() {
+            private int word = -1;
+            private long bits = 0;
+
+            @Override
+            public int nextInt() {
+                if (!this.hasNext()) {
+                    throw new NoSuchElementException();
+                }
+
+                final int value = (this.word << 6) + Long.numberOfTrailingZeros(this.bits);
+                this.bits &= this.bits - 1;
+                return value;
+            }
+
+            @Override
+            public boolean hasNext() {
+                while (this.bits == 0) {
+                    if (++this.word >= WORDS) {
+                        this.word = WORDS;
+                        return false;
+                    }
+
+                    this.bits = BitmapContainer.this.words[this.word];
+                }
+
+                return true;
+            }
+        };
+    }
+
+    @Override
+    long sizeInBytes() {
+        return 24L + 8L * WORDS;
+    }
+
+    ArrayContainer toArray() {
+        final char[] values = new char[this.cardinality];
+        int size = 0;
+
+        for (final PrimitiveIterator.OfInt iterator = this.iterator(); iterator.hasNext(); ) {
+            values[size++] = (char) iterator.nextInt();
+        }
+
+        return new ArrayContainer(values, size);
+    }
+
+    private static Container normalized(final long[] words, final int cardinality) {
+        final BitmapContainer container = new BitmapContainer(words, cardinality);
+        return cardinality <= MAX_ARRAY_SIZE ? container.toArray() : container;
+    }
+}
@@ -0,0 +1,44 @@
+package com.oop.memorystore.implementation.index.bitmap;
+
+import java.util.PrimitiveIterator;
+
+/**
+ * Holds the low 16 bits of the ids sharing the same high 16 bits
+ */
+abstract class Container {
+    /** Containers holding more values than this are stored as a bitset */
+    static final int MAX_ARRAY_SIZE = 4096;
+
+    /**
+     * Add a value
+     *
+     * @param value low 16 bits
+     * @return container holding the value, may be a new container if the representation changed
+     */
+    abstract Container add(char value);
+
+    /**
+     * Remove a value
+     *
+     * @param value low 16 bits
+     * @return container without the value, may be a new container if the representation changed
+     */
+    abstract Container remove(char value);
+
+    abstract boolean contains(char value);
+
+    abstract int cardinality();
+
+    abstract Container and(Container other);
+
+    abstract Container or(Container other);
+
+    abstract Container andNot(Container other);
+
+    abstract Container copy();
+
+    abstract PrimitiveIterator.OfInt iterator();
+
+    /** Approximate memory used by this container in bytes */
+    abstract long sizeInBytes();
+}
@@ -0,0 +1,268 @@
+package com.oop.memorystore.implementation.index.bitmap;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * Compressed set of reference ids. Ids are split into their high and low 16 bits, the high bits select a container
+ * and the container holds the low bits either as a sorted array (sparse) or as a bitset (dense). Intersections, unions
+ * and differences are performed container by container, word by word for dense containers.
+ */
+public final class ReferenceBitmap {
+    private char[] keys;
+    private Container[] containers;
+    private int size;
+
+    public ReferenceBitmap() {
+        this(new char[4], new Container[4], 0);
+    }
+
+    private ReferenceBitmap(final char[] keys, final Container[] containers, final int size) {
+        this.keys = keys;
+        this.containers = containers;
+        this.size = size;
+    }
+
+    /**
+     * Add id to the bitmap
+     *
+     * @param id id to add, must not be negative
+     */
+    public void add(final int id) {
+        final char key = highBits(id);
+        final int index = this.indexOf(key);
+
+        if (index >= 0) {
+            this.containers[index] = this.containers[index].add(lowBits(id));
+            return;
+        }
+
+        final int insertion = -index - 1;
+        if (this.size == this.keys.length) {
+            this.keys = Arrays.copyOf(this.keys, this.size * 2);
+            this.containers = Arrays.copyOf(this.containers, this.size * 2);
+        }
+
+        System.arraycopy(this.keys, insertion, this.keys, insertion + 1, this.size - insertion);
+        System.arraycopy(this.containers, insertion, this.containers, insertion + 1, this.size - insertion);
+        this.keys[insertion] = key;
+        this.containers[insertion] = new ArrayContainer().add(lowBits(id));
+        this.size++;
+    }
+
+    /**
+     * Remove id from the bitmap
+     *
+     * @param id id to remove
+     */
+    public void remove(final int id) {
+        final int index = this.indexOf(highBits(id));
+        if (index < 0) {
+            return;
+        }
+
+        final Container container = this.containers[index].remove(lowBits(id));
+        if (container.cardinality() > 0) {
+            this.containers[index] = container;
+            return;
+        }
+
+        System.arraycopy(this.keys, index + 1, this.keys, index, this.size - index - 1);
+        System.arraycopy(this.containers, index + 1, this.containers, index, this.size - index - 1);
+        this.size--;
+        this.containers[this.size] = null;
+    }
+
+    /**
+     * @param id id to check
+     * @return true if bitmap contains the id
+     */
+    public boolean contains(final int id) {
+        final int index = this.indexOf(highBits(id));
+        return index >= 0 && this.containers[index].contains(lowBits(id));
+    }
+
+    /**
+     * @return number of ids in this bitmap
+     */
+    public int cardinality() {
+        int cardinality = 0;
+        for (int i = 0; i < this.size; i++) {
+            cardinality += this.containers[i].cardinality();
+        }
+
+        return cardinality;
+    }
+
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * Remove all ids
+     */
+    public void clear() {
+        Arrays.fill(this.containers, 0, this.size, null);
+        this.size = 0;
+    }
+
+    /**
+     * @return approximate memory used by this bitmap in bytes
+     */
+    public long sizeInBytes() {
+        long bytes = 32L + 2L * this.keys.length + 8L * this.containers.length;
+        for (int i = 0; i < this.size; i++) {
+            bytes += this.containers[i].sizeInBytes();
+        }
+
+        return bytes;
+    }
+
+    /**
+     * @return independent copy of this bitmap
+     */
+    public ReferenceBitmap copy() {
+        final Container[] containers = new Container[Math.max(this.size, 4)];
+        for (int i = 0; i < this.size; i++) {
+            containers[i] = this.containers[i].copy();
+        }
+
+        return new ReferenceBitmap(Arrays.copyOf(this.keys, containers.length), containers, this.size);
+    }
+
+    /**
+     * @return iterator over the ids in ascending order
+     */
+    public PrimitiveIterator.OfInt iterator() {
+        return new PrimitiveIterator.OfInt() {
+            private int index = -1;
+            private int high;
+            private PrimitiveIterator.OfInt current;
+
+            @Override
+            public int nextInt() {
+                if (!this.hasNext()) {
+                    throw new NoSuchElementException();
+                }
+
+                return this.high | this.current.nextInt();
+            }
+
+            @Override
+            public boolean hasNext() {
+                while (this.current == null || !this.current.hasNext()) {
+                    if (++this.index >= ReferenceBitmap.this.size) {
+                        this.index = ReferenceBitmap.this.size;
+                        return false;
+                    }
+
+                    this.high = ReferenceBitmap.this.keys[this.index] << 16;
+                    this.current = ReferenceBitmap.this.containers[this.index].iterator();
+                }
+
+                return true;
+            }
+        };
+    }
+
+    /**
+     * @return new bitmap holding the ids present in both bitmaps
+     */
+    public static ReferenceBitmap and(final ReferenceBitmap left, final ReferenceBitmap right) {
+        final int capacity = Math.max(Math.min(left.size, right.size), 4);
+        final ReferenceBitmap result = new ReferenceBitmap(new char[capacity], new Container[capacity], 0);
+        int i = 0;
+        int j = 0;
+
+        while (i < left.size && j < right.size) {
+            if (left.keys[i] < right.keys[j]) {
+                i++;
+            } else if (left.keys[i] > right.keys[j]) {
+                j++;
+            } else {
+                result.append(left.keys[i], left.containers[i].and(right.containers[j]));
+                i++;
+                j++;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * @return new bitmap holding the ids present in either bitmap
+     */
+    public static ReferenceBitmap or(final ReferenceBitmap left, final ReferenceBitmap right) {
+        final int capacity = Math.max(left.size + right.size, 4);
+        final ReferenceBitmap result = new ReferenceBitmap(new char[capacity], new Container[capacity], 0);
+        int i = 0;
+        int j = 0;
+
+        while (i < left.size || j < right.size) {
+            if (j == right.size || (i < left.size && left.keys[i] < right.keys[j])) {
+                result.append(left.keys[i], left.containers[i].copy());
+                i++;
+            } else if (i == left.size || left.keys[i] > right.keys[j]) {
+                result.append(right.keys[j], right.containers[j].copy());
+                j++;
+            } else {
+                result.append(left.keys[i], left.containers[i].or(right.containers[j]));
+                i++;
+                j++;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * @return new bitmap holding the ids present in left but not in right
+     */
+    public static ReferenceBitmap andNot(final ReferenceBitmap left, final ReferenceBitmap right) {
+        final int capacity = Math.max(left.size, 4);
+        final ReferenceBitmap result = new ReferenceBitmap(new char[capacity], new Container[capacity], 0);
+        int j = 0;
+
+        for (int i = 0; i < left.size; i++) {
+            while (j < right.size && right.keys[j] < left.keys[i]) {
+                j++;
+            }
+
+            if (j < right.size && right.keys[j] == left.keys[i]) {
+                result.append(left.keys[i], left.containers[i].andNot(right.containers[j]));
+            } else {
+                result.append(left.keys[i], left.containers[i].copy());
+            }
+        }
+
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "ReferenceBitmap{cardinality=" + this.cardinality() + ", containers=" + this.size + "}";
+    }
+
+    private void append(final char key, final Container container) {
+        if (container.cardinality() == 0) {
+            return;
+        }
+
+        this.keys[this.size] = key;
+        this.containers[this.size] = container;
+        this.size++;
+    }
+
+    private int indexOf(final char key) {
+        return Arrays.binarySearch(this.keys, 0, this.size, key);
+    }
+
+    private static char highBits(final int id) {
+        return (char) (id >>> 16);
+    }
+
+    private static char lowBits(final int id) {
+        return (char) id;
+    }
+}
@@ -2,11 +2,13 @@ package com.oop.memorystore.implementation.index.reducer;
 
 import com.oop.memorystore.implementation.index.Element;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 import java.util.function.Function;
 
-abstract class ComparingReducer<K, V> implements Reducer<K, V> {
+abstract class ComparingReducer<K, V> implements IncrementalReducer<K, V> {
   private final Function<V, ?> valueProvider;
   private final Comparator<Object> comparator;
   private final boolean nullGreater;
@@ -34,6 +36,11 @@ abstract class ComparingReducer<K, V> implements Reducer<K, V> {
     elements.stream().reduce(this::reduce);
   }
 
+  @Override
+  public ReducerState<V> createState(final K key) {
+    return new ComparingState();
+  }
+
   private Element<V> reduce(final Element<V> element1, final Element<V> element2) {
     final Object comparable1 = this.valueProvider.apply(element1.get());
     final Object comparable2 = this.valueProvider.apply(element2.get());
@@ -49,4 +56,53 @@ abstract class ComparingReducer<K, V> implements Reducer<K, V> {
 
   abstract int compare(
       Object value1, Object value2, Comparator<Object> comparator, boolean nullGreater);
+
+  /** Keeps the retained element and its compared value, adding an element is a single comparison */
+  private final class ComparingState implements ReducerState<V> {
+    private Element<V> retained;
+    private Object retainedValue;
+
+    @Override
+    public List<Element<V>> onAdd(final Element<V> element) {
+      final Object value = ComparingReducer.this.valueProvider.apply(element.get());
+
+      if (this.retained == null) {
+        this.retain(element, value);
+        return Collections.emptyList();
+      }
+
+      if (ComparingReducer.this.compare(
+              this.retainedValue, value, ComparingReducer.this.comparator, ComparingReducer.this.nullGreater)
+          > 0) {
+        return Collections.singletonList(element);
+      }
+
+      final Element<V> evicted = this.retained;
+      this.retain(element, value);
+      return Collections.singletonList(evicted);
+    }
+
+    @Override
+    public List<Element<V>> onRemove(
+        final Element<V> element, final Collection<Element<V>> remaining) {
+      if (!element.equals(this.retained)) {
+        return Collections.emptyList();
+      }
+
+      // the retained element is gone, look for the next best one
+      this.retain(null, null);
+      for (final Element<V> candidate : remaining) {
+        this.onAdd(candidate);
+      }
+
+      return this.retained == null
+          ? Collections.emptyList()
+          : Collections.singletonList(this.retained);
+    }
+
+    private void retain(final Element<V> element, final Object value) {
+      this.retained = element;
+      this.retainedValue = value;
+    }
+  }
 }
@@ -2,6 +2,8 @@ package com.oop.memorystore.implementation.index.reducer;
 
 import com.oop.memorystore.implementation.index.Element;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.function.Predicate;
 
@@ -11,9 +13,26 @@ import java.util.function.Predicate;
  * @param <K> key type
  * @param <V> value type
  */
-public class FilteredReducer<K, V> implements Reducer<K, V> {
+public class FilteredReducer<K, V> implements IncrementalReducer<K, V> {
   private final Predicate<V> predicate;
 
+  // elements are reduced one by one, so a single stateless instance is shared by every key
+  private final ReducerState<V> state =
+      new ReducerState<V>() {
+        @Override
+        public List<Element<V>> onAdd(final Element<V> element) {
+          return FilteredReducer.this.predicate.test(element.get())
+              ? Collections.singletonList(element)
+              : Collections.emptyList();
+        }
+
+        @Override
+        public List<Element<V>> onRemove(
+            final Element<V> element, final Collection<Element<V>> remaining) {
+          return Collections.emptyList();
+        }
+      };
+
   public FilteredReducer(final Predicate<V> predicate) {
     this.predicate = predicate;
   }
@@ -26,4 +45,9 @@ public class FilteredReducer<K, V> implements Reducer<K, V> {
       }
     }
   }
+
+  @Override
+  public ReducerState<V> createState(final K key) {
+    return this.state;
+  }
 }
@@ -0,0 +1,18 @@
+package com.oop.memorystore.implementation.index.reducer;
+
+/**
+ * Reducer that keeps state for each key, so adding or removing a single element does not require reducing every element of
+ * the key again. Reducers that do not implement this interface are applied to all elements of a key on every change.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+public interface IncrementalReducer<K, V> extends Reducer<K, V> {
+  /**
+   * Create the reduction state of a key
+   *
+   * @param key key the state is created for
+   * @return new state
+   */
+  ReducerState<V> createState(K key);
+}
@@ -2,7 +2,12 @@ package com.oop.memorystore.implementation.index.reducer;
 
 import com.oop.memorystore.implementation.index.Element;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Reduces elements a key once the configured limit has been reached
@@ -10,7 +15,7 @@ import java.util.List;
  * @param <K> key type
  * @param <V> value type
  */
-public class LimitReducer<K, V> implements Reducer<K, V> {
+public class LimitReducer<K, V> implements IncrementalReducer<K, V> {
   private final int limit;
   private final Retain retain;
 
@@ -32,6 +37,11 @@ public class LimitReducer<K, V> implements Reducer<K, V> {
     }
   }
 
+  @Override
+  public ReducerState<V> createState(final K key) {
+    return new LimitState();
+  }
+
   private void reduceNewest(final List<Element<V>> elements) {
     for (int i = 0; i < (elements.size() - this.limit); i++) {
       elements.get(i).remove();
@@ -44,6 +54,69 @@ public class LimitReducer<K, V> implements Reducer<K, V> {
     }
   }
 
+  /**
+   * Keeps the retained elements in insertion order. Adding an element is constant time, only removing a retained element
+   * looks at the other elements of the key to find its replacement.
+   */
+  private final class LimitState implements ReducerState<V> {
+    private Set<Element<V>> retained = new LinkedHashSet<>();
+
+    @Override
+    public List<Element<V>> onAdd(final Element<V> element) {
+      if (this.retained.size() < LimitReducer.this.limit) {
+        this.retained.add(element);
+        return Collections.emptyList();
+      }
+
+      if (LimitReducer.this.retain == Retain.OLDEST) {
+        return Collections.singletonList(element);
+      }
+
+      final Iterator<Element<V>> oldest = this.retained.iterator();
+      final Element<V> evicted = oldest.next();
+      oldest.remove();
+      this.retained.add(element);
+      return Collections.singletonList(evicted);
+    }
+
+    @Override
+    public List<Element<V>> onRemove(
+        final Element<V> element, final Collection<Element<V>> remaining) {
+      if (!this.retained.remove(element)) {
+        return Collections.emptyList();
+      }
+
+      // OLDEST admits the oldest element not retained yet, NEWEST the newest one
+      Element<V> admitted = null;
+      for (final Element<V> candidate : remaining) {
+        if (this.retained.contains(candidate)) {
+          continue;
+        }
+
+        admitted = candidate;
+        if (LimitReducer.this.retain == Retain.OLDEST) {
+          break;
+        }
+      }
+
+      if (admitted == null) {
+        return Collections.emptyList();
+      }
+
+      if (LimitReducer.this.retain == Retain.OLDEST) {
+        this.retained.add(admitted);
+      } else {
+        // the admitted element is older than every retained one, it is the next to be evicted
+        final Set<Element<V>> reordered = new LinkedHashSet<>();
+        reordered.add(admitted);
+        reordered.addAll(this.retained);
+        this.retained = reordered;
+      }
+
+      return Collections.singletonList(admitted);
+    }
+  }
+
   public enum Retain {
     NEWEST,
     OLDEST
@@ -2,6 +2,8 @@ package com.oop.memorystore.implementation.index.reducer;
 
 import com.oop.memorystore.implementation.index.Element;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.function.Function;
 
@@ -11,9 +13,26 @@ import java.util.function.Function;
  * @param <K> key type
  * @param <V> value
  */
-public class NullReducer<K, V> implements Reducer<K, V> {
+public class NullReducer<K, V> implements IncrementalReducer<K, V> {
   private final Function<V, ?> valueProvider;
 
+  // null checks do not depend on other elements of the key, the same state serves all keys
+  private final ReducerState<V> state =
+      new ReducerState<V>() {
+        @Override
+        public List<Element<V>> onAdd(final Element<V> element) {
+          return NullReducer.this.valueProvider.apply(element.get()) == null
+              ? Collections.singletonList(element)
+              : Collections.emptyList();
+        }
+
+        @Override
+        public List<Element<V>> onRemove(
+            final Element<V> element, final Collection<Element<V>> remaining) {
+          return Collections.emptyList();
+        }
+      };
+
   public NullReducer(final Function<V, ?> valueProvider) {
     this.valueProvider = valueProvider;
   }
@@ -26,4 +45,9 @@ public class NullReducer<K, V> implements Reducer<K, V> {
       }
     }
   }
+
+  @Override
+  public ReducerState<V> createState(final K key) {
+    return this.state;
+  }
 }
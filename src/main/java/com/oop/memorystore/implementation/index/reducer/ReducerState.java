@@ -0,0 +1,31 @@
+package com.oop.memorystore.implementation.index.reducer;
+
+import com.oop.memorystore.implementation.index.Element;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Reduction state of a single key, see {@link IncrementalReducer}. Elements are compared by the reference they wrap, so an
+ * element passed to {@link #onRemove(Element, Collection)} equals the element previously passed to {@link #onAdd(Element)}.
+ *
+ * @param <V> value type
+ */
+public interface ReducerState<V> {
+  /**
+   * Offer an element newly added to the key
+   *
+   * @param element added element
+   * @return elements no longer retained because of this element, contains the added element itself if it is not retained
+   */
+  List<Element<V>> onAdd(Element<V> element);
+
+  /**
+   * Called when an element is removed from the key
+   *
+   * @param element removed element
+   * @param remaining all elements still held by the key in insertion order, the retained ones included
+   * @return elements that are retained now that the element has been removed
+   */
+  List<Element<V>> onRemove(Element<V> element, Collection<Element<V>> remaining);
+}
@@ -9,9 +9,15 @@ import com.oop.memorystore.implementation.reference.Reference;
  */
 public class MemoryReference<V> implements Reference<V> {
   private final V reference;
+  private final int id;
 
   public MemoryReference(final V reference) {
+    this(reference, -1);
+  }
+
+  public MemoryReference(final V reference, final int id) {
     this.reference = reference;
+    this.id = id;
   }
 
   @Override
@@ -19,6 +25,11 @@ public class MemoryReference<V> implements Reference<V> {
     return this.reference;
   }
 
+  @Override
+  public int getId() {
+    return this.id;
+  }
+
   @Override
   public String toString() {
     return String.valueOf(this.reference);
@@ -13,4 +13,9 @@ public class MemoryReferenceFactory<V> implements ReferenceFactory<V> {
   public Reference<V> createReference(final V obj) {
     return new MemoryReference<>(obj);
   }
+
+  @Override
+  public Reference<V> createReference(final V obj, final int id) {
+    return new MemoryReference<>(obj, id);
+  }
 }
@@ -3,9 +3,11 @@ package com.oop.memorystore.implementation.memory;
 import com.oop.memorystore.api.Store;
 import com.oop.memorystore.implementation.AbstractStore;
 import com.oop.memorystore.implementation.identity.DefaultIdentityProvider;
+import com.oop.memorystore.implementation.identity.IdentityProvider;
 import com.oop.memorystore.implementation.index.IndexManager;
 import com.oop.memorystore.implementation.index.ReferenceIndexManager;
 import com.oop.memorystore.implementation.reference.DefaultReferenceManager;
+import com.oop.memorystore.implementation.reference.ReferenceFactory;
 import com.oop.memorystore.implementation.reference.ReferenceManager;
 import java.util.Collection;
 
@@ -28,6 +30,17 @@ public class MemoryStore<V> extends AbstractStore<V> {
         );
     }
 
+    /**
+     * Store referencing its values through the given factory, such as an
+     * {@link com.oop.memorystore.implementation.offheap.OffHeapReferenceFactory}
+     *
+     * @param identityProvider provides the identity of the values
+     * @param referenceFactory creates the references of the values
+     */
+    public MemoryStore(final IdentityProvider identityProvider, final ReferenceFactory<V> referenceFactory) {
+        this(new DefaultReferenceManager<>(identityProvider, referenceFactory), new ReferenceIndexManager<>());
+    }
+
     private MemoryStore(
         final ReferenceManager<V> referenceManager, final IndexManager<V> indexManager) {
         super(referenceManager, indexManager);
@@ -3,8 +3,11 @@ package com.oop.memorystore.implementation.memory;
 import com.oop.memorystore.implementation.index.IndexDefinition;
 import com.oop.memorystore.implementation.index.KeyMapper;
 import com.oop.memorystore.implementation.index.reducer.Reducer;
+import com.oop.memorystore.implementation.stats.StoreMetrics;
 
 import java.util.Collection;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Builder for a memory store
@@ -34,6 +37,39 @@ public final class MemoryStoreBuilder<V> {
     return this;
   }
 
+  /**
+   * Build the indexes of large batches in parallel on the common fork join pool, applies to the values and indexes
+   * added after this call
+   *
+   * @return builder
+   */
+  public final MemoryStoreBuilder<V> withParallelIndexing() {
+    return this.withParallelIndexing(ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Build the indexes of large batches in parallel on the given executor, applies to the values and indexes added after
+   * this call
+   *
+   * @param executor executor running one indexing task per index
+   * @return builder
+   */
+  public final MemoryStoreBuilder<V> withParallelIndexing(final Executor executor) {
+      this.store.getIndexManager().setIndexingExecutor(executor);
+    return this;
+  }
+
+  /**
+   * Instrument the store with the given metrics listener
+   *
+   * @param metrics metrics listener
+   * @return builder
+   */
+  public final MemoryStoreBuilder<V> withMetrics(final StoreMetrics metrics) {
+      this.store.setMetrics(metrics);
+    return this;
+  }
+
   public final <K> MemoryStoreBuilder<V> withIndex(
       final String indexName, final KeyMapper<K, V> keyMapper) {
       this.store.index(indexName, keyMapper);
@@ -0,0 +1,38 @@
+package com.oop.memorystore.implementation.offheap;
+
+import com.oop.memorystore.implementation.reference.Reference;
+
+/**
+ * Reference to a value serialized outside of the heap, the value is decoded on every {@link #get()}
+ *
+ * @param <V> value type
+ */
+final class OffHeapReference<V> implements Reference<V> {
+  private final OffHeapReferenceFactory<V> factory;
+  private final int id;
+  private SegmentAllocator.Block block;
+
+  OffHeapReference(final OffHeapReferenceFactory<V> factory, final int id) {
+    this.factory = factory;
+    this.id = id;
+  }
+
+  void setBlock(final SegmentAllocator.Block block) {
+    this.block = block;
+  }
+
+  @Override
+  public V get() {
+    return this.factory.decode(this.block);
+  }
+
+  @Override
+  public int getId() {
+    return this.id;
+  }
+
+  @Override
+  public String toString() {
+    return String.valueOf(this.get());
+  }
+}
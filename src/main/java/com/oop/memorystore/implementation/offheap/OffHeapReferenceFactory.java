@@ -0,0 +1,135 @@
+package com.oop.memorystore.implementation.offheap;
+
+import com.oop.memorystore.implementation.reference.Reference;
+import com.oop.memorystore.implementation.reference.ReferenceFactory;
+import com.oop.memorystore.implementation.snapshot.SnapshotCodec;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+
+/**
+ * Factory for references which keep their value serialized outside of the heap, in direct or memory mapped buffers.
+ * Values are encoded through a codec when added and decoded on every {@link Reference#get()}, so the values of the store
+ * no longer add to the heap and to garbage collection pauses, indexes and their keys stay on the heap.
+ *
+ * <p>The reference manager maps the identity of every value to its reference, the store must be given an
+ * {@link com.oop.memorystore.implementation.identity.IdentityProvider} returning a small key such as an id, otherwise
+ * every value is kept on the heap as its own identity. The space of a value is reused once its reference is garbage
+ * collected, a reference may still be held by a copy of the store after the value was removed.
+ *
+ * <p>Buffers are allocated in segments, a value larger than a segment gets a segment of its own. The factory can be
+ * shared by multiple threads.
+ *
+ * @param <V> value type
+ */
+public class OffHeapReferenceFactory<V> implements ReferenceFactory<V> {
+  /** Default size of a segment in bytes */
+  public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+  private final SnapshotCodec<V> codec;
+  private final SegmentAllocator allocator;
+  private final ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+  private final DataOutputStream out = new DataOutputStream(this.bytes);
+
+  private OffHeapReferenceFactory(final SnapshotCodec<V> codec, final int segmentSize, final Path directory) {
+    this.codec = codec;
+    this.allocator = new SegmentAllocator(segmentSize, directory);
+  }
+
+  /**
+   * Factory storing values in direct buffers of {@link #DEFAULT_SEGMENT_SIZE} bytes
+   *
+   * @param codec codec of the values
+   * @param <V> value type
+   * @return factory
+   */
+  public static <V> OffHeapReferenceFactory<V> direct(final SnapshotCodec<V> codec) {
+    return direct(codec, DEFAULT_SEGMENT_SIZE);
+  }
+
+  /**
+   * Factory storing values in direct buffers
+   *
+   * @param codec codec of the values
+   * @param segmentSize size of a buffer in bytes
+   * @param <V> value type
+   * @return factory
+   */
+  public static <V> OffHeapReferenceFactory<V> direct(final SnapshotCodec<V> codec, final int segmentSize) {
+    return new OffHeapReferenceFactory<>(codec, segmentSize, null);
+  }
+
+  /**
+   * Factory storing values in files of {@link #DEFAULT_SEGMENT_SIZE} bytes mapped into memory
+   *
+   * @see #mapped(SnapshotCodec, Path, int)
+   */
+  public static <V> OffHeapReferenceFactory<V> mapped(final SnapshotCodec<V> codec, final Path directory) {
+    return mapped(codec, directory, DEFAULT_SEGMENT_SIZE);
+  }
+
+  /**
+   * Factory storing values in files mapped into memory, so the OS can page out values which are not used. The files
+   * are temporary, they are deleted once mapped.
+   *
+   * @param codec codec of the values
+   * @param directory directory of the files
+   * @param segmentSize size of a file in bytes
+   * @param <V> value type
+   * @return factory
+   */
+  public static <V> OffHeapReferenceFactory<V> mapped(
+      final SnapshotCodec<V> codec, final Path directory, final int segmentSize) {
+    return new OffHeapReferenceFactory<>(codec, segmentSize, directory);
+  }
+
+  @Override
+  public Reference<V> createReference(final V obj) {
+    return this.createReference(obj, -1);
+  }
+
+  @Override
+  public synchronized Reference<V> createReference(final V obj, final int id) {
+    try {
+      this.bytes.reset();
+      this.codec.write(obj, this.out);
+      this.out.flush();
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+
+    final OffHeapReference<V> reference = new OffHeapReference<>(this, id);
+    reference.setBlock(this.allocator.allocate(reference, this.bytes.toByteArray(), this.bytes.size()));
+    return reference;
+  }
+
+  /**
+   * @return bytes of the buffers allocated so far
+   */
+  public long getAllocatedBytes() {
+    return this.allocator.getAllocatedBytes();
+  }
+
+  /**
+   * @return bytes of the buffers holding values whose references were not collected yet
+   */
+  public long getUsedBytes() {
+    return this.allocator.getUsedBytes();
+  }
+
+  V decode(final SegmentAllocator.Block block) {
+    return decode(this.codec, this.allocator.read(block));
+  }
+
+  static <V> V decode(final SnapshotCodec<V> codec, final byte[] data) {
+    try {
+      return codec.read(new DataInputStream(new ByteArrayInputStream(data)));
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
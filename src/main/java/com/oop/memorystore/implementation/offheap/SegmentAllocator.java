@@ -0,0 +1,259 @@
+package com.oop.memorystore.implementation.offheap;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.ref.PhantomReference;
+import java.lang.ref.ReferenceQueue;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Allocates blocks of direct or memory mapped buffers. Every block belongs to an owner, the block is freed once its
+ * owner is garbage collected or when freed explicitly. Freed blocks are kept in free lists per size and reused by
+ * blocks of the same size.
+ *
+ * <p>Allocating and freeing are synchronized, reading a block is not: a block can only be reused once freed, which
+ * doesn't happen while its owner is reading it.
+ */
+final class SegmentAllocator {
+  /** Sizes of blocks are rounded up to a multiple of it, so blocks of values of similar size can be reused */
+  private static final int ALIGNMENT = 8;
+
+  private final int segmentSize;
+  private final Path directory;
+  private final Map<Integer, FreeBlocks> freeBlocks = new HashMap<>();
+  private final ReferenceQueue<Object> collected = new ReferenceQueue<>();
+
+  /** Copied on growth, so blocks can be read without locking */
+  private volatile ByteBuffer[] segments = new ByteBuffer[0];
+
+  /** Blocks not freed yet, linked so they stay reachable until their owner is collected */
+  private Block live;
+
+  private ByteBuffer current;
+  private long allocatedBytes;
+  private long usedBytes;
+
+  /**
+   * @param segmentSize size of a segment in bytes
+   * @param directory directory of the mapped files or null to allocate direct buffers
+   */
+  SegmentAllocator(final int segmentSize, final Path directory) {
+    if (segmentSize <= 0) {
+      throw new IllegalArgumentException("Segment size must be positive");
+    }
+
+    this.segmentSize = segmentSize;
+    this.directory = directory;
+  }
+
+  /**
+   * Allocate a block and copy the given data into it
+   *
+   * @param owner the block is freed once the owner is garbage collected
+   * @param data data to copy
+   * @param length length of the data
+   * @return block
+   */
+  synchronized Block allocate(final Object owner, final byte[] data, final int length) {
+    this.freeCollected();
+
+    final int size = align(length);
+    final FreeBlocks free = this.freeBlocks.get(size);
+    final long address;
+
+    if (free != null && !free.isEmpty()) {
+      address = free.pop();
+    } else {
+      if (this.current == null || this.current.remaining() < size) {
+        this.current = this.allocateSegment(Math.max(this.segmentSize, size));
+      }
+
+      address = (long) (this.segments.length - 1) << 32 | this.current.position();
+      this.current.position(this.current.position() + size);
+    }
+
+    final Block block = new Block(owner, this.collected, address, length);
+    final ByteBuffer buffer = this.segments[block.segment()].duplicate();
+    buffer.position(block.offset());
+    buffer.put(data, 0, length);
+
+    this.link(block);
+    this.usedBytes += size;
+    return block;
+  }
+
+  /**
+   * Free a block before its owner is collected, the block must not be read anymore
+   *
+   * @param block block to free
+   */
+  synchronized void free(final Block block) {
+    block.clear();
+    this.release(block);
+    this.freeCollected();
+  }
+
+  /**
+   * Read the data of a block
+   *
+   * @param block block to read
+   * @return copy of the data
+   */
+  byte[] read(final Block block) {
+    final ByteBuffer buffer = this.segments[block.segment()].duplicate();
+    buffer.position(block.offset());
+
+    final byte[] data = new byte[block.length];
+    buffer.get(data);
+    return data;
+  }
+
+  /**
+   * @return bytes of the segments allocated so far
+   */
+  synchronized long getAllocatedBytes() {
+    return this.allocatedBytes;
+  }
+
+  /**
+   * @return bytes of the blocks not freed yet
+   */
+  synchronized long getUsedBytes() {
+    this.freeCollected();
+    return this.usedBytes;
+  }
+
+  private ByteBuffer allocateSegment(final int size) {
+    final ByteBuffer segment;
+
+    if (this.directory == null) {
+      segment = ByteBuffer.allocateDirect(size);
+    } else {
+      try {
+        Files.createDirectories(this.directory);
+        final Path file = Files.createTempFile(this.directory, "store-", ".segment");
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+          segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        } finally {
+          // the mapping outlives the file
+          if (!file.toFile().delete()) {
+            file.toFile().deleteOnExit();
+          }
+        }
+      } catch (final IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+
+    final ByteBuffer[] segments = Arrays.copyOf(this.segments, this.segments.length + 1);
+    segments[segments.length - 1] = segment;
+    this.segments = segments;
+    this.allocatedBytes += size;
+    return segment;
+  }
+
+  private void freeCollected() {
+    Block block;
+
+    while ((block = (Block) this.collected.poll()) != null) {
+      this.release(block);
+    }
+  }
+
+  private void release(final Block block) {
+    if (!block.linked) {
+      return;
+    }
+
+    this.unlink(block);
+    this.freeBlocks.computeIfAbsent(align(block.length), size -> new FreeBlocks()).push(block.address);
+    this.usedBytes -= align(block.length);
+  }
+
+  private void link(final Block block) {
+    block.next = this.live;
+    if (this.live != null) {
+      this.live.previous = block;
+    }
+
+    this.live = block;
+    block.linked = true;
+  }
+
+  private void unlink(final Block block) {
+    if (block.previous == null) {
+      this.live = block.next;
+    } else {
+      block.previous.next = block.next;
+    }
+
+    if (block.next != null) {
+      block.next.previous = block.previous;
+    }
+
+    block.previous = null;
+    block.next = null;
+    block.linked = false;
+  }
+
+  private static int align(final int length) {
+    return Math.max(ALIGNMENT, (length + ALIGNMENT - 1) & -ALIGNMENT);
+  }
+
+  /**
+   * Block of a segment, enqueued once its owner is collected
+   */
+  static final class Block extends PhantomReference<Object> {
+    private final long address;
+    private final int length;
+    private Block previous;
+    private Block next;
+    private boolean linked;
+
+    private Block(final Object owner, final ReferenceQueue<Object> queue, final long address, final int length) {
+      super(owner, queue);
+      this.address = address;
+      this.length = length;
+    }
+
+    private int segment() {
+      return (int) (this.address >>> 32);
+    }
+
+    private int offset() {
+      return (int) this.address;
+    }
+  }
+
+  /**
+   * Stack of the addresses of free blocks of the same size
+   */
+  private static final class FreeBlocks {
+    private long[] addresses = new long[8];
+    private int size;
+
+    boolean isEmpty() {
+      return this.size == 0;
+    }
+
+    void push(final long address) {
+      if (this.size == this.addresses.length) {
+        this.addresses = Arrays.copyOf(this.addresses, this.size * 2);
+      }
+
+      this.addresses[this.size++] = address;
+    }
+
+    long pop() {
+      return this.addresses[--this.size];
+    }
+  }
+}
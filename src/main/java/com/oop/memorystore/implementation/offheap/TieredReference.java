@@ -0,0 +1,48 @@
+package com.oop.memorystore.implementation.offheap;
+
+import com.oop.memorystore.implementation.reference.Reference;
+
+/**
+ * Reference to a value of a {@link TieredStore}. A hot reference holds its value, a cold reference holds the block its
+ * value was demoted to and promotes it back on {@link #get()}.
+ *
+ * @param <V> value type
+ */
+final class TieredReference<V> implements Reference<V> {
+  private final TieredReferenceFactory<V> factory;
+  private final int id;
+  final int weight;
+
+  /** Value while hot, null while cold */
+  V value;
+
+  /** Block of the value while cold, null while hot */
+  SegmentAllocator.Block block;
+
+  /** Links of the hot references, from the most to the least recently used */
+  TieredReference<V> previous;
+  TieredReference<V> next;
+  boolean linked;
+
+  TieredReference(final TieredReferenceFactory<V> factory, final V value, final int weight, final int id) {
+    this.factory = factory;
+    this.value = value;
+    this.weight = weight;
+    this.id = id;
+  }
+
+  @Override
+  public V get() {
+    return this.factory.get(this);
+  }
+
+  @Override
+  public int getId() {
+    return this.id;
+  }
+
+  @Override
+  public String toString() {
+    return String.valueOf(this.get());
+  }
+}
@@ -0,0 +1,212 @@
+package com.oop.memorystore.implementation.offheap;
+
+import com.oop.memorystore.implementation.expiring.Weigher;
+import com.oop.memorystore.implementation.reference.Reference;
+import com.oop.memorystore.implementation.reference.ReferenceFactory;
+import com.oop.memorystore.implementation.snapshot.SnapshotCodec;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+
+/**
+ * Factory for the references of a {@link TieredStore}. Hot references are kept in order of access, once the weight of
+ * the hot references exceeds the budget the least recently used ones are demoted to memory mapped segments.
+ *
+ * <p>While the store is indexing, reads are not accesses: hot references keep their place and cold values are decoded
+ * without being promoted. New references are only demoted once indexing is done, so values are not demoted before their
+ * keys were read.
+ *
+ * @param <V> value type
+ */
+final class TieredReferenceFactory<V> implements ReferenceFactory<V> {
+  private final SnapshotCodec<V> codec;
+  private final SegmentAllocator allocator;
+  private final Weigher<V> weigher;
+  private final long hotBudget;
+  private final ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+  private final DataOutputStream out = new DataOutputStream(this.bytes);
+
+  /** Most recently used hot reference */
+  private TieredReference<V> head;
+
+  /** Least recently used hot reference, demoted first */
+  private TieredReference<V> tail;
+
+  /** Depth of the running indexing operations of the store */
+  private int indexing;
+
+  private long hotWeight;
+  private long promotions;
+  private long demotions;
+
+  TieredReferenceFactory(
+      final SnapshotCodec<V> codec,
+      final Path directory,
+      final int segmentSize,
+      final long hotBudget,
+      final Weigher<V> weigher) {
+    if (hotBudget < 0) {
+      throw new IllegalArgumentException("Hot budget must not be negative");
+    }
+
+    this.codec = codec;
+    this.allocator = new SegmentAllocator(segmentSize, directory);
+    this.hotBudget = hotBudget;
+    this.weigher = weigher;
+  }
+
+  @Override
+  public Reference<V> createReference(final V obj) {
+    return this.createReference(obj, -1);
+  }
+
+  @Override
+  public synchronized Reference<V> createReference(final V obj, final int id) {
+    final TieredReference<V> reference = new TieredReference<>(this, obj, this.weigher.weigh(obj), id);
+    this.link(reference);
+    if (this.indexing == 0) {
+      this.demote(reference);
+    }
+
+    return reference;
+  }
+
+  /**
+   * Get the value of a reference, promoting it if cold, and mark it as the most recently used
+   */
+  synchronized V get(final TieredReference<V> reference) {
+    if (this.indexing > 0) {
+      return reference.value != null
+          ? reference.value
+          : OffHeapReferenceFactory.decode(this.codec, this.allocator.read(reference.block));
+    }
+
+    if (reference.value != null) {
+      if (reference.linked) {
+        this.unlink(reference);
+      }
+
+      this.link(reference);
+      return reference.value;
+    }
+
+    final V value = OffHeapReferenceFactory.decode(this.codec, this.allocator.read(reference.block));
+    this.allocator.free(reference.block);
+    reference.block = null;
+    reference.value = value;
+    this.promotions++;
+
+    this.link(reference);
+    this.demote(reference);
+    return value;
+  }
+
+  /**
+   * Stop tracking a removed reference. A cold reference keeps its block until it is garbage collected, as a copy of the
+   * store may still hold it.
+   */
+  synchronized void release(final TieredReference<V> reference) {
+    if (reference.linked) {
+      this.unlink(reference);
+    }
+  }
+
+  /**
+   * Stop tracking every hot reference, once the store was cleared
+   */
+  synchronized void releaseAll() {
+    while (this.head != null) {
+      this.unlink(this.head);
+    }
+  }
+
+  /**
+   * Start an indexing operation of the store, until it ends reads are not accesses and nothing is demoted
+   */
+  synchronized void startIndexing() {
+    this.indexing++;
+  }
+
+  /**
+   * End an indexing operation of the store, demoting the least recently used references once the last one ended
+   */
+  synchronized void endIndexing() {
+    if (--this.indexing == 0) {
+      this.demote(null);
+    }
+  }
+
+  synchronized long getHotWeight() {
+    return this.hotWeight;
+  }
+
+  synchronized long getPromotions() {
+    return this.promotions;
+  }
+
+  synchronized long getDemotions() {
+    return this.demotions;
+  }
+
+  long getColdBytes() {
+    return this.allocator.getUsedBytes();
+  }
+
+  /**
+   * Demote the least recently used references until the hot references are within budget
+   *
+   * @param retained reference just used, never demoted, or null
+   */
+  private void demote(final TieredReference<V> retained) {
+    while (this.hotWeight > this.hotBudget && this.tail != null && this.tail != retained) {
+      final TieredReference<V> victim = this.tail;
+
+      try {
+        this.bytes.reset();
+        this.codec.write(victim.value, this.out);
+        this.out.flush();
+      } catch (final IOException e) {
+        throw new UncheckedIOException(e);
+      }
+
+      victim.block = this.allocator.allocate(victim, this.bytes.toByteArray(), this.bytes.size());
+      victim.value = null;
+      this.unlink(victim);
+      this.demotions++;
+    }
+  }
+
+  private void link(final TieredReference<V> reference) {
+    reference.next = this.head;
+    if (this.head != null) {
+      this.head.previous = reference;
+    } else {
+      this.tail = reference;
+    }
+
+    this.head = reference;
+    reference.linked = true;
+    this.hotWeight += reference.weight;
+  }
+
+  private void unlink(final TieredReference<V> reference) {
+    if (reference.previous == null) {
+      this.head = reference.next;
+    } else {
+      reference.previous.next = reference.next;
+    }
+
+    if (reference.next == null) {
+      this.tail = reference.previous;
+    } else {
+      reference.next.previous = reference.previous;
+    }
+
+    reference.previous = null;
+    reference.next = null;
+    reference.linked = false;
+    this.hotWeight -= reference.weight;
+  }
+}
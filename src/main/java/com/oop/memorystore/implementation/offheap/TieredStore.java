@@ -0,0 +1,186 @@
+package com.oop.memorystore.implementation.offheap;
+
+import com.oop.memorystore.api.BulkLoad;
+import com.oop.memorystore.api.Store;
+import com.oop.memorystore.implementation.AbstractStore;
+import com.oop.memorystore.implementation.expiring.Weigher;
+import com.oop.memorystore.implementation.identity.IdentityProvider;
+import com.oop.memorystore.implementation.index.Index;
+import com.oop.memorystore.implementation.index.IndexDefinition;
+import com.oop.memorystore.implementation.index.IndexException;
+import com.oop.memorystore.implementation.index.IndexManager;
+import com.oop.memorystore.implementation.index.ReferenceIndexManager;
+import com.oop.memorystore.implementation.reference.DefaultReferenceManager;
+import com.oop.memorystore.implementation.reference.Reference;
+import com.oop.memorystore.implementation.reference.ReferenceManager;
+import com.oop.memorystore.implementation.snapshot.SnapshotCodec;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.function.Supplier;
+
+/**
+ * Store keeping its recently used values on the heap and the others in memory mapped segments. Once the weight of the
+ * hot values exceeds the budget, the least recently used values are encoded through the codec and demoted to the cold
+ * tier, a cold value is decoded and promoted back to the hot tier when read. Indexes stay on the heap and are not
+ * affected by values moving between tiers, reading values to index them does not promote them.
+ *
+ * <p>The reference manager maps the identity of every value to its reference, so the identity provider must return a
+ * small key such as an id, otherwise every value is kept on the heap as its own identity. A promoted value is a new
+ * instance, values must not be modified in place. Copies of the store share its tiers.
+ *
+ * @param <V> value type
+ */
+public class TieredStore<V> extends AbstractStore<V> {
+    private final TieredReferenceFactory<V> tiers;
+
+    /**
+     * Store bounding its hot tier by the number of hot values
+     *
+     * @param identityProvider provides the identity of the values
+     * @param codec codec of the cold values
+     * @param directory directory of the segment files
+     * @param hotBudget maximum number of hot values
+     */
+    public TieredStore(
+        final IdentityProvider identityProvider,
+        final SnapshotCodec<V> codec,
+        final Path directory,
+        final long hotBudget) {
+        this(identityProvider, codec, directory, hotBudget, Weigher.singleton());
+    }
+
+    /**
+     * Store bounding its hot tier by the total weight of the hot values
+     *
+     * @param identityProvider provides the identity of the values
+     * @param codec codec of the cold values
+     * @param directory directory of the segment files
+     * @param hotBudget maximum weight of the hot values
+     * @param weigher weighs the values, for example by their estimated size in bytes
+     */
+    public TieredStore(
+        final IdentityProvider identityProvider,
+        final SnapshotCodec<V> codec,
+        final Path directory,
+        final long hotBudget,
+        final Weigher<V> weigher) {
+        this(
+            identityProvider,
+            new TieredReferenceFactory<>(
+                codec, directory, OffHeapReferenceFactory.DEFAULT_SEGMENT_SIZE, hotBudget, weigher));
+    }
+
+    private TieredStore(final IdentityProvider identityProvider, final TieredReferenceFactory<V> tiers) {
+        this(new DefaultReferenceManager<>(identityProvider, tiers), new ReferenceIndexManager<>(), tiers);
+    }
+
+    private TieredStore(
+        final ReferenceManager<V> referenceManager,
+        final IndexManager<V> indexManager,
+        final TieredReferenceFactory<V> tiers) {
+        super(referenceManager, indexManager);
+        this.tiers = tiers;
+    }
+
+    /**
+     * @return weight of the hot values
+     */
+    public long getHotWeight() {
+        return this.tiers.getHotWeight();
+    }
+
+    /**
+     * @return bytes of the segments holding cold values
+     */
+    public long getColdBytes() {
+        return this.tiers.getColdBytes();
+    }
+
+    /**
+     * @return number of values promoted from the cold tier so far
+     */
+    public long getPromotions() {
+        return this.tiers.getPromotions();
+    }
+
+    /**
+     * @return number of values demoted to the cold tier so far
+     */
+    public long getDemotions() {
+        return this.tiers.getDemotions();
+    }
+
+    @Override
+    public <K> Index<V> index(final String indexName, final IndexDefinition<K, V> indexDefinition)
+        throws IndexException {
+        return this.indexing(() -> super.index(indexName, indexDefinition));
+    }
+
+    @Override
+    public boolean addAll(final Collection<? extends V> collection) {
+        return this.indexing(() -> super.addAll(collection));
+    }
+
+    @Override
+    public void reindex() {
+        this.indexing(
+            () -> {
+                super.reindex();
+                return null;
+            });
+    }
+
+    @Override
+    public void reindex(final Collection<V> items) {
+        this.indexing(
+            () -> {
+                super.reindex(items);
+                return null;
+            });
+    }
+
+    @Override
+    public BulkLoad bulkLoad(final int expectedSize) {
+        final BulkLoad bulkLoad = super.bulkLoad(expectedSize);
+        return () -> this.indexing(
+            () -> {
+                bulkLoad.close();
+                return null;
+            });
+    }
+
+    @Override
+    protected void onRemove(final Reference<V> reference) {
+        this.tiers.release((TieredReference<V>) reference);
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        this.tiers.releaseAll();
+    }
+
+    @Override
+    protected Store<V> createCopy(
+        final ReferenceManager<V> referenceManager, final IndexManager<V> indexManager) {
+        return new TieredStore<>(referenceManager.copy(), indexManager.copy(), this.tiers);
+    }
+
+    /**
+     * Run an operation reading values to index them, these reads are not accesses and values are only demoted once it
+     * is done
+     */
+    private <R> R indexing(final Supplier<R> operation) {
+        this.tiers.startIndexing();
+        try {
+            return operation.get();
+        } finally {
+            this.tiers.endIndexing();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return this.getReferenceManager().getReferences().toString();
+    }
+}
@@ -0,0 +1,115 @@
+package com.oop.memorystore.implementation.query;
+
+/**
+ * Range of keys used to query sorted indexes. A range can be used anywhere a key is expected, for example {@code
+ * Query.where("level", Range.between(10, 20))}. A null bound means the range is unbounded on that side.
+ */
+public final class Range {
+    private final Object lower;
+    private final boolean lowerInclusive;
+    private final Object upper;
+    private final boolean upperInclusive;
+
+    private Range(final Object lower, final boolean lowerInclusive, final Object upper, final boolean upperInclusive) {
+        this.lower = lower;
+        this.lowerInclusive = lowerInclusive;
+        this.upper = upper;
+        this.upperInclusive = upperInclusive;
+    }
+
+    /**
+     * Range between two keys, both inclusive
+     *
+     * @param from lower bound
+     * @param to   upper bound
+     * @return range
+     */
+    public static Range between(final Object from, final Object to) {
+        return new Range(from, true, to, true);
+    }
+
+    /**
+     * Range between two keys
+     *
+     * @param from          lower bound
+     * @param fromInclusive true if lower bound is included
+     * @param to            upper bound
+     * @param toInclusive   true if upper bound is included
+     * @return range
+     */
+    public static Range between(final Object from, final boolean fromInclusive, final Object to, final boolean toInclusive) {
+        return new Range(from, fromInclusive, to, toInclusive);
+    }
+
+    /**
+     * All keys greater than the given key
+     *
+     * @param key exclusive lower bound
+     * @return range
+     */
+    public static Range greaterThan(final Object key) {
+        return new Range(key, false, null, false);
+    }
+
+    /**
+     * All keys greater than or equal to the given key
+     *
+     * @param key inclusive lower bound
+     * @return range
+     */
+    public static Range atLeast(final Object key) {
+        return new Range(key, true, null, false);
+    }
+
+    /**
+     * All keys less than the given key
+     *
+     * @param key exclusive upper bound
+     * @return range
+     */
+    public static Range lessThan(final Object key) {
+        return new Range(null, false, key, false);
+    }
+
+    /**
+     * All keys less than or equal to the given key
+     *
+     * @param key inclusive upper bound
+     * @return range
+     */
+    public static Range atMost(final Object key) {
+        return new Range(null, false, key, true);
+    }
+
+    /**
+     * Range of all keys
+     *
+     * @return range
+     */
+    public static Range all() {
+        return new Range(null, false, null, false);
+    }
+
+    public Object getLower() {
+        return this.lower;
+    }
+
+    public boolean isLowerInclusive() {
+        return this.lowerInclusive;
+    }
+
+    public Object getUpper() {
+        return this.upper;
+    }
+
+    public boolean isUpperInclusive() {
+        return this.upperInclusive;
+    }
+
+    @Override
+    public String toString() {
+        return (this.lower == null ? "(-inf" : (this.lowerInclusive ? "[" : "(") + this.lower)
+            + ", "
+            + (this.upper == null ? "+inf)" : this.upper + (this.upperInclusive ? "]" : ")"));
+    }
+}
@@ -0,0 +1,68 @@
+package com.oop.memorystore.implementation.query.plan;
+
+import com.oop.memorystore.implementation.index.ReferenceIndex;
+import com.oop.memorystore.implementation.index.bitmap.ReferenceBitmap;
+import com.oop.memorystore.implementation.reference.Reference;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Set;
+
+/**
+ * Plan step looking up a single key of an index
+ *
+ * @param <V> value type
+ */
+public class IndexLookupStep<V> implements PlanStep<V> {
+    private final String indexName;
+    private final ReferenceIndex<?, V> index;
+    private final Object key;
+    private final Set<Reference<V>> references;
+    private ReferenceBitmap bitmap;
+    private boolean bitmapResolved;
+
+    public IndexLookupStep(final String indexName, final ReferenceIndex<?, V> index, final Object key) {
+        this.indexName = indexName;
+        this.index = index;
+        this.key = key;
+        this.references = index == null ? Collections.emptySet() : index.getReferences(key);
+    }
+
+    @Override
+    public int estimatedSize() {
+        return this.references.size();
+    }
+
+    @Override
+    public int estimatedSize(final int bound) {
+        return this.index == null ? 0 : this.index.estimateSize(this.key, bound);
+    }
+
+    @Override
+    public boolean contains(final Reference<V> reference) {
+        return this.references.contains(reference);
+    }
+
+    @Override
+    public Iterator<Reference<V>> iterator() {
+        return this.references.iterator();
+    }
+
+    @Override
+    public ReferenceBitmap bitmap() {
+        if (!this.bitmapResolved) {
+            this.bitmap = this.index == null ? new ReferenceBitmap() : this.index.getBitmap(this.key);
+            this.bitmapResolved = true;
+        }
+
+        return this.bitmap;
+    }
+
+    @Override
+    public String describe() {
+        if (this.index == null) {
+            return String.format("index '%s' key=%s (missing index)", this.indexName, this.key);
+        }
+
+        return String.format("index '%s' key=%s", this.indexName, this.key);
+    }
+}
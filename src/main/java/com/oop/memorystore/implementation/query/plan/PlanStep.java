@@ -0,0 +1,61 @@
+package com.oop.memorystore.implementation.query.plan;
+
+import com.oop.memorystore.implementation.index.bitmap.ReferenceBitmap;
+import com.oop.memorystore.implementation.reference.Reference;
+import java.util.Iterator;
+
+/**
+ * Single resolved clause of a {@link QueryPlan}
+ *
+ * @param <V> value type
+ */
+public interface PlanStep<V> {
+    /**
+     * Number of references this step can produce. Used by the planner to pick the cheapest step to drive a query.
+     *
+     * @return estimated number of references
+     */
+    int estimatedSize();
+
+    /**
+     * Number of references this step can produce, steps which are expensive to count may stop counting once the bound
+     * is reached
+     *
+     * @param bound count at which counting may stop
+     * @return estimated number of references, at least the bound if the step produces as many references
+     */
+    default int estimatedSize(final int bound) {
+        return this.estimatedSize();
+    }
+
+    /**
+     * Check if reference is matched by this step
+     *
+     * @param reference reference to check
+     * @return true if matched
+     */
+    boolean contains(Reference<V> reference);
+
+    /**
+     * Iterate all references matched by this step
+     *
+     * @return iterator
+     */
+    Iterator<Reference<V>> iterator();
+
+    /**
+     * References matched by this step as a bitmap of reference ids. The returned bitmap must not be modified.
+     *
+     * @return bitmap or null if this step cannot be represented as a bitmap
+     */
+    default ReferenceBitmap bitmap() {
+        return null;
+    }
+
+    /**
+     * Human readable description of this step, used by {@link QueryPlan#explain()}
+     *
+     * @return description
+     */
+    String describe();
+}
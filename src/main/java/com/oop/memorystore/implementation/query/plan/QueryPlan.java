@@ -0,0 +1,293 @@
+package com.oop.memorystore.implementation.query.plan;
+
+import com.oop.memorystore.implementation.index.bitmap.ReferenceBitmap;
+import com.oop.memorystore.implementation.query.Operator;
+import com.oop.memorystore.implementation.reference.Reference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.function.IntFunction;
+
+/**
+ * Ordered steps chosen by the {@link QueryPlanner} to execute a query. For {@link Operator#AND} the first step drives the
+ * iteration and every other step is only probed, for {@link Operator#OR} the steps are iterated one after another.
+ * <p>
+ * When every step can provide a bitmap of reference ids and the plan can resolve ids back to references, the steps are
+ * instead combined word by word and the resulting ids are resolved as the iterator is consumed. References are then
+ * returned in id order rather than bucket order.
+ *
+ * @param <V> value type
+ */
+public class QueryPlan<V> implements Iterable<Reference<V>> {
+    private final Operator operator;
+    private final List<PlanStep<V>> steps;
+    private final IntFunction<Reference<V>> referenceResolver;
+    private List<ReferenceBitmap> bitmaps;
+    private boolean bitmapsResolved;
+
+    QueryPlan(final Operator operator, final List<PlanStep<V>> steps) {
+        this(operator, steps, null);
+    }
+
+    QueryPlan(final Operator operator, final List<PlanStep<V>> steps, final IntFunction<Reference<V>> referenceResolver) {
+        this.operator = operator;
+        this.steps = steps;
+        this.referenceResolver = referenceResolver;
+    }
+
+    public Operator getOperator() {
+        return this.operator;
+    }
+
+    public List<PlanStep<V>> getSteps() {
+        return Collections.unmodifiableList(this.steps);
+    }
+
+    /**
+     * Returns true if this plan cannot produce any references, without iterating any of them
+     *
+     * @return true if empty
+     */
+    public boolean isEmpty() {
+        if (this.steps.isEmpty()) {
+            return true;
+        }
+
+        if (this.operator == Operator.OR) {
+            return this.steps.stream().allMatch(step -> step.estimatedSize(1) == 0);
+        }
+
+        return this.steps.get(0).estimatedSize(1) == 0;
+    }
+
+    /**
+     * Lazily iterate the matched references. References are only resolved as the iterator is consumed.
+     *
+     * @return iterator
+     */
+    @Override
+    public Iterator<Reference<V>> iterator() {
+        if (this.isEmpty()) {
+            return Collections.emptyIterator();
+        }
+
+        if (this.usesBitmaps()) {
+            return new BitmapIterator();
+        }
+
+        return this.operator == Operator.OR ? new UnionIterator() : new IntersectionIterator();
+    }
+
+    /**
+     * Returns true if the steps of this plan are combined as bitmaps
+     *
+     * @return true if bitmaps are used
+     */
+    public boolean usesBitmaps() {
+        return this.bitmaps() != null;
+    }
+
+    // single steps are iterated directly, there is nothing to combine
+    private List<ReferenceBitmap> bitmaps() {
+        if (this.bitmapsResolved) {
+            return this.bitmaps;
+        }
+
+        this.bitmapsResolved = true;
+        if (this.referenceResolver == null || this.steps.size() < 2) {
+            return null;
+        }
+
+        final List<ReferenceBitmap> bitmaps = new ArrayList<>(this.steps.size());
+        for (final PlanStep<V> step : this.steps) {
+            final ReferenceBitmap bitmap = step.bitmap();
+            if (bitmap == null) {
+                return null;
+            }
+
+            bitmaps.add(bitmap);
+        }
+
+        this.bitmaps = bitmaps;
+        return bitmaps;
+    }
+
+    /**
+     * Execute the plan collecting up to limit references
+     *
+     * @param limit max number of references to collect or -1 for no limit
+     * @return matched references
+     */
+    public List<Reference<V>> execute(final int limit) {
+        final List<Reference<V>> results = new ArrayList<>();
+        final Iterator<Reference<V>> iterator = this.iterator();
+
+        while ((limit == -1 || results.size() < limit) && iterator.hasNext()) {
+            results.add(iterator.next());
+        }
+
+        return results;
+    }
+
+    /**
+     * Describe the order in which the steps of this plan are executed
+     *
+     * @return plan description
+     */
+    public String explain() {
+        final StringBuilder builder = new StringBuilder();
+        builder.append(this.operator).append(" plan (").append(this.steps.size()).append(" steps)");
+        if (this.usesBitmaps()) {
+            builder.append(" using bitmaps");
+        }
+
+        for (int i = 0; i < this.steps.size(); i++) {
+            final PlanStep<V> step = this.steps.get(i);
+            final String role;
+            if (this.usesBitmaps()) {
+                role = "bitmap";
+            } else if (this.operator == Operator.OR) {
+                role = "scan";
+            } else {
+                role = i == 0 ? "driver" : "probe";
+            }
+
+            builder
+                .append(System.lineSeparator())
+                .append(String.format("  %d. %s -> %d references (%s)", i + 1, step.describe(), step.estimatedSize(), role));
+        }
+
+        if (this.operator == Operator.AND && this.isEmpty()) {
+            builder.append(System.lineSeparator()).append("  short-circuit: driver is empty");
+        }
+
+        return builder.toString();
+    }
+
+    @Override
+    public String toString() {
+        return this.explain();
+    }
+
+    private abstract class PlanIterator implements Iterator<Reference<V>> {
+        private Reference<V> next;
+
+        @Override
+        public boolean hasNext() {
+            if (this.next == null) {
+                this.next = this.computeNext();
+            }
+
+            return this.next != null;
+        }
+
+        @Override
+        public Reference<V> next() {
+            if (!this.hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            final Reference<V> result = this.next;
+            this.next = null;
+            return result;
+        }
+
+        abstract Reference<V> computeNext();
+    }
+
+    private class BitmapIterator extends PlanIterator {
+        private final PrimitiveIterator.OfInt ids = this.combine().iterator();
+
+        @Override
+        Reference<V> computeNext() {
+            while (this.ids.hasNext()) {
+                final Reference<V> reference = QueryPlan.this.referenceResolver.apply(this.ids.nextInt());
+                if (reference != null) {
+                    return reference;
+                }
+            }
+
+            return null;
+        }
+
+        private ReferenceBitmap combine() {
+            final List<ReferenceBitmap> bitmaps = QueryPlan.this.bitmaps();
+            ReferenceBitmap result = bitmaps.get(0);
+
+            for (int i = 1; i < bitmaps.size(); i++) {
+                if (QueryPlan.this.operator == Operator.OR) {
+                    result = ReferenceBitmap.or(result, bitmaps.get(i));
+                } else if (result.isEmpty()) {
+                    break;
+                } else {
+                    result = ReferenceBitmap.and(result, bitmaps.get(i));
+                }
+            }
+
+            return result;
+        }
+    }
+
+    private class IntersectionIterator extends PlanIterator {
+        private final Iterator<Reference<V>> driver = QueryPlan.this.steps.get(0).iterator();
+
+        @Override
+        Reference<V> computeNext() {
+            while (this.driver.hasNext()) {
+                final Reference<V> reference = this.driver.next();
+                if (this.matchesProbes(reference)) {
+                    return reference;
+                }
+            }
+
+            return null;
+        }
+
+        private boolean matchesProbes(final Reference<V> reference) {
+            for (int i = 1; i < QueryPlan.this.steps.size(); i++) {
+                if (!QueryPlan.this.steps.get(i).contains(reference)) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+    }
+
+    private class UnionIterator extends PlanIterator {
+        private int stepIndex = 0;
+        private Iterator<Reference<V>> current = QueryPlan.this.steps.get(0).iterator();
+
+        @Override
+        Reference<V> computeNext() {
+            while (true) {
+                while (this.current.hasNext()) {
+                    final Reference<V> reference = this.current.next();
+                    if (!this.matchedByPreviousStep(reference)) {
+                        return reference;
+                    }
+                }
+
+                if (++this.stepIndex >= QueryPlan.this.steps.size()) {
+                    return null;
+                }
+
+                this.current = QueryPlan.this.steps.get(this.stepIndex).iterator();
+            }
+        }
+
+        // A reference matched by an earlier step has already been returned
+        private boolean matchedByPreviousStep(final Reference<V> reference) {
+            for (int i = 0; i < this.stepIndex; i++) {
+                if (QueryPlan.this.steps.get(i).contains(reference)) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+    }
+}
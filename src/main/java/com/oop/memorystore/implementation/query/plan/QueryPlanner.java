@@ -0,0 +1,115 @@
+package com.oop.memorystore.implementation.query.plan;
+
+import com.oop.memorystore.implementation.index.IndexManager;
+import com.oop.memorystore.implementation.query.IndexMatch;
+import com.oop.memorystore.implementation.query.Operator;
+import com.oop.memorystore.implementation.query.Query;
+import com.oop.memorystore.implementation.query.QueryDefinition;
+import com.oop.memorystore.implementation.reference.Reference;
+import com.oop.memorystore.implementation.stats.StoreMetrics;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+/**
+ * Creates {@link QueryPlan}s for queries against an {@link IndexManager}. Each clause is resolved against its index to find out
+ * how many references it matches, {@link Operator#AND} queries are then driven by the smallest bucket so the cost of a query
+ * is bound by its most selective clause instead of the order in which clauses were declared.
+ *
+ * @param <V> value type
+ */
+public class QueryPlanner<V> {
+    private final IndexManager<V> indexManager;
+    private final IntFunction<Reference<V>> referenceResolver;
+    private StoreMetrics metrics = StoreMetrics.NONE;
+
+    public QueryPlanner(final IndexManager<V> indexManager) {
+        this(indexManager, null);
+    }
+
+    /**
+     * @param indexManager      indexes to plan against
+     * @param referenceResolver resolves reference ids, enables combining bitmap indexes by id. May be null.
+     */
+    public QueryPlanner(final IndexManager<V> indexManager, final IntFunction<Reference<V>> referenceResolver) {
+        this.indexManager = indexManager;
+        this.referenceResolver = referenceResolver;
+    }
+
+    /**
+     * Report the index lookups of planned queries to the given metrics
+     *
+     * @param metrics metrics listener
+     */
+    public void setMetrics(final StoreMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Plan a query
+     *
+     * @param query query to plan
+     * @return plan
+     */
+    public QueryPlan<V> plan(final Query query) {
+        return this.plan(query.build());
+    }
+
+    /**
+     * Plan a query definition
+     *
+     * @param definition definition to plan
+     * @return plan
+     */
+    public QueryPlan<V> plan(final QueryDefinition definition) {
+        final List<PlanStep<V>> steps = new ArrayList<>(definition.getIndexMatches().size());
+
+        for (final IndexMatch indexMatch : definition.getIndexMatches()) {
+            steps.add(this.createStep(indexMatch));
+        }
+
+        return this.plan(definition.getOperator() == null ? Operator.AND : definition.getOperator(), steps);
+    }
+
+    /**
+     * Plan already resolved steps
+     *
+     * @param operator how the steps are combined
+     * @param steps    steps to plan
+     * @return plan
+     */
+    public QueryPlan<V> plan(final Operator operator, final List<PlanStep<V>> steps) {
+        final List<PlanStep<V>> ordered = new ArrayList<>(steps);
+
+        // OR keeps declaration order so results are returned in the order the clauses were written
+        if (operator == Operator.AND && ordered.size() > 1) {
+            // steps are only counted up to the smallest step sized so far, so large ranges are never counted in full
+            final Map<PlanStep<V>, Integer> sizes = new IdentityHashMap<>();
+            int smallest = Integer.MAX_VALUE;
+
+            for (final PlanStep<V> step : ordered) {
+                final int size = step.estimatedSize(smallest);
+                sizes.put(step, size);
+                smallest = Math.min(smallest, size);
+            }
+
+            ordered.sort(Comparator.comparingInt(sizes::get));
+        }
+
+        return new QueryPlan<>(operator, ordered, this.referenceResolver);
+    }
+
+    protected PlanStep<V> createStep(final IndexMatch indexMatch) {
+        final PlanStep<V> step = new IndexLookupStep<>(
+            indexMatch.getIndexName(), this.indexManager.getIndex(indexMatch.getIndexName()), indexMatch.getKey());
+
+        if (this.metrics != StoreMetrics.NONE) {
+            this.metrics.onIndexLookup(indexMatch.getIndexName(), step.estimatedSize(1) > 0);
+        }
+
+        return step;
+    }
+}
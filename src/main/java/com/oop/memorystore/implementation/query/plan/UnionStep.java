@@ -0,0 +1,84 @@
+package com.oop.memorystore.implementation.query.plan;
+
+import com.oop.memorystore.implementation.index.bitmap.ReferenceBitmap;
+import com.oop.memorystore.implementation.query.Operator;
+import com.oop.memorystore.implementation.reference.Reference;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Plan step matching references matched by any of its steps
+ *
+ * @param <V> value type
+ */
+public class UnionStep<V> implements PlanStep<V> {
+    private final List<PlanStep<V>> steps;
+
+    public UnionStep(final List<PlanStep<V>> steps) {
+        this.steps = new ArrayList<>(steps);
+    }
+
+    /**
+     * Upper bound of matched references, references matched by multiple steps are counted more than once
+     */
+    @Override
+    public int estimatedSize() {
+        int size = 0;
+        for (final PlanStep<V> step : this.steps) {
+            size += step.estimatedSize();
+        }
+
+        return size;
+    }
+
+    @Override
+    public int estimatedSize(final int bound) {
+        int size = 0;
+        for (final PlanStep<V> step : this.steps) {
+            size += step.estimatedSize(bound - size);
+
+            if (size >= bound) {
+                break;
+            }
+        }
+
+        return size;
+    }
+
+    @Override
+    public boolean contains(final Reference<V> reference) {
+        for (final PlanStep<V> step : this.steps) {
+            if (step.contains(reference)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    @Override
+    public Iterator<Reference<V>> iterator() {
+        return new QueryPlan<>(Operator.OR, this.steps).iterator();
+    }
+
+    @Override
+    public ReferenceBitmap bitmap() {
+        ReferenceBitmap bitmap = new ReferenceBitmap();
+        for (final PlanStep<V> step : this.steps) {
+            if (step.bitmap() == null) {
+                return null;
+            }
+
+            bitmap = ReferenceBitmap.or(bitmap, step.bitmap());
+        }
+
+        return bitmap;
+    }
+
+    @Override
+    public String describe() {
+        return this.steps.stream().map(PlanStep::describe).collect(Collectors.joining(" OR ", "(", ")"));
+    }
+}
@@ -0,0 +1,104 @@
+package com.oop.memorystore.implementation.reference;
+
+import com.oop.memorystore.implementation.identity.IdentityProvider;
+import com.oop.memorystore.implementation.stats.MemoryEstimates;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reference manager which can be used by multiple threads at once. Lookups never block and
+ * concurrently adding the same item always yields the same reference. References are not assigned
+ * ids.
+ *
+ * @param <V> value type
+ */
+public class ConcurrentReferenceManager<V> implements ReferenceManager<V> {
+  private final IdentityProvider identityProvider;
+  private final ReferenceFactory<V> referenceFactory;
+  private final ConcurrentHashMap<Object, Reference<V>> referenceMap;
+
+  public ConcurrentReferenceManager(
+      final IdentityProvider identityProvider, final ReferenceFactory<V> referenceFactory) {
+    this(identityProvider, referenceFactory, new ConcurrentHashMap<>());
+  }
+
+  private ConcurrentReferenceManager(
+      final IdentityProvider identityProvider,
+      final ReferenceFactory<V> referenceFactory,
+      final ConcurrentHashMap<Object, Reference<V>> referenceMap) {
+    this.identityProvider = identityProvider;
+    this.referenceFactory = referenceFactory;
+    this.referenceMap = referenceMap;
+  }
+
+  @Override
+  public Collection<Reference<V>> getReferences() {
+    return this.referenceMap.values();
+  }
+
+  @Override
+  public Optional<Reference<V>> findReference(final Object item) {
+    final Object identity = this.identityProvider.getIdentity(item);
+
+    if (identity == null) {
+      return Optional.empty();
+    }
+
+    return Optional.ofNullable(this.referenceMap.get(identity));
+  }
+
+  @Override
+  public long sizeInBytes() {
+    return MemoryEstimates.map(this.referenceMap);
+  }
+
+  @Override
+  public int size() {
+    return this.referenceMap.size();
+  }
+
+  @Override
+  public void clear() {
+    this.referenceMap.clear();
+  }
+
+  @Override
+  public Reference<V> add(final V item) {
+    final Object identity = this.identityProvider.getIdentity(item);
+
+    if (identity == null) {
+      return null;
+    }
+
+    return this.referenceMap.computeIfAbsent(identity, ignore -> this.referenceFactory.createReference(item));
+  }
+
+  @Override
+  public ReferenceManager<V> copy() {
+    return new ConcurrentReferenceManager<>(
+        this.identityProvider, this.referenceFactory, new ConcurrentHashMap<>(this.referenceMap));
+  }
+
+  @Override
+  public Reference<V> remove(final Object item) {
+    final Object identity = this.identityProvider.getIdentity(item);
+
+    if (identity == null) {
+      return null;
+    }
+
+    return this.referenceMap.remove(identity);
+  }
+
+  /**
+   * Identity of an item, used to serialise writes of the same item
+   *
+   * @param item item
+   * @return identity or null if item has none
+   */
+  public Object getIdentity(final Object item) {
+    return this.identityProvider.getIdentity(item);
+  }
+}
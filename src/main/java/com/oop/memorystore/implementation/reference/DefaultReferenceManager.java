@@ -1,28 +1,42 @@
 package com.oop.memorystore.implementation.reference;
 
 import com.oop.memorystore.implementation.identity.IdentityProvider;
+import com.oop.memorystore.implementation.stats.MemoryEstimates;
 
+import java.util.AbstractCollection;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
- * An implementation of reference manager that maintains unique references
+ * An implementation of reference manager that maintains unique references. Every reference is assigned a dense id,
+ * ids of removed references are reused so the id space stays as small as the number of stored items.
  *
  * @param <V> value type
  */
 public class DefaultReferenceManager<V> implements ReferenceManager<V> {
   private final IdentityProvider identityProvider;
   private final ReferenceFactory<V> referenceFactory;
-  private final Map<Object, Reference<V>> referenceMap;
+
+  /** References reclaimed since they were drained, null unless the factory is reclaimable */
+  private final Queue<ReclaimableReference<V>> reclaimed;
+  private Map<Object, Reference<V>> referenceMap;
+  private Reference<V>[] slots;
+  private int nextId;
+  private int[] freeIds;
+  private int freeCount;
 
   public DefaultReferenceManager(final IdentityProvider identityProvider, final ReferenceFactory<V> referenceFactory) {
-    this.identityProvider = identityProvider;
-    this.referenceFactory = referenceFactory;
-    this.referenceMap = new LinkedHashMap<>();
+    this(identityProvider, referenceFactory, new LinkedHashMap<>());
   }
 
+  @SuppressWarnings("unchecked")
   public DefaultReferenceManager(
       final IdentityProvider identityProvider,
       final ReferenceFactory<V> referenceFactory,
@@ -30,11 +44,26 @@ public class DefaultReferenceManager<V> implements ReferenceManager<V> {
     this.identityProvider = identityProvider;
     this.referenceFactory = referenceFactory;
     this.referenceMap = referenceMap;
+    this.reclaimed = referenceFactory instanceof ReclaimableReferenceFactory
+        ? ((ReclaimableReferenceFactory<V>) referenceFactory).register()
+        : null;
+    this.slots = (Reference<V>[]) new Reference<?>[16];
+    this.freeIds = new int[16];
+
+    for (final Reference<V> reference : referenceMap.values()) {
+      this.occupy(reference);
+    }
+
+    for (int id = this.nextId - 1; id >= 0; id--) {
+      if (this.slots[id] == null) {
+        this.release(id);
+      }
+    }
   }
 
   @Override
   public Collection<Reference<V>> getReferences() {
-    return this.referenceMap.values();
+    return new ReferenceCollection();
   }
 
   @Override
@@ -48,6 +77,31 @@ public class DefaultReferenceManager<V> implements ReferenceManager<V> {
     return Optional.ofNullable(this.referenceMap.get(identity));
   }
 
+  @Override
+  public Reference<V> getReference(final int id) {
+    return id >= 0 && id < this.nextId ? this.slots[id] : null;
+  }
+
+  @Override
+  public void ensureCapacity(final int expectedSize) {
+    if (this.referenceMap.getClass() == LinkedHashMap.class && expectedSize > this.referenceMap.size() * 2) {
+      final Map<Object, Reference<V>> referenceMap = new LinkedHashMap<>(expectedSize * 4 / 3 + 1);
+      referenceMap.putAll(this.referenceMap);
+      this.referenceMap = referenceMap;
+    }
+
+    if (expectedSize > this.slots.length) {
+      this.slots = Arrays.copyOf(this.slots, expectedSize);
+    }
+  }
+
+  @Override
+  public long sizeInBytes() {
+    return MemoryEstimates.map(this.referenceMap)
+        + MemoryEstimates.referenceArray(this.slots.length)
+        + MemoryEstimates.array(this.freeIds.length, Integer.BYTES);
+  }
+
   @Override
   public int size() {
     return this.referenceMap.size();
@@ -55,7 +109,10 @@ public class DefaultReferenceManager<V> implements ReferenceManager<V> {
 
   @Override
   public void clear() {
-      this.referenceMap.clear();
+    this.referenceMap.clear();
+    Arrays.fill(this.slots, 0, this.nextId, null);
+    this.nextId = 0;
+    this.freeCount = 0;
   }
 
   @Override
@@ -70,14 +127,46 @@ public class DefaultReferenceManager<V> implements ReferenceManager<V> {
       return this.referenceMap.get(identity);
     }
 
-    final Reference<V> reference = this.referenceFactory.createReference(item);
-      this.referenceMap.put(identity, reference);
+    final int id = this.freeCount > 0 ? this.freeIds[--this.freeCount] : this.nextId;
+    final Reference<V> reference = this.referenceFactory.createReference(item, id);
+
+    if (reference.getId() == id) {
+      this.occupy(reference);
+    } else if (id != this.nextId) {
+      this.freeCount++;
+    }
+
+    this.referenceMap.put(identity, reference);
     return reference;
   }
 
+  @Override
+  public Reference<V> pollReclaimed() {
+    if (this.reclaimed == null) {
+      return null;
+    }
+
+    ((ReclaimableReferenceFactory<V>) this.referenceFactory).drain();
+    ReclaimableReference<V> reference;
+
+    while ((reference = this.reclaimed.poll()) != null) {
+      // skip references removed before they were reclaimed, or only held by another manager
+      if (this.referenceMap.remove(reference.getIdentity(), reference)) {
+        this.vacate(reference);
+        return reference;
+      }
+    }
+
+    return null;
+  }
+
   @Override
   public ReferenceManager<V> copy() {
-    return new DefaultReferenceManager<>(this.identityProvider, this.referenceFactory, this.referenceMap);
+    final Map<Object, Reference<V>> referenceMap = this.referenceMap instanceof ConcurrentMap
+        ? new ConcurrentHashMap<>(this.referenceMap)
+        : new LinkedHashMap<>(this.referenceMap);
+
+    return new DefaultReferenceManager<>(this.identityProvider, this.referenceFactory, referenceMap);
   }
 
   @Override
@@ -88,6 +177,80 @@ public class DefaultReferenceManager<V> implements ReferenceManager<V> {
       return null;
     }
 
-    return this.referenceMap.remove(identity);
+    final Reference<V> reference = this.referenceMap.remove(identity);
+    this.vacate(reference);
+    return reference;
+  }
+
+  private void occupy(final Reference<V> reference) {
+    final int id = reference.getId();
+    if (id < 0) {
+      return;
+    }
+
+    if (id >= this.slots.length) {
+      this.slots = Arrays.copyOf(this.slots, Math.max(this.slots.length * 2, id + 1));
+    }
+
+    this.slots[id] = reference;
+    this.nextId = Math.max(this.nextId, id + 1);
+  }
+
+  private void vacate(final Reference<V> reference) {
+    if (reference == null || reference.getId() < 0 || this.getReference(reference.getId()) != reference) {
+      return;
+    }
+
+    this.slots[reference.getId()] = null;
+    this.release(reference.getId());
+  }
+
+  private void release(final int id) {
+    if (this.freeCount == this.freeIds.length) {
+      this.freeIds = Arrays.copyOf(this.freeIds, this.freeIds.length * 2);
+    }
+
+    this.freeIds[this.freeCount++] = id;
+  }
+
+  /**
+   * Live view of the references, removing through its iterator releases the reference id
+   */
+  private class ReferenceCollection extends AbstractCollection<Reference<V>> {
+    @Override
+    public Iterator<Reference<V>> iterator() {
+      final Iterator<Reference<V>> iterator = DefaultReferenceManager.this.referenceMap.values().iterator();
+
+      return new Iterator<Reference<V>>() {
+        private Reference<V> current;
+
+        @Override
+        public boolean hasNext() {
+          return iterator.hasNext();
+        }
+
+        @Override
+        public Reference<V> next() {
+          this.current = iterator.next();
+          return this.current;
+        }
+
+        @Override
+        public void remove() {
+          iterator.remove();
+          DefaultReferenceManager.this.vacate(this.current);
+        }
+      };
+    }
+
+    @Override
+    public int size() {
+      return DefaultReferenceManager.this.referenceMap.size();
+    }
+
+    @Override
+    public boolean contains(final Object o) {
+      return DefaultReferenceManager.this.referenceMap.containsValue(o);
+    }
   }
 }
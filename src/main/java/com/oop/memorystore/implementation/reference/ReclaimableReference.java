@@ -0,0 +1,15 @@
+package com.oop.memorystore.implementation.reference;
+
+/**
+ * Reference whose item may be reclaimed by the garbage collector, {@link #get()} returns null once it was
+ *
+ * @param <V> type of item referenced
+ */
+public interface ReclaimableReference<V> extends Reference<V> {
+  /**
+   * Identity of the referenced item, kept so the reference can be removed once its item was reclaimed
+   *
+   * @return identity
+   */
+  Object getIdentity();
+}
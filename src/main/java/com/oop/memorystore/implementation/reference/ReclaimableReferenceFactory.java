@@ -0,0 +1,79 @@
+package com.oop.memorystore.implementation.reference;
+
+import com.oop.memorystore.implementation.identity.IdentityProvider;
+import java.lang.ref.ReferenceQueue;
+import java.util.Collections;
+import java.util.Queue;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Factory for references whose items may be reclaimed by the garbage collector. Reclaimed references are enqueued and
+ * drained into every {@link DefaultReferenceManager} using this factory, as a store and its copies share references.
+ * Each manager then removes the ones it holds from its store and indexes.
+ *
+ * <p>The reference manager maps the identity of every item to its reference, so it must be given an identity provider
+ * returning a key such as an id, otherwise every item is held by the manager as its own identity and is never
+ * reclaimed. The factory must be given the same identity provider.
+ *
+ * @param <V> value type
+ */
+public abstract class ReclaimableReferenceFactory<V> implements ReferenceFactory<V> {
+  private final IdentityProvider identityProvider;
+  private final ReferenceQueue<V> queue = new ReferenceQueue<>();
+
+  /** Reclaimed references of each manager using this factory, held weakly so discarded copies are forgotten */
+  private final Set<Queue<ReclaimableReference<V>>> managers = Collections.newSetFromMap(new WeakHashMap<>());
+
+  protected ReclaimableReferenceFactory(final IdentityProvider identityProvider) {
+    this.identityProvider = identityProvider;
+  }
+
+  @Override
+  public Reference<V> createReference(final V obj) {
+    return this.createReference(obj, -1);
+  }
+
+  @Override
+  public Reference<V> createReference(final V obj, final int id) {
+    return this.createReference(obj, this.identityProvider.getIdentity(obj), id, this.queue);
+  }
+
+  /**
+   * Create a reference registered with the given queue
+   *
+   * @param obj object to reference
+   * @param identity identity of the object
+   * @param id dense reference id or -1
+   * @param queue queue the reference is enqueued on once its object was reclaimed
+   * @return reference
+   */
+  protected abstract ReclaimableReference<V> createReference(
+      V obj, Object identity, int id, ReferenceQueue<V> queue);
+
+  /**
+   * Register a reference manager using this factory
+   *
+   * @return queue receiving every reference reclaimed from now on, held by the manager
+   */
+  public synchronized Queue<ReclaimableReference<V>> register() {
+    final Queue<ReclaimableReference<V>> reclaimed = new ConcurrentLinkedQueue<>();
+    this.managers.add(reclaimed);
+    return reclaimed;
+  }
+
+  /**
+   * Move the references reclaimed so far to the queue of every registered manager
+   */
+  @SuppressWarnings("unchecked")
+  public synchronized void drain() {
+    ReclaimableReference<V> reference;
+
+    while ((reference = (ReclaimableReference<V>) this.queue.poll()) != null) {
+      for (final Queue<ReclaimableReference<V>> reclaimed : this.managers) {
+        reclaimed.add(reference);
+      }
+    }
+  }
+}
@@ -12,4 +12,14 @@ public interface Reference<V> {
    * @return referenced item
    */
   V get();
+
+  /**
+   * Dense id assigned to this reference by the reference manager. Ids are small non negative integers, reused once
+   * the reference is removed, which allows indexes to represent their buckets as bitmaps.
+   *
+   * @return reference id or -1 if this reference has not been assigned one
+   */
+  default int getId() {
+    return -1;
+  }
 }
@@ -13,4 +13,16 @@ public interface ReferenceFactory<V> {
    * @return reference
    */
   Reference<V> createReference(V obj);
+
+  /**
+   * Create a reference for the given object carrying the id assigned by the reference manager. Factories which
+   * cannot carry an id fall back to {@link #createReference(Object)}, such references are never part of a bitmap.
+   *
+   * @param obj object to reference
+   * @param id dense reference id
+   * @return reference
+   */
+  default Reference<V> createReference(final V obj, final int id) {
+    return this.createReference(obj);
+  }
 }
@@ -25,6 +25,33 @@ public interface ReferenceManager<T> {
    */
   Optional<Reference<T>> findReference(Object item);
 
+  /**
+   * Find a reference by the id it was assigned by this manager
+   *
+   * @param id reference id
+   * @return reference or null if no reference holds the id
+   */
+  default Reference<T> getReference(final int id) {
+    return null;
+  }
+
+  /**
+   * Grow the manager so it holds the given number of references without rehashing
+   *
+   * @param expectedSize number of references
+   */
+  default void ensureCapacity(final int expectedSize) {
+  }
+
+  /**
+   * Estimate the bytes used to hold the references, not counting the referenced items
+   *
+   * @return estimated bytes or -1 if unknown
+   */
+  default long sizeInBytes() {
+    return -1;
+  }
+
   /**
    * Total number of references held by the manager
    *
@@ -44,6 +71,16 @@ public interface ReferenceManager<T> {
    */
   Reference<T> add(T item);
 
+  /**
+   * Remove the next reference whose item was reclaimed by the garbage collector, see
+   * {@link ReclaimableReferenceFactory}. The caller removes the reference from the indexes.
+   *
+   * @return removed reference or null if none is pending
+   */
+  default Reference<T> pollReclaimed() {
+    return null;
+  }
+
   /**
    * Create a copy of the reference manager
    *
@@ -0,0 +1,49 @@
+package com.oop.memorystore.implementation.reference;
+
+import com.oop.memorystore.implementation.identity.IdentityProvider;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+
+/**
+ * Factory for references holding their items softly, the garbage collector reclaims them when memory runs low, least
+ * recently used first. See {@link ReclaimableReferenceFactory}.
+ *
+ * @param <V> value type
+ */
+public class SoftReferenceFactory<V> extends ReclaimableReferenceFactory<V> {
+  public SoftReferenceFactory(final IdentityProvider identityProvider) {
+    super(identityProvider);
+  }
+
+  @Override
+  protected ReclaimableReference<V> createReference(
+      final V obj, final Object identity, final int id, final ReferenceQueue<V> queue) {
+    return new SoftValueReference<>(obj, identity, id, queue);
+  }
+
+  private static final class SoftValueReference<V> extends SoftReference<V> implements ReclaimableReference<V> {
+    private final Object identity;
+    private final int id;
+
+    SoftValueReference(final V obj, final Object identity, final int id, final ReferenceQueue<V> queue) {
+      super(obj, queue);
+      this.identity = identity;
+      this.id = id;
+    }
+
+    @Override
+    public Object getIdentity() {
+      return this.identity;
+    }
+
+    @Override
+    public int getId() {
+      return this.id;
+    }
+
+    @Override
+    public String toString() {
+      return String.valueOf(this.get());
+    }
+  }
+}
@@ -0,0 +1,49 @@
+package com.oop.memorystore.implementation.reference;
+
+import com.oop.memorystore.implementation.identity.IdentityProvider;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+
+/**
+ * Factory for references holding their items weakly, the garbage collector reclaims them once nothing else references
+ * them. See {@link ReclaimableReferenceFactory}.
+ *
+ * @param <V> value type
+ */
+public class WeakReferenceFactory<V> extends ReclaimableReferenceFactory<V> {
+  public WeakReferenceFactory(final IdentityProvider identityProvider) {
+    super(identityProvider);
+  }
+
+  @Override
+  protected ReclaimableReference<V> createReference(
+      final V obj, final Object identity, final int id, final ReferenceQueue<V> queue) {
+    return new WeakValueReference<>(obj, identity, id, queue);
+  }
+
+  private static final class WeakValueReference<V> extends WeakReference<V> implements ReclaimableReference<V> {
+    private final Object identity;
+    private final int id;
+
+    WeakValueReference(final V obj, final Object identity, final int id, final ReferenceQueue<V> queue) {
+      super(obj, queue);
+      this.identity = identity;
+      this.id = id;
+    }
+
+    @Override
+    public Object getIdentity() {
+      return this.identity;
+    }
+
+    @Override
+    public int getId() {
+      return this.id;
+    }
+
+    @Override
+    public String toString() {
+      return String.valueOf(this.get());
+    }
+  }
+}
@@ -0,0 +1,74 @@
+package com.oop.memorystore.implementation.snapshot;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * When the journal of a {@link JournaledStore} is forced to disk
+ */
+public final class FsyncPolicy {
+    private static final FsyncPolicy ALWAYS = new FsyncPolicy(Mode.ALWAYS, 0);
+    private static final FsyncPolicy OS = new FsyncPolicy(Mode.OS, 0);
+
+    private final Mode mode;
+    private final long periodNanos;
+
+    private FsyncPolicy(final Mode mode, final long periodNanos) {
+        this.mode = mode;
+        this.periodNanos = periodNanos;
+    }
+
+    /**
+     * Every write returns once it is on disk. Writers waiting together are covered by a single force, so concurrent
+     * writes share the cost of syncing.
+     *
+     * @return policy
+     */
+    public static FsyncPolicy always() {
+        return ALWAYS;
+    }
+
+    /**
+     * Writes return once handed to the OS, the journal is forced to disk periodically by a background thread. Writes of
+     * the last period may be lost if the machine crashes.
+     *
+     * @param period delay between two forces
+     * @param unit unit of the delay
+     * @return policy
+     */
+    public static FsyncPolicy periodic(final long period, final TimeUnit unit) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("Period must be positive");
+        }
+
+        return new FsyncPolicy(Mode.PERIODIC, unit.toNanos(period));
+    }
+
+    /**
+     * Writes return once handed to the OS, which decides when they reach the disk. The journal is only forced when the
+     * store is compacted or closed.
+     *
+     * @return policy
+     */
+    public static FsyncPolicy os() {
+        return OS;
+    }
+
+    Mode getMode() {
+        return this.mode;
+    }
+
+    long getPeriodNanos() {
+        return this.periodNanos;
+    }
+
+    @Override
+    public String toString() {
+        return this.mode == Mode.PERIODIC ? "FsyncPolicy[PERIODIC " + this.periodNanos + "ns]" : "FsyncPolicy[" + this.mode + "]";
+    }
+
+    enum Mode {
+        ALWAYS,
+        PERIODIC,
+        OS
+    }
+}
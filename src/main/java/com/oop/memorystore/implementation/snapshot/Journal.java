@@ -0,0 +1,309 @@
+package com.oop.memorystore.implementation.snapshot;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ObjIntConsumer;
+import java.util.zip.CRC32;
+
+/**
+ * Append only log of the mutations of a store. Every record is written as its payload length, its type, the payload
+ * encoded by the codec and a CRC32 of type and payload, so a record torn by a crash is detected and dropped on replay.
+ *
+ * <p>Records are appended by the thread mutating the store while it holds the lock of the store, then the thread waits
+ * for them to be durable after releasing the lock. Threads waiting together are covered by a single force.
+ *
+ * @param <V> value type
+ */
+final class Journal<V> implements Closeable {
+    static final int PUT = 1;
+    static final int REMOVE = 2;
+    static final int CLEAR = 3;
+    static final int REPLACE = 4;
+
+    /** Type, length and checksum of a record */
+    private static final int RECORD_OVERHEAD = 9;
+
+    private final SnapshotCodec<V> codec;
+    private final FsyncPolicy fsyncPolicy;
+    private final FileChannel channel;
+    private final ReentrantLock syncLock = new ReentrantLock();
+    private final ScheduledExecutorService flusher;
+
+    /** Sequence of the last appended batch of records */
+    private volatile long appended;
+
+    /** Sequence of the last batch of records known to be on disk */
+    private volatile long synced;
+
+    private long size;
+
+    /**
+     * Open a journal, appending after its last valid record
+     *
+     * @param path journal file, created if missing
+     * @param codec codec of the values
+     * @param fsyncPolicy when the journal is forced to disk
+     * @param validSize size of the valid records of the file, anything after is truncated
+     * @throws IOException if the file could not be opened
+     */
+    Journal(final Path path, final SnapshotCodec<V> codec, final FsyncPolicy fsyncPolicy, final long validSize)
+        throws IOException {
+        this.codec = codec;
+        this.fsyncPolicy = fsyncPolicy;
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        this.channel.truncate(validSize);
+        this.channel.position(validSize);
+        this.size = validSize;
+
+        if (fsyncPolicy.getMode() == FsyncPolicy.Mode.PERIODIC) {
+            this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                final Thread thread = new Thread(runnable, "journal-flusher");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+            this.flusher.scheduleAtFixedRate(
+                () -> {
+                    try {
+                        this.flush();
+                    } catch (final UncheckedIOException e) {
+                        // retried on the next period, a failing flusher must not stop flushing for good
+                    }
+                },
+                fsyncPolicy.getPeriodNanos(),
+                fsyncPolicy.getPeriodNanos(),
+                TimeUnit.NANOSECONDS);
+        } else {
+            this.flusher = null;
+        }
+    }
+
+    /**
+     * Replay the valid records of a journal, stopping at the first torn or corrupt record
+     *
+     * @param path journal file
+     * @param codec codec of the values
+     * @param consumer receives the value and type of every record, the value of {@link #CLEAR} records is null
+     * @param <V> value type
+     * @return size of the valid records
+     * @throws IOException if the file could not be read
+     */
+    static <V> long replay(final Path path, final SnapshotCodec<V> codec, final ObjIntConsumer<V> consumer)
+        throws IOException {
+        if (!Files.exists(path)) {
+            return 0;
+        }
+
+        long validSize = 0;
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final long fileSize = channel.size();
+            final DataInputStream in =
+                new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel), 1 << 16));
+            final CRC32 crc = new CRC32();
+
+            while (validSize + RECORD_OVERHEAD <= fileSize) {
+                final int length = in.readInt();
+                if (length < 0 || validSize + RECORD_OVERHEAD + length > fileSize) {
+                    break;
+                }
+
+                final int type = in.readUnsignedByte();
+                final byte[] payload = new byte[length];
+                in.readFully(payload);
+                final int checksum = in.readInt();
+
+                crc.reset();
+                crc.update(type);
+                crc.update(payload, 0, length);
+                if ((int) crc.getValue() != checksum) {
+                    break;
+                }
+
+                final V value =
+                    type == CLEAR ? null : codec.read(new DataInputStream(new ByteArrayInputStream(payload)));
+                consumer.accept(value, type);
+                validSize += RECORD_OVERHEAD + length;
+            }
+        } catch (final EOFException e) {
+            // torn record at the end of the journal
+        }
+
+        return validSize;
+    }
+
+    /**
+     * Encode records of the same type, done before locking the store so encoding doesn't hold up other writers
+     *
+     * @param type record type
+     * @param values values of the records
+     * @return encoded records
+     */
+    ByteBuffer encode(final int type, final Collection<? extends V> values) {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(values.size() * 64);
+        final ByteArrayOutputStream payload = new ByteArrayOutputStream(64);
+        final DataOutputStream payloadOut = new DataOutputStream(payload);
+        final DataOutputStream out = new DataOutputStream(bytes);
+        final CRC32 crc = new CRC32();
+
+        try {
+            for (final V value : values) {
+                payload.reset();
+                this.codec.write(value, payloadOut);
+                payloadOut.flush();
+                writeRecord(out, crc, type, payload);
+            }
+
+            if (type == CLEAR) {
+                payload.reset();
+                writeRecord(out, crc, type, payload);
+            }
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return ByteBuffer.wrap(bytes.toByteArray());
+    }
+
+    private static void writeRecord(
+        final DataOutputStream out, final CRC32 crc, final int type, final ByteArrayOutputStream payload)
+        throws IOException {
+        final byte[] data = payload.toByteArray();
+        crc.reset();
+        crc.update(type);
+        crc.update(data, 0, data.length);
+
+        out.writeInt(data.length);
+        out.writeByte(type);
+        out.write(data);
+        out.writeInt((int) crc.getValue());
+    }
+
+    /**
+     * Append encoded records, called while holding the lock of the store so records are in the order of the mutations
+     *
+     * @param records encoded records
+     * @return sequence to wait for with {@link #sync(long)}
+     */
+    long append(final ByteBuffer records) {
+        try {
+            while (records.hasRemaining()) {
+                this.size += this.channel.write(records);
+            }
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return ++this.appended;
+    }
+
+    /**
+     * Wait until appended records are on disk if the fsync policy requires it. The first waiting thread forces the
+     * journal for every record appended so far, threads which appended meanwhile find their records synced once it is
+     * done.
+     *
+     * @param sequence sequence returned by {@link #append(ByteBuffer)}
+     */
+    void sync(final long sequence) {
+        if (this.fsyncPolicy.getMode() != FsyncPolicy.Mode.ALWAYS || this.synced >= sequence) {
+            return;
+        }
+
+        this.syncLock.lock();
+        try {
+            if (this.synced < sequence) {
+                this.force();
+            }
+        } finally {
+            this.syncLock.unlock();
+        }
+    }
+
+    /**
+     * Force the journal if anything was appended since it was last forced
+     */
+    void flush() {
+        this.syncLock.lock();
+        try {
+            if (this.synced < this.appended) {
+                this.force();
+            }
+        } finally {
+            this.syncLock.unlock();
+        }
+    }
+
+    private void force() {
+        final long target = this.appended;
+
+        try {
+            this.channel.force(false);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        this.synced = target;
+    }
+
+    /**
+     * Drop every record once the store was written to a snapshot, called while holding the lock of the store
+     */
+    void reset() {
+        this.syncLock.lock();
+        try {
+            this.channel.truncate(0);
+            this.channel.position(0);
+            this.channel.force(true);
+            this.size = 0;
+            this.synced = this.appended;
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            this.syncLock.unlock();
+        }
+    }
+
+    /**
+     * @return size of the journal in bytes
+     */
+    long size() {
+        return this.size;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (this.flusher != null) {
+            // not interrupted, interrupting a thread forcing the channel closes the channel
+            this.flusher.shutdown();
+            try {
+                this.flusher.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        try {
+            this.flush();
+        } finally {
+            this.channel.close();
+        }
+    }
+}
@@ -0,0 +1,408 @@
+package com.oop.memorystore.implementation.snapshot;
+
+import com.oop.memorystore.api.BulkLoad;
+import com.oop.memorystore.implementation.SynchronizedStore;
+import com.oop.memorystore.implementation.memory.MemoryStore;
+import com.oop.memorystore.implementation.query.Query;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Durable store. Every mutation is appended to a journal before the call returns, on restart the store is recovered by
+ * loading its last snapshot and replaying the journal on top of it. Once the journal grows past a threshold the store is
+ * written to a new snapshot and the journal starts over.
+ *
+ * <p>Like a {@link SynchronizedStore} every call is serialised, except waiting for the journal to reach the disk: writers
+ * append their records under the lock and wait for them after releasing it, so writers waiting together share a single
+ * force of the journal. A mutation is journaled once it was applied to the store, a mutation which failed is not.
+ * Values are journaled as a whole, a value modified in place must be reindexed for the change to be journaled. Replayed
+ * values are matched to stored values by identity, so the identity of a value must survive encoding and decoding.
+ *
+ * @param <V> value type
+ */
+public class JournaledStore<V> extends SynchronizedStore<V> implements Closeable {
+    /** Default size of the journal in bytes after which the store is compacted into a new snapshot */
+    public static final long DEFAULT_COMPACTION_THRESHOLD = 64L * 1024 * 1024;
+
+    private static final String SNAPSHOT_FILE = "store.snapshot";
+    private static final String JOURNAL_FILE = "store.journal";
+
+    private final MemoryStore<V> memoryStore;
+    private final Path snapshotPath;
+    private final SnapshotCodec<V> codec;
+    private final Journal<V> journal;
+    private final long compactionThreshold;
+
+    /** Guarded by the mutex, mutations are rejected once the journal is closed */
+    private boolean closed;
+
+    private JournaledStore(
+        final MemoryStore<V> store,
+        final Path snapshotPath,
+        final SnapshotCodec<V> codec,
+        final Journal<V> journal,
+        final long compactionThreshold) {
+        super(store);
+        this.memoryStore = store;
+        this.snapshotPath = snapshotPath;
+        this.codec = codec;
+        this.journal = journal;
+        this.compactionThreshold = compactionThreshold;
+    }
+
+    /**
+     * Open a store journaled in the given directory, forcing every write to disk and compacting the journal past
+     * {@link #DEFAULT_COMPACTION_THRESHOLD} bytes
+     *
+     * @see #open(MemoryStore, Path, SnapshotCodec, FsyncPolicy, long)
+     */
+    public static <V> JournaledStore<V> open(final MemoryStore<V> store, final Path directory, final SnapshotCodec<V> codec)
+        throws IOException {
+        return open(store, directory, codec, FsyncPolicy.always(), DEFAULT_COMPACTION_THRESHOLD);
+    }
+
+    /**
+     * Open a store journaled in the given directory. The snapshot and the journal found in the directory are loaded into
+     * the given store first, a torn record at the end of the journal is dropped.
+     *
+     * @param store empty store, with its indexes defined
+     * @param directory directory of the snapshot and the journal, created if missing
+     * @param codec codec of the values
+     * @param fsyncPolicy when the journal is forced to disk
+     * @param compactionThreshold size of the journal in bytes after which the store is compacted into a new snapshot
+     * @param <V> value type
+     * @return journaled store, all access to the store must go through it
+     * @throws IOException if recovering failed
+     */
+    public static <V> JournaledStore<V> open(
+        final MemoryStore<V> store,
+        final Path directory,
+        final SnapshotCodec<V> codec,
+        final FsyncPolicy fsyncPolicy,
+        final long compactionThreshold)
+        throws IOException {
+        Files.createDirectories(directory);
+        final Path snapshotPath = directory.resolve(SNAPSHOT_FILE);
+        final Path journalPath = directory.resolve(JOURNAL_FILE);
+
+        if (Files.exists(snapshotPath)) {
+            StoreSnapshot.load(store, snapshotPath, codec);
+        } else if (!store.isEmpty()) {
+            throw new IllegalStateException("Journaled stores can only be opened on an empty store");
+        }
+
+        final long validSize;
+        final BulkLoad bulkLoad = store.bulkLoad();
+        try {
+            validSize = Journal.replay(journalPath, codec, (value, type) -> replay(store, value, type));
+        } finally {
+            bulkLoad.close();
+        }
+
+        final JournaledStore<V> journaledStore = new JournaledStore<>(
+            store, snapshotPath, codec, new Journal<>(journalPath, codec, fsyncPolicy, validSize), compactionThreshold);
+
+        if (validSize > compactionThreshold) {
+            journaledStore.compact();
+        }
+
+        return journaledStore;
+    }
+
+    /**
+     * Apply a journaled mutation the way it was applied to the live store. Records replayed over a snapshot which
+     * already holds them leave the store unchanged, so a crash between writing a snapshot and resetting the journal
+     * loses nothing.
+     */
+    private static <V> void replay(final MemoryStore<V> store, final V value, final int type) {
+        switch (type) {
+            case Journal.PUT:
+                // like adding, a value whose identity is stored already is skipped
+                store.add(value);
+                break;
+            case Journal.REPLACE:
+                // a reindexed value replaces the stored value, it may have changed in fields outside its identity
+                if (store.remove(value)) {
+                    store.add(value);
+                }
+                break;
+            case Journal.REMOVE:
+                store.remove(value);
+                break;
+            case Journal.CLEAR:
+                store.clear();
+                break;
+            default:
+                throw new IllegalStateException("Unknown journal record type: " + type);
+        }
+    }
+
+    /**
+     * Write the store to a new snapshot and start the journal over. Writers are blocked until it is done.
+     *
+     * @throws UncheckedIOException if writing the snapshot failed, the journal is then kept
+     * @throws IllegalStateException if the store was closed
+     */
+    public void compact() {
+        synchronized (this.mutex) {
+            this.checkOpen();
+            try {
+                StoreSnapshot.write(this.memoryStore, this.snapshotPath, this.codec);
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            this.journal.reset();
+        }
+    }
+
+    /**
+     * @return size of the journal in bytes
+     */
+    public long getJournalSize() {
+        synchronized (this.mutex) {
+            return this.journal.size();
+        }
+    }
+
+    @Override
+    public boolean add(final V item) {
+        return this.addAll(Collections.singleton(item));
+    }
+
+    @Override
+    public boolean addAll(final V[] items) {
+        return this.addAll(Arrays.asList(items));
+    }
+
+    @Override
+    public boolean addAll(final Collection<? extends V> collection) {
+        final ByteBuffer records = this.journal.encode(Journal.PUT, collection);
+        final boolean changed;
+        final long sequence;
+        final long requested = this.lockRequested();
+
+        synchronized (this.mutex) {
+            this.lockAcquired(requested);
+            this.checkOpen();
+            changed = this.store.addAll(collection);
+            sequence = this.journal.append(records);
+            this.compactIfNeeded();
+        }
+
+        this.journal.sync(sequence);
+        return changed;
+    }
+
+    @Override
+    public boolean remove(final Object obj) {
+        final boolean removed;
+        final long requested = this.lockRequested();
+        long sequence = 0;
+
+        synchronized (this.mutex) {
+            this.lockAcquired(requested);
+            this.checkOpen();
+            removed = this.store.remove(obj);
+            if (removed) {
+                sequence = this.appendRemoved(Collections.singletonList(this.cast(obj)));
+            }
+        }
+
+        this.journal.sync(sequence);
+        return removed;
+    }
+
+    @Override
+    public List<V> remove(final Query query, final int limit) {
+        final List<V> removed;
+        final long sequence;
+        final long requested = this.lockRequested();
+
+        synchronized (this.mutex) {
+            this.lockAcquired(requested);
+            this.checkOpen();
+            removed = this.store.remove(query, limit);
+            sequence = this.appendRemoved(removed);
+        }
+
+        this.journal.sync(sequence);
+        return removed;
+    }
+
+    @Override
+    public boolean removeAll(final Collection<?> collection) {
+        return this.removeMatching(collection::contains);
+    }
+
+    @Override
+    public boolean removeIf(final Predicate<? super V> filter) {
+        return this.removeMatching(filter);
+    }
+
+    @Override
+    public boolean retainAll(final Collection<?> collection) {
+        return this.removeMatching(value -> !collection.contains(value));
+    }
+
+    private boolean removeMatching(final Predicate<? super V> filter) {
+        final List<V> removed = new ArrayList<>();
+        final long sequence;
+        final long requested = this.lockRequested();
+
+        synchronized (this.mutex) {
+            this.lockAcquired(requested);
+            this.checkOpen();
+            for (final V value : this.store) {
+                if (filter.test(value)) {
+                    removed.add(value);
+                }
+            }
+
+            removed.forEach(this.store::remove);
+            sequence = this.appendRemoved(removed);
+        }
+
+        this.journal.sync(sequence);
+        return !removed.isEmpty();
+    }
+
+    @Override
+    public void clear() {
+        final ByteBuffer records = this.journal.encode(Journal.CLEAR, Collections.emptyList());
+        final long sequence;
+        final long requested = this.lockRequested();
+
+        synchronized (this.mutex) {
+            this.lockAcquired(requested);
+            this.checkOpen();
+            this.store.clear();
+            sequence = this.journal.append(records);
+        }
+
+        this.journal.sync(sequence);
+    }
+
+    @Override
+    public void reindex(final Collection<V> items) {
+        final ByteBuffer records = this.journal.encode(Journal.REPLACE, items);
+        final long sequence;
+        final long requested = this.lockRequested();
+
+        synchronized (this.mutex) {
+            this.lockAcquired(requested);
+            this.checkOpen();
+            this.store.reindex(items);
+            sequence = this.journal.append(records);
+            this.compactIfNeeded();
+        }
+
+        this.journal.sync(sequence);
+    }
+
+    @Override
+    public void reindex(final V item) {
+        this.reindex(Collections.singleton(item));
+    }
+
+    /**
+     * Reindex every value. Any value may have changed, so the store is written to a new snapshot instead of journaling
+     * every value.
+     */
+    @Override
+    public void reindex() {
+        final long requested = this.lockRequested();
+
+        synchronized (this.mutex) {
+            this.lockAcquired(requested);
+            this.checkOpen();
+            this.store.reindex();
+            this.compact();
+        }
+    }
+
+    /**
+     * Iterate the store, removing through the iterator is journaled. As with a {@link SynchronizedStore} the store must
+     * be locked manually while iterating.
+     */
+    @Override
+    public Iterator<V> iterator() {
+        final Iterator<V> iterator = this.store.iterator();
+
+        return new Iterator<V>() {
+            private V current;
+
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public V next() {
+                this.current = iterator.next();
+                return this.current;
+            }
+
+            @Override
+            public void remove() {
+                final long sequence;
+
+                synchronized (JournaledStore.this.mutex) {
+                    JournaledStore.this.checkOpen();
+                    iterator.remove();
+                    sequence = JournaledStore.this.appendRemoved(Collections.singletonList(this.current));
+                }
+
+                JournaledStore.this.journal.sync(sequence);
+            }
+        };
+    }
+
+    /**
+     * Close the journal, forcing it to disk. The store can still be read, mutations could no longer be journaled and are
+     * rejected with an {@link IllegalStateException}.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (this.mutex) {
+            if (this.closed) {
+                return;
+            }
+
+            this.closed = true;
+            this.journal.close();
+        }
+    }
+
+    private void checkOpen() {
+        if (this.closed) {
+            throw new IllegalStateException("Journaled store is closed");
+        }
+    }
+
+    private long appendRemoved(final List<V> removed) {
+        return removed.isEmpty() ? 0 : this.journal.append(this.journal.encode(Journal.REMOVE, removed));
+    }
+
+    private void compactIfNeeded() {
+        if (this.journal.size() > this.compactionThreshold) {
+            this.compact();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private V cast(final Object obj) {
+        return (V) obj;
+    }
+}
@@ -0,0 +1,132 @@
+package com.oop.memorystore.implementation.snapshot;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * Codec of index keys, prefixing every key with a tag of its type. Supports strings, boxed primitives, UUIDs and enums,
+ * the layout of an index holding other keys is not written to snapshots.
+ */
+final class KeyCodec implements SnapshotCodec<Object> {
+    private static final byte STRING = 0;
+    private static final byte INTEGER = 1;
+    private static final byte LONG = 2;
+    private static final byte DOUBLE = 3;
+    private static final byte FLOAT = 4;
+    private static final byte SHORT = 5;
+    private static final byte BYTE = 6;
+    private static final byte CHARACTER = 7;
+    private static final byte BOOLEAN = 8;
+    private static final byte UUID_KEY = 9;
+    private static final byte ENUM = 10;
+
+    /**
+     * Check if a key can be written
+     *
+     * @param key key
+     * @return true if supported
+     */
+    static boolean supports(final Object key) {
+        return key instanceof String
+            || key instanceof Integer
+            || key instanceof Long
+            || key instanceof Double
+            || key instanceof Float
+            || key instanceof Short
+            || key instanceof Byte
+            || key instanceof Character
+            || key instanceof Boolean
+            || key instanceof UUID
+            || key instanceof Enum;
+    }
+
+    @Override
+    public void write(final Object key, final DataOutput out) throws IOException {
+        if (key instanceof String) {
+            final byte[] bytes = ((String) key).getBytes(StandardCharsets.UTF_8);
+            out.writeByte(STRING);
+            StoreSnapshot.writeVarInt(out, bytes.length);
+            out.write(bytes);
+        } else if (key instanceof Integer) {
+            out.writeByte(INTEGER);
+            out.writeInt((Integer) key);
+        } else if (key instanceof Long) {
+            out.writeByte(LONG);
+            out.writeLong((Long) key);
+        } else if (key instanceof Double) {
+            out.writeByte(DOUBLE);
+            out.writeDouble((Double) key);
+        } else if (key instanceof Float) {
+            out.writeByte(FLOAT);
+            out.writeFloat((Float) key);
+        } else if (key instanceof Short) {
+            out.writeByte(SHORT);
+            out.writeShort((Short) key);
+        } else if (key instanceof Byte) {
+            out.writeByte(BYTE);
+            out.writeByte((Byte) key);
+        } else if (key instanceof Character) {
+            out.writeByte(CHARACTER);
+            out.writeChar((Character) key);
+        } else if (key instanceof Boolean) {
+            out.writeByte(BOOLEAN);
+            out.writeBoolean((Boolean) key);
+        } else if (key instanceof UUID) {
+            out.writeByte(UUID_KEY);
+            out.writeLong(((UUID) key).getMostSignificantBits());
+            out.writeLong(((UUID) key).getLeastSignificantBits());
+        } else if (key instanceof Enum) {
+            out.writeByte(ENUM);
+            out.writeUTF(((Enum<?>) key).getDeclaringClass().getName());
+            out.writeUTF(((Enum<?>) key).name());
+        } else {
+            throw new IllegalArgumentException("Unsupported key type: " + key.getClass().getName());
+        }
+    }
+
+    @Override
+    public Object read(final DataInput in) throws IOException {
+        final byte tag = in.readByte();
+
+        switch (tag) {
+            case STRING:
+                final byte[] bytes = new byte[StoreSnapshot.readVarInt(in)];
+                in.readFully(bytes);
+                return new String(bytes, StandardCharsets.UTF_8);
+            case INTEGER:
+                return in.readInt();
+            case LONG:
+                return in.readLong();
+            case DOUBLE:
+                return in.readDouble();
+            case FLOAT:
+                return in.readFloat();
+            case SHORT:
+                return in.readShort();
+            case BYTE:
+                return in.readByte();
+            case CHARACTER:
+                return in.readChar();
+            case BOOLEAN:
+                return in.readBoolean();
+            case UUID_KEY:
+                return new UUID(in.readLong(), in.readLong());
+            case ENUM:
+                return readEnum(in.readUTF(), in.readUTF());
+            default:
+                throw new IOException("Unknown key tag: " + tag);
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object readEnum(final String className, final String name) throws IOException {
+        try {
+            return Enum.valueOf((Class<? extends Enum>) Class.forName(className), name);
+        } catch (final ClassNotFoundException | IllegalArgumentException e) {
+            throw new IOException("Unknown enum key: " + className + "." + name, e);
+        }
+    }
+}
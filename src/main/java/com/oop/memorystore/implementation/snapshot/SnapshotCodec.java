@@ -0,0 +1,31 @@
+package com.oop.memorystore.implementation.snapshot;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Writes values into a snapshot and reads them back. Values are written one after the other without any framing, so
+ * {@link #read(DataInput)} must consume exactly what {@link #write(Object, DataOutput)} wrote.
+ *
+ * @param <T> value type
+ */
+public interface SnapshotCodec<T> {
+    /**
+     * Write a value
+     *
+     * @param value value to write
+     * @param out output of the snapshot
+     * @throws IOException if writing failed
+     */
+    void write(T value, DataOutput out) throws IOException;
+
+    /**
+     * Read a value written by {@link #write(Object, DataOutput)}
+     *
+     * @param in input of the snapshot
+     * @return value
+     * @throws IOException if reading failed
+     */
+    T read(DataInput in) throws IOException;
+}
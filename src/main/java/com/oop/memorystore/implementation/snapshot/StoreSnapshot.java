@@ -0,0 +1,323 @@
+package com.oop.memorystore.implementation.snapshot;
+
+import com.oop.memorystore.implementation.AbstractStore;
+import com.oop.memorystore.implementation.index.Index;
+import com.oop.memorystore.implementation.index.IndexManager;
+import com.oop.memorystore.implementation.index.ReferenceIndex;
+import com.oop.memorystore.implementation.memory.MemoryStore;
+import com.oop.memorystore.implementation.reference.Reference;
+import com.oop.memorystore.implementation.reference.ReferenceManager;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Writes the values of a store to a binary file and loads them back, so a store can be restored on restart instead of
+ * being rebuilt from its source. Values are written through a {@link SnapshotCodec}. The layout of every index, which
+ * references each key holds, is written as well when its keys are strings, boxed primitives, UUIDs or enums. Loading
+ * restores those layouts without running the key mappers, the other indexes index the loaded values at once.
+ *
+ * <p>Key mappers can't be written, so the store loaded into must define its indexes before loading. Layouts are only
+ * valid as long as the key mappers did not change since the snapshot was written, otherwise load with
+ * {@link #load(MemoryStore, Path, SnapshotCodec, boolean)} and let the indexes run their key mappers.
+ */
+public final class StoreSnapshot {
+    private static final int MAGIC = 0x4d53_4e50;
+    private static final int VERSION = 1;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private static final KeyCodec KEY_CODEC = new KeyCodec();
+
+    private StoreSnapshot() {
+    }
+
+    /**
+     * Write the values of a store and the layout of its indexes. The snapshot is written to a temporary file first and
+     * moved over the given file once complete, so a failed write never leaves a partial snapshot behind. The snapshot
+     * is durable once this returns, its directory is forced after the move. The store must not be modified while it is
+     * written.
+     *
+     * @param store store to write
+     * @param path file to write
+     * @param codec codec of the values
+     * @param <V> value type
+     * @return number of values written
+     * @throws IOException if writing failed
+     */
+    public static <V> int write(final AbstractStore<V> store, final Path path, final SnapshotCodec<V> codec)
+        throws IOException {
+        final ReferenceManager<V> referenceManager = store.getReferenceManager();
+        final List<Reference<V>> references = new ArrayList<>(referenceManager.getReferences());
+        final Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+
+        try (FileChannel channel = FileChannel.open(
+            temporary, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            final DataOutputStream out =
+                new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE));
+
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            writeVarInt(out, references.size());
+
+            for (final Reference<V> reference : references) {
+                codec.write(reference.get(), out);
+            }
+
+            final Collection<Index<V>> indexes = store.getIndexes();
+            writeVarInt(out, indexes.size());
+
+            for (final Index<V> index : indexes) {
+                out.writeUTF(index.getName());
+                writeLayout(out, store.getIndexManager().getIndex(index.getName()), references);
+            }
+
+            out.flush();
+            channel.force(true);
+        } catch (final IOException | RuntimeException e) {
+            Files.deleteIfExists(temporary);
+            throw e;
+        }
+
+        try {
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (final AtomicMoveNotSupportedException e) {
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        forceDirectory(path.toAbsolutePath().getParent());
+        return references.size();
+    }
+
+    /**
+     * Force the entry of a moved file to disk, until then the move may be lost on a crash even though the file itself
+     * was forced. Platforms which can't open a directory, like Windows, make moves durable on their own.
+     */
+    static void forceDirectory(final Path directory) throws IOException {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (final AccessDeniedException e) {
+            // directories can't be opened on this platform
+        }
+    }
+
+    /**
+     * Load a snapshot into an empty store, restoring the layout of its indexes
+     *
+     * @param store empty store, with its indexes defined
+     * @param path snapshot to load
+     * @param codec codec of the values
+     * @param <V> value type
+     * @return number of values loaded
+     * @throws IOException if reading failed or the file is not a snapshot
+     * @throws IllegalStateException if the store is not empty
+     */
+    public static <V> int load(final MemoryStore<V> store, final Path path, final SnapshotCodec<V> codec)
+        throws IOException {
+        return load(store, path, codec, true);
+    }
+
+    /**
+     * Load a snapshot into an empty store. Indexes the snapshot holds no layout for, or all indexes if layouts are not
+     * restored, index the loaded values at once like a {@link com.oop.memorystore.api.BulkLoad} does.
+     *
+     * @param store empty store, with its indexes defined
+     * @param path snapshot to load
+     * @param codec codec of the values
+     * @param restoreLayouts true to restore the layout of the indexes instead of running their key mappers
+     * @param <V> value type
+     * @return number of values loaded
+     * @throws IOException if reading failed or the file is not a snapshot
+     * @throws IllegalStateException if the store is not empty
+     */
+    public static <V> int load(
+        final MemoryStore<V> store, final Path path, final SnapshotCodec<V> codec, final boolean restoreLayouts)
+        throws IOException {
+        if (!store.isEmpty()) {
+            throw new IllegalStateException("Snapshots can only be loaded into an empty store");
+        }
+
+        final ReferenceManager<V> referenceManager = store.getReferenceManager();
+        final IndexManager<V> indexManager = store.getIndexManager();
+        final List<Reference<V>> references;
+        final Set<String> restored = new HashSet<>();
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final DataInputStream in =
+                new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel), BUFFER_SIZE));
+
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a store snapshot: " + path);
+            }
+
+            final int version = in.readInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported snapshot version " + version + ": " + path);
+            }
+
+            final int size = readVarInt(in);
+            referenceManager.ensureCapacity(size);
+            indexManager.ensureCapacity(size);
+
+            // values without identity are not stored, their position is kept so index layouts still line up
+            references = new ArrayList<>(size);
+            for (int position = 0; position < size; position++) {
+                references.add(referenceManager.add(codec.read(in)));
+            }
+
+            final int indexCount = readVarInt(in);
+            for (int i = 0; i < indexCount; i++) {
+                final String indexName = in.readUTF();
+                final ReferenceIndex<?, V> index = restoreLayouts ? indexManager.getIndex(indexName) : null;
+
+                if (readLayout(in, index, references)) {
+                    restored.add(indexName);
+                }
+            }
+        }
+
+        references.removeIf(reference -> reference == null);
+        indexManager.indexAll(references, restored);
+        return references.size();
+    }
+
+    /**
+     * Write which references each key of an index holds, as the key followed by the positions of its references. Nothing
+     * but a marker is written if a key is not supported by the key codec.
+     */
+    private static <V> void writeLayout(
+        final DataOutput out, final ReferenceIndex<?, V> index, final List<Reference<V>> references) throws IOException {
+        final Map<Object, Positions> layout = new LinkedHashMap<>();
+
+        for (int position = 0; position < references.size(); position++) {
+            final Set<?> keys = index.getKeys(references.get(position));
+            if (keys == null) {
+                continue;
+            }
+
+            for (final Object key : keys) {
+                if (!KeyCodec.supports(key)) {
+                    out.writeBoolean(false);
+                    return;
+                }
+
+                layout.computeIfAbsent(key, $ -> new Positions()).add(position);
+            }
+        }
+
+        out.writeBoolean(true);
+        writeVarInt(out, layout.size());
+
+        for (final Map.Entry<Object, Positions> entry : layout.entrySet()) {
+            KEY_CODEC.write(entry.getKey(), out);
+            entry.getValue().write(out);
+        }
+    }
+
+    /**
+     * Read the layout of an index, restoring its buckets one key at a time
+     *
+     * @param index index to restore or null to skip the layout
+     * @return true if the index was restored
+     */
+    private static <V> boolean readLayout(
+        final DataInput in, final ReferenceIndex<?, V> index, final List<Reference<V>> references) throws IOException {
+        if (!in.readBoolean()) {
+            return false;
+        }
+
+        final int keyCount = readVarInt(in);
+        for (int i = 0; i < keyCount; i++) {
+            final Object key = KEY_CODEC.read(in);
+            final int count = readVarInt(in);
+            final List<Reference<V>> bucket = new ArrayList<>(count);
+            int position = 0;
+
+            for (int j = 0; j < count; j++) {
+                position += readVarInt(in);
+
+                final Reference<V> reference = references.get(position);
+                if (reference != null) {
+                    bucket.add(reference);
+                }
+            }
+
+            if (index != null && !bucket.isEmpty()) {
+                index.restore(key, bucket);
+            }
+        }
+
+        return index != null;
+    }
+
+    static void writeVarInt(final DataOutput out, final int value) throws IOException {
+        int remaining = value;
+
+        while ((remaining & ~0x7f) != 0) {
+            out.writeByte((remaining & 0x7f) | 0x80);
+            remaining >>>= 7;
+        }
+
+        out.writeByte(remaining);
+    }
+
+    static int readVarInt(final DataInput in) throws IOException {
+        int value = 0;
+
+        for (int shift = 0; shift < 32; shift += 7) {
+            final byte b = in.readByte();
+            value |= (b & 0x7f) << shift;
+
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+
+        throw new IOException("Malformed variable length integer");
+    }
+
+    /**
+     * Growing list of ascending positions, written as the differences between consecutive positions
+     */
+    private static final class Positions {
+        private int[] positions = new int[1];
+        private int size;
+
+        void add(final int position) {
+            if (this.size == this.positions.length) {
+                this.positions = Arrays.copyOf(this.positions, this.size * 2);
+            }
+
+            this.positions[this.size++] = position;
+        }
+
+        void write(final DataOutput out) throws IOException {
+            writeVarInt(out, this.size);
+
+            int previous = 0;
+            for (int i = 0; i < this.size; i++) {
+                writeVarInt(out, this.positions[i] - previous);
+                previous = this.positions[i];
+            }
+        }
+    }
+}
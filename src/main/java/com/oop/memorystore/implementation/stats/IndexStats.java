@@ -0,0 +1,102 @@
+package com.oop.memorystore.implementation.stats;
+
+import java.util.Arrays;
+
+/**
+ * Snapshot of the size of an index
+ */
+public final class IndexStats {
+    private final String name;
+    private final int keyCount;
+    private final long referenceCount;
+    private final long reducedReferenceCount;
+    private final long[] bucketSizeHistogram;
+    private final long keyToReferencesBytes;
+    private final long referenceToKeysBytes;
+
+    /**
+     * @param name index name
+     * @param keyCount number of keys
+     * @param referenceCount number of references over all buckets, before reducing
+     * @param reducedReferenceCount number of references over all buckets, after reducing
+     * @param bucketSizeHistogram number of buckets per size class, see {@link #getBucketSizeHistogram()}
+     * @param keyToReferencesBytes estimated bytes of the buckets and the map holding them
+     * @param referenceToKeysBytes estimated bytes of the keys remembered per reference
+     */
+    public IndexStats(
+        final String name,
+        final int keyCount,
+        final long referenceCount,
+        final long reducedReferenceCount,
+        final long[] bucketSizeHistogram,
+        final long keyToReferencesBytes,
+        final long referenceToKeysBytes) {
+        this.name = name;
+        this.keyCount = keyCount;
+        this.referenceCount = referenceCount;
+        this.reducedReferenceCount = reducedReferenceCount;
+        this.bucketSizeHistogram = bucketSizeHistogram.clone();
+        this.keyToReferencesBytes = keyToReferencesBytes;
+        this.referenceToKeysBytes = referenceToKeysBytes;
+    }
+
+    /**
+     * Size class of a bucket in {@link #getBucketSizeHistogram()}
+     *
+     * @param bucketSize number of references of the bucket, at least 1
+     * @return size class
+     */
+    public static int sizeClass(final long bucketSize) {
+        return 63 - Long.numberOfLeadingZeros(bucketSize);
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    public int getKeyCount() {
+        return this.keyCount;
+    }
+
+    public long getReferenceCount() {
+        return this.referenceCount;
+    }
+
+    public long getReducedReferenceCount() {
+        return this.reducedReferenceCount;
+    }
+
+    /**
+     * Number of buckets by size, the entry at position {@code n} counts the buckets holding from {@code 2^n} up to
+     * {@code 2^(n+1) - 1} references. Unique keys are counted at position 0.
+     *
+     * @return histogram, trailing empty size classes are left out
+     */
+    public long[] getBucketSizeHistogram() {
+        return this.bucketSizeHistogram.clone();
+    }
+
+    public long getKeyToReferencesBytes() {
+        return this.keyToReferencesBytes;
+    }
+
+    public long getReferenceToKeysBytes() {
+        return this.referenceToKeysBytes;
+    }
+
+    /**
+     * @return estimated bytes retained by this index, not counting the keys themselves
+     */
+    public long getEstimatedBytes() {
+        return this.keyToReferencesBytes + this.referenceToKeysBytes;
+    }
+
+    @Override
+    public String toString() {
+        return "IndexStats[name='" + this.name + "', keys=" + this.keyCount
+            + ", references=" + this.referenceCount
+            + ", reducedReferences=" + this.reducedReferenceCount
+            + ", bucketSizes=" + Arrays.toString(this.bucketSizeHistogram)
+            + ", estimatedBytes=" + this.getEstimatedBytes() + "]";
+    }
+}
@@ -0,0 +1,120 @@
+package com.oop.memorystore.implementation.stats;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Approximate shallow sizes of the collections making up a store, for a 64 bit JVM with compressed references. Keys and
+ * values held by the collections are not included, they are shared with the stored items.
+ */
+public final class MemoryEstimates {
+    private static final int HEADER = 12;
+    private static final int REFERENCE = 4;
+    private static final int ARRAY_HEADER = 16;
+
+    private static final Class<?> SINGLETON_SET = Collections.singleton(null).getClass();
+    private static final Class<?> EMPTY_SET = Collections.emptySet().getClass();
+    private static final Class<?> CONCURRENT_KEY_SET = ConcurrentHashMap.newKeySet().getClass();
+
+    private MemoryEstimates() {
+    }
+
+    /**
+     * Size of an object with the given number of bytes of fields
+     */
+    public static long object(final int fieldBytes) {
+        return align(HEADER + fieldBytes);
+    }
+
+    /**
+     * Size of an array of object references
+     */
+    public static long referenceArray(final int length) {
+        return array(length, REFERENCE);
+    }
+
+    /**
+     * Size of an array of primitives or references
+     */
+    public static long array(final int length, final int elementBytes) {
+        return align(ARRAY_HEADER + (long) length * elementBytes);
+    }
+
+    /**
+     * Size of a map and its entries, by the type of the map
+     */
+    public static long map(final Map<?, ?> map) {
+        final int size = map.size();
+
+        if (map instanceof LinkedHashMap) {
+            return 56 + hashTable(size) + 40L * size;
+        }
+
+        if (map instanceof HashMap) {
+            return 48 + hashTable(size) + 32L * size;
+        }
+
+        if (map instanceof TreeMap) {
+            return 48 + 40L * size;
+        }
+
+        if (map instanceof ConcurrentHashMap) {
+            return 64 + hashTable(size) + 32L * size;
+        }
+
+        return 48 + hashTable(size) + 32L * size;
+    }
+
+    /**
+     * Size of a set and its entries, by the type of the set
+     */
+    public static long set(final Set<?> set) {
+        if (set.getClass() == EMPTY_SET) {
+            return 0; // shared instance
+        }
+
+        if (set.getClass() == SINGLETON_SET) {
+            return object(REFERENCE);
+        }
+
+        final int size = set.size();
+
+        if (set instanceof LinkedHashSet) {
+            return 16 + 56 + hashTable(size) + 40L * size;
+        }
+
+        if (set instanceof TreeSet) {
+            return 16 + 48 + 40L * size;
+        }
+
+        if (set.getClass() == CONCURRENT_KEY_SET) {
+            return 24 + 64 + hashTable(size) + 32L * size;
+        }
+
+        return 16 + 48 + hashTable(size) + 32L * size;
+    }
+
+    private static long hashTable(final int size) {
+        if (size == 0) {
+            return 0;
+        }
+
+        int capacity = 16;
+        while (capacity * 3L / 4 < size) {
+            capacity <<= 1;
+        }
+
+        return referenceArray(capacity);
+    }
+
+    private static long align(final long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+}
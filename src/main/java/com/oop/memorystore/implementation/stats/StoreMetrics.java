@@ -0,0 +1,61 @@
+package com.oop.memorystore.implementation.stats;
+
+/**
+ * Listener instrumenting a store, implement it to bridge a store to a metrics system. Every method defaults to doing
+ * nothing. Listeners are called on the thread running the operation, while the store is locked if it is, so they must
+ * be cheap and thread safe.
+ */
+public interface StoreMetrics {
+    /** Listener ignoring everything, stores skip timing their operations while it is set */
+    StoreMetrics NONE = new StoreMetrics() {
+    };
+
+    /**
+     * Called once an operation completed
+     *
+     * @param operation completed operation
+     * @param nanos duration of the operation in nanoseconds
+     * @param count number of values returned, added, removed or reindexed, or of keys filtered on
+     */
+    default void onOperation(final Operation operation, final long nanos, final int count) {
+    }
+
+    /**
+     * Called for every key looked up in an index by a query or a filter
+     *
+     * @param indexName name of the index
+     * @param hit true if the index holds values for the key
+     */
+    default void onIndexLookup(final String indexName, final boolean hit) {
+    }
+
+    /**
+     * Called for every policy of an expiring store once a value expired
+     *
+     * @param policyName {@link com.oop.memorystore.implementation.expiring.policy.ExpiringPolicy#named()} of the policy
+     */
+    default void onExpire(final String policyName) {
+    }
+
+    /**
+     * Called once a bounded expiring store evicted a value, or a value reclaimed by the garbage collector was removed
+     */
+    default void onEvict() {
+    }
+
+    /**
+     * Called once a thread acquired the lock of a synchronized store
+     *
+     * @param nanos time waited for the lock in nanoseconds
+     */
+    default void onLockWait(final long nanos) {
+    }
+
+    enum Operation {
+        GET,
+        ADD,
+        REMOVE,
+        REINDEX,
+        FILTER
+    }
+}
@@ -0,0 +1,92 @@
+package com.oop.memorystore.implementation.stats;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Snapshot of the size of a store and its indexes, for capacity planning. Byte counts are estimates, see
+ * {@link MemoryEstimates}. The stored items and the keys of the indexes are not included.
+ */
+public final class StoreStats {
+    private final int size;
+    private final long referencesBytes;
+    private final List<IndexStats> indexes;
+    private final int scheduledExpirations;
+    private final long expirationBytes;
+
+    /**
+     * @param size number of stored items
+     * @param referencesBytes estimated bytes of the reference manager
+     * @param indexes stats of every index
+     * @param scheduledExpirations number of items scheduled on the timing wheel of an expiring store
+     * @param expirationBytes estimated bytes of the expiration state kept for the items of an expiring store
+     */
+    public StoreStats(
+        final int size,
+        final long referencesBytes,
+        final List<IndexStats> indexes,
+        final int scheduledExpirations,
+        final long expirationBytes) {
+        this.size = size;
+        this.referencesBytes = referencesBytes;
+        this.indexes = Collections.unmodifiableList(new ArrayList<>(indexes));
+        this.scheduledExpirations = scheduledExpirations;
+        this.expirationBytes = expirationBytes;
+    }
+
+    public StoreStats(final int size, final long referencesBytes, final List<IndexStats> indexes) {
+        this(size, referencesBytes, indexes, 0, 0);
+    }
+
+    public int getSize() {
+        return this.size;
+    }
+
+    public long getReferencesBytes() {
+        return this.referencesBytes;
+    }
+
+    public List<IndexStats> getIndexes() {
+        return this.indexes;
+    }
+
+    public int getScheduledExpirations() {
+        return this.scheduledExpirations;
+    }
+
+    public long getExpirationBytes() {
+        return this.expirationBytes;
+    }
+
+    /**
+     * @return estimated bytes retained by the store, not counting the stored items and index keys
+     */
+    public long getEstimatedBytes() {
+        long bytes = this.referencesBytes + this.expirationBytes;
+        for (final IndexStats index : this.indexes) {
+            bytes += index.getEstimatedBytes();
+        }
+
+        return bytes;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder()
+            .append("StoreStats[size=").append(this.size)
+            .append(", referencesBytes=").append(this.referencesBytes);
+
+        if (this.expirationBytes > 0) {
+            builder.append(", scheduledExpirations=").append(this.scheduledExpirations)
+                .append(", expirationBytes=").append(this.expirationBytes);
+        }
+
+        builder.append(", estimatedBytes=").append(this.getEstimatedBytes()).append(']');
+        for (final IndexStats index : this.indexes) {
+            builder.append(System.lineSeparator()).append("  ").append(index);
+        }
+
+        return builder.toString();
+    }
+}
@@ -0,0 +1,245 @@
+package com.oop.memorystore.implementation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.oop.memorystore.api.Store;
+import com.oop.memorystore.implementation.expiring.ConcurrentReadExpiringStore;
+import com.oop.memorystore.implementation.expiring.ExpiringMemoryStore;
+import com.oop.memorystore.implementation.index.ConcurrentReadIndex;
+import com.oop.memorystore.implementation.index.SortedIndex;
+import com.oop.memorystore.implementation.index.SortedIndexDefinition;
+import com.oop.memorystore.implementation.memory.MemoryStore;
+import com.oop.memorystore.implementation.query.Range;
+import com.oop.memorystore.implementation.stats.StoreMetrics;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+class ConcurrentReadStoreTest {
+
+  @Test
+  void readersRacingWritersOnlySeeMatchingValues() throws Exception {
+    final Store<Integer> store = new MemoryStore<Integer>().concurrentStore();
+    store.index("mod10", (Integer value) -> value % 10);
+
+    final AtomicBoolean writing = new AtomicBoolean(true);
+    final ConcurrentLinkedQueue<Throwable> failures = new ConcurrentLinkedQueue<>();
+    final CountDownLatch started = new CountDownLatch(1);
+    final List<Thread> readers = new ArrayList<>();
+
+    for (int reader = 0; reader < 4; reader++) {
+      final Thread thread =
+          new Thread(
+              () -> {
+                started.countDown();
+                try {
+                  while (writing.get()) {
+                    for (int key = 0; key < 10; key++) {
+                      for (final Integer value : store.get("mod10", key)) {
+                        if (value % 10 != key) {
+                          throw new AssertionError(value + " found under key " + key);
+                        }
+                      }
+                    }
+                  }
+                } catch (final Throwable e) {
+                  failures.add(e);
+                }
+              });
+      thread.start();
+      readers.add(thread);
+    }
+
+    started.await();
+    for (int value = 0; value < 20_000; value++) {
+      store.add(value);
+      if (value % 2 == 1) {
+        store.remove(value - 1);
+      }
+    }
+
+    writing.set(false);
+    for (final Thread thread : readers) {
+      thread.join();
+    }
+
+    assertTrue(failures.isEmpty(), failures.toString());
+    assertEquals(10_000, store.size());
+    assertEquals(0, store.get("mod10", 0).size());
+    assertEquals(2000, store.get("mod10", 1).size());
+  }
+
+  @Test
+  void iteratorRemovesFromTheStore() {
+    final Store<Integer> store = new MemoryStore<>(1, 2, 3).concurrentStore();
+    store.index("value", (Integer value) -> value);
+
+    final Iterator<Integer> iterator = store.iterator();
+    while (iterator.hasNext()) {
+      if (iterator.next() == 2) {
+        iterator.remove();
+      }
+    }
+
+    assertEquals(new HashSet<>(Arrays.asList(1, 3)), new HashSet<>(store));
+    assertTrue(store.get("value", 2).isEmpty());
+  }
+
+  @Test
+  void queriesCollectUnderTheLock() {
+    final Store<Integer> store = new MemoryStore<Integer>().concurrentStore();
+    store.index("mod10", (Integer value) -> value % 10);
+    store.index("mod3", (Integer value) -> value % 3);
+    for (int value = 0; value < 100; value++) {
+      store.add(value);
+    }
+
+    final List<Integer> results =
+        store.createQuery().filter("mod10", 5).filter("mod3", 0).collect(new ArrayList<>());
+
+    assertEquals(new HashSet<>(Arrays.asList(15, 45, 75)), new HashSet<>(results));
+    assertEquals(
+        Arrays.asList(15, 45, 75),
+        store.createQuery().filter("mod10", 5).filter("mod3", 0).asStream().sorted().collect(Collectors.toList()));
+  }
+
+  @Test
+  void indexesKeepTheirInterfaces() {
+    final Store<Integer> store = new MemoryStore<>(5, 1, 3).concurrentStore();
+    store.index("sorted", SortedIndexDefinition.withKeyMapping((Integer value) -> value, Comparator.naturalOrder()));
+
+    assertTrue(store.getIndex("sorted") instanceof ConcurrentReadIndex);
+    assertTrue(store.getIndex("sorted") instanceof SortedIndex);
+
+    @SuppressWarnings("unchecked")
+    final SortedIndex<Integer> index = (SortedIndex<Integer>) store.getIndex("sorted");
+    assertEquals(Arrays.asList(1, 3), index.range(Range.between(1, 3)));
+    assertTrue(store.removeIndex(store.getIndex("sorted")));
+    assertFalse(store.findIndex("sorted").isPresent());
+  }
+
+  @Test
+  void expiringStoresReadUnderTheWriteLock() {
+    assertTrue(new ExpiringMemoryStore<Integer>().concurrentStore() instanceof ConcurrentReadExpiringStore);
+  }
+
+  @Test
+  void retriedOptimisticReadIsRecordedOnce() throws Exception {
+    final CountingMetrics metrics = new CountingMetrics();
+    final MemoryStore<String> backing = new MemoryStore<>();
+    backing.index("value", (String value) -> value);
+    backing.add("a");
+
+    final Store<String> store = new ConcurrentReadStore<>(backing);
+    store.setMetrics(metrics);
+
+    // the first hash of the key races a write with the optimistic attempt, forcing a retry
+    final RacingKey key = new RacingKey(() -> store.add("b"));
+
+    assertEquals(Collections.singletonList("a"), store.get("value", key));
+    assertEquals(2, store.size());
+    assertEquals(1, metrics.gets.get());
+    assertEquals(1, metrics.adds.get());
+    assertEquals(1, metrics.lookups.get());
+  }
+
+  @Test
+  void metricsAreReportedAsSet() {
+    final CountingMetrics metrics = new CountingMetrics();
+    final Store<String> store = new ConcurrentReadStore<>(new MemoryStore<>());
+
+    assertSame(StoreMetrics.NONE, store.getMetrics());
+
+    store.setMetrics(metrics);
+    assertSame(metrics, store.getMetrics());
+
+    store.add("a");
+    store.get("missing", "a");
+    assertEquals(1, metrics.adds.get());
+
+    store.setMetrics(null);
+    assertSame(StoreMetrics.NONE, store.getMetrics());
+
+    store.add("b");
+    assertEquals(1, metrics.adds.get());
+  }
+
+  @Test
+  void metricsOfTheBackingStoreAreKept() {
+    final CountingMetrics metrics = new CountingMetrics();
+    final MemoryStore<String> backing = new MemoryStore<>();
+    backing.index("value", (String value) -> value);
+    backing.setMetrics(metrics);
+
+    final Store<String> store = new ConcurrentReadStore<>(backing);
+    store.add("a");
+    store.get("value", "a");
+
+    assertSame(metrics, store.getMetrics());
+    assertEquals(1, metrics.adds.get());
+    assertEquals(1, metrics.gets.get());
+  }
+
+  private static final class RacingKey {
+    private final Runnable write;
+    private final AtomicInteger hashes = new AtomicInteger();
+
+    private RacingKey(final Runnable write) {
+      this.write = write;
+    }
+
+    @Override
+    public int hashCode() {
+      if (this.hashes.getAndIncrement() == 0) {
+        final Thread writer = new Thread(this.write);
+        writer.start();
+
+        try {
+          writer.join();
+        } catch (final InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+
+      return "a".hashCode();
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+      return obj == this || "a".equals(obj);
+    }
+  }
+
+  private static final class CountingMetrics implements StoreMetrics {
+    private final AtomicInteger gets = new AtomicInteger();
+    private final AtomicInteger adds = new AtomicInteger();
+    private final AtomicInteger lookups = new AtomicInteger();
+
+    @Override
+    public void onOperation(final Operation operation, final long nanos, final int count) {
+      if (operation == Operation.GET) {
+        this.gets.incrementAndGet();
+      } else if (operation == Operation.ADD) {
+        this.adds.incrementAndGet();
+      }
+    }
+
+    @Override
+    public void onIndexLookup(final String indexName, final boolean hit) {
+      this.lookups.incrementAndGet();
+    }
+  }
+}
@@ -0,0 +1,57 @@
+package com.oop.memorystore.implementation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class StoreLockTest {
+
+    @Test
+    void errorsOfARacedOptimisticReadAreRetriedUnderTheReadLock() {
+        final StoreLock lock = new StoreLock();
+        final AtomicInteger attempts = new AtomicInteger();
+
+        final String result =
+            lock.read(
+                () -> {
+                    if (attempts.incrementAndGet() == 1) {
+                        this.writeFromAnotherThread(lock);
+                        throw new StackOverflowError();
+                    }
+
+                    return "read";
+                });
+
+        assertEquals("read", result);
+        assertEquals(2, attempts.get());
+    }
+
+    @Test
+    void errorsOfAValidOptimisticReadAreRethrown() {
+        final StoreLock lock = new StoreLock();
+        final AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(
+            AssertionError.class,
+            () ->
+                lock.read(
+                    () -> {
+                        attempts.incrementAndGet();
+                        throw new AssertionError();
+                    }));
+        assertEquals(1, attempts.get());
+    }
+
+    private void writeFromAnotherThread(final StoreLock lock) {
+        final Thread writer = new Thread(() -> lock.write(() -> {}));
+        writer.start();
+
+        try {
+            writer.join();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
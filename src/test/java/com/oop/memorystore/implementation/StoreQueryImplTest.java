@@ -0,0 +1,187 @@
+package com.oop.memorystore.implementation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.oop.memorystore.api.Store;
+import com.oop.memorystore.implementation.expiring.ExpiringMemoryStore;
+import com.oop.memorystore.implementation.expiring.policy.ExpiringPolicy;
+import com.oop.memorystore.implementation.expiring.policy.ExpiringPolicy.ExpirationData;
+import com.oop.memorystore.implementation.index.IndexDefinition;
+import com.oop.memorystore.implementation.memory.MemoryStore;
+import com.oop.memorystore.implementation.query.Query;
+import com.oop.memorystore.implementation.query.QueryOperator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class StoreQueryImplTest {
+    private MemoryStore<Integer> store;
+
+    @BeforeEach
+    void setUp() {
+        this.store = new MemoryStore<>();
+        this.store.index("mod10", (Integer value) -> value % 10);
+        this.store.index("mod3", (Integer value) -> value % 3);
+        // every value is indexed under itself and its successor
+        this.store.index("pair", IndexDefinition.withKeyMappings((Integer value) -> Arrays.asList(value, value + 1)));
+
+        for (int value = 0; value < 100; value++) {
+            this.store.add(value);
+        }
+    }
+
+    @Test
+    void filtersCombineAsAnd() {
+        final Set<Integer> results = this.store.createQuery().filter("mod10", 5).filter("mod3", 0).collect(new HashSet<>());
+
+        assertEquals(new HashSet<>(Arrays.asList(15, 45, 75)), results);
+    }
+
+    @Test
+    void firstOperatorOnlyUsesTheFirstMatchingKey() {
+        final Set<Integer> results =
+            this.store.createQuery().filter("mod10", QueryOperator.FIRST, 42, 3, 4).collect(new HashSet<>());
+
+        assertEquals(this.store.get("mod10", 3).stream().collect(Collectors.toSet()), results);
+    }
+
+    @Test
+    void allOperatorUnionsKeysWithoutDuplicates() {
+        final List<Integer> results =
+            this.store.createQuery().filter("pair", QueryOperator.ALL, 10, 11, 12).collect(new ArrayList<>());
+
+        assertEquals(Arrays.asList(9, 10, 11, 12), results.stream().sorted().collect(Collectors.toList()));
+    }
+
+    @Test
+    void missingKeysMatchNothing() {
+        assertFalse(this.store.createQuery().filter("mod10", 42).first().isPresent());
+        assertFalse(this.store.createQuery().filter("mod10", QueryOperator.ALL, 42, 43).first().isPresent());
+        assertEquals(0, this.store.createQuery().filter("mod10", 1).filter("mod10", 2).asStream().count());
+    }
+
+    @Test
+    void firstReturnsAMatchingValue() {
+        final Optional<Integer> first = this.store.createQuery().filter("mod10", 7).filter("mod3", 1).first();
+
+        assertTrue(first.isPresent());
+        assertEquals(7, first.get() % 10);
+        assertEquals(1, first.get() % 3);
+    }
+
+    @Test
+    void storeCanBeModifiedWhileStreaming() {
+        this.store.createQuery().filter("mod10", 5).asStream().forEach(this.store::remove);
+        assertTrue(this.store.get("mod10", 5).isEmpty());
+
+        this.store.createQuery().filter("mod3", 0).asStream().forEach(this.store::remove);
+        assertTrue(this.store.get("mod3", 0).isEmpty());
+        assertEquals(59, this.store.size());
+    }
+
+    @Test
+    void synchronizedStoreCanBeModifiedWhileStreaming() {
+        final Store<Integer> store = this.store.synchronizedStore();
+        store.createQuery().filter("mod10", 5).filter("mod3", 0).asStream().forEach(store::remove);
+
+        assertEquals(0, store.createQuery().filter("mod10", 5).filter("mod3", 0).asStream().count());
+        assertEquals(97, store.size());
+    }
+
+    @Test
+    void unknownIndexIsRejected() {
+        assertThrows(IllegalStateException.class, () -> this.store.createQuery().filter("missing", 1));
+    }
+
+    @Test
+    void expiringGetOnlyAccessesReturnedValuesAndInvalidatesSkippedOnes() {
+        final CountingPolicy policy = new CountingPolicy();
+        final ExpiringMemoryStore<Integer> store = new ExpiringMemoryStore<>(policy);
+        store.index("mod2", (Integer value) -> value % 2);
+
+        for (int value = 0; value < 20; value++) {
+            store.add(value);
+        }
+
+        policy.expired.addAll(Arrays.asList(0, 2, 4));
+
+        final List<Integer> results = store.get(Query.where("mod2", 0), 3);
+        assertEquals(3, results.size());
+        assertTrue(results.stream().noneMatch(policy.expired::contains), results.toString());
+        assertEquals(3, policy.accesses.get());
+
+        // expired values met while looking up are removed once the lookup is done
+        assertEquals(7, store.get(Query.where("mod2", 0)).size());
+        assertEquals(17, store.size());
+        assertFalse(store.contains(0));
+    }
+
+    @Test
+    void expiringQueriesSkipExpiredValues() {
+        final CountingPolicy policy = new CountingPolicy();
+        final ExpiringMemoryStore<Integer> store = new ExpiringMemoryStore<>(policy);
+        store.index("mod2", (Integer value) -> value % 2);
+
+        for (int value = 0; value < 20; value++) {
+            store.add(value);
+        }
+
+        policy.expired.addAll(Arrays.asList(1, 3, 5));
+
+        final Set<Integer> results = store.createQuery().filter("mod2", 1).collect(new HashSet<>());
+        assertEquals(7, results.size());
+        assertFalse(results.contains(1));
+        assertFalse(store.contains(3));
+        assertEquals(17, store.size());
+    }
+
+    @Test
+    void expiringQueriesInvalidateExpiredValuesWhenStoppingEarly() {
+        final CountingPolicy policy = new CountingPolicy();
+        final ExpiringMemoryStore<Integer> store = new ExpiringMemoryStore<>(policy);
+        store.index("mod2", (Integer value) -> value % 2);
+
+        for (int value = 0; value < 20; value++) {
+            store.add(value);
+        }
+
+        policy.expired.addAll(Arrays.asList(1, 3, 5));
+        assertEquals(Optional.of(7), store.createQuery().filter("mod2", 1).first());
+        assertEquals(17, store.size());
+
+        policy.expired.addAll(Arrays.asList(0, 2));
+        assertEquals(Optional.of(4), store.createQuery().filter("mod2", 0).asStream().findFirst());
+        assertFalse(store.contains(0));
+        assertFalse(store.contains(2));
+    }
+
+    private static final class CountingPolicy implements ExpiringPolicy<Integer, ExpirationData> {
+        private final Set<Integer> expired = new HashSet<>();
+        private final AtomicInteger accesses = new AtomicInteger();
+
+        @Override
+        public String named() {
+            return "counting";
+        }
+
+        @Override
+        public boolean checkExpiration(final Integer value, final ExpirationData data) {
+            return this.expired.contains(value);
+        }
+
+        @Override
+        public void onAccess(final Integer value, final ExpirationData data) {
+            this.accesses.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.oop.memorystore.implementation.concurrent;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.oop.memorystore.api.BulkLoad;
+import com.oop.memorystore.api.Store;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.Test;
+
+class ConcurrentMemoryStoreTest {
+    private static final int THREADS = 8;
+
+    @Test
+    void concurrentWritersKeepIndexesConsistent() throws Exception {
+        final ConcurrentMemoryStore<Integer> store = new ConcurrentMemoryStore<>();
+        store.index("mod10", (Integer value) -> value % 10);
+
+        this.runConcurrently(thread -> {
+            for (int value = thread; value < 40_000; value += THREADS) {
+                store.add(value);
+            }
+
+            // every thread removes its own odd values again
+            for (int value = thread; value < 40_000; value += THREADS) {
+                if (value % 2 == 1) {
+                    store.remove(value);
+                }
+            }
+        });
+
+        assertEquals(20_000, store.size());
+        for (int key = 0; key < 10; key++) {
+            assertEquals(key % 2 == 0 ? 4000 : 0, store.get("mod10", key).size());
+        }
+    }
+
+    @Test
+    void writersOfTheSameValuesAreSerialised() throws Exception {
+        final ConcurrentMemoryStore<Integer> store = new ConcurrentMemoryStore<>();
+        store.index("value", (Integer value) -> value);
+
+        this.runConcurrently(thread -> {
+            for (int round = 0; round < 2000; round++) {
+                final int value = round % 50;
+                if ((round + thread) % 2 == 0) {
+                    store.add(value);
+                } else {
+                    store.remove(value);
+                }
+            }
+        });
+
+        // whatever survived is indexed exactly once, whatever was removed is not indexed
+        for (int value = 0; value < 50; value++) {
+            final boolean stored = store.contains(value);
+            assertEquals(stored ? 1 : 0, store.get("value", value).size(), "value " + value);
+        }
+    }
+
+    @Test
+    void readersNeverFailWhileWritersRun() throws Exception {
+        final ConcurrentMemoryStore<Integer> store = new ConcurrentMemoryStore<>();
+        store.index("mod10", (Integer value) -> value % 10);
+        final AtomicBoolean writing = new AtomicBoolean(true);
+        final ConcurrentLinkedQueue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+        try {
+            final List<Future<?>> readers = new ArrayList<>();
+            for (int reader = 0; reader < THREADS - 1; reader++) {
+                readers.add(executor.submit(() -> {
+                    while (writing.get()) {
+                        try {
+                            for (final Integer value : store.get("mod10", 3)) {
+                                assertEquals(3, value % 10);
+                            }
+
+                            store.forEach(value -> assertTrue(value >= 0));
+                        } catch (final Throwable e) {
+                            failures.add(e);
+                            return;
+                        }
+                    }
+                }));
+            }
+
+            for (int value = 0; value < 50_000; value++) {
+                store.add(value);
+                if (value % 3 == 0) {
+                    store.remove(value - 3);
+                }
+            }
+
+            writing.set(false);
+            for (final Future<?> reader : readers) {
+                reader.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            writing.set(false);
+            executor.shutdown();
+        }
+
+        assertTrue(failures.isEmpty(), String.valueOf(failures.peek()));
+    }
+
+    @Test
+    void structuralChangesWaitForWriters() throws Exception {
+        final ConcurrentMemoryStore<Integer> store = new ConcurrentMemoryStore<>();
+
+        this.runConcurrently(thread -> {
+            for (int value = thread; value < 20_000; value += THREADS) {
+                store.add(value);
+                if (thread == 0 && value % 2000 == 0) {
+                    store.index("mod" + value, (Integer item) -> item % 7);
+                }
+            }
+        });
+
+        // indexes created while writers ran hold every value
+        assertEquals(20_000, store.size());
+        final Store<Integer> copy = store.copy();
+        for (int value = 0; value < 20_000; value += 2000) {
+            int indexed = 0;
+            for (int key = 0; key < 7; key++) {
+                indexed += copy.get("mod" + value, key).size();
+            }
+
+            assertEquals(20_000, indexed, "mod" + value);
+        }
+    }
+
+    @Test
+    void iteratorRemovesFromIndexes() {
+        final ConcurrentMemoryStore<Integer> store = new ConcurrentMemoryStore<>(1, 2, 3, 4);
+        store.index("parity", (Integer value) -> value % 2);
+
+        final Iterator<Integer> iterator = store.iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next() % 2 == 0) {
+                iterator.remove();
+            }
+        }
+
+        assertEquals(2, store.size());
+        assertTrue(store.get("parity", 0).isEmpty());
+        assertFalse(store.contains(2));
+    }
+
+    @Test
+    void bulkLoadIndexesValuesAsTheyAreAdded() {
+        final ConcurrentMemoryStore<Integer> store = new ConcurrentMemoryStore<>();
+        store.index("parity", (Integer value) -> value % 2);
+
+        try (BulkLoad bulkLoad = store.bulkLoad(1000)) {
+            for (int value = 0; value < 1000; value++) {
+                store.add(value);
+            }
+
+            assertEquals(500, store.get("parity", 0).size());
+        }
+
+        assertEquals(1000, store.size());
+        assertEquals(500, store.get("parity", 1).size());
+    }
+
+    private void runConcurrently(final ThreadTask task) throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        final CountDownLatch start = new CountDownLatch(1);
+
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < THREADS; thread++) {
+                final int index = thread;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    task.run(index);
+                    return null;
+                }));
+            }
+
+            start.countDown();
+            for (final Future<?> future : futures) {
+                future.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @FunctionalInterface
+    private interface ThreadTask {
+        void run(int thread);
+    }
+}
@@ -0,0 +1,163 @@
+package com.oop.memorystore.implementation.expiring;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.oop.memorystore.implementation.expiring.policy.PredicateExpiringPolicy;
+import com.oop.memorystore.implementation.expiring.policy.TimedExpiringPolicy;
+import com.oop.memorystore.implementation.expiring.policy.TimedExpiringPolicy.TimedExpirationData;
+import com.oop.memorystore.implementation.stats.StoreMetrics;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import org.junit.jupiter.api.Test;
+
+class DefaultExpirationManagerTest {
+
+    @Test
+    void everyPolicyMustExpireAValue() {
+        final ManualTicker ticker = new ManualTicker(0);
+        final Set<Integer> flagged = new HashSet<>();
+        final Predicate<Integer> isFlagged = flagged::contains;
+        final ExpiringMemoryStore<Integer> store =
+            new ExpiringMemoryStore<>(
+                ticker,
+                TimedExpiringPolicy.create(10, TimeUnit.MILLISECONDS, false),
+                PredicateExpiringPolicy.create(isFlagged));
+        store.add(1);
+        store.add(2);
+
+        final DefaultExpirationManager<Integer> manager = store.getExpirationManager();
+        ticker.set(10);
+        assertFalse(manager.checkExpiration(1));
+
+        flagged.add(1);
+        assertTrue(manager.checkExpiration(1));
+        assertFalse(manager.checkExpiration(2));
+
+        ticker.set(9);
+        assertFalse(manager.checkExpiration(1));
+    }
+
+    @Test
+    void expirationDataIsKeptPerPolicySlot() {
+        final ManualTicker ticker = new ManualTicker(0);
+        final ExpiringMemoryStore<Integer> store =
+            new ExpiringMemoryStore<>(
+                ticker,
+                PredicateExpiringPolicy.<Integer>create(value -> true),
+                TimedExpiringPolicy.create(10, TimeUnit.MILLISECONDS, true));
+        store.add(1);
+
+        final DefaultExpirationManager<Integer> manager = store.getExpirationManager();
+        final TimedExpirationData data = manager.getExpirationData(1, TimedExpiringPolicy.class);
+        assertNotNull(data);
+        assertNull(manager.getExpirationData(1, PredicateExpiringPolicy.class));
+        assertNull(manager.getExpirationData(2, TimedExpiringPolicy.class));
+
+        // accesses reach the data of the slot, resetting the timed expiration
+        ticker.set(8);
+        manager.onAccess(1);
+        ticker.set(12);
+        assertFalse(manager.checkExpiration(1));
+        ticker.set(18);
+        assertTrue(manager.checkExpiration(1));
+    }
+
+    @Test
+    void readdedValuesStartWithFreshData() {
+        final ManualTicker ticker = new ManualTicker(0);
+        final ExpiringMemoryStore<Integer> store =
+            new ExpiringMemoryStore<>(ticker, TimedExpiringPolicy.create(10, TimeUnit.MILLISECONDS, false));
+        store.add(1);
+
+        ticker.set(5);
+        store.remove((Object) 1);
+        store.add(1);
+
+        ticker.set(12);
+        assertFalse(store.getExpirationManager().checkExpiration(1));
+        assertEquals(1, store.getExpirationManager().getScheduledCount());
+    }
+
+    @Test
+    void expirationsAreReportedToEveryPolicyAndListener() {
+        final List<String> events = new ArrayList<>();
+        final ExpiringMemoryStore<Integer> store =
+            new ExpiringMemoryStore<>(
+                new ManualTicker(0), new RecordingPolicy("first", events), new RecordingPolicy("second", events));
+        store.getExpirationManager().addGlobalExpireListener(value -> events.add("listener " + value));
+        store.setMetrics(
+            new StoreMetrics() {
+                @Override
+                public void onExpire(final String policyName) {
+                    events.add("metrics " + policyName);
+                }
+            });
+
+        store.add(1);
+        store.invalidate(1);
+
+        assertEquals(
+            Arrays.asList("listener 1", "first 1", "second 1", "metrics first", "metrics second"), events);
+        assertTrue(store.isEmpty());
+    }
+
+    @Test
+    void copiesExpireTheirValuesOnTheirOwn() {
+        final ManualTicker ticker = new ManualTicker(0);
+        final ExpiringMemoryStore<Integer> store =
+            new ExpiringMemoryStore<>(ticker, TimedExpiringPolicy.create(10, TimeUnit.MILLISECONDS, true));
+        store.index("value", (Integer value) -> value);
+        store.add(1);
+        store.add(2);
+
+        final ExpiringMemoryStore<Integer> copy = (ExpiringMemoryStore<Integer>) store.copy();
+        assertNotSame(store.getExpirationManager(), copy.getExpirationManager());
+        assertFalse(copy.getExpirationManager().requiresScan());
+        assertEquals(2, copy.getExpirationManager().getScheduledCount());
+
+        // accesses to the copy don't reset the expiration of the original
+        ticker.set(5);
+        assertEquals(1, copy.get("value", 1).size());
+
+        ticker.set(10);
+        store.invalidate();
+        copy.invalidate();
+        assertTrue(store.isEmpty());
+        assertEquals(1, copy.size());
+        assertTrue(copy.get("value", 2).isEmpty());
+
+        ticker.set(15);
+        copy.invalidate();
+        assertTrue(copy.isEmpty());
+    }
+
+    private static final class RecordingPolicy extends PredicateExpiringPolicy<Integer> {
+        private final String name;
+        private final List<String> events;
+
+        private RecordingPolicy(final String name, final List<String> events) {
+            this.name = name;
+            this.events = events;
+        }
+
+        @Override
+        public String named() {
+            return this.name;
+        }
+
+        @Override
+        public void onExpire(final Integer value) {
+            this.events.add(this.name + " " + value);
+        }
+    }
+}
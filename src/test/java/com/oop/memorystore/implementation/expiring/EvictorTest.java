@@ -0,0 +1,183 @@
+package com.oop.memorystore.implementation.expiring;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class EvictorTest {
+
+    @Test
+    void lruEvictsLeastRecentlyAccessed() {
+        final Simulation simulation = new Simulation(EvictionPolicy.LRU, 3);
+        simulation.add(1, 2, 3);
+        simulation.access(1);
+
+        assertEquals(2, simulation.add(4));
+        assertEquals(3, simulation.add(5));
+        assertEquals(1, simulation.add(6));
+    }
+
+    @Test
+    void lfuEvictsLeastFrequentlyAccessed() {
+        final Simulation simulation = new Simulation(EvictionPolicy.LFU, 3);
+        simulation.add(1, 2, 3);
+        simulation.access(1, 1, 2);
+
+        assertEquals(3, simulation.add(4));
+        // 4 was accessed as often as nothing else, ties evict the least recently added
+        assertEquals(4, simulation.add(5));
+
+        // a new value is accessed less often than every stored value
+        simulation.access(5, 5, 5);
+        assertEquals(6, simulation.add(6));
+    }
+
+    @Test
+    void lfuRemovesEmptyBuckets() {
+        final Simulation simulation = new Simulation(EvictionPolicy.LFU, 10);
+        simulation.add(1, 2);
+        simulation.access(1, 1, 2, 2, 2);
+        simulation.remove(1);
+
+        assertSame(simulation.references.get(2), simulation.evictor.victim());
+        simulation.remove(2);
+        assertNull(simulation.evictor.victim());
+    }
+
+    @Test
+    void windowTinyLfuKeepsFrequentValuesThroughScans() {
+        final Simulation simulation = new Simulation(EvictionPolicy.WINDOW_TINY_LFU, 100);
+
+        for (int value = 0; value < 100; value++) {
+            simulation.add(value);
+        }
+
+        for (int round = 0; round < 5; round++) {
+            for (int value = 0; value < 100; value++) {
+                simulation.access(value);
+            }
+        }
+
+        for (int value = 1000; value < 1100; value++) {
+            simulation.add(value);
+        }
+
+        int kept = 0;
+        for (int value = 0; value < 100; value++) {
+            if (simulation.references.containsKey(value)) {
+                kept++;
+            }
+        }
+
+        assertTrue(kept >= 95, "frequent values kept: " + kept);
+        assertEquals(100, simulation.evictor.getWeight());
+    }
+
+    @Test
+    void lruLosesFrequentValuesToScans() {
+        final Simulation simulation = new Simulation(EvictionPolicy.LRU, 100);
+
+        for (int value = 0; value < 100; value++) {
+            simulation.add(value);
+            simulation.access(value, value, value);
+        }
+
+        for (int value = 1000; value < 1100; value++) {
+            simulation.add(value);
+        }
+
+        for (int value = 0; value < 100; value++) {
+            assertFalse(simulation.references.containsKey(value));
+        }
+    }
+
+    @Test
+    void boundsByWeight() {
+        final Evictor<Integer> evictor = Evictor.create(EvictionPolicy.LRU, 10, (Integer value) -> value);
+        final ExpiringReference<Integer> heavy = new ExpiringReference<>(8);
+        final ExpiringReference<Integer> light = new ExpiringReference<>(3);
+
+        evictor.add(heavy);
+        assertFalse(evictor.isOverCapacity());
+        evictor.add(light);
+        assertTrue(evictor.isOverCapacity());
+        assertEquals(11, evictor.getWeight());
+
+        evictor.remove(evictor.victim());
+        assertEquals(3, evictor.getWeight());
+        assertSame(light, evictor.victim());
+
+        final ExpiringReference<Integer> negative = new ExpiringReference<>(-1);
+        assertThrows(IllegalArgumentException.class, () -> evictor.add(negative));
+    }
+
+    @Test
+    void ignoresReferencesTrackedElsewhere() {
+        for (final EvictionPolicy policy : EvictionPolicy.values()) {
+            final Evictor<Integer> evictor = Evictor.create(policy, 10, Weigher.singleton());
+            final ExpiringReference<Integer> untracked = new ExpiringReference<>(1);
+
+            evictor.access(untracked);
+            evictor.remove(untracked);
+
+            assertEquals(0, evictor.getWeight(), policy.name());
+            assertNull(evictor.victim(), policy.name());
+        }
+    }
+
+    /**
+     * Bounded store reduced to its evictor, evicting as soon as the maximum is exceeded
+     */
+    private static final class Simulation {
+        private final Evictor<Integer> evictor;
+        private final Map<Integer, ExpiringReference<Integer>> references = new HashMap<>();
+
+        Simulation(final EvictionPolicy policy, final long maximum) {
+            this.evictor = Evictor.create(policy, maximum, Weigher.singleton());
+        }
+
+        void add(final int... values) {
+            for (final int value : values) {
+                this.add(value);
+            }
+        }
+
+        /**
+         * @return evicted value or -1
+         */
+        int add(final int value) {
+            final ExpiringReference<Integer> reference = new ExpiringReference<>(value);
+            this.references.put(value, reference);
+            this.evictor.add(reference);
+
+            final List<Integer> evicted = new ArrayList<>();
+            while (this.evictor.isOverCapacity()) {
+                final ExpiringReference<Integer> victim = this.evictor.victim();
+                this.evictor.remove(victim);
+                this.references.remove(victim.get());
+                evicted.add(victim.get());
+            }
+
+            return evicted.isEmpty() ? -1 : evicted.get(0);
+        }
+
+        void access(final int... values) {
+            for (final int value : values) {
+                this.evictor.access(this.references.get(value));
+            }
+        }
+
+        void remove(final int value) {
+            this.evictor.remove(this.references.remove(value));
+        }
+    }
+}
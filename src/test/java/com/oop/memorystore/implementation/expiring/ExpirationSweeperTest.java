@@ -0,0 +1,152 @@
+package com.oop.memorystore.implementation.expiring;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.oop.memorystore.api.ExpiringStore;
+import com.oop.memorystore.implementation.expiring.policy.PredicateExpiringPolicy;
+import com.oop.memorystore.implementation.expiring.policy.TimedExpiringPolicy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import org.junit.jupiter.api.Test;
+
+class ExpirationSweeperTest {
+
+    @Test
+    void boundedInvalidationSpreadsScheduledExpirations() {
+        final ManualTicker ticker = new ManualTicker(0);
+        final ExpiringMemoryStore<Integer> store =
+            new ExpiringMemoryStore<>(ticker, TimedExpiringPolicy.create(10, TimeUnit.MILLISECONDS, false));
+        for (int value = 0; value < 100; value++) {
+            store.add(value);
+        }
+
+        assertEquals(0, store.invalidate(30, 1, TimeUnit.SECONDS));
+
+        ticker.advance(10, TimeUnit.MILLISECONDS);
+        final List<Integer> batches = new ArrayList<>();
+        int removed;
+        while ((removed = store.invalidate(30, 1, TimeUnit.SECONDS)) > 0) {
+            batches.add(removed);
+        }
+
+        assertEquals(Arrays.asList(30, 30, 30, 10), batches);
+        assertTrue(store.isEmpty());
+    }
+
+    @Test
+    void valuesRemovedOrAccessedMeanwhileAreNotInvalidated() {
+        final ManualTicker ticker = new ManualTicker(0);
+        final ExpiringMemoryStore<Integer> store =
+            new ExpiringMemoryStore<>(ticker, TimedExpiringPolicy.create(10, TimeUnit.MILLISECONDS, true));
+        store.index("value", (Integer value) -> value);
+        for (int value = 0; value < 10; value++) {
+            store.add(value);
+        }
+
+        ticker.advance(10, TimeUnit.MILLISECONDS);
+        // polls every expired value, only one is invalidated
+        assertEquals(1, store.invalidate(1, 1, TimeUnit.SECONDS));
+
+        store.remove((Object) store.iterator().next());
+        ticker.set(9);
+        store.getExpirationManager().onAccess(store.iterator().next());
+        ticker.set(10);
+
+        // the removed value is skipped, the accessed one rescheduled
+        assertEquals(7, store.invalidate(100, 1, TimeUnit.SECONDS));
+        assertEquals(1, store.size());
+
+        ticker.set(19);
+        assertEquals(1, store.invalidate(100, 1, TimeUnit.SECONDS));
+        assertTrue(store.isEmpty());
+    }
+
+    @Test
+    void unscheduledExpirationsAreScannedInBatches() {
+        final List<Integer> expired = new ArrayList<>();
+        final Predicate<Integer> isExpired = expired::contains;
+        final ExpiringMemoryStore<Integer> store = new ExpiringMemoryStore<>(PredicateExpiringPolicy.create(isExpired));
+        for (int value = 0; value < 100; value++) {
+            store.add(value);
+        }
+
+        assertTrue(store.getExpirationManager().requiresScan());
+        for (int value = 0; value < 100; value += 2) {
+            expired.add(value);
+        }
+
+        int removed = 0;
+        for (int batch = 0; batch < 4; batch++) {
+            final int batchRemoved = store.invalidate(25, 1, TimeUnit.SECONDS);
+            assertTrue(batchRemoved <= 25);
+            removed += batchRemoved;
+        }
+
+        assertEquals(50, removed);
+        assertEquals(50, store.size());
+        assertTrue(store.stream().allMatch(value -> value % 2 == 1));
+    }
+
+    @Test
+    void sweeperInvalidatesInTheBackground() throws Exception {
+        final ManualTicker ticker = new ManualTicker(0);
+        final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+        final ConcurrentLinkedQueue<Integer> sweeps = new ConcurrentLinkedQueue<>();
+
+        try {
+            final ExpiringStore<Integer> store =
+                ExpiringMemoryStore.newStore(ticker, TimedExpiringPolicy.<Integer>create(10, TimeUnit.MILLISECONDS, false))
+                    .withSweeper(executor, 1, TimeUnit.MILLISECONDS)
+                    .withSweepBudget(10, 1, TimeUnit.SECONDS)
+                    .withSweepListener(sweeps::add)
+                    .build();
+
+            assertTrue(store instanceof ConcurrentReadExpiringStore);
+            assertTrue(store.getSweeper().isPresent());
+
+            for (int value = 0; value < 50; value++) {
+                store.add(value);
+            }
+
+            ticker.advance(10, TimeUnit.MILLISECONDS);
+            final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (!store.isEmpty() && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+
+            assertTrue(store.isEmpty());
+            assertTrue(sweeps.stream().allMatch(removed -> removed <= 10), sweeps.toString());
+            assertEquals(50, sweeps.stream().mapToInt(Integer::intValue).sum());
+
+            store.getSweeper().get().close();
+            assertFalse(executor.isShutdown());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void closedSweeperStillSweepsOnDemand() {
+        final ManualTicker ticker = new ManualTicker(0);
+        final ExpiringStore<Integer> store =
+            ExpiringMemoryStore.newStore(ticker, TimedExpiringPolicy.<Integer>create(1, TimeUnit.MINUTES, false))
+                .withSweeper(1, TimeUnit.MINUTES)
+                .withValues(1, 2, 3)
+                .build();
+
+        final ExpirationSweeper<Integer> sweeper = store.getSweeper().get();
+        sweeper.close();
+
+        ticker.advance(1, TimeUnit.MINUTES);
+        assertEquals(3, sweeper.sweep());
+        assertTrue(store.isEmpty());
+    }
+}
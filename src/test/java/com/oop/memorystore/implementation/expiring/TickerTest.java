@@ -0,0 +1,84 @@
+package com.oop.memorystore.implementation.expiring;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.oop.memorystore.implementation.expiring.policy.TimedExpiringPolicy;
+import com.oop.memorystore.implementation.query.Query;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class TickerTest {
+
+    @Test
+    void manualTickerOnlyMovesWhenTold() {
+        final ManualTicker ticker = new ManualTicker(5);
+        assertEquals(5, ticker.read());
+
+        ticker.advance(2, TimeUnit.SECONDS);
+        assertEquals(2005, ticker.read());
+
+        ticker.set(1);
+        assertEquals(1, ticker.read());
+    }
+
+    @Test
+    void coarseTickerFollowsTheSystemClock() throws Exception {
+        try (final CoarseTicker ticker = Ticker.coarse(1, TimeUnit.MILLISECONDS)) {
+            final long start = ticker.read();
+            assertTrue(Math.abs(System.currentTimeMillis() - start) < 1000);
+
+            final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (ticker.read() == start && System.nanoTime() < deadline) {
+                Thread.sleep(2);
+            }
+
+            assertTrue(ticker.read() > start);
+        }
+    }
+
+    @Test
+    void storesReadTheTimeOncePerBatchAndLookup() {
+        final AtomicInteger reads = new AtomicInteger();
+        final Ticker ticker = () -> {
+            reads.incrementAndGet();
+            return 0;
+        };
+
+        final ExpiringMemoryStore<Integer> store =
+            new ExpiringMemoryStore<>(ticker, TimedExpiringPolicy.create(10, TimeUnit.MILLISECONDS, true));
+        store.index("mod2", (Integer value) -> value % 2);
+
+        final List<Integer> values = new ArrayList<>();
+        for (int value = 0; value < 100; value++) {
+            values.add(value);
+        }
+
+        reads.set(0);
+        store.addAll(values);
+        assertEquals(1, reads.get());
+
+        reads.set(0);
+        assertEquals(50, store.get(Query.where("mod2", 0)).size());
+        assertEquals(1, reads.get());
+    }
+
+    @Test
+    void expirationFollowsTheTicker() {
+        final ManualTicker ticker = new ManualTicker(1_000);
+        final ExpiringMemoryStore<Integer> store =
+            new ExpiringMemoryStore<>(ticker, TimedExpiringPolicy.create(1, TimeUnit.SECONDS, false));
+        store.index("value", (Integer value) -> value);
+        store.add(1);
+
+        ticker.set(1_999);
+        assertEquals(1, store.get("value", 1).size());
+
+        ticker.set(2_000);
+        assertTrue(store.get("value", 1).isEmpty());
+        assertTrue(store.isEmpty());
+    }
+}
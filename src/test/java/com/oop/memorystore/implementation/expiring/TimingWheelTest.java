@@ -0,0 +1,139 @@
+package com.oop.memorystore.implementation.expiring;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class TimingWheelTest {
+    private static final long TICK = 10;
+
+    private final TimingWheel<Long> wheel = new TimingWheel<>(TICK, 0);
+    private final List<Long> expired = new ArrayList<>();
+    private long now;
+
+    @Test
+    void expiresReferencesOnceTheirDeadlinePassed() {
+        final ExpiringReference<Long> reference = this.schedule(25);
+
+        this.advance(20);
+        assertTrue(this.expired.isEmpty());
+
+        this.advance(30);
+        assertEquals(25L, (long) this.expired.get(0));
+        assertEquals(0, this.wheel.size());
+        assertNull(reference.wheel);
+    }
+
+    @Test
+    void expiresEveryDeadlineAcrossLevelsInOrder() {
+        final Random random = new Random(42);
+        final List<Long> deadlines = new ArrayList<>();
+
+        for (int i = 0; i < 5000; i++) {
+            final long deadline = 1 + (long) (random.nextDouble() * random.nextDouble() * 50_000_000L);
+            deadlines.add(deadline);
+            this.schedule(deadline);
+        }
+
+        assertEquals(5000, this.wheel.size());
+
+        // advance in uneven steps, every reference must be expired in the step its deadline passed
+        while (this.wheel.size() > 0) {
+            final long previous = this.now;
+            this.expired.clear();
+            this.advance(this.now + 1 + random.nextInt(100_000));
+
+            for (final long deadline : this.expired) {
+                assertTrue(deadline <= this.now && deadline > previous - TICK, deadline + " expired at " + this.now);
+            }
+        }
+    }
+
+    @Test
+    void handlesJumpsPastTheWholeWheel() {
+        this.schedule(5);
+        this.schedule(1L << 40);
+
+        this.advance(1L << 41);
+
+        assertEquals(2, this.expired.size());
+        assertEquals(0, this.wheel.size());
+    }
+
+    @Test
+    void rescheduleReplacesDeadline() {
+        final ExpiringReference<Long> reference = this.schedule(1000);
+        this.wheel.schedule(reference, 100);
+
+        assertEquals(1, this.wheel.size());
+        this.advance(100);
+        assertEquals(1, this.expired.size());
+    }
+
+    @Test
+    void movingDeadlineBackIsCheckedWhenSlotComesUp() {
+        final ExpiringReference<Long> reference = this.schedule(100);
+        reference.deadline = 500;
+
+        this.advance(200);
+        assertTrue(this.expired.isEmpty());
+        assertEquals(1, this.wheel.size());
+
+        this.advance(500);
+        assertEquals(1, this.expired.size());
+    }
+
+    @Test
+    void expirerCanRescheduleReference() {
+        this.schedule(50);
+        final List<Long> seen = new ArrayList<>();
+
+        this.wheel.advance(60, reference -> {
+            seen.add(reference.deadline);
+            return 200;
+        });
+        this.wheel.advance(210, reference -> {
+            seen.add(reference.deadline);
+            return -1;
+        });
+
+        assertEquals(2, seen.size());
+        assertEquals(200L, (long) seen.get(1));
+        assertEquals(0, this.wheel.size());
+    }
+
+    @Test
+    void removedAndClearedReferencesNeverExpire() {
+        final ExpiringReference<Long> removed = this.schedule(100);
+        this.schedule(200);
+
+        this.wheel.remove(removed);
+        this.wheel.remove(removed);
+        assertEquals(1, this.wheel.size());
+
+        this.wheel.clear();
+        assertEquals(0, this.wheel.size());
+
+        this.advance(1000);
+        assertTrue(this.expired.isEmpty());
+    }
+
+    private ExpiringReference<Long> schedule(final long deadline) {
+        final ExpiringReference<Long> reference = new ExpiringReference<>(deadline);
+        this.wheel.schedule(reference, deadline);
+        return reference;
+    }
+
+    private void advance(final long time) {
+        this.now = time;
+        this.wheel.advance(time, reference -> {
+            this.expired.add(reference.get());
+            return -1;
+        });
+    }
+}
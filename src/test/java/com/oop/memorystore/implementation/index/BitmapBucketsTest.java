@@ -0,0 +1,71 @@
+package com.oop.memorystore.implementation.index;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.oop.memorystore.implementation.memory.MemoryStore;
+import com.oop.memorystore.implementation.query.Query;
+import com.oop.memorystore.implementation.query.Range;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class BitmapBucketsTest {
+
+  @Test
+  void bitmapQueriesMatchHashSetQueries() {
+    final MemoryStore<Integer> bitmaps = create(true);
+    final MemoryStore<Integer> sets = create(false);
+
+    for (int value = 0; value < 20_000; value++) {
+      bitmaps.add(value);
+      sets.add(value);
+    }
+
+    assertSameResults(bitmaps, sets);
+
+    // removed ids are reused by the values added next
+    for (int value = 0; value < 20_000; value += 3) {
+      bitmaps.remove(value);
+      sets.remove(value);
+    }
+
+    for (int value = 20_000; value < 25_000; value++) {
+      bitmaps.add(value);
+      sets.add(value);
+    }
+
+    assertSameResults(bitmaps, sets);
+
+    // a copy keeps the ids of the original
+    assertSameResults((MemoryStore<Integer>) bitmaps.copy(), sets);
+  }
+
+  private static void assertSameResults(final MemoryStore<Integer> bitmaps, final MemoryStore<Integer> sets) {
+    for (int key = 0; key < 7; key++) {
+      final Query and = Query.where("mod7", key).and("mod3", key % 3).and("range", Range.between(2, 8));
+      assertEquals(toSet(sets.get(and)), toSet(bitmaps.get(and)), and.toString());
+
+      final Query or = Query.where("mod7", key).or("mod3", key % 3);
+      assertEquals(toSet(sets.get(or)), toSet(bitmaps.get(or)), or.toString());
+    }
+  }
+
+  private static MemoryStore<Integer> create(final boolean bitmapBuckets) {
+    final MemoryStore<Integer> store = new MemoryStore<>();
+    final IndexDefinition<Integer, Integer> mod7 = IndexDefinition.withKeyMapping((Integer value) -> value % 7);
+    final IntIndexDefinition<Integer> mod3 = IntIndexDefinition.withIntKeyMapping((Integer value) -> value % 3);
+    final SortedIndexDefinition<Integer, Integer> range =
+        SortedIndexDefinition.withKeyMapping((Integer value) -> value % 11, Comparator.naturalOrder());
+
+    store.index("mod7", bitmapBuckets ? mod7.withBitmapBuckets() : mod7);
+    store.index("mod3", bitmapBuckets ? mod3.withBitmapBuckets() : mod3);
+    store.index("range", bitmapBuckets ? range.withBitmapBuckets() : range);
+    return store;
+  }
+
+  private static Set<Integer> toSet(final List<Integer> values) {
+    return new HashSet<>(values);
+  }
+}
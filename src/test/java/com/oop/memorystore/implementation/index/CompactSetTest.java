@@ -0,0 +1,143 @@
+package com.oop.memorystore.implementation.index;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class CompactSetTest {
+
+  @Test
+  void matchesLinkedHashSetAcrossRepresentations() {
+    final Random random = new Random(7);
+    final Set<Integer> expected = new LinkedHashSet<>();
+    final Set<Integer> set = new CompactSet<>();
+
+    for (int operation = 0; operation < 20_000; operation++) {
+      // a small key range keeps the size moving around the array capacity
+      final Integer element = random.nextInt(CompactSet.ARRAY_CAPACITY * 2 + 2);
+
+      if (random.nextBoolean()) {
+        assertEquals(expected.add(element), set.add(element));
+      } else {
+        assertEquals(expected.remove(element), set.remove(element));
+      }
+
+      assertEquals(expected.size(), set.size());
+      assertEquals(new ArrayList<>(expected), new ArrayList<>(set));
+      assertEquals(expected.contains(element), set.contains(element));
+    }
+  }
+
+  @Test
+  void keepsInsertionOrderWhenGrowingAndShrinking() {
+    final Set<Integer> set = new CompactSet<>();
+    final List<Integer> expected = new ArrayList<>();
+
+    for (int element = 0; element <= CompactSet.ARRAY_CAPACITY; element++) {
+      set.add(element);
+      expected.add(element);
+      assertEquals(expected, new ArrayList<>(set));
+    }
+
+    // back below half the array capacity the set returns to the array
+    for (int element = 0; element <= CompactSet.ARRAY_CAPACITY - CompactSet.ARRAY_CAPACITY / 2; element++) {
+      set.remove(element);
+      expected.remove(Integer.valueOf(element));
+      assertEquals(expected, new ArrayList<>(set));
+    }
+
+    set.add(100);
+    expected.add(100);
+    assertEquals(expected, new ArrayList<>(set));
+  }
+
+  @Test
+  void singleElement() {
+    final Set<String> set = new CompactSet<>();
+    assertTrue(set.isEmpty());
+    assertFalse(set.contains("a"));
+    assertFalse(set.remove("a"));
+
+    assertTrue(set.add("a"));
+    assertFalse(set.add("a"));
+    assertEquals(1, set.size());
+    assertTrue(set.contains("a"));
+    assertFalse(set.contains("b"));
+    assertFalse(set.remove("b"));
+
+    assertTrue(set.remove("a"));
+    assertTrue(set.isEmpty());
+  }
+
+  @Test
+  void iteratorRemovesInEveryRepresentation() {
+    for (final int size : new int[] {1, 2, CompactSet.ARRAY_CAPACITY, CompactSet.ARRAY_CAPACITY + 1, 20}) {
+      final Set<Integer> set = new CompactSet<>();
+      final Set<Integer> expected = new LinkedHashSet<>();
+      for (int element = 0; element < size; element++) {
+        set.add(element);
+        expected.add(element);
+      }
+
+      final Iterator<Integer> iterator = set.iterator();
+      assertThrows(IllegalStateException.class, iterator::remove);
+
+      while (iterator.hasNext()) {
+        final Integer element = iterator.next();
+        if (element % 2 == 0) {
+          iterator.remove();
+          expected.remove(element);
+        }
+      }
+
+      assertThrows(NoSuchElementException.class, iterator::next);
+      assertEquals(new ArrayList<>(expected), new ArrayList<>(set), "size " + size);
+      assertEquals(expected.size(), set.size());
+    }
+  }
+
+  @Test
+  void copiesAndClears() {
+    final List<Integer> elements = Arrays.asList(3, 1, 2, 1, 3);
+    final Set<Integer> set = new CompactSet<>(elements);
+    assertEquals(Arrays.asList(3, 1, 2), new ArrayList<>(set));
+    assertEquals(new LinkedHashSet<>(elements), set);
+
+    set.clear();
+    assertTrue(set.isEmpty());
+    assertFalse(set.iterator().hasNext());
+
+    set.add(5);
+    assertEquals(Arrays.asList(5), new ArrayList<>(set));
+  }
+
+  @Test
+  void estimatedSizeGrowsWithRepresentation() {
+    final CompactSet<Integer> set = new CompactSet<>();
+    set.add(0);
+    final long single = CompactSet.sizeInBytes(set);
+
+    set.add(1);
+    final long array = CompactSet.sizeInBytes(set);
+
+    for (int element = 2; element <= CompactSet.ARRAY_CAPACITY; element++) {
+      set.add(element);
+    }
+    final long hashed = CompactSet.sizeInBytes(set);
+
+    assertTrue(single < array);
+    assertTrue(array < hashed);
+    assertTrue(single < CompactSet.sizeInBytes(new LinkedHashSet<>(Arrays.asList(0))));
+  }
+}
@@ -0,0 +1,138 @@
+package com.oop.memorystore.implementation.index;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.oop.memorystore.implementation.memory.MemoryStore;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class ParallelIndexingTest {
+
+  @Test
+  void largeBatchesIndexEveryIndexInItsOwnTask() {
+    final CountingExecutor executor = new CountingExecutor();
+    final Set<Thread> threads = ConcurrentHashMap.newKeySet();
+    final MemoryStore<Integer> store =
+        MemoryStore.<Integer>newStore()
+            .withParallelIndexing(executor)
+            .withIndex("mod10", (Integer value) -> value % 10)
+            .withIndex("mod7", (Integer value) -> value % 7)
+            .withIndex(
+                "thread",
+                (Integer value) -> {
+                  threads.add(Thread.currentThread());
+                  return 0;
+                })
+            .build();
+
+    store.addAll(values(5000));
+
+    assertEquals(3, executor.tasks.get());
+    assertEquals(1, threads.size());
+    assertEquals(500, store.get("mod10", 3).size());
+    assertEquals(5000 / 7 + 1, store.get("mod7", 0).size());
+    assertEquals(5000, store.get("thread", 0).size());
+  }
+
+  @Test
+  void smallBatchesStayOnTheCallingThread() {
+    final CountingExecutor executor = new CountingExecutor();
+    final MemoryStore<Integer> store =
+        MemoryStore.<Integer>newStore()
+            .withParallelIndexing(executor)
+            .withIndex("mod10", (Integer value) -> value % 10)
+            .withIndex("mod7", (Integer value) -> value % 7)
+            .build();
+
+    store.addAll(values(100));
+    store.add(100);
+
+    assertEquals(0, executor.tasks.get());
+    assertEquals(10, store.get("mod10", 3).size());
+  }
+
+  @Test
+  void parallelReindexMatchesSequentialReindex() {
+    final MemoryStore<Integer> parallel =
+        MemoryStore.<Integer>newStore()
+            .withParallelIndexing()
+            .withIndex("mod10", (Integer value) -> value % 10)
+            .withIndex("mod7", (Integer value) -> value % 7)
+            .build();
+    final MemoryStore<Integer> sequential =
+        MemoryStore.<Integer>newStore()
+            .withIndex("mod10", (Integer value) -> value % 10)
+            .withIndex("mod7", (Integer value) -> value % 7)
+            .build();
+
+    parallel.addAll(values(3000));
+    sequential.addAll(values(3000));
+    parallel.reindex();
+    sequential.reindex();
+
+    for (int key = 0; key < 10; key++) {
+      assertEquals(new HashSet<>(sequential.get("mod10", key)), new HashSet<>(parallel.get("mod10", key)));
+    }
+
+    for (int key = 0; key < 7; key++) {
+      assertEquals(new HashSet<>(sequential.get("mod7", key)), new HashSet<>(parallel.get("mod7", key)));
+    }
+  }
+
+  @Test
+  void exceptionsOfEveryTaskAreAggregated() {
+    final MemoryStore<Integer> store =
+        MemoryStore.<Integer>newStore()
+            .withParallelIndexing(ForkJoinPool.commonPool())
+            .withIndex(
+                "first",
+                (Integer value) -> {
+                  if (value == 10) {
+                    throw new IllegalArgumentException("first");
+                  }
+
+                  return value;
+                })
+            .withIndex(
+                "second",
+                (Integer value) -> {
+                  if (value % 1000 == 0) {
+                    throw new IllegalArgumentException("second");
+                  }
+
+                  return value;
+                })
+            .build();
+
+    final IndexException exception = assertThrows(IndexException.class, () -> store.addAll(values(5000)));
+    assertEquals(6, exception.getSuppressed().length);
+    assertEquals(5000, store.size());
+  }
+
+  private static List<Integer> values(final int count) {
+    final List<Integer> values = new ArrayList<>(count);
+    for (int value = 0; value < count; value++) {
+      values.add(value);
+    }
+
+    return values;
+  }
+
+  private static final class CountingExecutor implements Executor {
+    private final AtomicInteger tasks = new AtomicInteger();
+
+    @Override
+    public void execute(final Runnable command) {
+      this.tasks.incrementAndGet();
+      ForkJoinPool.commonPool().execute(command);
+    }
+  }
+}
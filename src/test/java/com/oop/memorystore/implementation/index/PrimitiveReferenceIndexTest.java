@@ -0,0 +1,173 @@
+package com.oop.memorystore.implementation.index;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.oop.memorystore.implementation.index.comparison.DefaultComparisonPolicy;
+import com.oop.memorystore.implementation.memory.MemoryStore;
+import com.oop.memorystore.implementation.query.Query;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class PrimitiveReferenceIndexTest {
+
+  @Test
+  void intIndexAcceptsPrimitiveAndBoxedKeys() {
+    final MemoryStore<Integer> store = new MemoryStore<>();
+    final IntIndex<Integer> index =
+        (IntIndex<Integer>) store.index("mod10", IntIndexDefinition.withIntKeyMapping((Integer value) -> value % 10));
+
+    for (int value = 0; value < 100; value++) {
+      store.add(value);
+    }
+
+    assertEquals(10, index.get(3).size());
+    assertEquals(new HashSet<>(index.get(3)), new HashSet<>(store.get("mod10", 3)));
+    assertEquals(10, store.get("mod10", 3L).size());
+    assertEquals(10, store.get("mod10", (short) 3).size());
+    assertEquals(10, store.get(Query.where("mod10", (byte) 3)).size());
+
+    // keys which can't be an int key match nothing
+    assertTrue(store.get("mod10", 3L + (1L << 32)).isEmpty());
+    assertTrue(store.get("mod10", "3").isEmpty());
+    assertTrue(index.get(42).isEmpty());
+    assertNull(index.getFirst(42));
+  }
+
+  @Test
+  void longIndexKeepsWideKeysApart() {
+    final MemoryStore<Long> store = new MemoryStore<>();
+    final LongIndex<Long> index =
+        (LongIndex<Long>) store.index("value", LongIndexDefinition.withLongKeyMapping((Long value) -> value));
+
+    store.add(1L);
+    store.add(1L + (1L << 32));
+    store.add(-1L);
+
+    assertEquals(Arrays.asList(1L), index.get(1L));
+    assertEquals(Arrays.asList(1L + (1L << 32)), index.get(1L + (1L << 32)));
+    assertEquals(Arrays.asList(-1L), store.get("value", -1));
+    assertEquals(1L, (long) index.getFirst(1L));
+  }
+
+  @Test
+  void reindexMovesValuesBetweenKeys() {
+    final MemoryStore<Entry> store = new MemoryStore<>();
+    final IntIndex<Entry> index =
+        (IntIndex<Entry>) store.index("key", IntIndexDefinition.withIntKeyMapping((Entry entry) -> entry.key));
+
+    final Entry entry = new Entry(1);
+    store.add(entry);
+    store.add(new Entry(1));
+
+    entry.key = 2;
+    store.reindex(entry);
+
+    assertEquals(1, index.get(1).size());
+    assertEquals(Arrays.asList(entry), index.get(2));
+
+    store.remove(entry);
+    assertTrue(index.get(2).isEmpty());
+    assertEquals(1, index.get(1).size());
+  }
+
+  @Test
+  void copiesAreIndependent() {
+    final MemoryStore<Integer> store = new MemoryStore<>(1, 2, 3);
+    store.index("value", IntIndexDefinition.withIntKeyMapping((Integer value) -> value));
+
+    final MemoryStore<Integer> copy = (MemoryStore<Integer>) store.copy();
+    copy.remove(2);
+
+    assertEquals(Arrays.asList(2), store.get("value", 2));
+    assertTrue(copy.get("value", 2).isEmpty());
+  }
+
+  @Test
+  void comparisonPoliciesAreRejected() {
+    assertThrows(
+        UnsupportedOperationException.class,
+        () -> IntIndexDefinition.withIntKeyMapping((Integer value) -> value)
+            .withComparisonPolicy(new DefaultComparisonPolicy<>()));
+  }
+
+  @Test
+  void longObjectMapMatchesHashMap() {
+    final LongObjectHashMap<Long> map = new LongObjectHashMap<>();
+    final Map<Long, Long> expected = new HashMap<>();
+    final Random random = new Random(5);
+
+    for (int operation = 0; operation < 50_000; operation++) {
+      // few distinct keys so removals shift colliding entries back
+      final long key = random.nextInt(500) * 1_000_003L;
+
+      if (random.nextBoolean()) {
+        assertEquals(expected.put(key, key), map.put(key, key));
+      } else {
+        assertEquals(expected.remove(key), map.remove(key));
+      }
+
+      assertEquals(expected.size(), map.size());
+    }
+
+    for (final Map.Entry<Long, Long> entry : expected.entrySet()) {
+      assertEquals(entry.getValue(), map.get(entry.getKey()));
+    }
+
+    final Map<Long, Long> iterated = new HashMap<>();
+    map.forEach(iterated::put);
+    assertEquals(expected, iterated);
+  }
+
+  @Test
+  void objectLongIdentityMapMatchesIdentityHashMap() {
+    final ObjectLongIdentityHashMap<Object> map = new ObjectLongIdentityHashMap<>();
+    final Map<Object, Long> expected = new IdentityHashMap<>();
+    final Object[] keys = new Object[300];
+    for (int key = 0; key < keys.length; key++) {
+      keys[key] = new Object();
+    }
+
+    final Random random = new Random(9);
+    for (int operation = 0; operation < 50_000; operation++) {
+      final Object key = keys[random.nextInt(keys.length)];
+
+      if (random.nextBoolean()) {
+        final long value = random.nextLong();
+        map.put(key, value);
+        expected.put(key, value);
+      } else {
+        assertEquals(expected.remove(key) != null, map.remove(key));
+      }
+
+      assertEquals(expected.size(), map.size());
+    }
+
+    for (final Object key : keys) {
+      assertEquals(expected.containsKey(key), map.containsKey(key));
+      if (expected.containsKey(key)) {
+        assertEquals((long) expected.get(key), map.get(key, 0L));
+      }
+    }
+
+    map.clear();
+    assertFalse(map.containsKey(keys[0]));
+    assertEquals(0, map.size());
+  }
+
+  private static final class Entry {
+    private int key;
+
+    private Entry(final int key) {
+      this.key = key;
+    }
+  }
+}
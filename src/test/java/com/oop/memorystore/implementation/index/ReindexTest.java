@@ -0,0 +1,136 @@
+package com.oop.memorystore.implementation.index;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.oop.memorystore.api.Store;
+import com.oop.memorystore.implementation.index.reducer.MaxReducer;
+import com.oop.memorystore.implementation.memory.MemoryStore;
+import com.oop.memorystore.implementation.reference.Reference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class ReindexTest {
+
+  @Test
+  void reindexMovesReferencesOnlyBetweenChangedKeys() {
+    final AtomicInteger mapped = new AtomicInteger();
+    final MemoryStore<Entry> store = new MemoryStore<>();
+    store.index(
+        "tags",
+        IndexDefinition.withKeyMappings(
+            (Entry entry) -> {
+              mapped.incrementAndGet();
+              return entry.tags;
+            }));
+
+    final Entry entry = new Entry(0, "a", "b");
+    final Entry other = new Entry(0, "b");
+    store.add(entry);
+    store.add(other);
+
+    entry.tags = Arrays.asList("b", "c");
+    mapped.set(0);
+    store.reindex(entry);
+
+    assertEquals(1, mapped.get());
+    assertTrue(store.get("tags", "a").isEmpty());
+    assertEquals(new HashSet<>(Arrays.asList(entry, other)), new HashSet<>(store.get("tags", "b")));
+    assertEquals(Collections.singletonList(entry), store.get("tags", "c"));
+
+    final ReferenceIndex<?, Entry> index = store.getIndexManager().getIndex("tags");
+    assertEquals(
+        new HashSet<>(Arrays.asList("b", "c")), index.getKeys(index.getReferences("c").iterator().next()));
+  }
+
+  @Test
+  void reindexWithoutChangesKeepsBuckets() {
+    final MemoryStore<Entry> store = new MemoryStore<>();
+    store.index("tags", IndexDefinition.withKeyMappings((Entry entry) -> entry.tags));
+
+    final List<Entry> entries = new ArrayList<>();
+    for (int score = 0; score < 10; score++) {
+      entries.add(new Entry(score, "a"));
+    }
+
+    store.addAll(entries);
+    store.reindex();
+
+    assertEquals(new HashSet<>(entries), new HashSet<>(store.get("tags", "a")));
+  }
+
+  @Test
+  void reducersSeeReferencesStayingUnderTheirKey() {
+    final MemoryStore<Entry> store = new MemoryStore<>();
+    store.index("tag", (Entry entry) -> entry.tags.get(0), new MaxReducer<>((Entry entry) -> entry.score, false));
+
+    final Entry low = new Entry(1, "a");
+    final Entry high = new Entry(2, "a");
+    store.add(low);
+    store.add(high);
+    assertEquals(Collections.singletonList(high), store.get("tag", "a"));
+
+    // the key is unchanged but the reduced result depends on the score
+    low.score = 3;
+    store.reindex(low);
+    assertEquals(Collections.singletonList(low), store.get("tag", "a"));
+  }
+
+  @Test
+  void primitiveIndexesSkipUnchangedKeys() {
+    final AtomicInteger mapped = new AtomicInteger();
+    final MemoryStore<Entry> store = new MemoryStore<>();
+    final IntIndex<Entry> index =
+        (IntIndex<Entry>) store.index(
+            "score",
+            IntIndexDefinition.withIntKeyMapping(
+                (Entry entry) -> {
+                  mapped.incrementAndGet();
+                  return entry.score;
+                }));
+
+    final Entry entry = new Entry(1, "a");
+    store.add(entry);
+    mapped.set(0);
+
+    store.reindex(entry);
+    assertEquals(1, mapped.get());
+    assertEquals(Collections.singletonList(entry), index.get(1));
+
+    entry.score = 2;
+    store.reindex(entry);
+    assertTrue(index.get(1).isEmpty());
+    assertEquals(Collections.singletonList(entry), index.get(2));
+  }
+
+  @Test
+  void restoringKeysLeavesCopiesUntouched() {
+    final MemoryStore<Entry> store = new MemoryStore<>();
+    store.index("tags", IndexDefinition.withKeyMappings((Entry entry) -> entry.tags));
+    store.add(new Entry(0, "a", "b"));
+    final Store<Entry> copy = store.copy();
+
+    final ReferenceIndex<?, Entry> index = store.getIndexManager().getIndex("tags");
+    final Reference<Entry> reference = index.getReferences("a").iterator().next();
+    index.restore("c", Collections.singletonList(reference));
+
+    assertEquals(new HashSet<>(Arrays.asList("a", "b", "c")), index.getKeys(reference));
+    assertEquals(
+        new HashSet<>(Arrays.asList("a", "b")), copy.getIndexManager().getIndex("tags").getKeys(reference));
+  }
+
+  private static final class Entry {
+    private int score;
+    private List<String> tags;
+
+    private Entry(final int score, final String... tags) {
+      this.score = score;
+      this.tags = Arrays.asList(tags);
+    }
+  }
+}
@@ -0,0 +1,144 @@
+package com.oop.memorystore.implementation.index;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.oop.memorystore.implementation.memory.MemoryStore;
+import com.oop.memorystore.implementation.query.Query;
+import com.oop.memorystore.implementation.query.Range;
+import com.oop.memorystore.implementation.query.plan.QueryPlan;
+import com.oop.memorystore.implementation.query.plan.QueryPlanner;
+import com.oop.memorystore.implementation.reference.Reference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SortedReferenceIndexTest {
+  private MemoryStore<Integer> store;
+  private SortedReferenceIndex<Integer, Integer> index;
+
+  @BeforeEach
+  @SuppressWarnings("unchecked")
+  void setUp() {
+    this.store = new MemoryStore<>();
+    this.store.index("value", SortedIndexDefinition.withKeyMapping((Integer value) -> value, Comparator.naturalOrder()));
+    this.store.index("parity", (Integer value) -> value % 2);
+
+    for (int value = 0; value < 100; value++) {
+      this.store.add(value);
+    }
+
+    this.index = (SortedReferenceIndex<Integer, Integer>) this.store.getIndexManager().getIndex("value");
+  }
+
+  @Test
+  void rangesOnUnsortedIndexesAreRejected() {
+    this.store.index("int", IntIndexDefinition.withIntKeyMapping((Integer value) -> value));
+
+    final IllegalArgumentException exception =
+        assertThrows(IllegalArgumentException.class, () -> this.store.get("parity", Range.atLeast(0)));
+    assertTrue(exception.getMessage().contains("parity"), exception.getMessage());
+
+    assertThrows(IllegalArgumentException.class, () -> this.store.get(Query.where("parity", Range.atLeast(0))));
+    assertThrows(IllegalArgumentException.class, () -> this.store.createQuery().filter("int", Range.between(1, 5)));
+    assertThrows(IllegalArgumentException.class, () -> this.store.getFirst("int", Range.between(1, 5)));
+  }
+
+  @Test
+  void looksUpRanges() {
+    assertEquals(range(10, 20), this.index.range(Range.between(10, 20)));
+    assertEquals(range(11, 19), this.index.range(Range.between(10, false, 20, false)));
+    assertEquals(range(96, 99), this.index.range(Range.greaterThan(95)));
+    assertEquals(range(95, 99), this.index.range(Range.atLeast(95)));
+    assertEquals(range(0, 2), this.index.range(Range.lessThan(3)));
+    assertEquals(range(0, 3), this.index.range(Range.atMost(3)));
+    assertEquals(range(0, 99), this.index.ascending());
+    assertEquals(99, (int) this.index.descending().get(0));
+
+    assertTrue(this.index.range(Range.between(20, 10)).isEmpty());
+    assertTrue(this.index.range(Range.between(10, false, 10, true)).isEmpty());
+    assertEquals(Collections.singletonList(10), this.index.range(Range.between(10, 10)));
+  }
+
+  @Test
+  void findsFloorAndCeiling() {
+    this.store.remove(50);
+
+    assertEquals(49, (int) this.index.floor(50).get());
+    assertEquals(51, (int) this.index.ceiling(50).get());
+    assertFalse(this.index.floor(-1).isPresent());
+    assertFalse(this.index.ceiling(100).isPresent());
+  }
+
+  @Test
+  void rangeViewFollowsIndexChanges() {
+    final Set<Reference<Integer>> view = this.index.rangeReferences(Range.between(10, 19));
+    assertEquals(10, view.size());
+
+    this.store.remove(15);
+    this.store.remove(16);
+    assertEquals(8, view.size());
+
+    this.store.add(15);
+    assertEquals(9, view.size());
+    assertTrue(view.contains(this.index.getReferences(15).iterator().next()));
+    assertTrue(view.stream().noneMatch(reference -> reference.get() == 16));
+  }
+
+  @Test
+  void returnsValuesMappedToSeveralKeysOnce() {
+    final MemoryStore<List<Integer>> store = new MemoryStore<>();
+    store.index("keys", SortedIndexDefinition.withKeyMappings((List<Integer> value) -> value, Comparator.naturalOrder()));
+    store.add(Arrays.asList(1, 5, 9));
+    store.add(Arrays.asList(4, 6));
+    store.add(Collections.singletonList(20));
+
+    final SortedReferenceIndex<?, List<Integer>> index =
+        (SortedReferenceIndex<?, List<Integer>>) store.getIndexManager().getIndex("keys");
+
+    assertEquals(2, index.range(Range.between(1, 9)).size());
+    assertEquals(2, index.rangeReferences(Range.between(1, 9)).size());
+    assertEquals(1, index.range(Range.between(5, 5)).size());
+    assertEquals(3, index.ascending().size());
+  }
+
+  @Test
+  void estimatesRangesUpToTheBound() {
+    assertEquals(50, this.index.estimateSize(Range.between(0, 49), Integer.MAX_VALUE));
+    assertEquals(5, this.index.estimateSize(Range.all(), 5));
+    assertEquals(1, this.index.estimateSize(7, 5));
+    assertEquals(0, this.index.estimateSize(Range.greaterThan(99), 5));
+  }
+
+  @Test
+  void plansNarrowClauseFirst() {
+    final QueryPlanner<Integer> planner = new QueryPlanner<>(this.store.getIndexManager());
+    final QueryPlan<Integer> plan = planner.plan(Query.where("value", Range.all()).and("parity", 1).and("value", 3));
+
+    assertEquals("index 'value' key=3", plan.getSteps().get(0).describe());
+    assertEquals(Collections.singletonList(3), plan.execute(-1).stream().map(Reference::get).collect(Collectors.toList()));
+
+    final QueryPlan<Integer> ranges = planner.plan(Query.where("parity", 0).and("value", Range.between(10, 13)));
+    assertEquals(new HashSet<>(Arrays.asList(10, 12)),
+        ranges.execute(-1).stream().map(Reference::get).collect(Collectors.toSet()));
+    assertTrue(ranges.getSteps().get(0).describe().startsWith("index 'value'"));
+  }
+
+  private static List<Integer> range(final int from, final int to) {
+    final List<Integer> values = new ArrayList<>();
+    for (int value = from; value <= to; value++) {
+      values.add(value);
+    }
+
+    return values;
+  }
+}
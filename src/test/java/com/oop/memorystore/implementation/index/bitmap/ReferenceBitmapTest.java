@@ -0,0 +1,137 @@
+package com.oop.memorystore.implementation.index.bitmap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+import java.util.TreeSet;
+import org.junit.jupiter.api.Test;
+
+class ReferenceBitmapTest {
+
+    @Test
+    void matchesSortedSetWhileGrowingAndShrinking() {
+        final Random random = new Random(42);
+        final ReferenceBitmap bitmap = new ReferenceBitmap();
+        final TreeSet<Integer> expected = new TreeSet<>();
+
+        // dense enough for the first container to turn into a bitset and back into an array
+        for (int i = 0; i < 20_000; i++) {
+            final int id = random.nextInt(10_000);
+            bitmap.add(id);
+            expected.add(id);
+        }
+
+        assertContains(expected, bitmap);
+
+        for (int i = 0; i < 30_000; i++) {
+            final int id = random.nextInt(10_000);
+            bitmap.remove(id);
+            expected.remove(id);
+        }
+
+        assertContains(expected, bitmap);
+
+        expected.forEach(bitmap::remove);
+        assertTrue(bitmap.isEmpty());
+        assertEquals(0, bitmap.cardinality());
+    }
+
+    @Test
+    void spansContainers() {
+        final ReferenceBitmap bitmap = new ReferenceBitmap();
+        final TreeSet<Integer> expected = new TreeSet<>();
+
+        for (final int id : new int[] {0, 65_535, 65_536, 131_071, 1 << 20, Integer.MAX_VALUE}) {
+            bitmap.add(id);
+            expected.add(id);
+        }
+
+        bitmap.add(65_536);
+        assertContains(expected, bitmap);
+        assertFalse(bitmap.contains(65_537));
+        assertFalse(bitmap.contains(-1));
+    }
+
+    @Test
+    void combinesBitmaps() {
+        final Random random = new Random(7);
+
+        for (final int bound : new int[] {1000, 100_000, 300_000}) {
+            for (final int count : new int[] {10, 3000, 20_000}) {
+                final TreeSet<Integer> left = new TreeSet<>();
+                final TreeSet<Integer> right = new TreeSet<>();
+
+                for (int i = 0; i < count; i++) {
+                    left.add(random.nextInt(bound));
+                    right.add(random.nextInt(bound / 2 + 1));
+                }
+
+                final ReferenceBitmap leftBitmap = of(left);
+                final ReferenceBitmap rightBitmap = of(right);
+
+                final TreeSet<Integer> and = new TreeSet<>(left);
+                and.retainAll(right);
+                assertContains(and, ReferenceBitmap.and(leftBitmap, rightBitmap));
+
+                final TreeSet<Integer> or = new TreeSet<>(left);
+                or.addAll(right);
+                assertContains(or, ReferenceBitmap.or(leftBitmap, rightBitmap));
+
+                final TreeSet<Integer> andNot = new TreeSet<>(left);
+                andNot.removeAll(right);
+                assertContains(andNot, ReferenceBitmap.andNot(leftBitmap, rightBitmap));
+
+                // operands are left untouched
+                assertContains(left, leftBitmap);
+                assertContains(right, rightBitmap);
+            }
+        }
+    }
+
+    @Test
+    void copiesAreIndependent() {
+        final TreeSet<Integer> ids = new TreeSet<>();
+        for (int id = 0; id < 10_000; id += 2) {
+            ids.add(id);
+        }
+
+        final ReferenceBitmap bitmap = of(ids);
+        final ReferenceBitmap copy = bitmap.copy();
+        copy.add(1);
+        copy.remove(0);
+        bitmap.clear();
+
+        assertTrue(bitmap.isEmpty());
+        assertFalse(copy.contains(0));
+        assertTrue(copy.contains(1));
+        assertEquals(ids.size(), copy.cardinality());
+        assertTrue(copy.sizeInBytes() > 0);
+    }
+
+    private static ReferenceBitmap of(final Iterable<Integer> ids) {
+        final ReferenceBitmap bitmap = new ReferenceBitmap();
+        ids.forEach(bitmap::add);
+        return bitmap;
+    }
+
+    private static void assertContains(final TreeSet<Integer> expected, final ReferenceBitmap bitmap) {
+        final List<Integer> ids = new ArrayList<>();
+        final PrimitiveIterator.OfInt iterator = bitmap.iterator();
+        while (iterator.hasNext()) {
+            ids.add(iterator.nextInt());
+        }
+
+        assertEquals(new ArrayList<>(expected), ids);
+        assertEquals(expected.size(), bitmap.cardinality());
+        assertEquals(expected.isEmpty(), bitmap.isEmpty());
+
+        for (final int id : expected) {
+            assertTrue(bitmap.contains(id));
+        }
+    }
+}
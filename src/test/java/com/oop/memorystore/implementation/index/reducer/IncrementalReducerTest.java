@@ -0,0 +1,185 @@
+package com.oop.memorystore.implementation.index.reducer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.oop.memorystore.implementation.memory.MemoryStore;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class IncrementalReducerTest {
+
+  @Test
+  void maxReducerAdmitsTheNextMaxOnceTheMaxIsRemoved() {
+    final MemoryStore<Entry> store = new MemoryStore<>();
+    store.index("group", Entry::getGroup, new MaxReducer<>(Entry::getScore, false));
+
+    final Entry low = new Entry(1, 10);
+    final Entry high = new Entry(1, 30);
+    final Entry middle = new Entry(1, 20);
+    store.add(low);
+    store.add(high);
+    store.add(middle);
+
+    assertEquals(Collections.singletonList(high), store.get("group", 1));
+
+    store.remove(high);
+    assertEquals(Collections.singletonList(middle), store.get("group", 1));
+
+    store.remove(low);
+    assertEquals(Collections.singletonList(middle), store.get("group", 1));
+
+    store.remove(middle);
+    assertTrue(store.get("group", 1).isEmpty());
+  }
+
+  @Test
+  void minReducerRetainsTheMinPerKey() {
+    final MemoryStore<Entry> store = new MemoryStore<>();
+    store.index("group", Entry::getGroup, new MinReducer<>(Entry::getScore, false));
+
+    final Entry first = new Entry(1, 5);
+    final Entry second = new Entry(2, 7);
+    store.add(new Entry(1, 8));
+    store.add(first);
+    store.add(second);
+    store.add(new Entry(2, 9));
+
+    assertEquals(Collections.singletonList(first), store.get("group", 1));
+    assertEquals(Collections.singletonList(second), store.get("group", 2));
+  }
+
+  @Test
+  void limitReducerRetainingOldestAdmitsTheNextOldest() {
+    final MemoryStore<Entry> store = new MemoryStore<>();
+    store.index("group", Entry::getGroup, new LimitReducer<>(2, LimitReducer.Retain.OLDEST));
+
+    final List<Entry> entries = entries(1, 4);
+    entries.forEach(store::add);
+
+    assertEquals(set(entries.get(0), entries.get(1)), new HashSet<>(store.get("group", 1)));
+
+    store.remove(entries.get(0));
+    assertEquals(set(entries.get(1), entries.get(2)), new HashSet<>(store.get("group", 1)));
+
+    // removing an element which isn't retained leaves the retained ones alone
+    store.remove(entries.get(3));
+    assertEquals(set(entries.get(1), entries.get(2)), new HashSet<>(store.get("group", 1)));
+  }
+
+  @Test
+  void limitReducerRetainingNewestAdmitsTheNextNewest() {
+    final MemoryStore<Entry> store = new MemoryStore<>();
+    store.index("group", Entry::getGroup, new LimitReducer<>(2, LimitReducer.Retain.NEWEST));
+
+    final List<Entry> entries = entries(1, 4);
+    entries.forEach(store::add);
+
+    assertEquals(set(entries.get(2), entries.get(3)), new HashSet<>(store.get("group", 1)));
+
+    store.remove(entries.get(3));
+    assertEquals(set(entries.get(1), entries.get(2)), new HashSet<>(store.get("group", 1)));
+
+    // the admitted element is now the oldest retained one, the next add evicts it
+    final Entry added = new Entry(1, 0);
+    store.add(added);
+    assertEquals(set(entries.get(2), added), new HashSet<>(store.get("group", 1)));
+  }
+
+  @Test
+  void filteredReducerDropsMatchingElements() {
+    final MemoryStore<Entry> store = new MemoryStore<>();
+    store.index("group", Entry::getGroup, new FilteredReducer<>((Entry entry) -> entry.getScore() < 0));
+
+    final Entry kept = new Entry(1, 1);
+    store.add(kept);
+    store.add(new Entry(1, -1));
+
+    assertEquals(Collections.singletonList(kept), store.get("group", 1));
+    assertEquals(2, store.size());
+  }
+
+  @Test
+  void incrementalReducersMatchAFullReduce() {
+    final List<IncrementalReducer<Integer, Entry>> reducers =
+        Arrays.asList(
+            new MaxReducer<>(Entry::getScore, false),
+            new MinReducer<>(Entry::getScore, true),
+            new LimitReducer<>(3, LimitReducer.Retain.OLDEST),
+            new LimitReducer<>(3, LimitReducer.Retain.NEWEST),
+            new FilteredReducer<>((Entry entry) -> entry.getScore() % 3 == 0));
+
+    for (final IncrementalReducer<Integer, Entry> reducer : reducers) {
+      final MemoryStore<Entry> store = new MemoryStore<>();
+      store.index("incremental", Entry::getGroup, reducer);
+      // a plain reducer, every add and remove reduces the whole bucket again
+      store.index("full", Entry::getGroup, reducer::reduce);
+
+      final Random random = new Random(7);
+      final List<Entry> added = new ArrayList<>();
+
+      for (int operation = 0; operation < 2000; operation++) {
+        if (added.isEmpty() || random.nextInt(3) > 0) {
+          final Entry entry = new Entry(random.nextInt(5), random.nextInt(50));
+          added.add(entry);
+          store.add(entry);
+        } else {
+          store.remove(added.remove(random.nextInt(added.size())));
+        }
+
+        for (int group = 0; group < 5; group++) {
+          assertEquals(
+              new HashSet<>(store.get("full", group)),
+              new HashSet<>(store.get("incremental", group)),
+              reducer.getClass().getSimpleName() + " differs after operation " + operation);
+        }
+      }
+    }
+  }
+
+  private static List<Entry> entries(final int group, final int count) {
+    final List<Entry> entries = new ArrayList<>();
+    for (int score = 0; score < count; score++) {
+      entries.add(new Entry(group, score));
+    }
+
+    return entries;
+  }
+
+  private static HashSet<Entry> set(final Entry... entries) {
+    final HashSet<Entry> set = new HashSet<>();
+    for (final Entry entry : entries) {
+      set.add(entry);
+    }
+
+    return set;
+  }
+
+  private static final class Entry {
+    private final int group;
+    private final int score;
+
+    private Entry(final int group, final int score) {
+      this.group = group;
+      this.score = score;
+    }
+
+    int getGroup() {
+      return this.group;
+    }
+
+    int getScore() {
+      return this.score;
+    }
+
+    @Override
+    public String toString() {
+      return "Entry[group=" + this.group + ", score=" + this.score + "]";
+    }
+  }
+}
@@ -0,0 +1,112 @@
+package com.oop.memorystore.implementation.memory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.oop.memorystore.api.BulkLoad;
+import com.oop.memorystore.api.Store;
+import com.oop.memorystore.implementation.index.IntIndexDefinition;
+import com.oop.memorystore.implementation.index.SortedIndexDefinition;
+import com.oop.memorystore.implementation.query.Range;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class BulkLoadTest {
+
+    @Test
+    void valuesAreIndexedOnceTheLoadIsClosed() {
+        final MemoryStore<Integer> store = new MemoryStore<>();
+        store.index("mod10", (Integer value) -> value % 10);
+        store.index("int", IntIndexDefinition.withIntKeyMapping((Integer value) -> value % 10));
+        store.index("sorted", SortedIndexDefinition.withKeyMapping((Integer value) -> value, Comparator.naturalOrder()));
+
+        try (final BulkLoad bulkLoad = store.bulkLoad(1000)) {
+            store.addAll(values(0, 1000));
+
+            assertEquals(1000, store.size());
+            assertTrue(store.get("mod10", 3).isEmpty());
+        }
+
+        assertEquals(100, store.get("mod10", 3).size());
+        assertEquals(100, store.get("int", 3).size());
+        assertEquals(10, store.get("sorted", Range.between(10, 19)).size());
+
+        // values added after the load are indexed straight away
+        store.add(1000);
+        assertEquals(101, store.get("mod10", 0).size());
+    }
+
+    @Test
+    void valuesRemovedDuringTheLoadAreSkipped() {
+        final MemoryStore<Integer> store = new MemoryStore<>();
+        store.index("mod10", (Integer value) -> value % 10);
+
+        try (final BulkLoad bulkLoad = store.bulkLoad(100)) {
+            store.addAll(values(0, 100));
+            store.remove((Object) 3);
+            store.remove((Object) 13);
+        }
+
+        assertEquals(98, store.size());
+        assertEquals(8, store.get("mod10", 3).size());
+    }
+
+    @Test
+    void plainReducersRunOncePerKey() {
+        final AtomicInteger reductions = new AtomicInteger();
+        final MemoryStore<Integer> store = new MemoryStore<>();
+        store.index("mod10", (Integer value) -> value % 10, (key, elements) -> reductions.incrementAndGet());
+
+        try (final BulkLoad bulkLoad = store.bulkLoad(1000)) {
+            store.addAll(values(0, 1000));
+        }
+
+        assertEquals(10, reductions.get());
+    }
+
+    @Test
+    void onlyOneLoadAtATime() {
+        final MemoryStore<Integer> store = new MemoryStore<>();
+        final BulkLoad bulkLoad = store.bulkLoad(10);
+
+        assertThrows(IllegalStateException.class, () -> store.bulkLoad(10));
+
+        bulkLoad.close();
+        // closing again does nothing
+        bulkLoad.close();
+        store.bulkLoad(10).close();
+    }
+
+    @Test
+    void synchronizedStoresLoadUnderTheirLock() {
+        final MemoryStore<Integer> backing = new MemoryStore<>();
+        final Store<Integer> store = backing.synchronizedStore();
+        store.index("mod10", (Integer value) -> value % 10);
+
+        try (final BulkLoad bulkLoad = store.bulkLoad(100)) {
+            store.addAll(values(0, 100));
+        }
+
+        assertEquals(10, store.get("mod10", 3).size());
+    }
+
+    @Test
+    void unmodifiableStoresRejectLoads() {
+        final Store<Integer> store = new MemoryStore<Integer>().unmodifiableStore();
+
+        assertThrows(UnsupportedOperationException.class, () -> store.bulkLoad(10));
+    }
+
+    private static List<Integer> values(final int from, final int to) {
+        final List<Integer> values = new ArrayList<>(to - from);
+        for (int value = from; value < to; value++) {
+            values.add(value);
+        }
+
+        return values;
+    }
+}
@@ -0,0 +1,151 @@
+package com.oop.memorystore.implementation.offheap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.oop.memorystore.implementation.memory.MemoryStore;
+import com.oop.memorystore.implementation.snapshot.SnapshotCodec;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class OffHeapReferenceFactoryTest {
+  @TempDir
+  Path directory;
+
+  @Test
+  void directValuesAreDecodedOnEveryRead() {
+    final OffHeapReferenceFactory<Item> factory = OffHeapReferenceFactory.direct(CODEC, 1024);
+    final MemoryStore<Item> store = new MemoryStore<>(item -> ((Item) item).id, factory);
+    store.index("name", (Item item) -> item.name);
+
+    for (int id = 0; id < 100; id++) {
+      store.add(new Item(id, "name" + id % 10));
+    }
+
+    assertEquals(100, store.size());
+    assertEquals(10, store.get("name", "name3").size());
+    store.get("name", "name3").forEach(item -> assertEquals(3, item.id % 10));
+
+    final Item first = store.getFirst("name", "name3");
+    assertNotSame(first, store.getFirst("name", "name3"));
+    assertEquals(first, store.getFirst("name", "name3"));
+
+    assertTrue(factory.getUsedBytes() > 0);
+    assertTrue(factory.getAllocatedBytes() >= factory.getUsedBytes());
+  }
+
+  @Test
+  void mappedValuesSpanSegments() throws IOException {
+    final OffHeapReferenceFactory<Item> factory = OffHeapReferenceFactory.mapped(CODEC, this.directory, 256);
+    final MemoryStore<Item> store = new MemoryStore<>(item -> ((Item) item).id, factory);
+
+    final Map<Integer, String> expected = new TreeMap<>();
+    for (int id = 0; id < 200; id++) {
+      store.add(new Item(id, "name" + id));
+      expected.put(id, "name" + id);
+    }
+
+    assertEquals(expected, contents(store));
+    assertTrue(factory.getAllocatedBytes() > 256);
+
+    // the segment files are deleted once mapped
+    try (Stream<Path> files = Files.list(this.directory)) {
+      assertFalse(files.findAny().isPresent());
+    }
+  }
+
+  @Test
+  void valuesLargerThanASegmentGetTheirOwnSegment() {
+    final OffHeapReferenceFactory<Item> factory = OffHeapReferenceFactory.direct(CODEC, 64);
+    final MemoryStore<Item> store = new MemoryStore<>(item -> ((Item) item).id, factory);
+
+    final StringBuilder name = new StringBuilder();
+    for (int i = 0; i < 1000; i++) {
+      name.append((char) ('a' + i % 26));
+    }
+
+    store.add(new Item(1, "small"));
+    store.add(new Item(2, name.toString()));
+    store.add(new Item(3, "small"));
+
+    final Map<Integer, String> contents = contents(store);
+    assertEquals(name.toString(), contents.get(2));
+    assertEquals("small", contents.get(1));
+    assertEquals("small", contents.get(3));
+    assertTrue(factory.getAllocatedBytes() >= 1000);
+  }
+
+  @Test
+  void valuesAreIdentifiedByTheIdentityProvider() {
+    final MemoryStore<Item> store =
+        new MemoryStore<>(item -> ((Item) item).id, OffHeapReferenceFactory.direct(CODEC, 1024));
+    store.index("name", (Item item) -> item.name);
+
+    for (int id = 0; id < 10; id++) {
+      store.add(new Item(id, "name"));
+    }
+
+    assertTrue(store.remove(new Item(5, "")));
+    assertFalse(store.contains(new Item(5, "name")));
+    assertTrue(store.contains(new Item(6, "")));
+    assertEquals(9, store.get("name", "name").size());
+  }
+
+  @Test
+  void segmentSizeMustBePositive() {
+    assertThrows(IllegalArgumentException.class, () -> OffHeapReferenceFactory.direct(CODEC, 0));
+  }
+
+  static Map<Integer, String> contents(final Iterable<Item> store) {
+    final Map<Integer, String> contents = new TreeMap<>();
+    store.forEach(item -> contents.put(item.id, item.name));
+    return contents;
+  }
+
+  static final SnapshotCodec<Item> CODEC = new SnapshotCodec<Item>() {
+    @Override
+    public void write(final Item value, final DataOutput out) throws IOException {
+      out.writeInt(value.id);
+      out.writeUTF(value.name);
+    }
+
+    @Override
+    public Item read(final DataInput in) throws IOException {
+      return new Item(in.readInt(), in.readUTF());
+    }
+  };
+
+  /**
+   * Value identified by its id only, so values with the same id but another name are equal
+   */
+  static final class Item {
+    final int id;
+    final String name;
+
+    Item(final int id, final String name) {
+      this.id = id;
+      this.name = name;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+      return obj instanceof Item && ((Item) obj).id == this.id;
+    }
+
+    @Override
+    public int hashCode() {
+      return this.id;
+    }
+  }
+}
@@ -0,0 +1,157 @@
+package com.oop.memorystore.implementation.offheap;
+
+import static com.oop.memorystore.implementation.offheap.OffHeapReferenceFactoryTest.CODEC;
+import static com.oop.memorystore.implementation.offheap.OffHeapReferenceFactoryTest.contents;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.oop.memorystore.api.BulkLoad;
+import com.oop.memorystore.api.Store;
+import com.oop.memorystore.implementation.offheap.OffHeapReferenceFactoryTest.Item;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class TieredStoreTest {
+  @TempDir
+  Path directory;
+
+  @Test
+  void demotesValuesBeyondTheBudget() {
+    final TieredStore<Item> store = this.open(10);
+    store.index("name", (Item item) -> item.name);
+
+    final Map<Integer, String> expected = new TreeMap<>();
+    for (int id = 0; id < 100; id++) {
+      store.add(new Item(id, "name" + id % 10));
+      expected.put(id, "name" + id % 10);
+    }
+
+    assertEquals(10, store.getHotWeight());
+    assertEquals(90, store.getDemotions());
+    assertTrue(store.getColdBytes() > 0);
+
+    assertEquals(expected, contents(store));
+    assertEquals(10, store.getHotWeight());
+    assertTrue(store.getPromotions() >= 90);
+    assertEquals(10, store.get("name", "name3").size());
+  }
+
+  @Test
+  void indexingDoesNotMoveValuesBetweenTiers() {
+    final TieredStore<Item> store = this.open(10);
+    store.index("name", (Item item) -> item.name);
+    store.index("id", (Item item) -> item.id);
+
+    for (int id = 0; id < 1000; id++) {
+      store.add(new Item(id, "name" + id % 10));
+    }
+
+    assertEquals(990, store.getDemotions());
+    assertEquals(0, store.getPromotions());
+
+    store.reindex();
+    store.index("length", (Item item) -> item.name.length());
+    assertEquals(990, store.getDemotions());
+    assertEquals(0, store.getPromotions());
+
+    final List<Item> items = new ArrayList<>();
+    for (int id = 1000; id < 1100; id++) {
+      items.add(new Item(id, "name"));
+    }
+
+    try (BulkLoad ignored = store.bulkLoad(items.size())) {
+      store.addAll(items);
+    }
+
+    assertEquals(10, store.getHotWeight());
+    assertEquals(1090, store.getDemotions());
+    assertEquals(0, store.getPromotions());
+    assertEquals(100, store.get("name", "name").size());
+  }
+
+  @Test
+  void readsPromoteTheLeastRecentlyUsedValue() {
+    final TieredStore<Item> store = this.open(2);
+    store.index("id", (Item item) -> item.id);
+
+    store.add(new Item(0, "zero"));
+    store.add(new Item(1, "one"));
+    store.add(new Item(2, "two"));
+    assertEquals(1, store.getDemotions());
+
+    // 0 was demoted, reading it demotes 1, the least recently used of the hot values
+    assertEquals("zero", store.getFirst("id", 0).name);
+    assertEquals(1, store.getPromotions());
+    assertEquals(2, store.getDemotions());
+
+    assertEquals("two", store.getFirst("id", 2).name);
+    assertEquals(1, store.getPromotions());
+
+    assertEquals("one", store.getFirst("id", 1).name);
+    assertEquals(2, store.getPromotions());
+    assertEquals(2, store.getHotWeight());
+  }
+
+  @Test
+  void weigherBoundsTheHotTier() {
+    final TieredStore<Item> store =
+        new TieredStore<>(item -> ((Item) item).id, CODEC, this.directory, 10, item -> item.name.length());
+
+    store.add(new Item(0, "aaaa"));
+    store.add(new Item(1, "bbbb"));
+    assertEquals(8, store.getHotWeight());
+    assertEquals(0, store.getDemotions());
+
+    store.add(new Item(2, "cccc"));
+    assertEquals(8, store.getHotWeight());
+    assertEquals(1, store.getDemotions());
+  }
+
+  @Test
+  void removedValuesLeaveTheHotTier() {
+    final TieredStore<Item> store = this.open(10);
+    for (int id = 0; id < 20; id++) {
+      store.add(new Item(id, "name"));
+    }
+
+    assertTrue(store.remove(new Item(19, "")));
+    assertEquals(9, store.getHotWeight());
+    assertFalse(store.contains(new Item(19, "")));
+
+    store.clear();
+    assertEquals(0, store.getHotWeight());
+    assertTrue(store.isEmpty());
+
+    store.add(new Item(1, "again"));
+    assertEquals(1, store.getHotWeight());
+    assertEquals("again", contents(store).get(1));
+  }
+
+  @Test
+  void copiesShareTheTiers() {
+    final TieredStore<Item> store = this.open(5);
+    for (int id = 0; id < 20; id++) {
+      store.add(new Item(id, "name" + id));
+    }
+
+    final Store<Item> copy = store.copy();
+    assertEquals(contents(store), contents(copy));
+    assertEquals(5, store.getHotWeight());
+  }
+
+  @Test
+  void budgetMustNotBeNegative() {
+    assertThrows(IllegalArgumentException.class, () -> this.open(-1));
+  }
+
+  private TieredStore<Item> open(final long hotBudget) {
+    return new TieredStore<>(item -> ((Item) item).id, CODEC, this.directory, hotBudget);
+  }
+}
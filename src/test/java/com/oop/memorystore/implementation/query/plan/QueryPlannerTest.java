@@ -0,0 +1,137 @@
+package com.oop.memorystore.implementation.query.plan;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.oop.memorystore.implementation.memory.MemoryStore;
+import com.oop.memorystore.implementation.query.Operator;
+import com.oop.memorystore.implementation.query.Query;
+import com.oop.memorystore.implementation.query.QueryBuilder;
+import com.oop.memorystore.implementation.reference.Reference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.IntPredicate;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class QueryPlannerTest {
+    private MemoryStore<Integer> store;
+    private QueryPlanner<Integer> planner;
+
+    @BeforeEach
+    void setUp() {
+        this.store = new MemoryStore<>();
+        this.store.index("mod2", (Integer value) -> value % 2);
+        this.store.index("mod10", (Integer value) -> value % 10);
+        this.store.index("mod100", (Integer value) -> value % 100);
+
+        for (int value = 0; value < 1000; value++) {
+            this.store.add(value);
+        }
+
+        this.planner = new QueryPlanner<>(this.store.getIndexManager());
+    }
+
+    @Test
+    void andIsDrivenByTheSmallestBucket() {
+        final QueryPlan<Integer> plan = this.planner.plan(Query.where("mod2", 1).and("mod10", 3).and("mod100", 13));
+
+        assertEquals(Operator.AND, plan.getOperator());
+        assertEquals(
+            Arrays.asList("index 'mod100' key=13", "index 'mod10' key=3", "index 'mod2' key=1"),
+            plan.getSteps().stream().map(PlanStep::describe).collect(Collectors.toList()));
+        assertTrue(plan.explain().contains("1. index 'mod100' key=13 -> 10 references (driver)"), plan.explain());
+        assertEquals(expected(value -> value % 100 == 13), values(plan.execute(-1)));
+    }
+
+    @Test
+    void orKeepsDeclarationOrderAndSkipsDuplicates() {
+        final Query query = QueryBuilder.create().or("mod100", 7).or("mod10", 7).or("mod100", 17).build();
+        final QueryPlan<Integer> plan = this.planner.plan(query);
+
+        assertEquals(
+            Arrays.asList("index 'mod100' key=7", "index 'mod10' key=7", "index 'mod100' key=17"),
+            plan.getSteps().stream().map(PlanStep::describe).collect(Collectors.toList()));
+
+        final List<Integer> results = new ArrayList<>();
+        for (final Reference<Integer> reference : plan) {
+            results.add(reference.get());
+        }
+
+        assertEquals(100, results.size());
+        assertEquals(expected(value -> value % 10 == 7), new HashSet<>(results));
+
+        // the first clause is returned before anything else
+        assertEquals(expected(value -> value % 100 == 7), new HashSet<>(results.subList(0, 10)));
+    }
+
+    @Test
+    void emptyDriverShortCircuits() {
+        final QueryPlan<Integer> plan = this.planner.plan(Query.where("mod2", 0).and("mod10", 42));
+
+        assertTrue(plan.isEmpty());
+        assertTrue(plan.explain().contains("short-circuit"), plan.explain());
+        assertTrue(plan.execute(-1).isEmpty());
+    }
+
+    @Test
+    void missingIndexMatchesNothing() {
+        final QueryPlan<Integer> plan = this.planner.plan(Query.where("mod2", 0).and("missing", 1));
+
+        assertTrue(plan.isEmpty());
+        assertTrue(plan.explain().contains("(missing index)"), plan.explain());
+    }
+
+    @Test
+    void limitStopsTheScan() {
+        assertEquals(5, this.planner.plan(Query.where("mod2", 0).and("mod10", 4)).execute(5).size());
+        assertEquals(5, this.store.get(Query.where("mod10", 4), 5).size());
+    }
+
+    @Test
+    void removeHonoursEveryAndClause() {
+        final List<Integer> removed = this.store.remove(Query.where("mod10", 3).and("mod2", 1), -1);
+
+        assertEquals(expected(value -> value % 10 == 3), new HashSet<>(removed));
+        assertEquals(900, this.store.size());
+        assertTrue(this.store.get("mod10", 3).isEmpty());
+        assertEquals(400, this.store.get("mod2", 1).size());
+    }
+
+    @Test
+    void randomAndQueriesMatchAFullScan() {
+        final Random random = new Random(11);
+
+        for (int round = 0; round < 200; round++) {
+            final int mod2 = random.nextInt(2);
+            final int mod10 = random.nextInt(10);
+            final int mod100 = random.nextInt(100);
+
+            final Set<Integer> results =
+                new HashSet<>(this.store.get(Query.where("mod100", mod100).and("mod2", mod2).and("mod10", mod10)));
+
+            assertEquals(
+                expected(value -> value % 2 == mod2 && value % 10 == mod10 && value % 100 == mod100), results);
+        }
+    }
+
+    private static Set<Integer> values(final List<Reference<Integer>> references) {
+        return references.stream().map(Reference::get).collect(Collectors.toSet());
+    }
+
+    private static Set<Integer> expected(final IntPredicate predicate) {
+        final Set<Integer> expected = new HashSet<>();
+        for (int value = 0; value < 1000; value++) {
+            if (predicate.test(value)) {
+                expected.add(value);
+            }
+        }
+
+        return expected;
+    }
+}
@@ -0,0 +1,200 @@
+package com.oop.memorystore.implementation.reference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.oop.memorystore.api.Store;
+import com.oop.memorystore.implementation.identity.IdentityProvider;
+import com.oop.memorystore.implementation.index.IntIndexDefinition;
+import com.oop.memorystore.implementation.memory.MemoryStore;
+import com.oop.memorystore.implementation.query.Query;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ReclaimableReferenceTest {
+  private static final IdentityProvider BY_ID = item -> ((Item) item).id;
+
+  private ClearableReferenceFactory factory;
+  private MemoryStore<Item> store;
+
+  @BeforeEach
+  void setUp() {
+    this.factory = new ClearableReferenceFactory();
+    this.store = new MemoryStore<>(BY_ID, this.factory);
+    this.store.index("id", (Item item) -> item.id);
+    this.store.index("group", IntIndexDefinition.withIntKeyMapping((Item item) -> item.group));
+
+    for (int id = 0; id < 10; id++) {
+      this.store.add(new Item(id, id % 2));
+    }
+  }
+
+  @Test
+  void lookupsSkipReclaimedValues() {
+    this.factory.reclaim(0, false);
+    this.factory.reclaim(2, false);
+
+    assertNull(this.store.getFirst("id", 0));
+    assertEquals(3, this.store.get("group", 0).size());
+    assertEquals(3, this.store.get(Query.where("group", 0)).size());
+    assertEquals(4, this.store.createQuery().filter("group", 0).first().get().id);
+    assertEquals(3, this.store.createQuery().filter("group", 0).asStream().count());
+    assertFalse(this.store.createQuery().filter("id", 0).first().isPresent());
+  }
+
+  @Test
+  void iterationSkipsReclaimedValues() {
+    this.factory.reclaim(0, false);
+    this.factory.reclaim(9, false);
+
+    final List<Integer> ids = new ArrayList<>();
+    for (final Item item : this.store) {
+      ids.add(item.id);
+    }
+
+    assertEquals(8, ids.size());
+    assertFalse(ids.contains(0));
+    assertFalse(ids.contains(9));
+  }
+
+  @Test
+  void removingThroughIteratorRemovesReturnedValue() {
+    this.factory.reclaim(1, false);
+    final Iterator<Item> iterator = this.store.iterator();
+
+    assertThrows(IllegalStateException.class, iterator::remove);
+
+    while (iterator.hasNext()) {
+      if (iterator.next().group == 0) {
+        iterator.remove();
+      }
+    }
+
+    assertTrue(this.store.get("group", 0).isEmpty());
+    assertEquals(4, this.store.get("group", 1).size());
+  }
+
+  @Test
+  void removingAfterLookingAheadIsRejected() {
+    final Iterator<Item> iterator = this.store.iterator();
+    iterator.next();
+    iterator.hasNext();
+
+    assertThrows(IllegalStateException.class, iterator::remove);
+  }
+
+  @Test
+  void reclaimedValuesAreRemovedOnNextWrite() {
+    this.factory.reclaim(0, true);
+    this.factory.reclaim(1, true);
+    assertEquals(10, this.store.size());
+
+    this.store.add(new Item(10, 0));
+
+    assertEquals(9, this.store.size());
+    assertEquals(5, this.store.get("group", 0).size());
+    assertEquals(4, this.store.get("group", 1).size());
+  }
+
+  @Test
+  void reclaimedValuesAreRemovedFromEveryCopy() {
+    final Store<Item> copy = this.store.copy();
+    this.factory.reclaim(0, true);
+    this.factory.reclaim(2, true);
+
+    this.store.add(new Item(10, 0));
+    assertEquals(9, this.store.size());
+
+    copy.add(new Item(11, 1));
+    assertEquals(9, copy.size());
+    assertEquals(3, copy.get("group", 0).size());
+    assertEquals(9, copy.getIndexManager().getIndex("id").getStats().getReferenceCount());
+  }
+
+  @Test
+  void reindexingReclaimedValuesUnindexesThem() {
+    // cleared but not yet enqueued, so the store still holds the references while reindexing
+    this.factory.reclaim(0, false);
+    this.factory.reclaim(1, false);
+
+    this.store.reindex();
+
+    assertEquals(8, this.store.getIndexManager().getIndex("group").getStats().getReferenceCount());
+    assertEquals(8, this.store.getIndexManager().getIndex("id").getStats().getReferenceCount());
+    assertEquals(4, this.store.get("group", 0).size());
+  }
+
+  private static final class Item {
+    private final int id;
+    private final int group;
+
+    Item(final int id, final int group) {
+      this.id = id;
+      this.group = group;
+    }
+
+    @Override
+    public String toString() {
+      return String.valueOf(this.id);
+    }
+  }
+
+  /**
+   * Weak references which can be reclaimed on demand, so tests don't depend on the garbage collector
+   */
+  private static final class ClearableReferenceFactory extends ReclaimableReferenceFactory<Item> {
+    private final Map<Object, ClearableReference> references = new HashMap<>();
+
+    ClearableReferenceFactory() {
+      super(BY_ID);
+    }
+
+    @Override
+    protected ReclaimableReference<Item> createReference(
+        final Item obj, final Object identity, final int id, final ReferenceQueue<Item> queue) {
+      final ClearableReference reference = new ClearableReference(obj, identity, id, queue);
+      this.references.put(identity, reference);
+      return reference;
+    }
+
+    void reclaim(final int id, final boolean enqueue) {
+      final ClearableReference reference = this.references.get(id);
+      reference.clear();
+
+      if (enqueue) {
+        reference.enqueue();
+      }
+    }
+  }
+
+  private static final class ClearableReference extends WeakReference<Item> implements ReclaimableReference<Item> {
+    private final Object identity;
+    private final int id;
+
+    ClearableReference(final Item obj, final Object identity, final int id, final ReferenceQueue<Item> queue) {
+      super(obj, queue);
+      this.identity = identity;
+      this.id = id;
+    }
+
+    @Override
+    public Object getIdentity() {
+      return this.identity;
+    }
+
+    @Override
+    public int getId() {
+      return this.id;
+    }
+  }
+}
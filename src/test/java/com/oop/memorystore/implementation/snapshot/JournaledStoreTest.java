@@ -0,0 +1,297 @@
+package com.oop.memorystore.implementation.snapshot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.oop.memorystore.implementation.memory.MemoryStore;
+import com.oop.memorystore.implementation.query.Query;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class JournaledStoreTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void recoversMutationsFromJournal() throws IOException {
+        final int iteratorRemoved;
+        try (JournaledStore<Item> store = open()) {
+            for (int id = 0; id < 100; id++) {
+                store.add(new Item(id, "name" + id % 10));
+            }
+
+            store.remove(new Item(5, ""));
+            store.remove(Query.where("name", "name3"), Integer.MAX_VALUE);
+            store.removeIf(item -> item.id % 50 == 0);
+
+            final Iterator<Item> iterator = store.iterator();
+            iteratorRemoved = iterator.next().id;
+            iterator.remove();
+        }
+
+        final Map<Integer, String> expected = new TreeMap<>();
+        for (int id = 1; id < 100; id++) {
+            if (id != 5 && id % 10 != 3 && id % 50 != 0) {
+                expected.put(id, "name" + id % 10);
+            }
+        }
+        expected.remove(iteratorRemoved);
+
+        try (JournaledStore<Item> store = open()) {
+            assertEquals(expected, contents(store));
+            assertEquals(expected.size(), store.size());
+        }
+    }
+
+    @Test
+    void putOverStoredIdentityKeepsStoredValueOnRecovery() throws IOException {
+        try (JournaledStore<Item> store = open()) {
+            store.add(new Item(1, "first"));
+            assertFalse(store.add(new Item(1, "second")));
+            assertEquals("first", store.getFirst("id", 1).name);
+        }
+
+        try (JournaledStore<Item> store = open()) {
+            assertEquals("first", store.getFirst("id", 1).name);
+            assertEquals(1, store.get("name", "first").size());
+            assertTrue(store.get("name", "second").isEmpty());
+        }
+    }
+
+    @Test
+    void reindexedValueReplacesStoredValueOnRecovery() throws IOException {
+        try (JournaledStore<Item> store = open()) {
+            final Item item = new Item(1, "before");
+            store.add(item);
+            item.name = "after";
+            store.reindex(item);
+
+            // values which are not stored are ignored by reindexing, live and on recovery
+            store.reindex(new Item(2, "ghost"));
+        }
+
+        try (JournaledStore<Item> store = open()) {
+            assertEquals(1, store.size());
+            assertEquals("after", store.getFirst("id", 1).name);
+            assertEquals(1, store.get("name", "after").size());
+        }
+    }
+
+    @Test
+    void clearIsJournaled() throws IOException {
+        try (JournaledStore<Item> store = open()) {
+            store.add(new Item(1, "a"));
+            store.clear();
+            store.add(new Item(2, "b"));
+        }
+
+        try (JournaledStore<Item> store = open()) {
+            assertEquals(1, store.size());
+            assertNull(store.getFirst("id", 1));
+            assertEquals("b", store.getFirst("id", 2).name);
+        }
+    }
+
+    @Test
+    void dropsTornRecordAtEndOfJournal() throws IOException {
+        final long size;
+        try (JournaledStore<Item> store = open()) {
+            store.add(new Item(1, "a"));
+            store.add(new Item(2, "b"));
+            size = store.getJournalSize();
+        }
+
+        // length of a record whose payload was not fully written
+        try (FileChannel channel = FileChannel.open(this.journal(), StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.wrap(new byte[] {0, 0, 0, 20, 1, 7, 7}));
+        }
+
+        try (JournaledStore<Item> store = open()) {
+            assertEquals(2, store.size());
+            assertEquals(size, store.getJournalSize());
+            store.add(new Item(3, "c"));
+        }
+
+        try (JournaledStore<Item> store = open()) {
+            assertEquals(3, store.size());
+        }
+    }
+
+    @Test
+    void stopsReplayAtCorruptRecord() throws IOException {
+        final long firstRecord;
+        try (JournaledStore<Item> store = open()) {
+            store.add(new Item(1, "a"));
+            firstRecord = store.getJournalSize();
+            store.add(new Item(2, "b"));
+            store.add(new Item(3, "c"));
+        }
+
+        // flip a byte of the payload of the second record, its checksum no longer matches
+        try (FileChannel channel = FileChannel.open(this.journal(), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] {(byte) 0xff}), firstRecord + 6);
+        }
+
+        try (JournaledStore<Item> store = open()) {
+            assertEquals(1, store.size());
+            assertEquals("a", store.getFirst("id", 1).name);
+            assertEquals(firstRecord, store.getJournalSize());
+        }
+    }
+
+    @Test
+    void compactsIntoSnapshotPastThreshold() throws IOException {
+        try (JournaledStore<Item> store = JournaledStore.open(define(), this.directory, CODEC, FsyncPolicy.os(), 200)) {
+            for (int id = 0; id < 50; id++) {
+                store.add(new Item(id, "name"));
+                assertTrue(store.getJournalSize() <= 200);
+            }
+
+            store.remove(new Item(0, ""));
+        }
+
+        assertTrue(Files.exists(this.directory.resolve("store.snapshot")));
+
+        try (JournaledStore<Item> store = open()) {
+            assertEquals(49, store.size());
+            assertNull(store.getFirst("id", 0));
+            assertEquals(49, store.get("name", "name").size());
+        }
+    }
+
+    @Test
+    void replayOverSnapshotHoldingTheRecordsChangesNothing() throws IOException {
+        try (JournaledStore<Item> store = open()) {
+            store.add(new Item(1, "a"));
+            store.add(new Item(2, "b"));
+            store.remove(new Item(2, ""));
+
+            // a crash right after writing the snapshot leaves the journal in place
+            StoreSnapshot.write(
+                (MemoryStore<Item>) store.getStore(), this.directory.resolve("store.snapshot"), CODEC);
+        }
+
+        try (JournaledStore<Item> store = open()) {
+            assertEquals(1, store.size());
+            assertEquals("a", store.getFirst("id", 1).name);
+        }
+    }
+
+    @Test
+    void recoversWithEveryFsyncPolicy() throws IOException {
+        for (final FsyncPolicy policy : new FsyncPolicy[] {
+            FsyncPolicy.always(), FsyncPolicy.periodic(5, TimeUnit.MILLISECONDS), FsyncPolicy.os()}) {
+            final Path policyDirectory = this.directory.resolve(policy.getMode().name());
+
+            try (JournaledStore<Item> store = JournaledStore.open(define(), policyDirectory, CODEC, policy, 1 << 20)) {
+                for (int id = 0; id < 20; id++) {
+                    store.add(new Item(id, "name"));
+                }
+            }
+
+            try (JournaledStore<Item> store = JournaledStore.open(define(), policyDirectory, CODEC, policy, 1 << 20)) {
+                assertEquals(20, store.size(), policy.toString());
+            }
+        }
+    }
+
+    @Test
+    void closedStoreRejectsMutationsWithoutApplyingThem() throws IOException {
+        final JournaledStore<Item> store = open();
+        final Item item = new Item(1, "a");
+        store.add(item);
+        store.close();
+
+        assertThrows(IllegalStateException.class, () -> store.add(new Item(2, "b")));
+        assertThrows(IllegalStateException.class, () -> store.remove(item));
+        assertThrows(IllegalStateException.class, () -> store.removeIf(value -> true));
+        assertThrows(IllegalStateException.class, store::clear);
+        assertThrows(IllegalStateException.class, () -> store.reindex(item));
+        assertThrows(IllegalStateException.class, () -> store.reindex());
+
+        final Iterator<Item> iterator = store.iterator();
+        iterator.next();
+        assertThrows(IllegalStateException.class, iterator::remove);
+
+        assertEquals(1, store.size());
+        assertEquals("a", store.getFirst("id", 1).name);
+        assertNull(store.getFirst("id", 2));
+        store.close();
+
+        try (JournaledStore<Item> reopened = open()) {
+            assertEquals(1, reopened.size());
+        }
+    }
+
+    private JournaledStore<Item> open() throws IOException {
+        return JournaledStore.open(define(), this.directory, CODEC, FsyncPolicy.always(), 1 << 20);
+    }
+
+    private Path journal() {
+        return this.directory.resolve("store.journal");
+    }
+
+    private static MemoryStore<Item> define() {
+        final MemoryStore<Item> store = new MemoryStore<>();
+        store.index("id", (Item item) -> item.id);
+        store.index("name", (Item item) -> item.name);
+        return store;
+    }
+
+    private static Map<Integer, String> contents(final Iterable<Item> store) {
+        final Map<Integer, String> contents = new TreeMap<>();
+        store.forEach(item -> contents.put(item.id, item.name));
+        return contents;
+    }
+
+    private static final SnapshotCodec<Item> CODEC = new SnapshotCodec<Item>() {
+        @Override
+        public void write(final Item value, final DataOutput out) throws IOException {
+            out.writeInt(value.id);
+            out.writeUTF(value.name);
+        }
+
+        @Override
+        public Item read(final DataInput in) throws IOException {
+            return new Item(in.readInt(), in.readUTF());
+        }
+    };
+
+    /**
+     * Value identified by its id only, so values with the same id but another name are equal
+     */
+    private static final class Item {
+        private final int id;
+        private String name;
+
+        Item(final int id, final String name) {
+            this.id = id;
+            this.name = name;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            return obj instanceof Item && ((Item) obj).id == this.id;
+        }
+
+        @Override
+        public int hashCode() {
+            return this.id;
+        }
+    }
+}
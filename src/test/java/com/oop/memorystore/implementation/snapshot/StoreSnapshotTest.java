@@ -0,0 +1,211 @@
+package com.oop.memorystore.implementation.snapshot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.oop.memorystore.implementation.memory.MemoryStore;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class StoreSnapshotTest {
+    private static final int SIZE = 1000;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void restoresValuesAndIndexLayouts() throws IOException {
+        final Path path = this.directory.resolve("store.snapshot");
+        assertEquals(SIZE, StoreSnapshot.write(populate(create()), path, CODEC));
+        assertFalse(Files.exists(this.directory.resolve("store.snapshot.tmp")));
+
+        final Counting counting = new Counting();
+        final MemoryStore<Item> store = create(counting);
+        assertEquals(SIZE, StoreSnapshot.load(store, path, CODEC));
+
+        assertEquals(SIZE, store.size());
+        assertEquals(0, counting.calls, "layouts are restored without running key mappers");
+        assertEqualLookups(populate(create()), store);
+    }
+
+    @Test
+    void runsKeyMappersWhenLayoutsAreNotRestored() throws IOException {
+        final Path path = this.directory.resolve("store.snapshot");
+        StoreSnapshot.write(populate(create()), path, CODEC);
+
+        final Counting counting = new Counting();
+        final MemoryStore<Item> store = create(counting);
+        StoreSnapshot.load(store, path, CODEC, false);
+
+        assertEquals(SIZE, counting.calls);
+        assertEqualLookups(populate(create()), store);
+    }
+
+    @Test
+    void indexesWithUnsupportedKeysRunTheirKeyMappers() throws IOException {
+        final Path path = this.directory.resolve("store.snapshot");
+        final MemoryStore<Item> written = populate(create());
+        written.index("parity", (Item item) -> new Parity(item.id % 2));
+        StoreSnapshot.write(written, path, CODEC);
+
+        final Counting counting = new Counting();
+        final MemoryStore<Item> store = create(counting);
+        store.index("parity", (Item item) -> new Parity(item.id % 2));
+        StoreSnapshot.load(store, path, CODEC);
+
+        assertEquals(0, counting.calls);
+        assertEquals(SIZE / 2, store.get("parity", new Parity(1)).size());
+        assertEqualLookups(written, store);
+    }
+
+    @Test
+    void loadsStoredAndEmptySnapshots() throws IOException {
+        final Path path = this.directory.resolve("store.snapshot");
+        StoreSnapshot.write(create(), path, CODEC);
+
+        final MemoryStore<Item> store = create();
+        assertEquals(0, StoreSnapshot.load(store, path, CODEC));
+        assertTrue(store.isEmpty());
+
+        // writing over an existing snapshot replaces it
+        StoreSnapshot.write(populate(create()), path, CODEC);
+        assertEquals(SIZE, StoreSnapshot.load(create(), path, CODEC));
+    }
+
+    @Test
+    void rejectsNonEmptyStoresAndOtherFiles() throws IOException {
+        final Path path = this.directory.resolve("store.snapshot");
+        StoreSnapshot.write(populate(create()), path, CODEC);
+        assertThrows(IllegalStateException.class, () -> StoreSnapshot.load(populate(create()), path, CODEC));
+
+        final Path other = this.directory.resolve("other");
+        Files.write(other, new byte[] {1, 2, 3, 4, 5, 6, 7, 8});
+        assertThrows(IOException.class, () -> StoreSnapshot.load(create(), other, CODEC));
+    }
+
+    @Test
+    void encodesVariableLengthIntegers() throws IOException {
+        final int[] values = {0, 1, 127, 128, 16_383, 16_384, Integer.MAX_VALUE, -1};
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream out = new DataOutputStream(bytes);
+
+        for (final int value : values) {
+            StoreSnapshot.writeVarInt(out, value);
+        }
+
+        final DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        for (final int value : values) {
+            assertEquals(value, StoreSnapshot.readVarInt(in));
+        }
+    }
+
+    private static void assertEqualLookups(final MemoryStore<Item> expected, final MemoryStore<Item> actual) {
+        for (int key = 0; key < 10; key++) {
+            assertEquals(ids(expected.get("group", key)), ids(actual.get("group", key)));
+        }
+
+        for (final Item item : expected) {
+            assertEquals(item.id, actual.getFirst("id", item.id).id);
+            assertEquals(item.id, actual.getFirst("uuid", item.uuid).id);
+            assertEquals(ids(expected.get("name", item.name)), ids(actual.get("name", item.name)));
+        }
+    }
+
+    private static Set<Integer> ids(final Iterable<Item> items) {
+        final Set<Integer> ids = new HashSet<>();
+        items.forEach(item -> ids.add(item.id));
+        return ids;
+    }
+
+    private static MemoryStore<Item> populate(final MemoryStore<Item> store) {
+        for (int id = 0; id < SIZE; id++) {
+            store.add(new Item(id, new UUID(0, id), "name" + id % 37, id % 10));
+        }
+
+        return store;
+    }
+
+    private static MemoryStore<Item> create() {
+        return create(new Counting());
+    }
+
+    private static MemoryStore<Item> create(final Counting counting) {
+        final MemoryStore<Item> store = new MemoryStore<>();
+        store.index("id", (Item item) -> item.id);
+        store.index("uuid", (Item item) -> item.uuid);
+        store.index("name", (Item item) -> item.name);
+        store.index("group", (Item item) -> {
+            counting.calls++;
+            return item.group;
+        });
+        return store;
+    }
+
+    private static final SnapshotCodec<Item> CODEC = new SnapshotCodec<Item>() {
+        @Override
+        public void write(final Item value, final DataOutput out) throws IOException {
+            out.writeInt(value.id);
+            out.writeLong(value.uuid.getLeastSignificantBits());
+            out.writeUTF(value.name);
+            out.writeInt(value.group);
+        }
+
+        @Override
+        public Item read(final DataInput in) throws IOException {
+            return new Item(in.readInt(), new UUID(0, in.readLong()), in.readUTF(), in.readInt());
+        }
+    };
+
+    private static final class Counting {
+        private int calls;
+    }
+
+    private static final class Item {
+        private final int id;
+        private final UUID uuid;
+        private final String name;
+        private final int group;
+
+        Item(final int id, final UUID uuid, final String name, final int group) {
+            this.id = id;
+            this.uuid = uuid;
+            this.name = name;
+            this.group = group;
+        }
+    }
+
+    /**
+     * Key the key codec can't write
+     */
+    private static final class Parity {
+        private final int value;
+
+        Parity(final int value) {
+            this.value = value;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            return obj instanceof Parity && ((Parity) obj).value == this.value;
+        }
+
+        @Override
+        public int hashCode() {
+            return this.value;
+        }
+    }
+}
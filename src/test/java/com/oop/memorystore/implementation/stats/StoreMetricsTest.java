@@ -0,0 +1,123 @@
+package com.oop.memorystore.implementation.stats;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.oop.memorystore.implementation.SynchronizedStore;
+import com.oop.memorystore.implementation.expiring.ExpiringMemoryStore;
+import com.oop.memorystore.implementation.expiring.ManualTicker;
+import com.oop.memorystore.implementation.expiring.policy.ExpiringPolicy;
+import com.oop.memorystore.implementation.expiring.policy.TimedExpiringPolicy;
+import com.oop.memorystore.implementation.memory.MemoryStore;
+import com.oop.memorystore.implementation.query.Query;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class StoreMetricsTest {
+
+    @Test
+    void operationsAreReportedWithTheirCount() {
+        final RecordingMetrics metrics = new RecordingMetrics();
+        final MemoryStore<Integer> store = new MemoryStore<>();
+        store.index("mod10", (Integer value) -> value % 10);
+        store.setMetrics(metrics);
+
+        store.addAll(Arrays.asList(1, 2, 3, 11));
+        store.get("mod10", 1);
+        store.remove(2);
+        store.reindex();
+
+        assertEquals(
+            Arrays.asList("ADD:4", "lookup:mod10:true", "GET:2", "REMOVE:1", "REINDEX:3"), metrics.events);
+        assertTrue(metrics.timed);
+    }
+
+    @Test
+    void indexLookupsReportHitsAndMisses() {
+        final RecordingMetrics metrics = new RecordingMetrics();
+        final MemoryStore<Integer> store = new MemoryStore<>(1, 2, 3);
+        store.index("mod10", (Integer value) -> value % 10);
+        store.setMetrics(metrics);
+
+        store.get(Query.where("mod10", 9));
+        assertEquals(Arrays.asList("lookup:mod10:false", "GET:0"), metrics.events);
+
+        metrics.events.clear();
+        store.createQuery().filter("mod10", 1).collect(new ArrayList<>());
+        assertEquals(Arrays.asList("lookup:mod10:true", "FILTER:1"), metrics.events);
+    }
+
+    @Test
+    void expiredValuesAreReportedPerPolicy() {
+        final RecordingMetrics metrics = new RecordingMetrics();
+        final ManualTicker ticker = new ManualTicker(0);
+        final ExpiringPolicy<Integer, ?> policy =
+            TimedExpiringPolicy.create(10, TimeUnit.MILLISECONDS, false);
+        final ExpiringMemoryStore<Integer> store = new ExpiringMemoryStore<>(ticker, policy);
+        store.setMetrics(metrics);
+
+        store.addAll(Arrays.asList(1, 2));
+        metrics.events.clear();
+
+        ticker.advance(1, TimeUnit.SECONDS);
+        store.invalidate();
+
+        assertEquals(Collections.nCopies(2, "expire:" + policy.named()), metrics.events);
+    }
+
+    @Test
+    void synchronizedStoresReportLockWaits() {
+        final RecordingMetrics metrics = new RecordingMetrics();
+        final SynchronizedStore<Integer> store = new SynchronizedStore<>(new MemoryStore<>());
+        store.index("mod10", (Integer value) -> value % 10);
+        store.setMetrics(metrics);
+
+        store.add(1);
+        store.get("mod10", 1);
+
+        assertEquals(2, metrics.lockWaits);
+        assertTrue(metrics.events.contains("ADD:1"));
+    }
+
+    @Test
+    void unsetMetricsAreIgnored() {
+        final MemoryStore<Integer> store = new MemoryStore<>();
+        store.setMetrics(new RecordingMetrics());
+        store.setMetrics(null);
+
+        assertSame(StoreMetrics.NONE, store.getMetrics());
+        store.add(1);
+    }
+
+    private static final class RecordingMetrics implements StoreMetrics {
+        private final List<String> events = new ArrayList<>();
+        private boolean timed = true;
+        private int lockWaits;
+
+        @Override
+        public void onOperation(final Operation operation, final long nanos, final int count) {
+            this.events.add(operation + ":" + count);
+            this.timed &= nanos >= 0;
+        }
+
+        @Override
+        public void onIndexLookup(final String indexName, final boolean hit) {
+            this.events.add("lookup:" + indexName + ":" + hit);
+        }
+
+        @Override
+        public void onExpire(final String policyName) {
+            this.events.add("expire:" + policyName);
+        }
+
+        @Override
+        public void onLockWait(final long nanos) {
+            this.lockWaits++;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.oop.memorystore.implementation.stats;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.oop.memorystore.implementation.expiring.ExpiringMemoryStore;
+import com.oop.memorystore.implementation.expiring.ManualTicker;
+import com.oop.memorystore.implementation.expiring.policy.TimedExpiringPolicy;
+import com.oop.memorystore.implementation.index.reducer.MaxReducer;
+import com.oop.memorystore.implementation.memory.MemoryStore;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class StoreStatsTest {
+
+    @Test
+    void statsFollowStoredValues() {
+        final MemoryStore<Integer> store = new MemoryStore<>();
+        store.index("mod10", (Integer value) -> value % 10);
+
+        final StoreStats empty = store.getStats();
+        assertEquals(0, empty.getSize());
+        assertEquals(1, empty.getIndexes().size());
+        assertEquals(0, empty.getIndexes().get(0).getKeyCount());
+
+        store.addAll(values(1000));
+
+        final StoreStats stats = store.getStats();
+        assertEquals(1000, stats.getSize());
+        assertTrue(stats.getReferencesBytes() > empty.getReferencesBytes());
+
+        final IndexStats index = stats.getIndexes().get(0);
+        assertEquals("mod10", index.getName());
+        assertEquals(10, index.getKeyCount());
+        assertEquals(1000, index.getReferenceCount());
+        assertEquals(1000, index.getReducedReferenceCount());
+        assertTrue(index.getEstimatedBytes() > empty.getIndexes().get(0).getEstimatedBytes());
+        assertEquals(stats.getReferencesBytes() + index.getEstimatedBytes(), stats.getEstimatedBytes());
+    }
+
+    @Test
+    void histogramCountsBucketsBySizeClass() {
+        final MemoryStore<Integer> store = new MemoryStore<>();
+        store.index("mod10", (Integer value) -> value % 10);
+        store.index("identity", (Integer value) -> value);
+        store.addAll(values(1000));
+
+        final List<IndexStats> indexes = store.getStats().getIndexes();
+        final IndexStats mod10 = indexes.get(0).getName().equals("mod10") ? indexes.get(0) : indexes.get(1);
+        final IndexStats identity = mod10 == indexes.get(0) ? indexes.get(1) : indexes.get(0);
+
+        // 10 buckets of 100, 100 falls in the size class from 64 to 127
+        final long[] histogram = mod10.getBucketSizeHistogram();
+        assertEquals(IndexStats.sizeClass(100) + 1, histogram.length);
+        assertEquals(6, IndexStats.sizeClass(100));
+        assertEquals(10, histogram[6]);
+
+        assertEquals(1, identity.getBucketSizeHistogram().length);
+        assertEquals(1000, identity.getBucketSizeHistogram()[0]);
+    }
+
+    @Test
+    void reducedReferencesAreCountedSeparately() {
+        final MemoryStore<Integer> store = new MemoryStore<>();
+        store.index("mod10", (Integer value) -> value % 10, new MaxReducer<>((Integer value) -> value, false));
+        store.addAll(values(1000));
+
+        final IndexStats index = store.getStats().getIndexes().get(0);
+        assertEquals(1000, index.getReferenceCount());
+        assertEquals(10, index.getReducedReferenceCount());
+    }
+
+    @Test
+    void removedValuesAreNoLongerCounted() {
+        final MemoryStore<Integer> store = new MemoryStore<>();
+        store.index("mod10", (Integer value) -> value % 10);
+        store.addAll(values(100));
+        store.removeAll(values(100));
+
+        final StoreStats stats = store.getStats();
+        assertEquals(0, stats.getSize());
+        assertEquals(0, stats.getIndexes().get(0).getKeyCount());
+        assertEquals(0, stats.getIndexes().get(0).getReferenceCount());
+        assertEquals(0, stats.getIndexes().get(0).getBucketSizeHistogram().length);
+    }
+
+    @Test
+    void expiringStoresReportScheduledExpirations() {
+        final ManualTicker ticker = new ManualTicker(0);
+        final ExpiringMemoryStore<Integer> store =
+            new ExpiringMemoryStore<>(ticker, TimedExpiringPolicy.create(10, TimeUnit.MILLISECONDS, false));
+
+        final StoreStats empty = store.getStats();
+        assertEquals(0, empty.getScheduledExpirations());
+
+        store.addAll(values(100));
+
+        final StoreStats stats = store.getStats();
+        assertEquals(100, stats.getSize());
+        assertEquals(100, stats.getScheduledExpirations());
+        assertTrue(stats.getExpirationBytes() > empty.getExpirationBytes());
+        assertEquals(stats.getReferencesBytes() + stats.getExpirationBytes(), stats.getEstimatedBytes());
+        assertTrue(stats.toString().contains("scheduledExpirations=100"));
+
+        ticker.advance(1, TimeUnit.SECONDS);
+        store.invalidate();
+
+        assertEquals(0, store.getStats().getSize());
+        assertEquals(0, store.getStats().getScheduledExpirations());
+    }
+
+    private static List<Integer> values(final int count) {
+        final List<Integer> values = new ArrayList<>(count);
+        for (int value = 0; value < count; value++) {
+            values.add(value);
+        }
+
+        return values;
+    }
+}